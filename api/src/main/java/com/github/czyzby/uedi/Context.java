@@ -1,6 +1,8 @@
 package com.github.czyzby.uedi;
 
 import java.lang.reflect.Member;
+import java.util.Collection;
+import java.util.List;
 
 import com.github.czyzby.uedi.scanner.ClassScanner;
 import com.github.czyzby.uedi.stereotype.Destructible;
@@ -25,12 +27,56 @@ public interface Context {
      *            context. */
     void scan(Class<?> root);
 
+    /** Scans multiple package trees at once. Classpath is processed only once and all found components are created
+     * together, so constructor dependencies between components from different roots can be resolved. Prefer this
+     * method over multiple {@link #scan(Class)} calls.
+     *
+     * @param roots packages of these classes will become the scanning roots. All classes implementing interfaces from
+     *            {@link com.github.czyzby.uedi.stereotype} package will be found, initiated and included in the
+     *            context.
+     * @see #scan(Class) */
+    void scan(Class<?>... roots);
+
+    /** Incremental scan. Finds components in the selected packages, but creates, registers and initiates only the
+     * components of classes that were not scanned by this context yet. Existing components are not recreated or
+     * registered again, so this method can be used to hot-load new components (for example, plugins) at the cost
+     * proportional to the amount of new classes. New components can depend on any existing components.
+     *
+     * @param roots packages of these classes will become the scanning roots.
+     * @see #scan(Class...) */
+    void rescan(Class<?>... roots);
+
+    /** Loads a plugin. Works like {@link #rescan(Class...)}, but all providers, properties and destructible components
+     * registered during scanning are also stored in a separate registry of the plugin class loader, so they can be
+     * removed with {@link #unloadPlugin(ClassLoader)}. Plugin components can depend on any components of the context.
+     * Should not be invoked concurrently with other methods modifying the context.
+     *
+     * @param classLoader plugin class loader. Used as the plugin ID. Roots (and plugin components) should be loaded
+     *            by this class loader.
+     * @param roots packages of these classes will become the scanning roots. */
+    void loadPlugin(ClassLoader classLoader, Class<?>... roots);
+
+    /** Unloads a plugin. Removes all its providers from the class tree mappings, destroys its destructible components
+     * and drops all references to its components and classes, so the plugin class loader can be garbage collected
+     * (as long as the plugin components are not referenced by other components or external code).
+     *
+     * @param classLoader plugin class loader passed to {@link #loadPlugin(ClassLoader, Class...)}. If no plugin was
+     *            loaded with the class loader, this method does nothing. */
+    void unloadPlugin(ClassLoader classLoader);
+
     /** Allows to manually register a new singleton component in the context.
      *
      * @param component a fully initiated component instance. Will be registered in the context.
      * @see com.github.czyzby.uedi.stereotype.Singleton */
     void add(Object component);
 
+    /** Allows to register multiple singleton components at once. Might be faster than multiple {@link #add(Object)}
+     * calls, as the class trees can be processed once for the whole batch.
+     *
+     * @param components fully initiated component instances. Will be registered in the context in iteration order.
+     * @see #add(Object) */
+    void addAll(Collection<?> components);
+
     /** @param type might be available in the context.
      * @return true if there is a provider, factory or singleton matching this type. */
     boolean isAvailable(Class<?> type);
@@ -43,6 +89,16 @@ public interface Context {
      * @see #add(Object) */
     Context initiate(Object component);
 
+    /** Allows to fill fields of multiple components at once. Works like {@link #initiate(Object)}, but all components
+     * are injected before any of them is initiated: {@link com.github.czyzby.uedi.stereotype.Initiated} components
+     * are initiated in the order of their initiation priority across the whole batch. Might be faster than multiple
+     * {@link #initiate(Object)} calls, as injection data can be reused by components of the same class.
+     *
+     * @param components all of their non-primitive, empty, non-transient fields will be injected.
+     * @return this context, for chaining.
+     * @see #initiate(Object) */
+    Context initiateAll(Collection<?> components);
+
     /** Allows to manually register a new provider component in the context.
      *
      * @param provider a fully initiated provider used to supply an instance of a chosen class. Will be registered in
@@ -51,6 +107,13 @@ public interface Context {
      * @see #add(Object) */
     void addProvider(Provider<?> provider);
 
+    /** Allows to register multiple provider components at once. Might be faster than multiple
+     * {@link #addProvider(Provider)} calls, as the class trees can be processed once for the whole batch.
+     *
+     * @param providers fully initiated providers. Will be registered in the context in iteration order.
+     * @see #addProvider(Provider) */
+    void addProviders(Collection<? extends Provider<?>> providers);
+
     /** @param type providers associated with this type will be removed and context will no longer be aware of this
      *            class. Note that if {@link #isMapSuperTypes() mapping super types} is turned on, the providers might
      *            not be removed completely and still be mapped to the super classes or interfaces implemented by the
@@ -73,6 +136,13 @@ public interface Context {
      * @see com.github.czyzby.uedi.stereotype.Factory */
     void addFactory(Object factory);
 
+    /** Allows to register multiple factory components at once. Might be faster than multiple
+     * {@link #addFactory(Object)} calls, as the class trees can be processed once for the whole batch.
+     *
+     * @param factories fully initiated factories. Will be registered in the context in iteration order.
+     * @see #addFactory(Object) */
+    void addFactories(Collection<?> factories);
+
     /** @param name unique ID of the registered property.
      * @return current value of the property.
      * @see Property */
@@ -104,6 +174,25 @@ public interface Context {
      * @see #get(Class) */
     <Component> Component create(Class<Component> type);
 
+    /** @param type required type of components.
+     * @param count amount of created instances.
+     * @param <Component> class of requested components or one of interfaces or one of its super classes.
+     * @return list of new instances of the selected class created by the context. Works like
+     *         {@link #create(Class)}, but the constructor is resolved once for the whole batch and all instances are
+     *         injected before any of them is initiated.
+     * @see #create(Class, Object[])
+     * @see #initiateAll(java.util.Collection) */
+    <Component> List<Component> create(Class<Component> type, int count);
+
+    /** @param type required type of components.
+     * @param components will be filled with new instances of the selected class. Works like {@link #create(Class)},
+     *            but the constructor is resolved once for the whole batch and all instances are injected before any of
+     *            them is initiated.
+     * @param <Component> class of requested components or one of interfaces or one of its super classes.
+     * @return passed array, for chaining.
+     * @see #create(Class, int) */
+    <Component> Component[] create(Class<Component> type, Component[] components);
+
     /** @param type required type of component.
      * @param <Component> class of requested component or one of interfaces or one of its super classes.
      * @return an instance of the selected class or null if unavailable in context. */
@@ -228,8 +317,9 @@ public interface Context {
 
     /** @param ignore if true, {@link String} fields will not be injected even if null. By default, string fields are
      *            filled with registered {@link com.github.czyzby.uedi.stereotype.Property properties} with keys
-     *            matching their names. Change to false to ignore string fields similarly to fields with primitive
-     *            types.
+     *            matching their names. Change to true to ignore string fields similarly to other fields with types
+     *            unsupported by the context. Other typed fields converted from properties (if supported by the
+     *            context) are not affected.
      * @see com.github.czyzby.uedi.stereotype.Property */
     void setIgnoreStrings(boolean ignore);
 
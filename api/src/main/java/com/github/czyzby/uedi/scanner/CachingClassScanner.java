@@ -0,0 +1,11 @@
+package com.github.czyzby.uedi.scanner;
+
+/** Class scanner that caches its results. Since cached results do not include classes added after the scan, contexts
+ * invalidate the results of the selected roots before rescanning them.
+ *
+ * @author MJ */
+public interface CachingClassScanner extends ClassScanner {
+    /** @param roots cached results of scans that include any of packages of these classes will be discarded, forcing
+     *            another scan on the next request. Results of unrelated packages are not affected. */
+    void invalidate(Class<?>... roots);
+}
@@ -0,0 +1,10 @@
+package com.github.czyzby.uedi.scanner;
+
+/** Receives classes found by a {@link StreamingClassScanner} as soon as they are discovered.
+ *
+ * @author MJ */
+public interface ClassConsumer {
+    /** @param type was found by the scanner. Implements at least one of the requested interfaces, is not abstract and
+     *            is not an interface. */
+    void consume(Class<?> type);
+}
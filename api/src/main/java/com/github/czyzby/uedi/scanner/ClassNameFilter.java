@@ -0,0 +1,12 @@
+package com.github.czyzby.uedi.scanner;
+
+/** Allows to filter classes by their names before they are loaded by a {@link ClassScanner}. Useful for excluding
+ * packages with generated sources, test fixtures or other classes that can never be components.
+ *
+ * @author MJ
+ * @see FilteredClassScanner */
+public interface ClassNameFilter {
+    /** @param className fully qualified binary name of the class. Nested classes names use '$' separator.
+     * @return true if the class should be loaded and analyzed by the scanner. */
+    boolean accept(String className);
+}
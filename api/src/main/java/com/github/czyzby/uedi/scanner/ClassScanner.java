@@ -9,4 +9,13 @@ public interface ClassScanner {
      * @return all classes implementing at least one of passed interfaces in the selected package tree. None of the
      *         classes should be abstract or an interface. */
     Iterable<Class<?>> getClassesImplementing(Class<?> root, Class<?>... interfaces);
+
+    /** @param roots class scanning should start from packages of these classes. Classpath should be processed only
+     *            once, regardless of the amount of roots.
+     * @param interfaces all classes implementing at least one of these interfaces should be found.
+     * @return all classes implementing at least one of passed interfaces in any of the selected package trees. Each
+     *         class should be returned only once, even if it belongs to multiple (nested) package trees. None of the
+     *         classes should be abstract or an interface.
+     * @see #getClassesImplementing(Class, Class...) */
+    Iterable<Class<?>> getClassesImplementing(Class<?>[] roots, Class<?>... interfaces);
 }
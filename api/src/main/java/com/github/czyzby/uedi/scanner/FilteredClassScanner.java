@@ -0,0 +1,14 @@
+package com.github.czyzby.uedi.scanner;
+
+/** Class scanner that filters class names before loading the classes.
+ *
+ * @author MJ */
+public interface FilteredClassScanner extends ClassScanner {
+    /** @return current class name filter. Might be null if all classes in the scanned packages are analyzed. */
+    ClassNameFilter getClassNameFilter();
+
+    /** @param classNameFilter will be used to filter class names before loading the classes. Classes rejected by the
+     *            filter will never be returned by the scanner. Can be null to analyze all classes in the scanned
+     *            packages. */
+    void setClassNameFilter(ClassNameFilter classNameFilter);
+}
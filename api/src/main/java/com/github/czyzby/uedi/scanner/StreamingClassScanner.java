@@ -0,0 +1,16 @@
+package com.github.czyzby.uedi.scanner;
+
+/** Class scanner able to pass found classes as soon as they are discovered, before the whole classpath is processed.
+ * Contexts might use this scanner to create components in the meantime, instead of waiting for all scanning results.
+ *
+ * @author MJ */
+public interface StreamingClassScanner extends ClassScanner {
+    /** @param roots class scanning should start from packages of these classes.
+     * @param consumer will receive each class implementing at least one of passed interfaces in any of the selected
+     *            package trees as soon as it is found. Each class should be passed only once. None of the classes
+     *            should be abstract or an interface. Classes might be passed from a different thread than the one
+     *            that invoked the scanning, but never concurrently.
+     * @param interfaces all classes implementing at least one of these interfaces should be found.
+     * @see #getClassesImplementing(Class[], Class...) */
+    void scanClassesImplementing(Class<?>[] roots, ClassConsumer consumer, Class<?>... interfaces);
+}
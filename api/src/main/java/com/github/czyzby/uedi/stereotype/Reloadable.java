@@ -0,0 +1,16 @@
+package com.github.czyzby.uedi.stereotype;
+
+import java.util.List;
+
+/** Allows components to react to configuration changes. If the context tracks property injections, fields injected
+ * with properties are re-injected when the properties are reloaded, and then the components implementing this
+ * interface are notified.
+ *
+ * @author MJ
+ * @see Property */
+public interface Reloadable {
+    /** Will be invoked after fields of the component were re-injected with reloaded properties.
+     *
+     * @param keys keys of the changed properties that were injected into the component. */
+    void reload(List<String> keys);
+}
@@ -4,6 +4,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -12,14 +14,24 @@ import java.lang.reflect.Member;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import com.github.czyzby.uedi.error.circular.CircularErrorA;
+import com.github.czyzby.uedi.multiple.dependent.DependentRoot;
+import com.github.czyzby.uedi.multiple.dependent.DependentSingleton;
+import com.github.czyzby.uedi.multiple.independent.IndependentRoot;
+import com.github.czyzby.uedi.multiple.independent.IndependentSingleton;
+import com.github.czyzby.uedi.multiple.shared.SharedRoot;
+import com.github.czyzby.uedi.multiple.shared.SharedSingleton;
+import com.github.czyzby.uedi.multiple.sharedprefix.SharedPrefixRoot;
+import com.github.czyzby.uedi.multiple.sharedprefix.SharedPrefixSingleton;
 import com.github.czyzby.uedi.scanner.ClassScanner;
 import com.github.czyzby.uedi.stereotype.Provider;
 import com.github.czyzby.uedi.test.Root;
@@ -40,6 +52,7 @@ import com.github.czyzby.uedi.test.classpath.InterfaceUser;
 import com.github.czyzby.uedi.test.custom.CustomFactory;
 import com.github.czyzby.uedi.test.custom.CustomFactory.CustomComponent;
 import com.github.czyzby.uedi.test.custom.CustomSingleton;
+import com.github.czyzby.uedi.test.custom.NamedCustom;
 import com.github.czyzby.uedi.test.inject.AbstractWithFields;
 import com.github.czyzby.uedi.test.inject.Built;
 import com.github.czyzby.uedi.test.inject.CircularA;
@@ -51,7 +64,9 @@ import com.github.czyzby.uedi.test.inject.InjectProperty;
 import com.github.czyzby.uedi.test.inject.Injected;
 import com.github.czyzby.uedi.test.inject.Injector;
 import com.github.czyzby.uedi.test.inject.Provided;
+import com.github.czyzby.uedi.test.inject.TypedProperties;
 import com.github.czyzby.uedi.test.inject.UsingAbstractWithFields;
+import com.github.czyzby.uedi.test.lifecycle.BatchInitiated;
 import com.github.czyzby.uedi.test.lifecycle.DestroyedA;
 import com.github.czyzby.uedi.test.lifecycle.DestroyedB;
 import com.github.czyzby.uedi.test.lifecycle.DestroyedC;
@@ -257,6 +272,43 @@ public abstract class ContextTest {
         assertTrue(initiatedA.wasInitiated());
     }
 
+    @Test
+    public void shouldInitiateMultipleComponentsOnDemand() {
+        final BatchInitiated first = new BatchInitiated(5);
+        final BatchInitiated second = new BatchInitiated(-5);
+        final BatchInitiated third = new BatchInitiated(0);
+        first.sibling = third;
+        context.initiateAll(Arrays.asList(first, second, third));
+        for (final BatchInitiated component : Arrays.asList(first, second, third)) {
+            assertTrue(component.wasInitiated());
+            assertSame(context.get(Injected.class), component.injected);
+        }
+        assertTrue(first.wasSiblingInjected()); // All components are injected before initiation.
+        assertTrue(second.getActualOrder() < third.getActualOrder());
+        assertTrue(third.getActualOrder() < first.getActualOrder());
+    }
+
+    @Test
+    public void shouldCreateMultipleInstances() {
+        final List<InitiatedA> components = context.create(InitiatedA.class, 3);
+        assertEquals(3, components.size());
+        for (final InitiatedA component : components) {
+            assertTrue(component.wasInitiated());
+            assertTrue(component.wereDependenciesNotNull());
+            assertNotSame(context.get(InitiatedA.class), component);
+        }
+        assertNotSame(components.get(0), components.get(1));
+        assertTrue(context.create(InitiatedA.class, 0).isEmpty());
+    }
+
+    @Test
+    public void shouldFillArrayWithNewInstances() {
+        final InitiatedA[] components = context.create(InitiatedA.class, new InitiatedA[2]);
+        assertTrue(components[0].wasInitiated());
+        assertTrue(components[1].wereDependenciesNotNull());
+        assertNotSame(components[0], components[1]);
+    }
+
     @Test
     public void shouldInitiateComponentsCreatedOnDemand() {
         final InitiatedA initiatedA = context.create(InitiatedA.class);
@@ -432,6 +484,96 @@ public abstract class ContextTest {
         assertEquals("new value", context.getProperty("custom"));
     }
 
+    @Test
+    public void shouldInjectTypedProperties() {
+        context.setProperty("count", "42");
+        context.setProperty("enabled", "true");
+        context.setProperty("ratio", "0.5");
+        context.setProperty("separator", ";");
+        context.setProperty("timeout", "30s");
+        context.setProperty("limit", " 100 ");
+        context.setProperty("boxedTimeout", "1500");
+        context.setProperty("unit", "seconds");
+        context.setProperty("assigned", "8");
+        context.setProperty("initialized", "2");
+        context.setProperty("name", "typed");
+        final TypedProperties properties = context.create(TypedProperties.class);
+        assertEquals(42, properties.count);
+        assertTrue(properties.enabled);
+        assertEquals(0.5, properties.ratio, 0.0001);
+        assertEquals(';', properties.separator);
+        assertEquals(30000L, properties.timeout);
+        assertEquals(Integer.valueOf(100), properties.limit);
+        assertEquals(Long.valueOf(1500L), properties.boxedTimeout);
+        assertEquals(TimeUnit.SECONDS, properties.unit);
+        assertNull(properties.missing);
+        assertEquals(Integer.valueOf(7), properties.assigned); // Not empty - not injected.
+        assertEquals(1, properties.initialized); // Not a default primitive value - not injected.
+        assertEquals("typed", properties.name);
+    }
+
+    @Test
+    public void shouldReconvertTypedPropertiesAfterValueChange() {
+        context.setProperty("count", "5");
+        assertEquals(5, context.create(TypedProperties.class).count);
+        assertEquals(5, context.create(TypedProperties.class).count);
+        context.setProperty("count", "6");
+        assertEquals(6, context.create(TypedProperties.class).count);
+    }
+
+    @Test
+    public void shouldNotInjectPrimitivesWithoutProperties() {
+        final TypedProperties properties = context.create(TypedProperties.class);
+        assertEquals(0, properties.count);
+        assertEquals(1, properties.initialized);
+        assertFalse(properties.enabled);
+        assertNull(properties.limit);
+        assertNull(properties.unit);
+    }
+
+    @Test
+    public void shouldInjectTypedFieldsWithProvidersIfStringsAreIgnored() {
+        context.setIgnoreStrings(true);
+        context.setProperty("count", "5");
+        context.setProperty("name", "ignored");
+        context.addProvider(new Provider<Integer>() {
+            @Override
+            public Class<? extends Integer> getType() {
+                return Integer.class;
+            }
+
+            @Override
+            public Integer provide(final Object target, final Member member) {
+                return Integer.valueOf(42);
+            }
+        });
+        context.addProvider(new Provider<TimeUnit>() {
+            @Override
+            public Class<? extends TimeUnit> getType() {
+                return TimeUnit.class;
+            }
+
+            @Override
+            public TimeUnit provide(final Object target, final Member member) {
+                return TimeUnit.SECONDS;
+            }
+        });
+        final TypedProperties properties = context.create(TypedProperties.class);
+        // Only string fields should be ignored - other typed fields are still injected:
+        assertEquals(5, properties.count);
+        assertEquals(Integer.valueOf(42), properties.limit);
+        assertEquals(Integer.valueOf(42), properties.missing);
+        assertEquals(TimeUnit.SECONDS, properties.unit);
+        assertEquals(Integer.valueOf(7), properties.assigned);
+        assertNull(properties.name);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldFailToInjectInvalidTypedProperty() {
+        context.setProperty("count", "not a number");
+        context.create(TypedProperties.class);
+    }
+
     @Test
     public void shouldAddCustomSingleton() {
         assertFalse(context.isAvailable(CustomSingleton.class));
@@ -472,6 +614,60 @@ public abstract class ContextTest {
         assertNotEquals(context.get(CustomComponent.class), context.get(CustomComponent.class));
     }
 
+    @Test
+    public void shouldAddMultipleSingletons() {
+        final CustomSingleton custom = new CustomSingleton();
+        final NamedCustom first = new NamedCustom("first");
+        final NamedCustom second = new NamedCustom("second");
+        final NamedCustom third = new NamedCustom("third");
+        context.add(first);
+        context.addAll(Arrays.asList(custom, second, third));
+        assertSame(custom, context.get(CustomSingleton.class));
+        assertSame(first, context.get("first", NamedCustom.class));
+        assertSame(second, context.get("second", NamedCustom.class));
+        assertSame(third, context.get("third", NamedCustom.class));
+    }
+
+    @Test
+    public void shouldAddMultipleFactories() {
+        assertFalse(context.isAvailable(CustomComponent.class));
+        final CustomFactory custom = new CustomFactory();
+        context.addFactories(Arrays.asList(custom));
+        assertTrue(context.isAvailable(CustomFactory.class));
+        assertEquals(custom.getComponent(), context.get(CustomComponent.class));
+    }
+
+    @Test
+    public void shouldAddMultipleProviders() {
+        assertFalse(context.isAvailable(CustomComponent.class));
+        assertFalse(context.isAvailable(NamedCustom.class));
+        final Provider<CustomComponent> componentProvider = new Provider<CustomComponent>() {
+            @Override
+            public Class<? extends CustomComponent> getType() {
+                return CustomComponent.class;
+            }
+
+            @Override
+            public CustomComponent provide(final Object target, final Member member) {
+                return new CustomComponent();
+            }
+        };
+        final Provider<NamedCustom> namedProvider = new Provider<NamedCustom>() {
+            @Override
+            public Class<? extends NamedCustom> getType() {
+                return NamedCustom.class;
+            }
+
+            @Override
+            public NamedCustom provide(final Object target, final Member member) {
+                return new NamedCustom(member == null ? null : member.getName());
+            }
+        };
+        context.addProviders(Arrays.<Provider<?>> asList(componentProvider, namedProvider));
+        assertNotEquals(context.get(CustomComponent.class), context.get(CustomComponent.class));
+        assertEquals("name", context.get("name", NamedCustom.class).getName());
+    }
+
     @Test(expected = RuntimeException.class)
     public void shouldThrowExceptionForUnknownComponent() {
         context.get(Assert.class);
@@ -481,4 +677,54 @@ public abstract class ContextTest {
     public void shouldThrowExceptionWhenCircularConstructorDependencyIsDetected() {
         context.scan(CircularErrorA.class);
     }
+
+    @Test
+    public void shouldScanMultipleRootsAtOnce() {
+        assertFalse(context.isAvailable(DependentSingleton.class));
+        assertFalse(context.isAvailable(IndependentSingleton.class));
+        // DependentSingleton requires IndependentSingleton in its constructor, but it is scanned first. Since both
+        // roots are processed together, the dependency should still be resolved.
+        context.scan(DependentRoot.class, IndependentRoot.class);
+        assertNotNull(context.get(DependentSingleton.class));
+        assertEquals(context.get(IndependentSingleton.class), context.get(DependentSingleton.class).getIndependent());
+    }
+
+    @Test
+    public void shouldNotDuplicateComponentsOfRepeatedRoots() {
+        context.scan(IndependentRoot.class, IndependentRoot.class, DependentRoot.class);
+        // Ambiguous dependencies would throw an exception:
+        assertNotNull(context.get(IndependentSingleton.class));
+    }
+
+    @Test
+    public void shouldScanSiblingRootsSharingPackagePrefix() {
+        // "multiple.sharedprefix" starts with "multiple.shared", but it is not nested in it:
+        context.scan(SharedRoot.class, SharedPrefixRoot.class);
+        assertNotNull(context.get(SharedSingleton.class));
+        assertNotNull(context.get(SharedPrefixSingleton.class));
+    }
+
+    @Test
+    public void shouldCreateOnlyNewComponentsOnRescan() {
+        context.scan(IndependentRoot.class);
+        final IndependentSingleton independent = context.get(IndependentSingleton.class);
+        assertFalse(context.isAvailable(DependentSingleton.class));
+
+        context.rescan(IndependentRoot.class, DependentRoot.class);
+
+        // Existing component should not be recreated - ambiguous dependencies would throw an exception:
+        assertSame(independent, context.get(IndependentSingleton.class));
+        assertNotNull(context.get(DependentSingleton.class));
+        assertSame(independent, context.get(DependentSingleton.class).getIndependent());
+    }
+
+    @Test
+    public void shouldIgnoreRescanWithoutNewComponents() {
+        context.scan(IndependentRoot.class);
+        final IndependentSingleton independent = context.get(IndependentSingleton.class);
+
+        context.rescan(IndependentRoot.class);
+
+        assertSame(independent, context.get(IndependentSingleton.class));
+    }
 }
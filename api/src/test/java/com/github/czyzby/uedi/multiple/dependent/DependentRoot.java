@@ -0,0 +1,7 @@
+package com.github.czyzby.uedi.multiple.dependent;
+
+/** Classpath scanning root. Classes in this package depend on components from another root package.
+ *
+ * @author MJ */
+public class DependentRoot {
+}
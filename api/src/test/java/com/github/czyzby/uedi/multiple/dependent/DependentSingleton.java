@@ -0,0 +1,16 @@
+package com.github.czyzby.uedi.multiple.dependent;
+
+import com.github.czyzby.uedi.multiple.independent.IndependentSingleton;
+import com.github.czyzby.uedi.stereotype.Singleton;
+
+public class DependentSingleton implements Singleton {
+    private final IndependentSingleton independent;
+
+    public DependentSingleton(final IndependentSingleton independent) {
+        this.independent = independent;
+    }
+
+    public IndependentSingleton getIndependent() {
+        return independent;
+    }
+}
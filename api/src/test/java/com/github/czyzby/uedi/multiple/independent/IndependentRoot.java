@@ -0,0 +1,7 @@
+package com.github.czyzby.uedi.multiple.independent;
+
+/** Classpath scanning root. Classes in this package are required by components from another root package.
+ *
+ * @author MJ */
+public class IndependentRoot {
+}
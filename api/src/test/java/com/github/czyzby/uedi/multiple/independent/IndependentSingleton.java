@@ -0,0 +1,6 @@
+package com.github.czyzby.uedi.multiple.independent;
+
+import com.github.czyzby.uedi.stereotype.Singleton;
+
+public class IndependentSingleton implements Singleton {
+}
@@ -0,0 +1,7 @@
+package com.github.czyzby.uedi.multiple.shared;
+
+/** Classpath scanning root. Name of this package is a prefix of another root package, although it does not contain it.
+ *
+ * @author MJ */
+public class SharedRoot {
+}
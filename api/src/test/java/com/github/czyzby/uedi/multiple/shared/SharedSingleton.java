@@ -0,0 +1,6 @@
+package com.github.czyzby.uedi.multiple.shared;
+
+import com.github.czyzby.uedi.stereotype.Singleton;
+
+public class SharedSingleton implements Singleton {
+}
@@ -0,0 +1,7 @@
+package com.github.czyzby.uedi.multiple.sharedprefix;
+
+/** Classpath scanning root. Name of this package starts with the name of a sibling root package.
+ *
+ * @author MJ */
+public class SharedPrefixRoot {
+}
@@ -0,0 +1,6 @@
+package com.github.czyzby.uedi.multiple.sharedprefix;
+
+import com.github.czyzby.uedi.stereotype.Singleton;
+
+public class SharedPrefixSingleton implements Singleton {
+}
@@ -0,0 +1,12 @@
+package com.github.czyzby.uedi.plugin;
+
+/** Host interface implemented by plugin components.
+ *
+ * @author MJ */
+public interface PluginService {
+    /** Name of the property set when the plugin is destroyed. */
+    String STATE_PROPERTY = "pluginState";
+
+    /** @return name of the service. */
+    String getServiceName();
+}
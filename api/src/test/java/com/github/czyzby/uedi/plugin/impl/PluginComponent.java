@@ -0,0 +1,25 @@
+package com.github.czyzby.uedi.plugin.impl;
+
+import com.github.czyzby.uedi.Context;
+import com.github.czyzby.uedi.plugin.PluginService;
+import com.github.czyzby.uedi.stereotype.Destructible;
+import com.github.czyzby.uedi.stereotype.Singleton;
+
+public class PluginComponent implements PluginService, Singleton, Destructible {
+    private Context context;
+
+    @Override
+    public String getServiceName() {
+        return "plugin";
+    }
+
+    @Override
+    public int getDestructionOrder() {
+        return 0;
+    }
+
+    @Override
+    public void destroy() {
+        context.setProperty(STATE_PROPERTY, "destroyed");
+    }
+}
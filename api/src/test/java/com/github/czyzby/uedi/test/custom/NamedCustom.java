@@ -0,0 +1,17 @@
+package com.github.czyzby.uedi.test.custom;
+
+import com.github.czyzby.uedi.stereotype.Named;
+
+// Not a component, registered manually. Multiple instances are registered with different names.
+public class NamedCustom implements Named {
+    private final String name;
+
+    public NamedCustom(final String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.czyzby.uedi.test.inject;
+
+import java.util.Collections;
+import java.util.Map;
+
+// Not a component, created manually. Map fields are injected with properties prefixed with the field names.
+public class PropertyMaps {
+    public Map<String, String> pool;
+    public Map<String, Integer> limits;
+    public Map<String, String> assigned = Collections.emptyMap();
+}
@@ -0,0 +1,22 @@
+package com.github.czyzby.uedi.test.inject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.czyzby.uedi.stereotype.Reloadable;
+
+// Not a component, created manually. Fields are injected with properties and updated when they are reloaded.
+public class ReloadableProperties implements Reloadable {
+    public String name;
+    public int count;
+    public Integer limit;
+    public String assigned = "assigned";
+    public final List<String> reloadedKeys = new ArrayList<String>();
+    public int reloads;
+
+    @Override
+    public void reload(final List<String> keys) {
+        reloadedKeys.addAll(keys);
+        reloads++;
+    }
+}
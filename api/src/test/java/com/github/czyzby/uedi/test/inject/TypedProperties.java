@@ -0,0 +1,19 @@
+package com.github.czyzby.uedi.test.inject;
+
+import java.util.concurrent.TimeUnit;
+
+// Not a component, created manually. Fields are injected with converted properties.
+public class TypedProperties {
+    public int count;
+    public int initialized = 1;
+    public boolean enabled;
+    public double ratio;
+    public char separator;
+    public long timeout; // Duration in milliseconds.
+    public Integer limit;
+    public Long boxedTimeout;
+    public TimeUnit unit;
+    public Integer missing;
+    public Integer assigned = 7;
+    public String name;
+}
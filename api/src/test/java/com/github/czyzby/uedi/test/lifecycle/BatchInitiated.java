@@ -0,0 +1,40 @@
+package com.github.czyzby.uedi.test.lifecycle;
+
+import com.github.czyzby.uedi.stereotype.Initiated;
+import com.github.czyzby.uedi.test.inject.Injected;
+
+// Not a component, created manually and initiated in batches.
+public class BatchInitiated implements Initiated {
+    public Injected injected;
+    public transient BatchInitiated sibling;
+    private final int initiationOrder;
+    private boolean siblingInjected;
+    private int order;
+
+    public BatchInitiated(final int initiationOrder) {
+        this.initiationOrder = initiationOrder;
+    }
+
+    @Override
+    public int getInitiationOrder() {
+        return initiationOrder;
+    }
+
+    @Override
+    public void initiate() {
+        siblingInjected = sibling == null || sibling.injected != null;
+        order = Counter.COUNTER.getAndIncrement();
+    }
+
+    public boolean wasSiblingInjected() {
+        return siblingInjected;
+    }
+
+    public boolean wasInitiated() {
+        return order != 0; // Counter starts at 100.
+    }
+
+    public int getActualOrder() {
+        return order;
+    }
+}
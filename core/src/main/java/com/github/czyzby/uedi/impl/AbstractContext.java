@@ -1,9 +1,15 @@
 package com.github.czyzby.uedi.impl;
 
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import com.github.czyzby.uedi.Context;
+import com.github.czyzby.uedi.scanner.CachingClassScanner;
+import com.github.czyzby.uedi.scanner.ClassConsumer;
 import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.scanner.StreamingClassScanner;
 import com.github.czyzby.uedi.stereotype.Factory;
 import com.github.czyzby.uedi.stereotype.Property;
 import com.github.czyzby.uedi.stereotype.Provider;
@@ -48,10 +54,71 @@ public abstract class AbstractContext implements Context {
         if (classScanner == null) {
             throw new RuntimeException("Unable to scan root package: " + root.getName() + " without a scanner.");
         }
+        if (classScanner instanceof StreamingClassScanner) {
+            processClassStream((StreamingClassScanner) classScanner, new Class<?>[] { root }, Factory.class,
+                    Property.class, Provider.class, Singleton.class);
+            return;
+        }
         processClasses(classScanner.getClassesImplementing(root, Factory.class, Property.class, Provider.class,
                 Singleton.class));
     }
 
+    @Override
+    public void scan(final Class<?>... roots) {
+        if (classScanner == null) {
+            throw new RuntimeException("Unable to scan root packages without a scanner.");
+        }
+        if (classScanner instanceof StreamingClassScanner) {
+            processClassStream((StreamingClassScanner) classScanner, roots, Factory.class, Property.class,
+                    Provider.class, Singleton.class);
+            return;
+        }
+        processClasses(classScanner.getClassesImplementing(roots, Factory.class, Property.class, Provider.class,
+                Singleton.class));
+    }
+
+    @Override
+    public void rescan(final Class<?>... roots) {
+        if (classScanner == null) {
+            throw new RuntimeException("Unable to scan root packages without a scanner.");
+        }
+        if (classScanner instanceof CachingClassScanner) {
+            // Rescans are meant to find new classes: cached results would never contain them.
+            ((CachingClassScanner) classScanner).invalidate(roots);
+        }
+        final List<Class<?>> newClasses = new ArrayList<Class<?>>();
+        for (final Class<?> componentClass : classScanner.getClassesImplementing(roots, Factory.class, Property.class,
+                Provider.class, Singleton.class)) {
+            if (!isScanned(componentClass)) {
+                newClasses.add(componentClass);
+            }
+        }
+        if (!newClasses.isEmpty()) {
+            processClasses(newClasses);
+        }
+    }
+
+    /** @param componentClass was found by the class scanner.
+     * @return true if a component of this class was already created by scanning. */
+    protected abstract boolean isScanned(Class<?> componentClass);
+
+    /** @param classScanner passes classes as soon as they are found. By default, all classes are gathered and
+     *            processed after the scanning is over. Override to process the classes during scanning.
+     * @param roots scanning roots.
+     * @param interfaces all classes implementing at least one of these interfaces should be processed.
+     * @see #processClasses(Iterable) */
+    protected void processClassStream(final StreamingClassScanner classScanner, final Class<?>[] roots,
+            final Class<?>... interfaces) {
+        final List<Class<?>> classes = new ArrayList<Class<?>>();
+        classScanner.scanClassesImplementing(roots, new ClassConsumer() {
+            @Override
+            public void consume(final Class<?> type) {
+                classes.add(type);
+            }
+        }, interfaces);
+        processClasses(classes);
+    }
+
     /** @param classes were scanned for. Should be created, initiated and processed. */
     protected abstract void processClasses(Iterable<Class<?>> classes);
 
@@ -61,16 +128,40 @@ public abstract class AbstractContext implements Context {
         return this;
     }
 
+    /** Initiates the components one by one. Should be overridden to initiate the components after all of them are
+     * injected. */
+    @Override
+    public Context initiateAll(final Collection<?> components) {
+        for (final Object component : components) {
+            processComponent(component);
+        }
+        return this;
+    }
+
     /** @param component its non-primitive, empty, non-transient fields should be injected. Must be included for
      *            initiation and destruction if implements any life cycle interfaces. */
     protected abstract void processComponent(Object component);
 
+    @Override
+    public void addAll(final Collection<?> components) {
+        for (final Object component : components) {
+            add(component);
+        }
+    }
+
     @Override
     public void addProvider(final Provider<?> provider) {
         add(provider);
         processProvider(provider);
     }
 
+    @Override
+    public void addProviders(final Collection<? extends Provider<?>> providers) {
+        for (final Provider<?> provider : providers) {
+            addProvider(provider);
+        }
+    }
+
     /** @param provider was registered as a provider component. Must be bound to the class tree of the supported
      *            type. */
     protected abstract void processProvider(Provider<?> provider);
@@ -81,9 +172,37 @@ public abstract class AbstractContext implements Context {
         processFactory(factory);
     }
 
+    @Override
+    public void addFactories(final Collection<?> factories) {
+        for (final Object factory : factories) {
+            addFactory(factory);
+        }
+    }
+
     /** @param factory was registered as a factory component. Its public methods much be converted into providers. */
     protected abstract void processFactory(Object factory);
 
+    /** Creates the components one by one. Should be overridden to resolve the constructor once and initiate the
+     * components after all of them are injected. */
+    @Override
+    public <Component> List<Component> create(final Class<Component> type, final int count) {
+        final List<Component> components = new ArrayList<Component>(count);
+        for (int index = 0; index < count; index++) {
+            components.add(create(type));
+        }
+        return components;
+    }
+
+    /** Creates the components one by one. Should be overridden to resolve the constructor once and initiate the
+     * components after all of them are injected. */
+    @Override
+    public <Component> Component[] create(final Class<Component> type, final Component[] components) {
+        for (int index = 0; index < components.length; index++) {
+            components[index] = create(type);
+        }
+        return components;
+    }
+
     @Override
     public <Component> Component get(final Class<Component> type) {
         return get(type, null, null);
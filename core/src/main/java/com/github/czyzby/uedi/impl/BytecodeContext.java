@@ -0,0 +1,203 @@
+package com.github.czyzby.uedi.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.stereotype.Factory;
+import com.github.czyzby.uedi.stereotype.Provider;
+import com.github.czyzby.uedi.stereotype.impl.InjectorProvider;
+
+/** Generates a small {@link ComponentInjector} class per component type at runtime. Injectors construct components,
+ * inject their fields and invoke factory methods with plain bytecode instead of reflection, which might be faster on
+ * JVMs that do not optimize reflective calls well. Class files are generated without any third-party bytecode
+ * libraries.
+ *
+ * <p>
+ * On Java 15+, injectors are defined as hidden classes in the component package, so they can access package-private
+ * members and private members of the component class itself. On older JVMs (or if the component package cannot be
+ * accessed), injectors are defined by a child class loader and can access only public members. Inaccessible members
+ * are still handled with reflection. If the classes cannot be defined at all (for example, on Android), the context
+ * falls back to reflection entirely.
+ *
+ * <p>
+ * Injectors are generated on first use with the current context settings; modifying fields filters afterwards does
+ * not affect the existing injectors. Components created while recording a {@link WiringPlan} are injected with
+ * reflection.
+ *
+ * @author MJ */
+public class BytecodeContext extends DefaultContext {
+    private final Map<Class<?>, ComponentInjector> injectors = createMap();
+    private final Set<Class<?>> reflectedClasses = createSet();
+
+    /** @param classScanner can be null, but {@link #scan(Class)} method will not work correctly. */
+    public BytecodeContext(final ClassScanner classScanner) {
+        super(classScanner);
+    }
+
+    @Override
+    protected Object createObject(final Constructor<?> constructor, final Class<?>[] parameterTypes) {
+        final ComponentInjector injector = getInjector(constructor.getDeclaringClass());
+        if (injector == null || !constructor.equals(injector.getConstructor())) {
+            return super.createObject(constructor, parameterTypes);
+        }
+        try {
+            final Object[] dependencies = new Object[parameterTypes.length];
+            for (int index = 0, length = dependencies.length; index < length; index++) {
+                dependencies[index] = get(parameterTypes[index], null, constructor);
+            }
+            return injector.construct(dependencies);
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to create an instance of: " + constructor.getDeclaringClass(),
+                    exception);
+        }
+    }
+
+    @Override
+    protected void injectFields(final Object component) {
+        final ComponentInjector injector = getWiringPlan() == null ? getInjector(component.getClass()) : null;
+        if (injector == null) {
+            super.injectFields(component);
+            return;
+        }
+        try {
+            injector.inject(component);
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to inject fields of component: " + component, exception);
+        }
+        injectProperties(component);
+    }
+
+    @Override
+    protected void injectFields(final Class<?> componentClass, final List<?> components) {
+        if (getWiringPlan() != null || getInjector(componentClass) == null) {
+            super.injectFields(componentClass, components);
+            return;
+        }
+        for (final Object component : components) {
+            injectFields(component);
+        }
+    }
+
+    @Override
+    protected Provider<?> newFactoryMethodWrapper(final Object factory, final Method method) {
+        final ComponentInjector injector = getInjector(factory.getClass());
+        final int index = injector == null ? -1 : injector.getMethodIndex(method);
+        if (index < 0) {
+            return super.newFactoryMethodWrapper(factory, method);
+        }
+        return new InjectorProvider(this, factory, method, injector, index);
+    }
+
+    /** @param componentClass class of a component.
+     * @return generated injector of the class or null if the class has to be handled with reflection. Injectors are
+     *         generated on the first request. */
+    public ComponentInjector getInjector(final Class<?> componentClass) {
+        ComponentInjector injector = injectors.get(componentClass);
+        if (injector == null && !reflectedClasses.contains(componentClass)) {
+            injector = createInjector(componentClass);
+            if (injector == null) {
+                reflectedClasses.add(componentClass);
+            } else {
+                injectors.put(componentClass, injector);
+            }
+        }
+        return injector;
+    }
+
+    /** @param componentClass class of a component.
+     * @return a new instance of generated injector or null if the injector cannot be generated or would not replace
+     *         any reflection calls. */
+    protected ComponentInjector createInjector(final Class<?> componentClass) {
+        if (componentClass.isInterface() || componentClass.isArray() || componentClass.isPrimitive()) {
+            return null;
+        }
+        if (InjectorGenerator.isHiddenClassSupported()) {
+            try {
+                return createInjector(componentClass, new InjectorGenerator(componentClass, true));
+            } catch (final Throwable exception) {
+                // Unable to access the component package. Falling back to a class loader.
+            }
+        }
+        try {
+            return createInjector(componentClass, new InjectorGenerator(componentClass, false));
+        } catch (final Throwable exception) {
+            return null; // Unable to define classes at runtime. Falling back to reflection.
+        }
+    }
+
+    private ComponentInjector createInjector(final Class<?> componentClass, final InjectorGenerator generator)
+            throws Exception {
+        if (!generator.isAccessible(componentClass)) {
+            return null;
+        }
+        Constructor<?> constructor = null;
+        if (componentClass.getConstructors().length > 0) {
+            constructor = getConstructor(componentClass);
+            if (!generator.isInvokable(constructor)) {
+                constructor = null;
+            }
+        }
+        final List<Field> fields = new ArrayList<Field>();
+        final List<Field> reflectedFields = new ArrayList<Field>();
+        for (Class<?> processedClass = componentClass; processedClass != null
+                && processedClass != Object.class; processedClass = processedClass.getSuperclass()) {
+            for (final Field field : processedClass.getDeclaredFields()) {
+                if (isInjectable(field)) {
+                    (generator.isAssignable(field) ? fields : reflectedFields).add(field);
+                }
+            }
+            if (!isProcessSuperFields()) {
+                break;
+            }
+        }
+        final List<Method> methods = new ArrayList<Method>();
+        if (Factory.class.isAssignableFrom(componentClass)) {
+            for (final Method method : getFactoryMethods(componentClass)) {
+                if (generator.isInvokable(method)) {
+                    methods.add(method);
+                }
+            }
+        }
+        if (constructor == null && fields.isEmpty() && methods.isEmpty()) {
+            return null;
+        }
+        final Class<?> injectorClass = generator.define(generator.generate(constructor, fields, methods));
+        final ComponentInjector injector = (ComponentInjector) injectorClass.newInstance();
+        for (final Field field : reflectedFields) {
+            field.setAccessible(true);
+        }
+        injector.initiate(this, constructor, fields.toArray(new Field[fields.size()]),
+                reflectedFields.toArray(new Field[reflectedFields.size()]),
+                methods.toArray(new Method[methods.size()]));
+        return injector;
+    }
+
+    @Override
+    public void unloadPlugin(final ClassLoader classLoader) {
+        super.unloadPlugin(classLoader);
+        for (final Iterator<Class<?>> iterator = injectors.keySet().iterator(); iterator.hasNext();) {
+            if (iterator.next().getClassLoader() == classLoader) {
+                iterator.remove();
+            }
+        }
+        for (final Iterator<Class<?>> iterator = reflectedClasses.iterator(); iterator.hasNext();) {
+            if (iterator.next().getClassLoader() == classLoader) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        injectors.clear();
+        reflectedClasses.clear();
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.czyzby.uedi.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/** Base class for injectors generated at runtime by {@link BytecodeContext}. Each implementation is bound to a single
+ * component class and constructs its instances, injects its fields and invokes its factory methods with plain
+ * bytecode rather than reflection. Members that are not accessible to the generated class are handled with
+ * reflection.
+ *
+ * @author MJ
+ * @see InjectorGenerator */
+public abstract class ComponentInjector {
+    private static final Field[] EMPTY_FIELDS = new Field[0];
+    private static final Method[] EMPTY_METHODS = new Method[0];
+
+    private DefaultContext context;
+    private Constructor<?> constructor;
+    private Field[] fields = EMPTY_FIELDS;
+    private Field[] reflectedFields = EMPTY_FIELDS;
+    private Method[] methods = EMPTY_METHODS;
+
+    /** Invoked by generated implementations. */
+    protected ComponentInjector() {
+    }
+
+    /** @param context provides dependencies.
+     * @param constructor invoked by generated {@link #construct(Object[])}. Null if not accessible.
+     * @param fields assigned by generated {@link #injectFields(Object)}. Indexes match generated code.
+     * @param reflectedFields injectable fields that are not accessible to generated code.
+     * @param methods invoked by generated {@link #invokeMethod(int, Object, Object[])}. Indexes match generated code. */
+    void initiate(final DefaultContext context, final Constructor<?> constructor, final Field[] fields,
+            final Field[] reflectedFields, final Method[] methods) {
+        this.context = context;
+        this.constructor = constructor;
+        this.fields = fields;
+        this.reflectedFields = reflectedFields;
+        this.methods = methods;
+    }
+
+    /** @return constructor invoked by {@link #construct(Object[])}. Null if the component has to be constructed with
+     *         reflection. */
+    public Constructor<?> getConstructor() {
+        return constructor;
+    }
+
+    /** @param arguments constructor parameters matching {@link #getConstructor()} parameter types.
+     * @return a new instance of the component.
+     * @throws Exception if thrown by the constructor. */
+    public Object construct(final Object[] arguments) throws Exception {
+        throw new UnsupportedOperationException("Constructor is not accessible to generated code.");
+    }
+
+    /** @param component its empty injectable fields will be filled with values provided by the context.
+     * @throws Exception due to reflection issues. */
+    public void inject(final Object component) throws Exception {
+        injectFields(component);
+        for (final Field field : reflectedFields) {
+            if (context.isInjectable(field, component)) {
+                field.set(component, context.get(field.getType(), component, field));
+            }
+        }
+    }
+
+    /** Generated implementations assign all accessible injectable fields using {@link #value(Object, int, Object)}.
+     *
+     * @param component instance of the component.
+     * @throws Exception if unable to inject fields. */
+    protected void injectFields(final Object component) throws Exception {
+    }
+
+    /** @param current current value of the field.
+     * @param index index of the field.
+     * @param component owner of the field.
+     * @return current value if not null or value provided by the context. */
+    protected final Object value(final Object current, final int index, final Object component) {
+        if (current != null) {
+            return current;
+        }
+        final Field field = fields[index];
+        return context.get(field.getType(), component, field);
+    }
+
+    /** @param method factory method of the component.
+     * @return index of the method that should be passed to {@link #invoke(int, Object, Object[])} or -1 if the method
+     *         has to be invoked with reflection. */
+    public int getMethodIndex(final Method method) {
+        for (int index = 0; index < methods.length; index++) {
+            if (methods[index].equals(method)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /** @param index index of the method returned by {@link #getMethodIndex(Method)}.
+     * @param factory instance of the component.
+     * @param arguments method parameters.
+     * @return value returned by the method. Primitives are boxed.
+     * @throws Exception if thrown by the method. */
+    public Object invoke(final int index, final Object factory, final Object[] arguments) throws Exception {
+        return invokeMethod(index, factory, arguments);
+    }
+
+    /** Generated implementations invoke the method with the selected index directly.
+     *
+     * @param index index of the method.
+     * @param factory instance of the component.
+     * @param arguments method parameters.
+     * @return value returned by the method.
+     * @throws Exception if thrown by the method. */
+    protected Object invokeMethod(final int index, final Object factory, final Object[] arguments) throws Exception {
+        throw new UnsupportedOperationException("Method is not accessible to generated code.");
+    }
+}
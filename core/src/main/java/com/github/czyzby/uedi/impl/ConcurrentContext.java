@@ -4,8 +4,12 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.stereotype.Property;
+import com.github.czyzby.uedi.stereotype.impl.PropertyProvider;
+import com.github.czyzby.uedi.stereotype.impl.StringProvider;
 
 /** Uses thread-safe collections to ensure correct behavior even in multi-threaded environment.
  *
@@ -16,6 +20,17 @@ public class ConcurrentContext extends DefaultContext {
         super(classScanner);
     }
 
+    /** @return thread-safe {@link PropertyProvider} storing one {@link Property} per entry. */
+    @Override
+    protected StringProvider getPropertyProvider() {
+        return new PropertyProvider(this.<String, Property> createMap(), new ConcurrentSkipListSet<String>());
+    }
+
+    @Override
+    protected boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     protected <K, V> Map<K, V> createMap() {
         return new ConcurrentHashMap<K, V>();
@@ -1,34 +1,65 @@
 package com.github.czyzby.uedi.impl;
 
 import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.github.czyzby.uedi.Context;
+import com.github.czyzby.uedi.scanner.ClassConsumer;
 import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.scanner.StreamingClassScanner;
 import com.github.czyzby.uedi.stereotype.Destructible;
 import com.github.czyzby.uedi.stereotype.Factory;
 import com.github.czyzby.uedi.stereotype.Initiated;
 import com.github.czyzby.uedi.stereotype.Named;
 import com.github.czyzby.uedi.stereotype.Property;
 import com.github.czyzby.uedi.stereotype.Provider;
+import com.github.czyzby.uedi.stereotype.Reloadable;
 import com.github.czyzby.uedi.stereotype.Singleton;
+import com.github.czyzby.uedi.stereotype.impl.CachedProperty;
+import com.github.czyzby.uedi.stereotype.impl.FlatPropertyProvider;
+import com.github.czyzby.uedi.stereotype.impl.MappedPropertyProvider;
+import com.github.czyzby.uedi.stereotype.impl.MockMember;
+import com.github.czyzby.uedi.stereotype.impl.PrefixedPropertyMap;
+import com.github.czyzby.uedi.stereotype.impl.PropertiesReader;
+import com.github.czyzby.uedi.stereotype.impl.PropertyConverter;
+import com.github.czyzby.uedi.stereotype.impl.PropertyConverters;
 import com.github.czyzby.uedi.stereotype.impl.PropertyProvider;
 import com.github.czyzby.uedi.stereotype.impl.ProviderManager;
 import com.github.czyzby.uedi.stereotype.impl.Providers;
@@ -47,10 +78,35 @@ public class DefaultContext extends AbstractContext {
             .newSetFromMap(new IdentityHashMap<Class<?>, Boolean>());
     /** These methods will be ignored when processing factories. */
     public static final HashSet<String> FORBIDDEN_METHOD_NAMES = new HashSet<String>();
+    /** Maximum amount of components injected by a single task of {@link #initiateAll(Collection, ExecutorService)}. */
+    public static final int INJECTION_TASK_SIZE = 256;
+
+    /** Maximum amount of member tokens cached by {@link #getNamedMember(String)}. */
+    public static final int NAMED_MEMBERS_LIMIT = 1024;
+
+    /** Marks the end of class streaming. */
+    private static final Class<?> END_OF_SCAN = Void.class;
+    private static final PropertyField[] NO_PROPERTY_FIELDS = new PropertyField[0];
 
     private final Map<Class<?>, Provider<?>> context = createMap();
     private final Set<Destructible> destructibles = createSet();
-    private final StringProvider propertyProvider = getPropertyProvider();
+    private final Set<Class<?>> scannedClasses = createSet();
+    private final Map<ClassLoader, PluginRegistry> plugins = createMap();
+    /** Fields injected by {@link #injectFields(Class, List)}. Mapped by component classes. */
+    private final Map<Class<?>, Field[]> injectableFields = createMap();
+    /** Fields injected with converted properties, with their converters. Mapped by component classes. */
+    private final Map<Class<?>, PropertyField[]> propertyFields = createMap();
+    /** Member tokens used by {@link #get(String, Class)}, mapped by IDs. */
+    private final Map<String, Member> namedMembers = createMap();
+    /** Stores registrations of the currently loaded plugin. Null if no plugin is being loaded. */
+    private PluginRegistry currentPlugin;
+    /** Records wiring of scanned components. Null if not recorded. */
+    private WiringPlan wiringPlan;
+    /** If true, streaming scanners are used to create components during scanning. */
+    private boolean streamScans;
+    private StringProvider propertyProvider = getPropertyProvider();
+    /** Fields injected with properties, mapped by property keys. Null if property injections are not tracked. */
+    private volatile Map<String, List<PropertyBinding>> propertyBindings;
 
     static {
         // Meta interfaces used by the SDI framework:
@@ -60,6 +116,7 @@ public class DefaultContext extends AbstractContext {
         META_INTERFACES.add(Named.class);
         META_INTERFACES.add(Property.class);
         META_INTERFACES.add(Provider.class);
+        META_INTERFACES.add(Reloadable.class);
         META_INTERFACES.add(Singleton.class);
 
         // Common Java utility interfaces:
@@ -88,12 +145,24 @@ public class DefaultContext extends AbstractContext {
         addCoreProviders();
     }
 
-    /** @return default provider of {@link String} instances. */
+    /** @return default provider of {@link String} instances. By default, values are stored in a compact flat table.
+     * @see FlatPropertyProvider */
     protected StringProvider getPropertyProvider() {
-        return new PropertyProvider(this.<String, Property> createMap());
+        return new FlatPropertyProvider(this.<String, Property> createMap());
+    }
+
+    /** @param propertyProvider will replace the current provider of {@link String} instances and manage all
+     *            properties. Properties registered in the previous provider are not copied. Allows to inject from
+     *            custom property stores, like {@link MappedPropertyProvider}. Should be set before the context is used.
+     * @see #getPropertyProvider() */
+    public void setPropertyProvider(final StringProvider propertyProvider) {
+        if (context.get(String.class) == this.propertyProvider) {
+            context.put(String.class, propertyProvider);
+        }
+        this.propertyProvider = propertyProvider;
     }
 
-    /** Registers {@link Context} (so it can be injected) and binds {@link PropertyProvider} to {@link String}
+    /** Registers {@link Context} (so it can be injected) and binds the property provider to {@link String}
      * injections. */
     protected void addCoreProviders() {
         context.put(String.class, propertyProvider);
@@ -118,6 +187,39 @@ public class DefaultContext extends AbstractContext {
         processProvider(new SingletonProvider<Object>(component));
     }
 
+    @Override
+    public void addAll(final Collection<?> components) {
+        final List<Provider<?>> providers = new ArrayList<Provider<?>>(components.size());
+        addSingletonProviders(components, providers);
+        processProviders(providers);
+    }
+
+    @Override
+    public void addProviders(final Collection<? extends Provider<?>> providers) {
+        final List<Provider<?>> allProviders = new ArrayList<Provider<?>>(providers.size() * 2);
+        addSingletonProviders(providers, allProviders);
+        allProviders.addAll(providers);
+        processProviders(allProviders);
+    }
+
+    @Override
+    public void addFactories(final Collection<?> factories) {
+        final List<Provider<?>> providers = new ArrayList<Provider<?>>(factories.size());
+        addSingletonProviders(factories, providers);
+        for (final Object factory : factories) {
+            for (final Method method : getFactoryMethods(factory.getClass())) {
+                providers.add(newFactoryMethodWrapper(factory, method));
+            }
+        }
+        processProviders(providers);
+    }
+
+    private static void addSingletonProviders(final Collection<?> components, final List<Provider<?>> providers) {
+        for (final Object component : components) {
+            providers.add(new SingletonProvider<Object>(component));
+        }
+    }
+
     @Override
     public boolean isAvailable(final Class<?> type) {
         return context.containsKey(type);
@@ -125,55 +227,258 @@ public class DefaultContext extends AbstractContext {
 
     @Override
     public String getProperty(final String name) {
-        return propertyProvider.hasProperty(name) ? propertyProvider.getProperty(name).getValue() : null;
+        if (propertyProvider instanceof FlatPropertyProvider) {
+            return ((FlatPropertyProvider) propertyProvider).getValue(name);
+        }
+        final Property property = propertyProvider.getProperty(name);
+        return property == null ? null : property.getValue();
+    }
+
+    /** @param prefix keys of the returned properties start with this prefix. Empty string matches all properties.
+     * @return live, read-only view of the matching properties. Iteration order depends on the property provider.
+     * @see StringProvider#getProperties(String) */
+    public Iterable<Property> getProperties(final String prefix) {
+        return propertyProvider.getProperties(prefix);
     }
 
     @Override
     public void setProperty(final String key, final String value) {
-        if (propertyProvider.hasProperty(key)) {
-            propertyProvider.getProperty(key).setValue(value);
+        if (propertyProvider instanceof FlatPropertyProvider && currentPlugin == null) {
+            ((FlatPropertyProvider) propertyProvider).setValue(key, value);
+            return;
+        }
+        final Property property = propertyProvider.getProperty(key);
+        if (property != null) {
+            property.setValue(value);
         } else {
-            addProperty(new Property() {
-                private String property = value;
+            addProperty(new CachedProperty(key, value));
+        }
+    }
 
+    /** @param reader {@code .properties} file content. Will be fully read, but not closed. All parsed properties are
+     *            registered as if by {@link #setProperty(String, String)}; values of existing properties are replaced.
+     * @return amount of loaded properties.
+     * @see PropertiesReader */
+    public int loadProperties(final Reader reader) {
+        try {
+            if (propertyProvider instanceof FlatPropertyProvider && currentPlugin == null) {
+                return ((FlatPropertyProvider) propertyProvider).load(reader);
+            }
+            return new PropertiesReader().read(reader, new PropertiesReader.PropertyConsumer() {
                 @Override
-                public String setValue(final String value) {
-                    return property = value;
+                public void consume(final String key, final String value) {
+                    setProperty(key, value);
                 }
+            });
+        } catch (final IOException exception) {
+            throw new RuntimeException("Unable to load properties.", exception);
+        }
+    }
 
-                @Override
-                public String getValue() {
-                    return property;
-                }
+    /** @param input {@code .properties} file content encoded with UTF-8. Will be fully read, but not closed.
+     * @return amount of loaded properties.
+     * @see #loadProperties(Reader) */
+    public int loadProperties(final InputStream input) {
+        try {
+            return loadProperties(new InputStreamReader(input, "UTF-8"));
+        } catch (final UnsupportedEncodingException exception) {
+            throw new RuntimeException("Unable to load properties.", exception);
+        }
+    }
+
+    /** @return true if fields injected with properties are recorded, so they can be updated by
+     *         {@link #reloadProperties(Map)}. */
+    public boolean isTrackPropertyInjections() {
+        return propertyBindings != null;
+    }
+
+    /** @param track if true, the context will record fields injected with properties from now on, so they can be
+     *            updated by {@link #reloadProperties(Map)}. Components are referenced weakly. Should be enabled before
+     *            creating the components. If false, all recorded injections are discarded. */
+    public void setTrackPropertyInjections(final boolean track) {
+        if (!track) {
+            propertyBindings = null;
+        } else if (propertyBindings == null) {
+            propertyBindings = createMap();
+        }
+    }
 
+    /** @param properties new values of the properties, mapped by keys. Properties with unchanged values are ignored;
+     *            properties missing from the map are not modified. Null values clear the properties.
+     * @return keys of changed properties. If property injections are tracked, fields injected with the changed
+     *         properties are updated and then the affected {@link Reloadable} components are notified.
+     * @see #setTrackPropertyInjections(boolean) */
+    public List<String> reloadProperties(final Map<String, String> properties) {
+        final List<String> changedKeys = new ArrayList<String>();
+        for (final Map.Entry<String, String> entry : properties.entrySet()) {
+            final String key = entry.getKey();
+            final String value = entry.getValue();
+            if (!isEqual(value, getProperty(key))) {
+                setProperty(key, value);
+                changedKeys.add(key);
+            }
+        }
+        reinjectProperties(changedKeys);
+        return changedKeys;
+    }
+
+    /** @param reader {@code .properties} file content. Will be fully read, but not closed.
+     * @return keys of changed properties.
+     * @see #reloadProperties(Map) */
+    public List<String> reloadProperties(final Reader reader) {
+        final Map<String, String> properties = new LinkedHashMap<String, String>();
+        try {
+            new PropertiesReader().read(reader, new PropertiesReader.PropertyConsumer() {
                 @Override
-                public String getKey() {
-                    return key;
+                public void consume(final String key, final String value) {
+                    properties.put(key, value);
                 }
             });
+        } catch (final IOException exception) {
+            throw new RuntimeException("Unable to reload properties.", exception);
+        }
+        return reloadProperties(properties);
+    }
+
+    private static boolean isEqual(final String value, final String otherValue) {
+        return value == null ? otherValue == null : value.equals(otherValue);
+    }
+
+    /** @param keys fields injected with the properties will be updated with the current values, and then the affected
+     *            {@link Reloadable} components will be notified. Does nothing if property injections are not tracked.
+     * @see #setTrackPropertyInjections(boolean) */
+    public void reinjectProperties(final List<String> keys) {
+        final Map<String, List<PropertyBinding>> bindings = propertyBindings;
+        if (bindings == null || keys.isEmpty()) {
+            return;
+        }
+        final Map<Object, List<String>> affectedComponents = new IdentityHashMap<Object, List<String>>();
+        final List<Object> components = new ArrayList<Object>();
+        for (final String key : keys) {
+            final List<PropertyBinding> keyBindings = bindings.get(key);
+            if (keyBindings == null) {
+                continue;
+            }
+            final Property property = propertyProvider.getProperty(key);
+            synchronized (keyBindings) {
+                for (final Iterator<PropertyBinding> iterator = keyBindings.iterator(); iterator.hasNext();) {
+                    final PropertyBinding binding = iterator.next();
+                    final Object component = binding.get();
+                    if (component == null) {
+                        iterator.remove();
+                        continue;
+                    }
+                    try {
+                        binding.field.set(component, property);
+                    } catch (final Exception exception) {
+                        throw new RuntimeException("Unable to reinject property: '" + key + "' into component: "
+                                + component, exception);
+                    }
+                    List<String> componentKeys = affectedComponents.get(component);
+                    if (componentKeys == null) {
+                        componentKeys = new ArrayList<String>();
+                        affectedComponents.put(component, componentKeys);
+                        components.add(component);
+                    }
+                    componentKeys.add(key);
+                }
+            }
+        }
+        for (final Object component : components) {
+            if (component instanceof Reloadable) {
+                ((Reloadable) component).reload(affectedComponents.get(component));
+            }
+        }
+    }
+
+    /** @param key key of the injected property.
+     * @param component owner of the field.
+     * @param field was injected with the property. */
+    private void trackPropertyInjection(final String key, final Object component, final PropertyField field) {
+        final Map<String, List<PropertyBinding>> bindings = propertyBindings;
+        if (bindings == null) {
+            return;
+        }
+        List<PropertyBinding> keyBindings = bindings.get(key);
+        if (keyBindings == null) {
+            synchronized (bindings) {
+                keyBindings = bindings.get(key);
+                if (keyBindings == null) {
+                    keyBindings = new ArrayList<PropertyBinding>();
+                    bindings.put(key, keyBindings);
+                }
+            }
+        }
+        synchronized (keyBindings) {
+            final int size = keyBindings.size();
+            if (size >= 16 && (size & size - 1) == 0) { // Purging collected components as the list doubles.
+                for (final Iterator<PropertyBinding> iterator = keyBindings.iterator(); iterator.hasNext();) {
+                    if (iterator.next().get() == null) {
+                        iterator.remove();
+                    }
+                }
+            }
+            keyBindings.add(new PropertyBinding(component, field));
         }
     }
 
     @Override
     public void addProperty(final Property property) {
         propertyProvider.addProperty(property);
+        if (currentPlugin != null) {
+            currentPlugin.properties.add(property);
+        }
     }
 
     @Override
     public void addDestructible(final Destructible destructible) {
+        registerDestructible(destructible);
+    }
+
+    /** @param destructible will be destroyed along with the context. If a plugin is currently loaded, it will also be
+     *            destroyed when the plugin is unloaded. */
+    protected void registerDestructible(final Destructible destructible) {
         destructibles.add(destructible);
+        if (currentPlugin != null) {
+            currentPlugin.destructibles.add(destructible);
+        }
+    }
+
+    @Override
+    public <Component> Component get(final String id, final Class<Component> type) {
+        return get(type, null, getNamedMember(id));
+    }
+
+    /** @param id ID of a named component, factory method or property.
+     * @return member token with the ID as its name, which can be held and passed to
+     *         {@link #get(Class, Object, Member)} to look up the component. Tokens are cached per context for up to
+     *         {@link #NAMED_MEMBERS_LIMIT} IDs, so repeated lookups with the same IDs do not allocate. Other IDs are
+     *         wrapped with new members on each call. */
+    public Member getNamedMember(final String id) {
+        if (id == null) {
+            return new MockMember(id);
+        }
+        Member member = namedMembers.get(id);
+        if (member == null) {
+            member = new MockMember(id);
+            if (namedMembers.size() < NAMED_MEMBERS_LIMIT) {
+                namedMembers.put(id, member);
+            }
+        }
+        return member;
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <Component> Component get(final Class<Component> type, final Object forObject, final Member member) {
-        if (!context.containsKey(type)) {
+        final Provider<?> provider = context.get(type);
+        if (provider == null) {
             if (isFailIfUnknownType()) {
                 throw new RuntimeException("Unknown component type: " + type.getName());
             }
             return create(type);
         }
-        return (Component) context.get(type).provide(forObject, member);
+        return (Component) provider.provide(forObject, member);
     }
 
     @Override
@@ -185,11 +490,45 @@ public class DefaultContext extends AbstractContext {
         return (Component) component;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <Component> List<Component> create(final Class<Component> type, final int count) {
+        final Object[] components = new Object[count];
+        createAll(type, components);
+        return (List<Component>) (List<?>) Arrays.asList(components);
+    }
+
+    @Override
+    public <Component> Component[] create(final Class<Component> type, final Component[] components) {
+        createAll(type, components);
+        return components;
+    }
+
+    /** @param type its constructor will be resolved once.
+     * @param components will be filled with new instances of the type. All instances are injected before the first
+     *            one is initiated. */
+    private void createAll(final Class<?> type, final Object[] components) {
+        if (components.length == 0) {
+            return;
+        }
+        final Constructor<?> constructor = getConstructor(type);
+        final Class<?>[] parameterTypes = constructor.getParameterTypes();
+        for (int index = 0; index < components.length; index++) {
+            components[index] = createObject(constructor, parameterTypes);
+        }
+        final List<Object> createdComponents = Arrays.asList(components);
+        injectFields(constructor.getDeclaringClass(), createdComponents);
+        initiateInjected(createdComponents);
+    }
+
     @Override
     public void destroy() {
         final PriorityQueue<Destructible> sortedDestructibles = getPrioritySortedDestructionQueue();
         sortedDestructibles.addAll(destructibles);
         destructibles.clear();
+        for (final PluginRegistry plugin : plugins.values()) {
+            plugin.destructibles.clear();
+        }
         try {
             while (!sortedDestructibles.isEmpty()) {
                 sortedDestructibles.poll().destroy();
@@ -225,6 +564,105 @@ public class DefaultContext extends AbstractContext {
         }
     }
 
+    /** If streaming scans are enabled, scans for classes in a separate thread. Components with no constructor
+     * dependencies are created as soon as their classes are found, while the scanning is still in progress. They are
+     * registered in the context only after the scanning is successfully finished, along with the rest of the
+     * components, which are created when all other components are available. If scanning fails, the context is left
+     * unchanged. If a component cannot be created, the scanning is cancelled. Otherwise, classes are gathered on the
+     * current thread and processed after scanning.
+     *
+     * @param classScanner passes classes as soon as they are found.
+     * @param roots scanning roots.
+     * @param interfaces all classes implementing at least one of these interfaces should be processed.
+     * @see #setStreamScans(boolean)
+     * @see #executeScan(Runnable) */
+    @Override
+    protected void processClassStream(final StreamingClassScanner classScanner, final Class<?>[] roots,
+            final Class<?>... interfaces) {
+        if (!streamScans) {
+            super.processClassStream(classScanner, roots, interfaces);
+            return;
+        }
+        final BlockingQueue<Class<?>> scannedClasses = new LinkedBlockingQueue<Class<?>>();
+        final AtomicReference<Throwable> scanningError = new AtomicReference<Throwable>();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        executeScan(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    classScanner.scanClassesImplementing(roots, new ClassConsumer() {
+                        @Override
+                        public void consume(final Class<?> type) {
+                            if (cancelled.get()) { // Aborting the scanner: the results will not be used.
+                                throw new IllegalStateException("Scanning was cancelled.");
+                            }
+                            scannedClasses.add(type);
+                        }
+                    }, interfaces);
+                } catch (final Throwable exception) {
+                    scanningError.set(exception);
+                } finally {
+                    scannedClasses.add(END_OF_SCAN);
+                }
+            }
+        });
+        try {
+            final List<Object> components = new ArrayList<Object>();
+            final List<Constructor<?>> constructors = new LinkedList<Constructor<?>>();
+            Class<?> componentClass;
+            while ((componentClass = scannedClasses.take()) != END_OF_SCAN) {
+                final Constructor<?> constructor = getConstructor(componentClass);
+                if (constructor.getParameterTypes().length == 0) { // Can be created right away.
+                    components.add(constructor.newInstance(Providers.EMPTY_ARRAY));
+                } else { // Dependencies might be scanned later - postponing.
+                    constructors.add(constructor);
+                }
+            }
+            if (scanningError.get() != null) {
+                throw new RuntimeException("Unable to scan classpath.", scanningError.get());
+            }
+            final PriorityQueue<Initiated> componentsToInitiate = getPrioritySortedInitiationQueue();
+            for (final Object component : components) {
+                processScannedComponent(component, componentsToInitiate);
+            }
+            components.addAll(createComponents(constructors, componentsToInitiate));
+            for (final Object component : components) {
+                injectFields(component);
+            }
+            while (!componentsToInitiate.isEmpty()) {
+                componentsToInitiate.poll().initiate();
+            }
+        } catch (final RuntimeException exception) {
+            throw exception;
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to create components.", exception);
+        } finally {
+            cancelled.set(true); // Stops the scanning if it is still in progress after a failure.
+        }
+    }
+
+    /** @return true if {@link StreamingClassScanner} implementations are used to create components during scanning.
+     * @see #setStreamScans(boolean) */
+    public boolean isStreamScans() {
+        return streamScans;
+    }
+
+    /** @param streamScans if true, {@link StreamingClassScanner} implementations will scan in a separate thread
+     *            started with {@link #executeScan(Runnable)}, and components without constructor dependencies will
+     *            be created while the scanning is still in progress. Defaults to false: classes are gathered on the
+     *            current thread and processed after the scanning. */
+    public void setStreamScans(final boolean streamScans) {
+        this.streamScans = streamScans;
+    }
+
+    /** @param scan should be executed in a separate thread. By default, a new daemon thread is started. Override to
+     *            use a thread pool. */
+    protected void executeScan(final Runnable scan) {
+        final Thread thread = new Thread(scan, "UEDI scanner");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
     /** @param constructors list of gathered constructors. Will be used to create the components.
      * @return sorting collection of components to initiate. Should be initiated.
      * @throws Exception due to reflection issues. */
@@ -317,24 +755,68 @@ public class DefaultContext extends AbstractContext {
      * @param componentsToInitiate will be used to schedule initiations. */
     protected void processScannedComponent(final Object component,
             final PriorityQueue<Initiated> componentsToInitiate) {
-        processProvider(new SingletonProvider<Object>(component));
+        final Class<?> componentClass = component.getClass();
+        final List<Class<?>> types = getMappedTypes(componentClass);
+        final List<Method> factoryMethods = component instanceof Factory ? getFactoryMethods(componentClass)
+                : Collections.<Method> emptyList();
+        if (wiringPlan != null) {
+            wiringPlan.add(componentClass, getConstructor(componentClass), types, factoryMethods);
+        }
+        registerScannedComponent(component, types, getFactoryProviders(component, factoryMethods),
+                componentsToInitiate);
+    }
+
+    /** @param factory owner of the methods.
+     * @param factoryMethods will be wrapped.
+     * @return methods wrapped in {@link Provider} implementations.
+     * @see #newFactoryMethodWrapper(Object, Method) */
+    protected List<Provider<?>> getFactoryProviders(final Object factory, final List<Method> factoryMethods) {
+        final List<Provider<?>> providers = new ArrayList<Provider<?>>(factoryMethods.size());
+        for (final Method method : factoryMethods) {
+            providers.add(newFactoryMethodWrapper(factory, method));
+        }
+        return providers;
+    }
+
+    /** @param component was scanned, loaded from a {@link WiringPlan} or created by {@link GeneratedWiring}.
+     *            Depending on its type, it might be initiated, scheduled for destruction or registered as a factory,
+     *            provider or property.
+     * @param types component will be mapped to these class tree keys.
+     * @param factoryProviders wrap factory methods of the component. Should be empty if the component is not a
+     *            factory.
+     * @param componentsToInitiate will be used to schedule initiations. */
+    protected void registerScannedComponent(final Object component, final List<Class<?>> types,
+            final List<Provider<?>> factoryProviders, final PriorityQueue<Initiated> componentsToInitiate) {
+        scannedClasses.add(component.getClass());
+        if (currentPlugin != null) {
+            currentPlugin.classes.add(component.getClass());
+        }
+        final Provider<?> singletonProvider = new SingletonProvider<Object>(component);
+        for (final Class<?> type : types) {
+            putProvider(type, singletonProvider);
+        }
         if (component instanceof Destructible) {
-            destructibles.add((Destructible) component);
+            registerDestructible((Destructible) component);
         }
-        if (component instanceof Factory) {
-            processFactory(component);
+        for (final Provider<?> factoryProvider : factoryProviders) {
+            processProvider(factoryProvider);
         }
         if (component instanceof Initiated) {
             componentsToInitiate.add((Initiated) component);
         }
         if (component instanceof Property) {
-            propertyProvider.addProperty((Property) component);
+            addProperty((Property) component);
         }
         if (component instanceof Provider<?>) {
             processProvider((Provider<?>) component);
         }
     }
 
+    @Override
+    protected boolean isScanned(final Class<?> componentClass) {
+        return scannedClasses.contains(componentClass);
+    }
+
     /** @param classes will have their constructors extracted. Should not contain interfaces or abstract classes.
      * @return a collection of constructors allowing to create passed classes' instances. */
     protected List<Constructor<?>> gatherConstructors(final Iterable<Class<?>> classes) {
@@ -390,24 +872,130 @@ public class DefaultContext extends AbstractContext {
             }
         }
         if (component instanceof Destructible) {
-            destructibles.add((Destructible) component);
+            registerDestructible((Destructible) component);
+        }
+    }
+
+    @Override
+    public Context initiateAll(final Collection<?> components) {
+        return initiateAll(components, null);
+    }
+
+    /** Injects and initiates multiple externally created components. Components are grouped by their classes, so the
+     * injected fields are gathered once per class. All components are injected before the first one is initiated;
+     * {@link Initiated} components are then initiated in the order of their initiation priority across the whole
+     * batch.
+     *
+     * @param components their fields will be injected.
+     * @param executor if not null and the context is {@link #isThreadSafe() thread-safe}, fields are injected in
+     *            parallel by tasks submitted to the executor. Tasks inject up to {@link #INJECTION_TASK_SIZE}
+     *            components of the same class. Ignored if the wiring is recorded: components are then injected on the
+     *            current thread. Initiation methods are always invoked on the current thread.
+     * @return this context, for chaining. */
+    public Context initiateAll(final Collection<?> components, final ExecutorService executor) {
+        final Map<Class<?>, List<Object>> groupedComponents = new LinkedHashMap<Class<?>, List<Object>>();
+        for (final Object component : components) {
+            List<Object> group = groupedComponents.get(component.getClass());
+            if (group == null) {
+                group = new ArrayList<Object>();
+                groupedComponents.put(component.getClass(), group);
+            }
+            group.add(component);
+        }
+        if (executor == null || !isThreadSafe() || wiringPlan != null) { // Wiring plans are not thread-safe.
+            for (final Map.Entry<Class<?>, List<Object>> group : groupedComponents.entrySet()) {
+                injectFields(group.getKey(), group.getValue());
+            }
+        } else {
+            injectFields(groupedComponents, executor);
+        }
+        initiateInjected(components);
+        return this;
+    }
+
+    /** @param components were injected. Will be initiated in the order of initiation priority and registered as
+     *            destructibles. */
+    private void initiateInjected(final Collection<?> components) {
+        final PriorityQueue<Initiated> componentsToInitiate = getPrioritySortedInitiationQueue();
+        for (final Object component : components) {
+            if (component instanceof Initiated) {
+                componentsToInitiate.add((Initiated) component);
+            }
+        }
+        Initiated initiated = null;
+        try {
+            while (!componentsToInitiate.isEmpty()) {
+                initiated = componentsToInitiate.poll();
+                initiated.initiate();
+            }
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to initiate component: " + initiated, exception);
+        }
+        for (final Object component : components) {
+            if (component instanceof Destructible) {
+                registerDestructible((Destructible) component);
+            }
+        }
+    }
+
+    private void injectFields(final Map<Class<?>, List<Object>> groupedComponents, final ExecutorService executor) {
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (final Map.Entry<Class<?>, List<Object>> group : groupedComponents.entrySet()) {
+            final Class<?> componentClass = group.getKey();
+            final List<Object> classComponents = group.getValue();
+            for (int from = 0, size = classComponents.size(); from < size; from += INJECTION_TASK_SIZE) {
+                final List<Object> chunk = classComponents.subList(from, Math.min(size, from + INJECTION_TASK_SIZE));
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        injectFields(componentClass, chunk);
+                        return null;
+                    }
+                });
+            }
+        }
+        try {
+            for (final Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (final ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw new RuntimeException("Unable to inject fields.", exception.getCause());
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while injecting fields.", exception);
         }
     }
 
+    /** @return true if the context can be safely used by multiple threads. Defaults to false. */
+    protected boolean isThreadSafe() {
+        return false;
+    }
+
     /** @return direct reference to component providers. */
     protected Map<Class<?>, Provider<?>> getComponentProviders() {
         return context;
     }
 
-    /** @param component its injectable fields will be filled with values provided by the context.
-     * @see #isInjectable(Field, Object) */
+    /** @param component its injectable fields will be filled with values provided by the context. String fields and
+     *            fields with other types supported by {@link PropertyConverters} are injected with properties.
+     * @see #isInjectable(Field, Object)
+     * @see #injectProperties(Object) */
     protected void injectFields(final Object component) {
         Class<?> processedClass = component.getClass();
+        final WiringPlan.ComponentPlan componentPlan = wiringPlan == null ? null
+                : wiringPlan.getComponent(processedClass);
+        final List<Field> injectedFields = componentPlan == null ? null : new ArrayList<Field>();
         try {
             while (processedClass != null && processedClass != Object.class) {
                 for (final Field field : processedClass.getDeclaredFields()) {
                     if (isInjectable(field, component)) {
                         field.set(component, get(field.getType(), component, field));
+                        if (injectedFields != null) {
+                            injectedFields.add(field);
+                        }
                     }
                 }
                 if (!isProcessSuperFields()) {
@@ -418,42 +1006,300 @@ public class DefaultContext extends AbstractContext {
         } catch (final Exception exception) {
             throw new RuntimeException("Unable to inject fields of component: " + component, exception);
         }
+        if (componentPlan != null) {
+            componentPlan.setFields(injectedFields);
+        }
+        injectProperties(component);
+    }
+
+    /** Injects fields of multiple components of the same class. Injectable fields are gathered once per component
+     * class, using the current settings; a field is injected if it is empty. If the wiring is recorded, components are
+     * injected one by one.
+     *
+     * @param componentClass class of all components.
+     * @param components will have their fields injected.
+     * @see #injectFields(Object)
+     * @see #isInjectable(Field) */
+    protected void injectFields(final Class<?> componentClass, final List<?> components) {
+        if (wiringPlan != null) {
+            for (final Object component : components) {
+                injectFields(component);
+            }
+            return;
+        }
+        final Field[] fields = getInjectableFields(componentClass);
+        Object currentComponent = null;
+        try {
+            for (final Object component : components) {
+                currentComponent = component;
+                for (final Field field : fields) {
+                    if (field.get(component) == null) {
+                        field.set(component, get(field.getType(), component, field));
+                    }
+                }
+            }
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to inject fields of component: " + currentComponent, exception);
+        }
+        for (final Object component : components) {
+            injectProperties(component);
+        }
+    }
+
+    private Field[] getInjectableFields(final Class<?> componentClass) {
+        Field[] fields = injectableFields.get(componentClass);
+        if (fields == null) {
+            final List<Field> gatheredFields = new ArrayList<Field>();
+            for (Class<?> processedClass = componentClass; processedClass != null
+                    && processedClass != Object.class; processedClass = processedClass.getSuperclass()) {
+                for (final Field field : processedClass.getDeclaredFields()) {
+                    if (isInjectable(field)) {
+                        field.setAccessible(true);
+                        gatheredFields.add(field);
+                    }
+                }
+                if (!isProcessSuperFields()) {
+                    break;
+                }
+            }
+            fields = gatheredFields.toArray(new Field[gatheredFields.size()]);
+            injectableFields.put(componentClass, fields);
+        }
+        return fields;
+    }
+
+    /** Injects string fields and fields with primitive, boxed number, boolean, character, enum and duration types with
+     * converted values of properties with keys matching the field names. Fields are injected only if empty: primitive
+     * fields have to store their default values (such as 0 or false). If there is no matching property, non-primitive
+     * fields are injected by the context if a provider of their type is available. Empty {@code Map<String, Value>}
+     * fields with supported value types are injected with read-only {@link PrefixedPropertyMap} views of properties
+     * with keys starting with the field name followed by a dot, unless a {@link Map} provider is available. Fields are
+     * selected and their converters are prepared once per component class, using the current settings. If property
+     * injections are tracked, the fields injected with existing properties are recorded - except for map fields, as
+     * the views always reflect the current property values.
+     *
+     * @param component its typed property fields will be injected.
+     * @see PropertyConverters
+     * @see CachedProperty */
+    protected void injectProperties(final Object component) {
+        final PropertyField[] fields = getPropertyFields(component.getClass());
+        if (fields.length == 0) {
+            return;
+        }
+        PropertyField currentField = null;
+        try {
+            for (final PropertyField field : fields) {
+                currentField = field;
+                field.inject(component, this);
+            }
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to inject property: '" + currentField.key + "' into component: "
+                    + component, exception);
+        }
+    }
+
+    private PropertyField[] getPropertyFields(final Class<?> componentClass) {
+        PropertyField[] fields = propertyFields.get(componentClass);
+        if (fields == null) {
+            final List<PropertyField> gatheredFields = new ArrayList<PropertyField>();
+            for (Class<?> processedClass = componentClass; processedClass != null
+                    && processedClass != Object.class; processedClass = processedClass.getSuperclass()) {
+                for (final Field field : processedClass.getDeclaredFields()) {
+                    if (isPropertyField(field)) {
+                        field.setAccessible(true);
+                        final Class<?> mapValueType = getPropertyMapValueType(field);
+                        gatheredFields.add(mapValueType == null
+                                ? new PropertyField(field, PropertyConverters.getConverter(field.getType()), false)
+                                : new PropertyField(field, PropertyConverters.getConverter(mapValueType), true));
+                    }
+                }
+                if (!isProcessSuperFields()) {
+                    break;
+                }
+            }
+            fields = gatheredFields.isEmpty() ? NO_PROPERTY_FIELDS
+                    : gatheredFields.toArray(new PropertyField[gatheredFields.size()]);
+            propertyFields.put(componentClass, fields);
+        }
+        return fields;
+    }
+
+    /** @param field reflected field data.
+     * @return true if the field is accepted by the modifier filter, does not match modifier signature, is not
+     *         synthetic and its type is supported by {@link PropertyConverters} or it is a {@code Map<String, Value>}
+     *         with a supported value type. If strings are ignored, string fields and property maps are rejected. Other
+     *         non-primitive property fields are injected by providers if their properties are missing.
+     * @see #injectProperties(Object) */
+    protected boolean isPropertyField(final Field field) {
+        final Class<?> mapValueType = getPropertyMapValueType(field);
+        if (field.isSynthetic() || !PropertyConverters.isSupported(field.getType()) && mapValueType == null
+                || isIgnoreStrings() && (field.getType() == String.class || mapValueType != null)) {
+            return false;
+        }
+        final int modifier = field.getModifiers();
+        return (modifier & getFieldsIgnoreFilter()) == 0 && modifier != getFieldsIgnoreSignature()
+                && (modifier & Modifier.FINAL) == 0;
+    }
+
+    /** @param field reflected field data.
+     * @return value type of the field if it is a {@code Map<String, Value>} with a value type supported by
+     *         {@link PropertyConverters}, null otherwise. */
+    private static Class<?> getPropertyMapValueType(final Field field) {
+        if (field.getType() != Map.class || !(field.getGenericType() instanceof ParameterizedType)) {
+            return null;
+        }
+        final java.lang.reflect.Type[] arguments = ((ParameterizedType) field.getGenericType())
+                .getActualTypeArguments();
+        if (arguments[0] != String.class || !(arguments[1] instanceof Class<?>)) {
+            return null;
+        }
+        final Class<?> valueType = (Class<?>) arguments[1];
+        return PropertyConverters.isSupported(valueType) ? valueType : null;
+    }
+
+    /** @return wiring plan recording scanned components. Null if the wiring is not recorded. */
+    public WiringPlan getWiringPlan() {
+        return wiringPlan;
+    }
+
+    /** @param wiringPlan will record wiring of all components created by scanning. Can be saved and used to rebuild
+     *            the context without scanning with {@link #load(WiringPlan)}. Pass null to stop recording. */
+    public void setWiringPlan(final WiringPlan wiringPlan) {
+        this.wiringPlan = wiringPlan;
+    }
+
+    /** Rebuilds scanned components using a recorded wiring plan instead of scanning the classpath. Components are
+     * created in the recorded order with the recorded constructors, mapped to the recorded class tree keys and have
+     * their recorded fields injected. Manually registered components are not a part of the plan: they should be
+     * added to the context before loading the plan.
+     *
+     * @param plan was recorded during scanning.
+     * @see #setWiringPlan(WiringPlan)
+     * @see WiringPlan#read(java.io.InputStream, ClassLoader) */
+    public void load(final WiringPlan plan) {
+        final PriorityQueue<Initiated> componentsToInitiate = getPrioritySortedInitiationQueue();
+        final List<Object> components = new ArrayList<Object>();
+        for (final WiringPlan.ComponentPlan componentPlan : plan.getComponents()) {
+            final Constructor<?> constructor = componentPlan.getConstructor();
+            final Object component = createObject(constructor, constructor.getParameterTypes());
+            registerScannedComponent(component, componentPlan.getTypes(),
+                    getFactoryProviders(component, componentPlan.getFactoryMethods()), componentsToInitiate);
+            components.add(component);
+        }
+        try {
+            for (int index = 0, size = components.size(); index < size; index++) {
+                final Object component = components.get(index);
+                for (final Field field : plan.getComponents().get(index).getFields()) {
+                    if (field.get(component) == null) {
+                        field.set(component, get(field.getType(), component, field));
+                    }
+                }
+                injectProperties(component);
+            }
+            while (!componentsToInitiate.isEmpty()) {
+                componentsToInitiate.poll().initiate();
+            }
+        } catch (final RuntimeException exception) {
+            throw exception;
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to load components from wiring plan.", exception);
+        }
+    }
+
+    /** Rebuilds scanned components using code generated ahead of time. Works like {@link #load(WiringPlan)}, but
+     * the components are constructed, injected and wrapped by plain Java code rather than reflection.
+     *
+     * @param wiring was generated from a {@link WiringPlan}.
+     * @see GeneratedWiring */
+    public void load(final GeneratedWiring wiring) {
+        wiring.wire(this);
     }
 
     /** @param field reflected field data.
      * @param component owner of the field.
      * @return true if the field is empty, accepted by the modifier filter, does not match modifier signature, not
-     *         primitive and - if strings are ignored - not a string.
+     *         primitive and not injected with properties.
      * @throws Exception due to reflection issues. */
     protected boolean isInjectable(final Field field, final Object component) throws Exception {
-        if (field.isSynthetic() || field.getType().isPrimitive()
-                || isIgnoreStrings() && field.getType() == String.class) {
-            return false;
-        }
-        final int modifier = field.getModifiers();
-        if ((modifier & getFieldsIgnoreFilter()) != 0 || modifier == getFieldsIgnoreSignature()) {
+        if (!isInjectable(field)) {
             return false;
         }
         field.setAccessible(true);
         return field.get(component) == null;
     }
 
+    /** @param field reflected field data.
+     * @return true if the field is accepted by the modifier filter, does not match modifier signature, is not
+     *         primitive and its type is not supported by {@link PropertyConverters}: such fields are either injected
+     *         by {@link #isPropertyField(Field) property fields} or ignored along with strings. Property maps are
+     *         injected by this method only if strings are ignored. Does not check the current value of the field.
+     * @see #isInjectable(Field, Object)
+     * @see #isPropertyField(Field) */
+    protected boolean isInjectable(final Field field) {
+        if (field.isSynthetic() || field.getType().isPrimitive() || PropertyConverters.isSupported(field.getType())
+                || !isIgnoreStrings() && getPropertyMapValueType(field) != null) {
+            return false;
+        }
+        final int modifier = field.getModifiers();
+        return (modifier & getFieldsIgnoreFilter()) == 0 && modifier != getFieldsIgnoreSignature();
+    }
+
     @Override
     protected void processProvider(final Provider<?> provider) {
+        for (final Class<?> type : getMappedTypes(provider.getType())) {
+            putProvider(type, provider);
+        }
+    }
+
+    /** Registers multiple providers with a single pass over their class trees. Class tree keys are computed once per
+     * provided type; providers mapped to the same key are grouped, so each {@link ProviderManager} is created and
+     * filled once before it is put into the context: each key is published with a complete provider. Results in the
+     * same mappings as processing the providers one by one in the iteration order.
+     *
+     * @param providers will be bound to the class trees of their supported types. */
+    protected void processProviders(final List<Provider<?>> providers) {
+        final Map<Class<?>, List<Class<?>>> mappedTypes = new IdentityHashMap<Class<?>, List<Class<?>>>();
+        final Map<Class<?>, List<Provider<?>>> groupedProviders = new LinkedHashMap<Class<?>, List<Provider<?>>>();
+        for (final Provider<?> provider : providers) {
+            final Class<?> providedType = provider.getType();
+            List<Class<?>> types = mappedTypes.get(providedType);
+            if (types == null) {
+                types = getMappedTypes(providedType);
+                mappedTypes.put(providedType, types);
+            }
+            for (final Class<?> type : types) {
+                List<Provider<?>> group = groupedProviders.get(type);
+                if (group == null) {
+                    group = new ArrayList<Provider<?>>(1);
+                    groupedProviders.put(type, group);
+                }
+                group.add(provider);
+            }
+        }
+        for (final Map.Entry<Class<?>, List<Provider<?>>> group : groupedProviders.entrySet()) {
+            putProviders(group.getKey(), group.getValue());
+        }
+    }
+
+    /** @param providedType type of provided instances.
+     * @return class tree keys that the provider of the type should be mapped to. If super types are mapped, contains
+     *         the type, its super classes and all its interfaces excluding {@link #META_INTERFACES}. */
+    protected List<Class<?>> getMappedTypes(final Class<?> providedType) {
+        final List<Class<?>> types = new ArrayList<Class<?>>();
         if (!isMapSuperTypes()) {
-            putProvider(provider.getType(), provider);
-            return;
+            types.add(providedType);
+            return types;
         }
         final Queue<Class<?>> classesToProcess = new LinkedList<Class<?>>();
         final Set<Class<?>> processedClasses = Collections.newSetFromMap(new IdentityHashMap<Class<?>, Boolean>());
-        classesToProcess.add(provider.getType());
+        classesToProcess.add(providedType);
         while (!classesToProcess.isEmpty()) {
             final Class<?> processed = classesToProcess.poll();
             if (processedClasses.contains(processed)) {
                 continue;
             }
             processedClasses.add(processed);
-            putProvider(processed, provider);
+            types.add(processed);
             final Class<?> parent = processed.getSuperclass();
             if (parent != null && parent != Object.class) {
                 classesToProcess.add(parent);
@@ -464,11 +1310,16 @@ public class DefaultContext extends AbstractContext {
                 }
             }
         }
+        return types;
     }
 
     /** @param key provided class type.
      * @param provider will be assigned as a provider of the chosen class instances. */
     protected void putProvider(final Class<?> key, final Provider<?> provider) {
+        if (currentPlugin != null) {
+            currentPlugin.keys.add(key);
+            currentPlugin.providers.add(provider);
+        }
         final Provider<?> currentProvider = context.get(key);
         if (currentProvider == null) { // Unique - setting as the default provider:
             context.put(key, provider);
@@ -485,6 +1336,111 @@ public class DefaultContext extends AbstractContext {
         }
     }
 
+    /** @param key provided class type.
+     * @param providers will be assigned as providers of the chosen class instances. If the class becomes ambiguous,
+     *            its {@link ProviderManager} is filled before it replaces the current provider.
+     * @see #putProvider(Class, Provider) */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    protected void putProviders(final Class<?> key, final List<Provider<?>> providers) {
+        final Provider<?> currentProvider = context.get(key);
+        if (providers.size() == 1 || currentProvider instanceof ProviderManager<?>) {
+            for (final Provider<?> provider : providers) {
+                putProvider(key, provider);
+            }
+            return;
+        }
+        if (currentPlugin != null) {
+            for (final Provider<?> provider : providers) {
+                currentPlugin.keys.add(key);
+                currentPlugin.providers.add(provider);
+            }
+        }
+        final ProviderManager<?> manager = new ProviderManager(createMap(), key, this);
+        if (currentProvider != null) {
+            manager.addProvider(currentProvider);
+        }
+        for (final Provider<?> provider : providers) {
+            manager.addProvider(provider);
+        }
+        context.put(key, manager);
+    }
+
+    @Override
+    public void loadPlugin(final ClassLoader classLoader, final Class<?>... roots) {
+        PluginRegistry plugin = plugins.get(classLoader);
+        if (plugin == null) {
+            plugin = new PluginRegistry();
+            plugins.put(classLoader, plugin);
+        }
+        final PluginRegistry previousPlugin = currentPlugin;
+        currentPlugin = plugin;
+        try {
+            rescan(roots);
+        } finally {
+            currentPlugin = previousPlugin;
+        }
+    }
+
+    @Override
+    public void unloadPlugin(final ClassLoader classLoader) {
+        final PluginRegistry plugin = plugins.remove(classLoader);
+        if (plugin == null) {
+            return;
+        }
+        final PriorityQueue<Destructible> sortedDestructibles = getPrioritySortedDestructionQueue();
+        sortedDestructibles.addAll(plugin.destructibles);
+        destructibles.removeAll(plugin.destructibles);
+        try {
+            while (!sortedDestructibles.isEmpty()) {
+                sortedDestructibles.poll().destroy();
+            }
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to destroy plugin components.", exception);
+        } finally {
+            for (int index = 0, size = plugin.keys.size(); index < size; index++) {
+                removeProvider(plugin.keys.get(index), plugin.providers.get(index));
+            }
+            for (final Property property : plugin.properties) {
+                propertyProvider.removeProperty(property);
+            }
+            scannedClasses.removeAll(plugin.classes);
+            for (final Iterator<Class<?>> iterator = propertyFields.keySet().iterator(); iterator.hasNext();) {
+                if (iterator.next().getClassLoader() == classLoader) {
+                    iterator.remove();
+                }
+            }
+            for (final Iterator<Class<?>> iterator = injectableFields.keySet().iterator(); iterator.hasNext();) {
+                if (iterator.next().getClassLoader() == classLoader) {
+                    iterator.remove();
+                }
+            }
+            removePropertyBindings(classLoader);
+            for (final Iterator<Class<?>> iterator = META_INTERFACES.iterator(); iterator.hasNext();) {
+                if (iterator.next().getClassLoader() == classLoader) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /** @param key provided class type.
+     * @param provider will no longer be assigned as a provider of the chosen class instances. If the class has only
+     *            one provider left, it will become the default provider of the class. */
+    protected void removeProvider(final Class<?> key, final Provider<?> provider) {
+        final Provider<?> currentProvider = context.get(key);
+        if (currentProvider == provider) {
+            context.remove(key);
+        } else if (currentProvider instanceof ProviderManager<?>) {
+            final ProviderManager<?> manager = (ProviderManager<?>) currentProvider;
+            manager.removeProvider(provider);
+            if (manager.getProviders().isEmpty()) {
+                context.remove(key);
+            } else if (manager.getProviders().size() == 1) { // No longer ambiguous - replacing the manager:
+                context.put(key, manager.getProviders().iterator().next());
+            }
+        }
+    }
+
     @Override
     public void remove(final Class<?> type) {
         context.remove(type);
@@ -499,11 +1455,22 @@ public class DefaultContext extends AbstractContext {
     @Override
     protected void processFactory(final Object factory) {
         // Registering public methods as providers:
-        for (final Method method : factory.getClass().getMethods()) {
+        for (final Method method : getFactoryMethods(factory.getClass())) {
+            processProvider(newFactoryMethodWrapper(factory, method));
+        }
+    }
+
+    /** @param factoryClass class of a factory component.
+     * @return public methods of the class that should be converted to providers.
+     * @see #isValidFactoryMethod(Method) */
+    protected List<Method> getFactoryMethods(final Class<?> factoryClass) {
+        final List<Method> methods = new ArrayList<Method>();
+        for (final Method method : factoryClass.getMethods()) {
             if (isValidFactoryMethod(method)) {
-                processProvider(newFactoryMethodWrapper(factory, method));
+                methods.add(method);
             }
         }
+        return methods;
     }
 
     /** @param method cannot be synthetic, return void, have a forbidden name or have any filtered modifiers.
@@ -555,9 +1522,125 @@ public class DefaultContext extends AbstractContext {
         }
     }
 
+    /** @param classLoader recorded injections of fields declared by classes loaded with this class loader will be
+     *            removed. */
+    private void removePropertyBindings(final ClassLoader classLoader) {
+        final Map<String, List<PropertyBinding>> bindings = propertyBindings;
+        if (bindings == null) {
+            return;
+        }
+        for (final List<PropertyBinding> keyBindings : bindings.values()) {
+            synchronized (keyBindings) {
+                for (final Iterator<PropertyBinding> iterator = keyBindings.iterator(); iterator.hasNext();) {
+                    if (iterator.next().field.field.getDeclaringClass().getClassLoader() == classLoader) {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public void clear() {
         context.clear();
+        scannedClasses.clear();
+        plugins.clear();
+        propertyFields.clear();
+        injectableFields.clear();
+        if (propertyBindings != null) {
+            propertyBindings.clear();
+        }
         addCoreProviders();
     }
+
+    /** Field injected with converted property values or a map of prefixed properties.
+     *
+     * @author MJ */
+    private static class PropertyField {
+        private final Field field;
+        /** Property key or key prefix in case of map fields. */
+        private final String key;
+        private final PropertyConverter<?> converter;
+        private final boolean primitive;
+        /** Default value of primitive fields. Null for other fields. */
+        private final Object unsetValue;
+        private final boolean string;
+        private final boolean map;
+
+        PropertyField(final Field field, final PropertyConverter<?> converter, final boolean map) {
+            this.field = field;
+            this.converter = converter;
+            this.map = map;
+            key = map ? Providers.getName(field) + "." : Providers.getName(field);
+            primitive = field.getType().isPrimitive();
+            unsetValue = primitive ? Array.get(Array.newInstance(field.getType(), 1), 0) : null;
+            string = field.getType() == String.class;
+        }
+
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        void inject(final Object component, final DefaultContext context) throws Exception {
+            final Object currentValue = field.get(component);
+            if (currentValue != null && !currentValue.equals(unsetValue)) {
+                return; // Assigned by the component.
+            } else if (map) {
+                field.set(component, context.isAvailable(Map.class) ? context.get(Map.class, component, field)
+                        : new PrefixedPropertyMap(context.propertyProvider, key, converter));
+                return;
+            } else if (string && context.context.get(String.class) != context.propertyProvider) {
+                // Custom string providers were registered - they might not be backed by properties:
+                field.set(component, context.get(String.class, component, field));
+                return;
+            }
+            final Property property = context.propertyProvider.getProperty(key);
+            if (property == null && !primitive && !string && context.isAvailable(field.getType())) {
+                field.set(component, context.get(field.getType(), component, field));
+                return;
+            }
+            if (property != null) {
+                context.trackPropertyInjection(key, component, this);
+                set(component, property);
+            }
+        }
+
+        /** @param component owner of the field.
+         * @param property its current value will be converted and assigned to the field. If the property or its value
+         *            is null, non-primitive fields are cleared. */
+        void set(final Object component, final Property property) throws Exception {
+            final Object value;
+            if (property == null || property.getValue() == null) {
+                value = null;
+            } else if (string) {
+                value = property.getValue();
+            } else {
+                value = PropertyConverters.convert(property, converter);
+            }
+            if (value != null || !primitive) {
+                field.set(component, value);
+            }
+        }
+    }
+
+    /** Weakly references a component with a field injected with a property.
+     *
+     * @author MJ */
+    private static class PropertyBinding extends WeakReference<Object> {
+        private final PropertyField field;
+
+        PropertyBinding(final Object component, final PropertyField field) {
+            super(component);
+            this.field = field;
+        }
+    }
+
+    /** Stores registrations of a single plugin.
+     *
+     * @author MJ */
+    private static class PluginRegistry {
+        /** Class tree mappings. Indexes match {@link #providers}. */
+        private final List<Class<?>> keys = new ArrayList<Class<?>>();
+        private final List<Provider<?>> providers = new ArrayList<Provider<?>>();
+        private final List<Destructible> destructibles = new ArrayList<Destructible>();
+        private final List<Property> properties = new ArrayList<Property>();
+        private final List<Class<?>> classes = new ArrayList<Class<?>>();
+    }
 }
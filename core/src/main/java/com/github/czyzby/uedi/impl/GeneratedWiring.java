@@ -0,0 +1,129 @@
+package com.github.czyzby.uedi.impl;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.github.czyzby.uedi.stereotype.Initiated;
+import com.github.czyzby.uedi.stereotype.Provider;
+
+/** Base class for code generated ahead of time from a {@link WiringPlan}. Generated implementations construct
+ * components with direct constructor calls, assign injectable fields directly and wrap factory methods with
+ * {@link com.github.czyzby.uedi.stereotype.impl.GeneratedProvider} implementations invoking the methods directly.
+ * Reflection is used only to access private fields and types that are not visible to the generated code.
+ *
+ * @author MJ
+ * @see DefaultContext#load(GeneratedWiring) */
+public abstract class GeneratedWiring {
+    private final Map<String, Class<?>> types = new HashMap<String, Class<?>>();
+    /** Accessible fields that are not visible to the generated code. Mapped by declaring class and field names. */
+    private final Map<String, Map<String, Field>> fields = new HashMap<String, Map<String, Field>>();
+    private DefaultContext context;
+    private PriorityQueue<Initiated> componentsToInitiate;
+
+    /** @param context will contain all generated components. */
+    void wire(final DefaultContext context) {
+        this.context = context;
+        componentsToInitiate = context.getPrioritySortedInitiationQueue();
+        try {
+            final Object[] components = createComponents();
+            injectFields(components);
+            for (final Object component : components) {
+                context.injectProperties(component);
+            }
+            while (!componentsToInitiate.isEmpty()) {
+                componentsToInitiate.poll().initiate();
+            }
+        } catch (final RuntimeException exception) {
+            throw exception;
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to create generated components.", exception);
+        } finally {
+            this.context = null;
+            componentsToInitiate = null;
+        }
+    }
+
+    /** @return all created components in the construction order. Each component should be passed to
+     *         {@link #register(Object, Class[], Provider...)} right after its construction.
+     * @throws Exception if unable to create components. */
+    protected abstract Object[] createComponents() throws Exception;
+
+    /** @param components were created by {@link #createComponents()}. Their empty injectable fields should be filled.
+     * @throws Exception if unable to inject fields. */
+    protected abstract void injectFields(Object[] components) throws Exception;
+
+    /** @return context that is currently filled with components. */
+    protected DefaultContext getContext() {
+        return context;
+    }
+
+    /** @param component was just constructed.
+     * @param mappedTypes component will be mapped to these class tree keys.
+     * @param factoryProviders wrap factory methods of the component. */
+    protected void register(final Object component, final Class<?>[] mappedTypes,
+            final Provider<?>... factoryProviders) {
+        context.registerScannedComponent(component, Arrays.asList(mappedTypes), Arrays.asList(factoryProviders),
+                componentsToInitiate);
+    }
+
+    /** @param type type of the dependency.
+     * @param forObject instance of the component requesting the dependency. Null for constructor parameters.
+     * @param member field or constructor requesting the dependency. Generated code passes shared
+     *            {@link com.github.czyzby.uedi.stereotype.impl.MockMember} constants with member names.
+     * @return dependency provided by the context. */
+    protected Object get(final Class<?> type, final Object forObject, final Member member) {
+        return context.get(type, forObject, member);
+    }
+
+    /** @param className binary name of a class that is not visible to the generated code.
+     * @return class instance. */
+    protected Class<?> type(final String className) {
+        Class<?> type = types.get(className);
+        if (type == null) {
+            try {
+                type = Class.forName(className, false, getClass().getClassLoader());
+            } catch (final ClassNotFoundException exception) {
+                throw new RuntimeException("Unable to load class of generated component: " + className, exception);
+            }
+            types.put(className, type);
+        }
+        return type;
+    }
+
+    /** Injects a field that is not visible to the generated code. Field is injected only if it is empty.
+     *
+     * @param component owner of the field.
+     * @param declaringClassName binary name of the class declaring the field.
+     * @param fieldName name of the field.
+     * @throws Exception due to reflection issues. */
+    protected void inject(final Object component, final String declaringClassName, final String fieldName)
+            throws Exception {
+        final Field field = field(declaringClassName, fieldName);
+        if (field.get(component) == null) {
+            field.set(component, get(field.getType(), component, field));
+        }
+    }
+
+    /** @param declaringClassName binary name of the class declaring the field.
+     * @param fieldName name of the field.
+     * @return accessible field. Fields are looked up and made accessible once per wiring instance.
+     * @throws NoSuchFieldException if the field does not exist. */
+    protected Field field(final String declaringClassName, final String fieldName) throws NoSuchFieldException {
+        Map<String, Field> declaredFields = fields.get(declaringClassName);
+        if (declaredFields == null) {
+            declaredFields = new HashMap<String, Field>();
+            fields.put(declaringClassName, declaredFields);
+        }
+        Field field = declaredFields.get(fieldName);
+        if (field == null) {
+            field = type(declaringClassName).getDeclaredField(fieldName);
+            field.setAccessible(true);
+            declaredFields.put(fieldName, field);
+        }
+        return field;
+    }
+}
@@ -0,0 +1,596 @@
+package com.github.czyzby.uedi.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Generates {@link ComponentInjector} implementations bound to a single component class. Class files are written
+ * directly, without any bytecode libraries. Java 5 class file format is used, so the generated methods do not need
+ * stack map frames.
+ *
+ * <p>
+ * If the JVM supports hidden classes (Java 15+), injectors are defined as hidden nestmates of the component class
+ * with a private lookup. This allows the generated code to access package-private members of the component package
+ * and private members of the component class itself. Otherwise, injectors are defined by a child class loader and
+ * can access only public members of public classes. Members that are not accessible should be handled with
+ * reflection.
+ *
+ * @author MJ */
+class InjectorGenerator {
+    private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+    private static final int CLASS_FILE_VERSION = 49; // Java 5: verified by type inference.
+    private static final String NAME_SUFFIX = "$$Injector";
+    private static final String SUPER_CLASS = getInternalName(ComponentInjector.class);
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    private static final int ACONST_NULL = 0x01;
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ALOAD_2 = 0x2c;
+    private static final int ALOAD_3 = 0x2d;
+    private static final int ILOAD_1 = 0x1b;
+    private static final int AALOAD = 0x32;
+    private static final int ASTORE_2 = 0x4d;
+    private static final int DUP = 0x59;
+    private static final int TABLESWITCH = 0xaa;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int NEW = 0xbb;
+    private static final int CHECKCAST = 0xc0;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELD = 9;
+    private static final int CONSTANT_METHOD = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<Class<?>, Class<?>>();
+    private static final Object HIDDEN_CLASS_SUPPORT = getHiddenClassSupport();
+
+    static {
+        WRAPPERS.put(boolean.class, Boolean.class);
+        WRAPPERS.put(byte.class, Byte.class);
+        WRAPPERS.put(char.class, Character.class);
+        WRAPPERS.put(short.class, Short.class);
+        WRAPPERS.put(int.class, Integer.class);
+        WRAPPERS.put(long.class, Long.class);
+        WRAPPERS.put(float.class, Float.class);
+        WRAPPERS.put(double.class, Double.class);
+    }
+
+    private final Class<?> componentClass;
+    private final boolean privileged;
+    private final String className;
+    private final ConstantPool constants = new ConstantPool();
+    private final ByteArrayOutputStream methodsBytes = new ByteArrayOutputStream();
+    private final DataOutputStream methods = new DataOutputStream(methodsBytes);
+    private int methodsAmount;
+
+    /** @param componentClass injectors will be bound to this class.
+     * @param privileged if true, injector will be defined as a hidden nestmate of the component class. Should be
+     *            true only if {@link #isHiddenClassSupported()}. */
+    InjectorGenerator(final Class<?> componentClass, final boolean privileged) {
+        this.componentClass = componentClass;
+        this.privileged = privileged;
+        className = getInternalName(componentClass) + NAME_SUFFIX;
+    }
+
+    /** @return true if the JVM supports hidden classes. */
+    static boolean isHiddenClassSupported() {
+        return HIDDEN_CLASS_SUPPORT != null;
+    }
+
+    /** @param type will be referenced by the generated code.
+     * @return true if the type can be accessed by the generated class. */
+    boolean isAccessible(final Class<?> type) {
+        if (type.isPrimitive()) {
+            return true;
+        } else if (type.isArray()) {
+            return isAccessible(type.getComponentType());
+        }
+        final int modifiers = type.getModifiers();
+        // Protected nested classes are public on the JVM level:
+        return Modifier.isPublic(modifiers) || type.isMemberClass() && Modifier.isProtected(modifiers)
+                || privileged && isFromComponentPackage(type);
+    }
+
+    /** @param member field, method or constructor.
+     * @return true if the member can be accessed by the generated class. */
+    boolean isAccessible(final Member member) {
+        final Class<?> declaringClass = member.getDeclaringClass();
+        if (!isAccessible(declaringClass)) {
+            return false;
+        }
+        final int modifiers = member.getModifiers();
+        if (Modifier.isPublic(modifiers)) {
+            return true;
+        } else if (Modifier.isPrivate(modifiers)) {
+            return privileged && declaringClass == componentClass;
+        }
+        return privileged && isFromComponentPackage(declaringClass);
+    }
+
+    /** @param field injectable field.
+     * @return true if the field can be assigned by the generated code. */
+    boolean isAssignable(final Field field) {
+        final int modifiers = field.getModifiers();
+        return !Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && isAccessible(field)
+                && isAccessible(field.getType());
+    }
+
+    /** @param method factory method.
+     * @return true if the method can be invoked by the generated code. */
+    boolean isInvokable(final Method method) {
+        return !Modifier.isStatic(method.getModifiers()) && isAccessible(method)
+                && isAccessible(method.getParameterTypes());
+    }
+
+    /** @param constructor component constructor.
+     * @return true if the constructor can be invoked by the generated code. */
+    boolean isInvokable(final Constructor<?> constructor) {
+        return !Modifier.isAbstract(componentClass.getModifiers()) && isAccessible(constructor)
+                && isAccessible(constructor.getParameterTypes());
+    }
+
+    private boolean isAccessible(final Class<?>[] types) {
+        for (final Class<?> type : types) {
+            if (!isAccessible(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isFromComponentPackage(final Class<?> type) {
+        return type.getClassLoader() == componentClass.getClassLoader()
+                && getPackageName(type).equals(getPackageName(componentClass));
+    }
+
+    private static String getPackageName(final Class<?> type) {
+        final String name = type.getName();
+        final int separatorIndex = name.lastIndexOf('.');
+        return separatorIndex < 0 ? "" : name.substring(0, separatorIndex);
+    }
+
+    /** @param constructor will be invoked by {@link ComponentInjector#construct(Object[])}. Can be null.
+     * @param fields will be assigned by {@link ComponentInjector#injectFields(Object)}. Have to be assignable.
+     * @param factoryMethods will be invoked by {@link ComponentInjector#invokeMethod(int, Object, Object[])}. Have to
+     *            be invokable.
+     * @return class file data of the injector.
+     * @see #isInvokable(Constructor)
+     * @see #isAssignable(Field)
+     * @see #isInvokable(Method) */
+    byte[] generate(final Constructor<?> constructor, final List<Field> fields, final List<Method> factoryMethods) {
+        try {
+            addDefaultConstructor();
+            if (constructor != null) {
+                addConstruct(constructor);
+            }
+            if (!fields.isEmpty()) {
+                addInjectFields(fields);
+            }
+            if (!factoryMethods.isEmpty()) {
+                addInvokeMethod(factoryMethods);
+            }
+            final int thisClass = constants.getClass(className);
+            final int superClass = constants.getClass(SUPER_CLASS);
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(CLASS_FILE_MAGIC);
+            output.writeShort(0); // Minor version.
+            output.writeShort(CLASS_FILE_VERSION);
+            constants.write(output);
+            output.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC);
+            output.writeShort(thisClass);
+            output.writeShort(superClass);
+            output.writeShort(0); // Interfaces.
+            output.writeShort(0); // Fields.
+            output.writeShort(methodsAmount);
+            methods.flush();
+            methodsBytes.writeTo(output);
+            output.writeShort(0); // Attributes.
+            output.flush();
+            return bytes.toByteArray();
+        } catch (final IOException exception) {
+            throw new RuntimeException("Unable to generate injector of: " + componentClass, exception);
+        }
+    }
+
+    /** @param classData generated with {@link #generate(Constructor, List, List)}.
+     * @return defined injector class.
+     * @throws Exception if unable to define the class. */
+    Class<?> define(final byte[] classData) throws Exception {
+        if (privileged) {
+            return ((HiddenClassSupport) HIDDEN_CLASS_SUPPORT).define(componentClass, classData);
+        }
+        return new InjectorClassLoader(componentClass.getClassLoader()).define(className.replace('/', '.'),
+                classData);
+    }
+
+    private void addDefaultConstructor() throws IOException {
+        final Code code = new Code();
+        code.write(ALOAD_0);
+        code.write(INVOKESPECIAL);
+        code.writeShort(constants.getMethod(SUPER_CLASS, "<init>", "()V"));
+        code.write(RETURN);
+        addMethod("<init>", "()V", code, 1, 1);
+    }
+
+    private void addConstruct(final Constructor<?> constructor) throws IOException {
+        final Code code = new Code();
+        final String owner = getInternalName(componentClass);
+        final Class<?>[] parameterTypes = constructor.getParameterTypes();
+        code.write(NEW);
+        code.writeShort(constants.getClass(owner));
+        code.write(DUP);
+        final int stack = 2 + loadArguments(code, ALOAD_1, parameterTypes);
+        code.write(INVOKESPECIAL);
+        code.writeShort(constants.getMethod(owner, "<init>", getDescriptor(parameterTypes, void.class)));
+        code.write(ARETURN);
+        addMethod("construct", "([Ljava/lang/Object;)Ljava/lang/Object;", code, stack, 2);
+    }
+
+    private void addInjectFields(final List<Field> fields) throws IOException {
+        final Code code = new Code();
+        code.write(ALOAD_1);
+        code.write(CHECKCAST);
+        code.writeShort(constants.getClass(getInternalName(componentClass)));
+        code.write(ASTORE_2);
+        final int valueMethod = constants.getMethod(SUPER_CLASS, "value",
+                "(Ljava/lang/Object;ILjava/lang/Object;)Ljava/lang/Object;");
+        for (int index = 0, size = fields.size(); index < size; index++) {
+            final Field field = fields.get(index);
+            final int fieldReference = constants.getField(getInternalName(field.getDeclaringClass()),
+                    field.getName(), getDescriptor(field.getType()));
+            code.write(ALOAD_2); // Field owner for PUTFIELD.
+            code.write(ALOAD_0);
+            code.write(ALOAD_2);
+            code.write(GETFIELD);
+            code.writeShort(fieldReference);
+            pushInt(code, index);
+            code.write(ALOAD_2);
+            code.write(INVOKEVIRTUAL);
+            code.writeShort(valueMethod);
+            cast(code, field.getType());
+            code.write(PUTFIELD);
+            code.writeShort(fieldReference);
+        }
+        code.write(RETURN);
+        addMethod("injectFields", "(Ljava/lang/Object;)V", code, 5, 3);
+    }
+
+    private void addInvokeMethod(final List<Method> factoryMethods) throws IOException {
+        final Code code = new Code();
+        final String owner = getInternalName(componentClass);
+        final int size = factoryMethods.size();
+        code.write(ILOAD_1);
+        final int switchPosition = code.size();
+        code.write(TABLESWITCH);
+        while (code.size() % 4 != 0) {
+            code.write(0); // Padding.
+        }
+        final int defaultOffsetPosition = code.size();
+        code.writeInt(0); // Default offset, set later.
+        code.writeInt(0); // Low.
+        code.writeInt(size - 1); // High.
+        final int offsetsPosition = code.size();
+        for (int index = 0; index < size; index++) {
+            code.writeInt(0); // Case offsets, set later.
+        }
+        int stack = 1;
+        for (int index = 0; index < size; index++) {
+            final Method method = factoryMethods.get(index);
+            code.setInt(offsetsPosition + index * 4, code.size() - switchPosition);
+            code.write(ALOAD_2);
+            code.write(CHECKCAST);
+            code.writeShort(constants.getClass(owner));
+            final Class<?>[] parameterTypes = method.getParameterTypes();
+            stack = Math.max(stack, 1 + loadArguments(code, ALOAD_3, parameterTypes));
+            code.write(INVOKEVIRTUAL);
+            code.writeShort(constants.getMethod(owner, method.getName(),
+                    getDescriptor(parameterTypes, method.getReturnType())));
+            stack = Math.max(stack, getSize(method.getReturnType()));
+            box(code, method.getReturnType());
+            code.write(ARETURN);
+        }
+        code.setInt(defaultOffsetPosition, code.size() - switchPosition);
+        code.write(ACONST_NULL);
+        code.write(ARETURN);
+        addMethod("invokeMethod", "(ILjava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;", code, stack, 4);
+    }
+
+    /** @return maximum stack size used to load the arguments. */
+    private int loadArguments(final Code code, final int loadArray, final Class<?>[] parameterTypes)
+            throws IOException {
+        int slots = 0;
+        int stack = 0;
+        for (int index = 0; index < parameterTypes.length; index++) {
+            code.write(loadArray);
+            pushInt(code, index);
+            code.write(AALOAD);
+            stack = Math.max(stack, slots + Math.max(2, getSize(parameterTypes[index])));
+            cast(code, parameterTypes[index]);
+            slots += getSize(parameterTypes[index]);
+        }
+        return Math.max(stack, slots);
+    }
+
+    private void pushInt(final Code code, final int value) throws IOException {
+        if (value <= 5) {
+            code.write(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            code.write(BIPUSH);
+            code.write(value);
+        } else if (value <= Short.MAX_VALUE) {
+            code.write(SIPUSH);
+            code.writeShort(value);
+        } else {
+            throw new IllegalArgumentException("Too many members: " + value);
+        }
+    }
+
+    /** Converts an object on the top of the stack to the selected type. Unboxes primitives. */
+    private void cast(final Code code, final Class<?> type) throws IOException {
+        if (type == Object.class) {
+            return;
+        }
+        final Class<?> wrapper = WRAPPERS.get(type);
+        code.write(CHECKCAST);
+        code.writeShort(constants.getClass(getInternalName(wrapper == null ? type : wrapper)));
+        if (wrapper != null) {
+            code.write(INVOKEVIRTUAL);
+            code.writeShort(constants.getMethod(getInternalName(wrapper), type.getName() + "Value",
+                    "()" + getDescriptor(type)));
+        }
+    }
+
+    /** Boxes a primitive on the top of the stack. */
+    private void box(final Code code, final Class<?> type) throws IOException {
+        final Class<?> wrapper = WRAPPERS.get(type);
+        if (wrapper != null) {
+            code.write(INVOKESTATIC);
+            code.writeShort(constants.getMethod(getInternalName(wrapper), "valueOf",
+                    "(" + getDescriptor(type) + ")" + getDescriptor(wrapper)));
+        }
+    }
+
+    private void addMethod(final String name, final String descriptor, final Code code, final int maxStack,
+            final int maxLocals) throws IOException {
+        methods.writeShort(ACC_PUBLIC);
+        methods.writeShort(constants.getUtf8(name));
+        methods.writeShort(constants.getUtf8(descriptor));
+        methods.writeShort(1); // Attributes.
+        methods.writeShort(constants.getUtf8("Code"));
+        methods.writeInt(12 + code.size());
+        methods.writeShort(maxStack);
+        methods.writeShort(maxLocals);
+        methods.writeInt(code.size());
+        code.writeTo(methods);
+        methods.writeShort(0); // Exception table.
+        methods.writeShort(0); // Code attributes.
+        methodsAmount++;
+    }
+
+    private static int getSize(final Class<?> type) {
+        return type == long.class || type == double.class ? 2 : type == void.class ? 0 : 1;
+    }
+
+    /** @param type class or array type.
+     * @return internal name of the class: binary name with '/' package separators or descriptor of an array. */
+    static String getInternalName(final Class<?> type) {
+        return type.isArray() ? getDescriptor(type) : type.getName().replace('.', '/');
+    }
+
+    /** @param type any type.
+     * @return JVM type descriptor. */
+    static String getDescriptor(final Class<?> type) {
+        if (type.isArray()) {
+            return '[' + getDescriptor(type.getComponentType());
+        } else if (!type.isPrimitive()) {
+            return 'L' + getInternalName(type) + ';';
+        } else if (type == boolean.class) {
+            return "Z";
+        } else if (type == long.class) {
+            return "J";
+        }
+        return String.valueOf(Character.toUpperCase(type.getName().charAt(0)));
+    }
+
+    private static String getDescriptor(final Class<?>[] parameterTypes, final Class<?> returnType) {
+        final StringBuilder descriptor = new StringBuilder("(");
+        for (final Class<?> parameterType : parameterTypes) {
+            descriptor.append(getDescriptor(parameterType));
+        }
+        return descriptor.append(')').append(getDescriptor(returnType)).toString();
+    }
+
+    private static Object getHiddenClassSupport() {
+        try {
+            return new HiddenClassSupport();
+        } catch (final Throwable unsupported) {
+            return null; // Hidden classes are unavailable: Java 14 or older.
+        }
+    }
+
+    /** Method body buffer.
+     *
+     * @author MJ */
+    private static class Code extends DataOutputStream {
+        Code() {
+            super(new ByteArrayOutputStream());
+        }
+
+        void setInt(final int position, final int value) throws IOException {
+            flush();
+            final byte[] buffer = ((ByteArrayOutputStream) out).toByteArray();
+            buffer[position] = (byte) (value >>> 24);
+            buffer[position + 1] = (byte) (value >>> 16);
+            buffer[position + 2] = (byte) (value >>> 8);
+            buffer[position + 3] = (byte) value;
+            ((ByteArrayOutputStream) out).reset();
+            out.write(buffer);
+        }
+
+        void writeTo(final DataOutputStream output) throws IOException {
+            flush();
+            ((ByteArrayOutputStream) out).writeTo(output);
+        }
+    }
+
+    /** Stores class file constants.
+     *
+     * @author MJ */
+    private static class ConstantPool {
+        private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream data = new DataOutputStream(bytes);
+        private int size = 1;
+
+        int getUtf8(final String value) throws IOException {
+            final String key = CONSTANT_UTF8 + value;
+            Integer index = indexes.get(key);
+            if (index == null) {
+                data.writeByte(CONSTANT_UTF8);
+                data.writeUTF(value);
+                index = add(key);
+            }
+            return index.intValue();
+        }
+
+        int getClass(final String internalName) throws IOException {
+            final String key = CONSTANT_CLASS + "#" + internalName;
+            Integer index = indexes.get(key);
+            if (index == null) {
+                final int name = getUtf8(internalName);
+                data.writeByte(CONSTANT_CLASS);
+                data.writeShort(name);
+                index = add(key);
+            }
+            return index.intValue();
+        }
+
+        int getField(final String owner, final String name, final String descriptor) throws IOException {
+            return getMember(CONSTANT_FIELD, owner, name, descriptor);
+        }
+
+        int getMethod(final String owner, final String name, final String descriptor) throws IOException {
+            return getMember(CONSTANT_METHOD, owner, name, descriptor);
+        }
+
+        private int getMember(final int tag, final String owner, final String name, final String descriptor)
+                throws IOException {
+            final String key = tag + "#" + owner + '.' + name + descriptor;
+            Integer index = indexes.get(key);
+            if (index == null) {
+                final int ownerIndex = getClass(owner);
+                final int nameAndType = getNameAndType(name, descriptor);
+                data.writeByte(tag);
+                data.writeShort(ownerIndex);
+                data.writeShort(nameAndType);
+                index = add(key);
+            }
+            return index.intValue();
+        }
+
+        private int getNameAndType(final String name, final String descriptor) throws IOException {
+            final String key = CONSTANT_NAME_AND_TYPE + "#" + name + ':' + descriptor;
+            Integer index = indexes.get(key);
+            if (index == null) {
+                final int nameIndex = getUtf8(name);
+                final int descriptorIndex = getUtf8(descriptor);
+                data.writeByte(CONSTANT_NAME_AND_TYPE);
+                data.writeShort(nameIndex);
+                data.writeShort(descriptorIndex);
+                index = add(key);
+            }
+            return index.intValue();
+        }
+
+        private Integer add(final String key) {
+            final Integer index = Integer.valueOf(size++);
+            indexes.put(key, index);
+            return index;
+        }
+
+        void write(final DataOutputStream output) throws IOException {
+            data.flush();
+            output.writeShort(size);
+            bytes.writeTo(output);
+        }
+    }
+
+    /** Defines hidden classes with {@code MethodHandles.Lookup.defineHiddenClass} (Java 15+). Accessed with reflection,
+     * as the library targets older Java versions.
+     *
+     * @author MJ */
+    private static class HiddenClassSupport {
+        private final Object lookup;
+        private final Method privateLookupIn;
+        private final Method defineHiddenClass;
+        private final Method lookupClass;
+        private final Object options;
+
+        HiddenClassSupport() throws Exception {
+            final Class<?> methodHandles = Class.forName("java.lang.invoke.MethodHandles");
+            final Class<?> lookupType = Class.forName("java.lang.invoke.MethodHandles$Lookup");
+            final Class<?> classOption = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            lookup = methodHandles.getMethod("lookup").invoke(null);
+            privateLookupIn = methodHandles.getMethod("privateLookupIn", Class.class, lookupType);
+            options = Array.newInstance(classOption, 1);
+            Array.set(options, 0, classOption.getField("NESTMATE").get(null));
+            defineHiddenClass = lookupType.getMethod("defineHiddenClass", byte[].class, boolean.class,
+                    options.getClass());
+            lookupClass = lookupType.getMethod("lookupClass");
+        }
+
+        Class<?> define(final Class<?> componentClass, final byte[] classData) throws Exception {
+            final Object componentLookup = privateLookupIn.invoke(null, componentClass, lookup);
+            final Object hiddenClassLookup = defineHiddenClass.invoke(componentLookup, classData, Boolean.TRUE,
+                    options);
+            return (Class<?>) lookupClass.invoke(hiddenClassLookup);
+        }
+    }
+
+    /** Defines injectors if hidden classes are not supported. Ensures that {@link ComponentInjector} is shared with the
+     * library class loader.
+     *
+     * @author MJ */
+    private static class InjectorClassLoader extends ClassLoader {
+        InjectorClassLoader(final ClassLoader parent) {
+            super(parent == null ? ClassLoader.getSystemClassLoader() : parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            if (ComponentInjector.class.getName().equals(name)) {
+                return ComponentInjector.class;
+            }
+            return super.loadClass(name, resolve);
+        }
+
+        Class<?> define(final String name, final byte[] classData) {
+            return defineClass(name, classData, 0, classData.length);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.github.czyzby.uedi.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Stores the resolved wiring of scanned components: component classes in construction order, chosen constructors,
+ * class tree mappings, injectable fields and factory methods. Can be recorded by {@link DefaultContext} during
+ * scanning, saved in a compact binary format and used to rebuild the context on the next start without classpath
+ * scanning and most of the reflection-heavy analysis.
+ *
+ * <p>
+ * Each component class is stored with a fingerprint of its constructors, fields and methods. Plans are validated
+ * when they are read: if any component class was changed in a way that could affect its wiring (or could not be
+ * loaded), reading fails and the context should be scanned instead.
+ *
+ * @author MJ
+ * @see DefaultContext#setWiringPlan(WiringPlan)
+ * @see DefaultContext#load(WiringPlan) */
+public class WiringPlan {
+    private static final int MAGIC_NUMBER = 0x55454449; // "UEDI"
+    private static final int VERSION = 2;
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<String, Class<?>>();
+
+    static {
+        for (final Class<?> primitive : new Class<?>[] { boolean.class, byte.class, char.class, short.class,
+                int.class, long.class, float.class, double.class, void.class }) {
+            PRIMITIVES.put(primitive.getName(), primitive);
+        }
+    }
+
+    private final List<ComponentPlan> components = new ArrayList<ComponentPlan>();
+    private final Map<Class<?>, ComponentPlan> componentsByClass = new IdentityHashMap<Class<?>, ComponentPlan>();
+
+    /** @return all planned components in construction order. */
+    public List<ComponentPlan> getComponents() {
+        return Collections.unmodifiableList(components);
+    }
+
+    /** @param componentClass class of a scanned component.
+     * @return plan of the component or null if the class is not a part of the plan. */
+    public ComponentPlan getComponent(final Class<?> componentClass) {
+        return componentsByClass.get(componentClass);
+    }
+
+    /** @return true if no components are planned. */
+    public boolean isEmpty() {
+        return components.isEmpty();
+    }
+
+    /** @param componentClass class of the component. Components should be added in their construction order.
+     * @param constructor was used to construct the component.
+     * @param types component will be mapped to these class tree keys.
+     * @param factoryMethods these methods will be converted to providers. Should be empty if the component is not a
+     *            factory.
+     * @return plan of the component. */
+    ComponentPlan add(final Class<?> componentClass, final Constructor<?> constructor, final List<Class<?>> types,
+            final List<Method> factoryMethods) {
+        final ComponentPlan component = new ComponentPlan(componentClass, constructor, types, factoryMethods);
+        if (componentsByClass.put(componentClass, component) == null) {
+            components.add(component);
+        } else { // Component was scanned once again. Replacing previous plan.
+            components.remove(getIndex(componentClass));
+            components.add(component);
+        }
+        return component;
+    }
+
+    private int getIndex(final Class<?> componentClass) {
+        for (int index = 0, size = components.size(); index < size; index++) {
+            if (components.get(index).componentClass == componentClass) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /** @param output the plan will be written to this stream. Stream is not closed.
+     * @throws IOException if unable to write the plan. */
+    public void write(final OutputStream output) throws IOException {
+        final DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(MAGIC_NUMBER);
+        data.writeInt(VERSION);
+        data.writeInt(components.size());
+        for (final ComponentPlan component : components) {
+            data.writeUTF(component.componentClass.getName());
+            data.writeInt(getFingerprint(component.componentClass));
+            writeTypes(data, component.constructor.getParameterTypes());
+            writeTypes(data, component.types.toArray(new Class<?>[component.types.size()]));
+            data.writeInt(component.fields.size());
+            for (final Field field : component.fields) {
+                data.writeUTF(field.getDeclaringClass().getName());
+                data.writeUTF(field.getName());
+            }
+            data.writeInt(component.factoryMethods.size());
+            for (final Method method : component.factoryMethods) {
+                data.writeUTF(method.getName());
+                writeTypes(data, method.getParameterTypes());
+            }
+        }
+        data.flush();
+    }
+
+    private static void writeTypes(final DataOutputStream data, final Class<?>[] types) throws IOException {
+        data.writeInt(types.length);
+        for (final Class<?> type : types) {
+            data.writeUTF(type.getName());
+        }
+    }
+
+    /** @param input contains a plan saved with {@link #write(OutputStream)}. Stream is not closed.
+     * @param classLoader will be used to load planned classes.
+     * @return a validated plan.
+     * @throws IOException if unable to read the plan.
+     * @throws RuntimeException if the plan is invalid or outdated: classes cannot be loaded, planned members do not
+     *             exist or class fingerprints do not match. */
+    public static WiringPlan read(final InputStream input, final ClassLoader classLoader) throws IOException {
+        final DataInputStream data = new DataInputStream(input);
+        if (data.readInt() != MAGIC_NUMBER || data.readInt() != VERSION) {
+            throw new RuntimeException("Unable to read wiring plan: unknown format.");
+        }
+        final WiringPlan plan = new WiringPlan();
+        String className = null;
+        try {
+            for (int componentIndex = 0, size = data.readInt(); componentIndex < size; componentIndex++) {
+                className = data.readUTF();
+                final Class<?> componentClass = Class.forName(className, false, classLoader);
+                if (data.readInt() != getFingerprint(componentClass)) {
+                    throw new RuntimeException("Outdated wiring plan: class was modified: " + className);
+                }
+                final Constructor<?> constructor = componentClass.getConstructor(readTypes(data, classLoader));
+                final List<Class<?>> types = new ArrayList<Class<?>>();
+                Collections.addAll(types, readTypes(data, classLoader));
+                final List<Field> fields = new ArrayList<Field>();
+                for (int index = 0, fieldsAmount = data.readInt(); index < fieldsAmount; index++) {
+                    final Class<?> declaringClass = Class.forName(data.readUTF(), false, classLoader);
+                    final Field field = declaringClass.getDeclaredField(data.readUTF());
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+                final List<Method> factoryMethods = new ArrayList<Method>();
+                for (int index = 0, methodsAmount = data.readInt(); index < methodsAmount; index++) {
+                    factoryMethods.add(componentClass.getMethod(data.readUTF(), readTypes(data, classLoader)));
+                }
+                plan.add(componentClass, constructor, types, factoryMethods).setFields(fields);
+            }
+        } catch (final RuntimeException exception) {
+            throw exception;
+        } catch (final IOException exception) {
+            throw exception;
+        } catch (final Exception exception) {
+            throw new RuntimeException("Outdated wiring plan: unable to resolve members of: " + className,
+                    exception);
+        }
+        return plan;
+    }
+
+    private static Class<?>[] readTypes(final DataInputStream data, final ClassLoader classLoader)
+            throws IOException, ClassNotFoundException {
+        final Class<?>[] types = new Class<?>[data.readInt()];
+        for (int index = 0; index < types.length; index++) {
+            final String typeName = data.readUTF();
+            final Class<?> primitive = PRIMITIVES.get(typeName);
+            types[index] = primitive == null ? Class.forName(typeName, false, classLoader) : primitive;
+        }
+        return types;
+    }
+
+    /** @param componentClass class of a planned component.
+     * @return hash of the names and types of public constructors, public methods and declared fields of the class and
+     *         its superclasses. Changes in any of these might affect the wiring of the component. Does not depend on
+     *         the order of the members returned by reflection, which can differ between JVM runs.
+     * @see #getMemberSignatures(Class) */
+    protected static int getFingerprint(final Class<?> componentClass) {
+        return getFingerprint(componentClass.getName(), getMemberSignatures(componentClass));
+    }
+
+    /** @param className name of a planned component class.
+     * @param memberSignatures signatures of the class members in any order. Will be sorted.
+     * @return hash of the class name and the sorted member signatures. */
+    protected static int getFingerprint(final String className, final List<String> memberSignatures) {
+        Collections.sort(memberSignatures);
+        int hash = className.hashCode();
+        for (final String signature : memberSignatures) {
+            hash = hash * 31 + signature.hashCode();
+        }
+        return hash;
+    }
+
+    /** @param componentClass class of a planned component.
+     * @return signatures of public constructors, public methods and declared fields of the class and its superclasses,
+     *         in the order returned by reflection. */
+    protected static List<String> getMemberSignatures(final Class<?> componentClass) {
+        final List<String> signatures = new ArrayList<String>();
+        final StringBuilder builder = new StringBuilder();
+        for (final Constructor<?> constructor : componentClass.getConstructors()) {
+            builder.setLength(0);
+            appendTypes(builder.append("<init>"), constructor.getParameterTypes());
+            signatures.add(builder.toString());
+        }
+        for (final Method method : componentClass.getMethods()) {
+            builder.setLength(0);
+            appendTypes(builder.append(method.getName()), method.getParameterTypes());
+            signatures.add(builder.append(method.getReturnType().getName()).toString());
+        }
+        for (Class<?> type = componentClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (final Field field : type.getDeclaredFields()) {
+                builder.setLength(0);
+                builder.append(type.getName()).append('#').append(field.getName()).append(':')
+                        .append(field.getType().getName()).append(':').append(field.getModifiers());
+                signatures.add(builder.toString());
+            }
+        }
+        return signatures;
+    }
+
+    private static void appendTypes(final StringBuilder builder, final Class<?>[] types) {
+        builder.append('(');
+        for (int index = 0; index < types.length; index++) {
+            if (index > 0) {
+                builder.append(',');
+            }
+            builder.append(types[index].getName());
+        }
+        builder.append(')');
+    }
+
+    /** Wiring of a single component.
+     *
+     * @author MJ */
+    public static class ComponentPlan {
+        private final Class<?> componentClass;
+        private final Constructor<?> constructor;
+        private final List<Class<?>> types;
+        private final List<Method> factoryMethods;
+        private final List<Field> fields = new ArrayList<Field>();
+        private boolean fieldsRecorded;
+
+        ComponentPlan(final Class<?> componentClass, final Constructor<?> constructor, final List<Class<?>> types,
+                final List<Method> factoryMethods) {
+            this.componentClass = componentClass;
+            this.constructor = constructor;
+            this.types = types;
+            this.factoryMethods = factoryMethods;
+        }
+
+        /** @return class of the component. */
+        public Class<?> getComponentClass() {
+            return componentClass;
+        }
+
+        /** @return constructor used to create the component. */
+        public Constructor<?> getConstructor() {
+            return constructor;
+        }
+
+        /** @return class tree keys mapped to the component. */
+        public List<Class<?>> getTypes() {
+            return types;
+        }
+
+        /** @return fields that should be injected. */
+        public List<Field> getFields() {
+            return fields;
+        }
+
+        /** @return methods converted to providers. Empty if the component is not a factory. */
+        public List<Method> getFactoryMethods() {
+            return factoryMethods;
+        }
+
+        /** @param injectedFields were injected during scanning. Ignored if the fields were already recorded. */
+        void setFields(final List<Field> injectedFields) {
+            if (!fieldsRecorded) {
+                fields.addAll(injectedFields);
+                fieldsRecorded = true;
+            }
+        }
+    }
+}
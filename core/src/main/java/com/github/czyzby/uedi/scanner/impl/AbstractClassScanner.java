@@ -1,19 +1,126 @@
 package com.github.czyzby.uedi.scanner.impl;
 
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
+import com.github.czyzby.uedi.scanner.ClassNameFilter;
 import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.scanner.FilteredClassScanner;
 
-/** Provides utilities for {@link ClassScanner} implementations.
+/** Provides utilities for {@link ClassScanner} implementations. Supports class name filters: implementations should
+ * check class names with {@link #isAccepted(String)} before loading the classes.
  *
  * @author MJ */
-public abstract class AbstractClassScanner implements ClassScanner {
+public abstract class AbstractClassScanner implements FilteredClassScanner {
+    private ClassNameFilter classNameFilter;
+
+    @Override
+    public ClassNameFilter getClassNameFilter() {
+        return classNameFilter;
+    }
+
+    @Override
+    public void setClassNameFilter(final ClassNameFilter classNameFilter) {
+        this.classNameFilter = classNameFilter;
+    }
+
+    /** @param patterns only classes matching any of these patterns will be scanned. See {@link PatternClassNameFilter}
+     *            for supported patterns.
+     * @return this for chaining.
+     * @throws IllegalStateException if a custom class name filter was already set. */
+    public AbstractClassScanner include(final String... patterns) {
+        getPatternFilter().include(patterns);
+        return this;
+    }
+
+    /** @param patterns classes matching any of these patterns will not be scanned. See {@link PatternClassNameFilter}
+     *            for supported patterns.
+     * @return this for chaining.
+     * @throws IllegalStateException if a custom class name filter was already set. */
+    public AbstractClassScanner exclude(final String... patterns) {
+        getPatternFilter().exclude(patterns);
+        return this;
+    }
+
+    private PatternClassNameFilter getPatternFilter() {
+        if (classNameFilter == null) {
+            classNameFilter = new PatternClassNameFilter();
+        } else if (!(classNameFilter instanceof PatternClassNameFilter)) {
+            throw new IllegalStateException("Custom class name filter is already set: " + classNameFilter);
+        }
+        return (PatternClassNameFilter) classNameFilter;
+    }
+
+    /** @param className binary name of the class.
+     * @return true if the class should be loaded and analyzed. */
+    protected boolean isAccepted(final String className) {
+        return classNameFilter == null || classNameFilter.accept(className);
+    }
+
     /** Package name extraction method that does not involve package query.
      *
      * @param root scanning root.
      * @return name of the package of scanning root. */
     protected String getPackageName(final Class<?> root) {
-        return root.getName().substring(0, root.getName().length() - root.getSimpleName().length() - 1);
+        final int separatorIndex = root.getName().lastIndexOf('.');
+        return separatorIndex < 0 ? "" : root.getName().substring(0, separatorIndex);
+    }
+
+    /** @param roots scanning roots.
+     * @return names of the packages of scanning roots. Packages nested in other selected packages are omitted, as
+     *         their classes are already included by the parent package. */
+    protected String[] getPackageNames(final Class<?>[] roots) {
+        final List<String> packageNames = new ArrayList<String>(roots.length);
+        for (final Class<?> root : roots) {
+            final String packageName = getPackageName(root);
+            boolean isNested = false;
+            for (final Iterator<String> iterator = packageNames.iterator(); iterator.hasNext();) {
+                final String selectedPackage = iterator.next();
+                if (isInPackage(packageName, selectedPackage)) {
+                    isNested = true;
+                    break;
+                } else if (isInPackage(selectedPackage, packageName)) {
+                    iterator.remove();
+                }
+            }
+            if (!isNested) {
+                packageNames.add(packageName);
+            }
+        }
+        return packageNames.toArray(new String[packageNames.size()]);
+    }
+
+    /** @param className name of the class. Can be a binary name.
+     * @param packageNames names of root packages.
+     * @return true if the class is in any of the selected packages. */
+    protected boolean isFromAnyPackage(final String className, final String[] packageNames) {
+        for (final String packageName : packageNames) {
+            if (isInPackage(className, packageName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @param name name of a class or a package. Can be a binary name.
+     * @param packageName name of the package.
+     * @return true if the name is equal to the package name or starts with the package name followed by a dot. Note
+     *         that "com.foobar" is not in the "com.foo" package. */
+    protected static boolean isInPackage(final String name, final String packageName) {
+        return isInPackage(name, packageName, '.');
+    }
+
+    /** @param name name of a class, a package or a resource path.
+     * @param packageName name of the package. Has to use the same separator as the name.
+     * @param separator separates package segments.
+     * @return true if the name is equal to the package name or starts with the package name followed by the
+     *         separator. */
+    protected static boolean isInPackage(final String name, final String packageName, final char separator) {
+        final int length = packageName.length();
+        return length == 0 || name.startsWith(packageName)
+                && (name.length() == length || name.charAt(length) == separator);
     }
 
     /** @param testedClass will be validated
@@ -0,0 +1,286 @@
+package com.github.czyzby.uedi.scanner.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import com.github.czyzby.uedi.scanner.CachingClassScanner;
+import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.scanner.FilteredClassScanner;
+
+/** Wraps around another {@link ClassScanner}, memoizing its results in a process-wide cache. Cached results are shared
+ * among all instances of this scanner that wrap the same scanner instance, so creating multiple contexts from the same
+ * roots with a shared scanner requires only a single classpath scan. Concurrent requests for the same roots are
+ * resolved by a single scan: other threads wait for its result instead of scanning on their own.
+ *
+ * <p>
+ * Results are mapped by the class loader of the scanning roots, the wrapped scanner instance, root packages and names
+ * of the requested interfaces. Roots with different class loaders are scanned separately and their classes are loaded
+ * with the class loader of their roots. Class loaders and scanners are weakly referenced and results are stored as
+ * class names, so the cache does not prevent class loaders from being collected after redeployment. Since state of the
+ * wrapped scanner is not a part of the key (other than its class name filter), cached results of a scanner can become
+ * outdated: use {@link #invalidate(Class...)} or {@link #invalidate()} to force another scan. Contexts invalidate the
+ * results of the rescanned roots.
+ *
+ * <p>
+ * If the wrapped scanner is a {@link FilteredClassScanner}, its current filter is a part of the cache key. Filter of
+ * this scanner is applied to cached class names before loading the classes, so multiple contexts can share a single
+ * scan while selecting different subsets of the classes.
+ *
+ * @author MJ */
+public class CachedClassScanner extends AbstractClassScanner implements CachingClassScanner {
+    private static final Object BOOTSTRAP_CLASS_LOADER = new Object();
+    private static final Map<Object, Map<ClassScanner, Map<String, CachedScan>>> CACHE = //
+            new WeakHashMap<Object, Map<ClassScanner, Map<String, CachedScan>>>();
+
+    private final ClassScanner classScanner;
+
+    /** @param classScanner will be used to scan for classes if the results are not cached yet. Its results are cached
+     *            until invalidated, so it should not depend on any state other than the classpath and its filter. */
+    public CachedClassScanner(final ClassScanner classScanner) {
+        this.classScanner = classScanner;
+    }
+
+    /** @return wrapped scanner used to scan for classes if the results are not cached yet. */
+    public ClassScanner getClassScanner() {
+        return classScanner;
+    }
+
+    /** Clears all cached results, forcing the scanners to process the classpath again. */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /** Clears cached results of the wrapped scanner, forcing it to process the classpath again on the next request.
+     * Results of other scanners are not affected. */
+    public void invalidate() {
+        synchronized (CACHE) {
+            for (final Map<ClassScanner, Map<String, CachedScan>> scanners : CACHE.values()) {
+                scanners.remove(classScanner);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(final Class<?>... roots) {
+        synchronized (CACHE) {
+            for (final Class<?> root : roots) {
+                final Map<String, CachedScan> scans = getScans(root.getClassLoader());
+                if (scans == null) {
+                    continue;
+                }
+                final String packageName = getPackageName(root);
+                for (final Iterator<CachedScan> iterator = scans.values().iterator(); iterator.hasNext();) {
+                    if (iterator.next().isRelatedTo(packageName)) {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public Iterable<Class<?>> getClassesImplementing(final Class<?> root, final Class<?>... interfaces) {
+        return getClassesImplementing(new Class<?>[] { root }, interfaces);
+    }
+
+    @Override
+    public Iterable<Class<?>> getClassesImplementing(final Class<?>[] roots, final Class<?>... interfaces) {
+        if (roots.length == 0) {
+            return new ArrayList<Class<?>>();
+        }
+        final Map<ClassLoader, List<Class<?>>> rootsByClassLoader = groupByClassLoader(roots);
+        if (rootsByClassLoader.size() == 1) {
+            return getClassesImplementing(roots[0].getClassLoader(), roots, interfaces);
+        }
+        final Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+        for (final Map.Entry<ClassLoader, List<Class<?>>> entry : rootsByClassLoader.entrySet()) {
+            final List<Class<?>> classLoaderRoots = entry.getValue();
+            classes.addAll(getClassesImplementing(entry.getKey(),
+                    classLoaderRoots.toArray(new Class<?>[classLoaderRoots.size()]), interfaces));
+        }
+        return classes;
+    }
+
+    private static Map<ClassLoader, List<Class<?>>> groupByClassLoader(final Class<?>[] roots) {
+        final Map<ClassLoader, List<Class<?>>> rootsByClassLoader = new LinkedHashMap<ClassLoader, List<Class<?>>>();
+        for (final Class<?> root : roots) {
+            List<Class<?>> classLoaderRoots = rootsByClassLoader.get(root.getClassLoader());
+            if (classLoaderRoots == null) {
+                classLoaderRoots = new ArrayList<Class<?>>();
+                rootsByClassLoader.put(root.getClassLoader(), classLoaderRoots);
+            }
+            classLoaderRoots.add(root);
+        }
+        return rootsByClassLoader;
+    }
+
+    /** @param classLoader class loader of all scanning roots. Can be null.
+     * @param roots scanning roots.
+     * @param interfaces requested interfaces.
+     * @return classes found by the wrapped scanner, loaded with the class loader. */
+    private List<Class<?>> getClassesImplementing(final ClassLoader classLoader, final Class<?>[] roots,
+            final Class<?>[] interfaces) {
+        final CachedScan scan = getScan(classLoader, getKey(roots, interfaces), roots, interfaces);
+        try {
+            return toClasses(scan.get(), classLoader);
+        } catch (final ExecutionException exception) {
+            throw new RuntimeException("Unable to scan classpath.", exception.getCause());
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for classpath scan.", exception);
+        }
+    }
+
+    /** @param classLoader class loader of the scanning roots. Can be null.
+     * @param key unique ID of the scan.
+     * @param roots scanning roots.
+     * @param interfaces requested interfaces.
+     * @return cached scan result. If the scan was not performed yet, it will be invoked by the current thread. */
+    private CachedScan getScan(final ClassLoader classLoader, final String key, final Class<?>[] roots,
+            final Class<?>[] interfaces) {
+        final CachedScan scan;
+        final boolean isOwner;
+        synchronized (CACHE) {
+            Map<ClassScanner, Map<String, CachedScan>> scanners = CACHE.get(getCacheKey(classLoader));
+            if (scanners == null) {
+                scanners = new WeakHashMap<ClassScanner, Map<String, CachedScan>>();
+                CACHE.put(getCacheKey(classLoader), scanners);
+            }
+            Map<String, CachedScan> scans = scanners.get(classScanner);
+            if (scans == null) {
+                scans = new HashMap<String, CachedScan>();
+                scanners.put(classScanner, scans);
+            }
+            final CachedScan cachedScan = scans.get(key);
+            if (cachedScan == null) {
+                scan = new CachedScan(new Callable<String[]>() {
+                    @Override
+                    public String[] call() throws Exception {
+                        return toClassNames(classScanner.getClassesImplementing(roots, interfaces));
+                    }
+                }, getPackageNames(roots));
+                scans.put(key, scan);
+                isOwner = true;
+            } else {
+                scan = cachedScan;
+                isOwner = false;
+            }
+        }
+        if (isOwner) {
+            scan.run();
+            if (isFailed(scan)) { // Failed scans should not be cached - removing result to allow another attempt.
+                synchronized (CACHE) {
+                    final Map<String, CachedScan> scans = getScans(classLoader);
+                    if (scans != null && scans.get(key) == scan) {
+                        scans.remove(key);
+                    }
+                }
+            }
+        }
+        return scan;
+    }
+
+    /** @param classLoader class loader of the scanning roots. Can be null.
+     * @return scans of the wrapped scanner cached for the selected class loader or null. */
+    private Map<String, CachedScan> getScans(final ClassLoader classLoader) {
+        final Map<ClassScanner, Map<String, CachedScan>> scanners = CACHE.get(getCacheKey(classLoader));
+        return scanners == null ? null : scanners.get(classScanner);
+    }
+
+    private static Object getCacheKey(final ClassLoader classLoader) {
+        return classLoader == null ? BOOTSTRAP_CLASS_LOADER : classLoader;
+    }
+
+    private static boolean isFailed(final FutureTask<String[]> scan) {
+        try {
+            scan.get();
+            return false;
+        } catch (final Exception exception) {
+            return true;
+        }
+    }
+
+    /** @param roots scanning roots.
+     * @param interfaces requested interfaces.
+     * @return unique ID of the scan among the scans of the wrapped scanner. */
+    protected String getKey(final Class<?>[] roots, final Class<?>[] interfaces) {
+        final String[] packageNames = getPackageNames(roots);
+        Arrays.sort(packageNames);
+        final String[] interfaceNames = new String[interfaces.length];
+        for (int index = 0; index < interfaces.length; index++) {
+            interfaceNames[index] = interfaces[index].getName();
+        }
+        Arrays.sort(interfaceNames);
+        final StringBuilder builder = new StringBuilder();
+        if (classScanner instanceof FilteredClassScanner) {
+            builder.append('[').append(((FilteredClassScanner) classScanner).getClassNameFilter()).append(']');
+        }
+        builder.append(':');
+        for (final String packageName : packageNames) {
+            builder.append(packageName).append(',');
+        }
+        builder.append(':');
+        for (final String interfaceName : interfaceNames) {
+            builder.append(interfaceName).append(',');
+        }
+        return builder.toString();
+    }
+
+    private static String[] toClassNames(final Iterable<Class<?>> classes) {
+        final List<String> classNames = new ArrayList<String>();
+        for (final Class<?> type : classes) {
+            classNames.add(type.getName());
+        }
+        return classNames.toArray(new String[classNames.size()]);
+    }
+
+    private List<Class<?>> toClasses(final String[] classNames, final ClassLoader classLoader) {
+        final List<Class<?>> classes = new ArrayList<Class<?>>(classNames.length);
+        try {
+            for (final String className : classNames) {
+                if (isAccepted(className)) {
+                    classes.add(Class.forName(className, false, classLoader));
+                }
+            }
+        } catch (final ClassNotFoundException exception) {
+            throw new RuntimeException("Unable to load cached component class.", exception);
+        }
+        return classes;
+    }
+
+    /** Pending or completed scan of the wrapped scanner.
+     *
+     * @author MJ */
+    private static class CachedScan extends FutureTask<String[]> {
+        private final String[] packageNames;
+
+        CachedScan(final Callable<String[]> scan, final String[] packageNames) {
+            super(scan);
+            this.packageNames = packageNames;
+        }
+
+        /** @param packageName name of a scanned package.
+         * @return true if the scan includes the package or any of its subpackages. */
+        boolean isRelatedTo(final String packageName) {
+            for (final String scannedPackage : packageNames) {
+                if (isInPackage(scannedPackage, packageName) || isInPackage(packageName, scannedPackage)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
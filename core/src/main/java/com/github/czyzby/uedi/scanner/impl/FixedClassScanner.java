@@ -1,16 +1,45 @@
 package com.github.czyzby.uedi.scanner.impl;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /** Does not support automatic scanning. Instead, a fixed pool of scannable classes is provided and scanned when
  * requested. While heavily relying on reflection, this might actually be a faster solution in case of huge contexts (if
  * the components are not in separate root package, which they should be). Use when absolutely necessary.
  *
+ * <p>
+ * Registered classes are indexed by their package names in a tree of package segments, so scanning visits only the
+ * classes from the selected package tree. Each requested interface is assigned a bit; classes and package nodes store
+ * masks of implemented interfaces, so assignability is checked only once per class and interface and whole package
+ * trees without matching classes are skipped. Up to 64 interfaces are indexed this way - additional interfaces are
+ * still supported, but checked with reflection during each scan.
+ *
+ * <p>
+ * Classes can also be loaded from a class list: a text file with a single binary class name per line. Empty lines and
+ * lines starting with '#' are ignored. This allows to use the scanner on platforms without classpath access, like
+ * GraalVM native images.
+ *
  * @author MJ */
 public class FixedClassScanner extends AbstractClassScanner {
+    private static final int MAX_INDEXED_INTERFACES = Long.SIZE;
+    private static final String CLASS_LIST_ENCODING = "UTF-8";
+    private static final char COMMENT_PREFIX = '#';
+
     private final Set<Class<?>> context = new HashSet<Class<?>>();
+    private final PackageNode rootNode = new PackageNode();
+    private final Map<Class<?>, Long> interfaceMasks = new IdentityHashMap<Class<?>, Long>();
 
     /** @param scannableClasses will be available for scanning. */
     public FixedClassScanner(final Class<?>... scannableClasses) {
@@ -18,27 +47,246 @@ public class FixedClassScanner extends AbstractClassScanner {
     }
 
     /** @param scannableClasses will be available for scanning. */
-    public void add(final Class<?>... scannableClasses) {
+    public synchronized void add(final Class<?>... scannableClasses) {
         for (final Class<?> scannable : scannableClasses) {
-            context.add(scannable);
+            index(scannable);
         }
     }
 
     /** @param scannableClasses will be available for scanning. */
-    public void add(final Collection<Class<?>> scannableClasses) {
-        context.addAll(scannableClasses);
+    public synchronized void add(final Collection<Class<?>> scannableClasses) {
+        for (final Class<?> scannable : scannableClasses) {
+            index(scannable);
+        }
+    }
+
+    /** @param classList contains binary names of scannable classes, one per line. Empty lines and lines starting with
+     *            '#' are ignored. Stream is closed.
+     * @param classLoader will be used to load the classes.
+     * @throws IOException if unable to read the list.
+     * @throws RuntimeException if any of the listed classes cannot be loaded. */
+    public synchronized void addClassList(final InputStream classList, final ClassLoader classLoader)
+            throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(classList, CLASS_LIST_ENCODING));
+        try {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                final String className = line.trim();
+                if (className.length() == 0 || className.charAt(0) == COMMENT_PREFIX) {
+                    continue;
+                }
+                try {
+                    index(Class.forName(className, false, classLoader));
+                } catch (final ClassNotFoundException exception) {
+                    throw new RuntimeException("Unable to load listed class: " + className, exception);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void index(final Class<?> scannable) {
+        if (!context.add(scannable) || !isNotAbstract(scannable)) {
+            return; // Already registered or cannot be a component.
+        }
+        long mask = 0L;
+        for (final Map.Entry<Class<?>, Long> interfaceMask : interfaceMasks.entrySet()) {
+            if (interfaceMask.getKey().isAssignableFrom(scannable)) {
+                mask |= interfaceMask.getValue().longValue();
+            }
+        }
+        PackageNode node = rootNode;
+        node.subtreeMask |= mask;
+        for (final String segment : getPackageSegments(extractPackageName(scannable.getName()))) {
+            node = node.getOrCreateChild(segment);
+            node.subtreeMask |= mask;
+        }
+        node.add(scannable, mask);
     }
 
     @Override
-    public Iterable<Class<?>> getClassesImplementing(final Class<?> root, final Class<?>... interfaces) {
-        final Set<Class<?>> implementingClasses = new HashSet<Class<?>>();
-        final String rootPackage = root.getPackage().getName();
-        for (final Class<?> scannableClass : context) {
-            if (scannableClass.getPackage().getName().startsWith(rootPackage) && isNotAbstract(scannableClass)
-                    && isInstanceOfAny(scannableClass, interfaces)) {
-                implementingClasses.add(scannableClass);
+    public synchronized Iterable<Class<?>> getClassesImplementing(final Class<?> root, final Class<?>... interfaces) {
+        final Set<Class<?>> implementingClasses = new LinkedHashSet<Class<?>>();
+        collect(root, interfaces, implementingClasses);
+        return filter(implementingClasses);
+    }
+
+    @Override
+    public synchronized Iterable<Class<?>> getClassesImplementing(final Class<?>[] roots,
+            final Class<?>... interfaces) {
+        final Set<Class<?>> implementingClasses = new LinkedHashSet<Class<?>>();
+        for (final Class<?> root : roots) {
+            collect(root, interfaces, implementingClasses);
+        }
+        return filter(implementingClasses);
+    }
+
+    /** @param classes will have classes rejected by the current class name filter removed.
+     * @return passed set. */
+    private Set<Class<?>> filter(final Set<Class<?>> classes) {
+        if (getClassNameFilter() != null) {
+            for (final Iterator<Class<?>> iterator = classes.iterator(); iterator.hasNext();) {
+                if (!isAccepted(iterator.next().getName())) {
+                    iterator.remove();
+                }
+            }
+        }
+        return classes;
+    }
+
+    private void collect(final Class<?> root, final Class<?>[] interfaces, final Set<Class<?>> result) {
+        final PackageNode node = rootNode.find(getPackageSegments(extractPackageName(root.getName())));
+        if (node == null) {
+            return;
+        }
+        final List<Class<?>> notIndexedInterfaces = new ArrayList<Class<?>>(0);
+        final long mask = getMask(interfaces, notIndexedInterfaces);
+        if (notIndexedInterfaces.isEmpty()) {
+            node.collect(mask, result);
+        } else {
+            node.collect(mask, notIndexedInterfaces.toArray(new Class<?>[notIndexedInterfaces.size()]), result);
+        }
+    }
+
+    /** @param interfaces will be converted to a mask. Interfaces are indexed the first time they are requested.
+     * @param notIndexedInterfaces will be filled with interfaces that could not be indexed due to bits limit.
+     * @return mask of indexed interfaces. */
+    private long getMask(final Class<?>[] interfaces, final List<Class<?>> notIndexedInterfaces) {
+        long mask = 0L;
+        for (final Class<?> implemented : interfaces) {
+            Long interfaceMask = interfaceMasks.get(implemented);
+            if (interfaceMask == null) {
+                if (interfaceMasks.size() >= MAX_INDEXED_INTERFACES) {
+                    notIndexedInterfaces.add(implemented);
+                    continue;
+                }
+                interfaceMask = Long.valueOf(1L << interfaceMasks.size());
+                interfaceMasks.put(implemented, interfaceMask);
+                rootNode.index(implemented, interfaceMask.longValue());
+            }
+            mask |= interfaceMask.longValue();
+        }
+        return mask;
+    }
+
+    /** @param className fully qualified class name. Can be a binary name of a nested class.
+     * @return name of the class package. */
+    private static String extractPackageName(final String className) {
+        final int separatorIndex = className.lastIndexOf('.');
+        return separatorIndex < 0 ? "" : className.substring(0, separatorIndex);
+    }
+
+    private static String[] getPackageSegments(final String packageName) {
+        return packageName.length() == 0 ? new String[0] : packageName.split("\\.");
+    }
+
+    /** Represents a single package segment. Stores classes directly in the package and links to its subpackages.
+     *
+     * @author MJ */
+    private static class PackageNode {
+        private final List<Class<?>> classes = new ArrayList<Class<?>>();
+        /** Masks of interfaces implemented by classes. Indexes match {@link #classes}. */
+        private long[] masks = new long[4];
+        private Map<String, PackageNode> children;
+        /** Masks of all classes in the package tree. */
+        private long subtreeMask;
+
+        void add(final Class<?> type, final long mask) {
+            final int index = classes.size();
+            if (index == masks.length) {
+                final long[] newMasks = new long[index * 2];
+                System.arraycopy(masks, 0, newMasks, 0, index);
+                masks = newMasks;
+            }
+            classes.add(type);
+            masks[index] = mask;
+        }
+
+        PackageNode getOrCreateChild(final String segment) {
+            if (children == null) {
+                children = new HashMap<String, PackageNode>();
+            }
+            PackageNode child = children.get(segment);
+            if (child == null) {
+                child = new PackageNode();
+                children.put(segment, child);
+            }
+            return child;
+        }
+
+        PackageNode find(final String[] segments) {
+            PackageNode node = this;
+            for (final String segment : segments) {
+                if (node.children == null) {
+                    return null;
+                }
+                node = node.children.get(segment);
+                if (node == null) {
+                    return null;
+                }
+            }
+            return node;
+        }
+
+        /** @param implemented interface to check assignability against.
+         * @param interfaceMask will be included in masks of implementing classes and their packages.
+         * @return true if any class in the package tree implements the interface. */
+        boolean index(final Class<?> implemented, final long interfaceMask) {
+            boolean anyImplementing = false;
+            for (int index = 0, size = classes.size(); index < size; index++) {
+                if (implemented.isAssignableFrom(classes.get(index))) {
+                    masks[index] |= interfaceMask;
+                    anyImplementing = true;
+                }
+            }
+            if (children != null) {
+                for (final PackageNode child : children.values()) {
+                    anyImplementing |= child.index(implemented, interfaceMask);
+                }
+            }
+            if (anyImplementing) {
+                subtreeMask |= interfaceMask;
+            }
+            return anyImplementing;
+        }
+
+        void collect(final long mask, final Set<Class<?>> result) {
+            if ((subtreeMask & mask) == 0L) {
+                return;
+            }
+            for (int index = 0, size = classes.size(); index < size; index++) {
+                if ((masks[index] & mask) != 0L) {
+                    result.add(classes.get(index));
+                }
+            }
+            if (children != null) {
+                for (final PackageNode child : children.values()) {
+                    child.collect(mask, result);
+                }
+            }
+        }
+
+        void collect(final long mask, final Class<?>[] notIndexedInterfaces, final Set<Class<?>> result) {
+            for (int index = 0, size = classes.size(); index < size; index++) {
+                final Class<?> type = classes.get(index);
+                if ((masks[index] & mask) != 0L || isInstanceOf(type, notIndexedInterfaces)) {
+                    result.add(type);
+                }
+            }
+            if (children != null) {
+                for (final PackageNode child : children.values()) {
+                    child.collect(mask, notIndexedInterfaces, result);
+                }
+            }
+        }
+
+        private static boolean isInstanceOf(final Class<?> type, final Class<?>[] interfaces) {
+            for (final Class<?> implemented : interfaces) {
+                if (implemented.isAssignableFrom(type)) {
+                    return true;
+                }
             }
+            return false;
         }
-        return implementingClasses;
     }
 }
@@ -0,0 +1,225 @@
+package com.github.czyzby.uedi.scanner.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.czyzby.uedi.scanner.ClassNameFilter;
+
+/** Filters class names with include and exclude patterns. A class is accepted if it matches any include pattern (or
+ * there are no include patterns) and does not match any exclude pattern. Supported patterns:
+ * <ul>
+ * <li>Exact binary class names, like {@code com.example.Component} or {@code com.example.Outer$Inner}.
+ * <li>Package prefixes: {@code com.example.generated.**} matches all classes in the package and its subpackages.
+ * <li>Globs: {@code *} matches any sequence of characters other than '.', {@code **} matches any sequence of
+ * characters and {@code ?} matches a single character other than '.'. For example, {@code com.example.**Test} matches
+ * all classes with "Test" suffix in the package tree, while {@code com.example.*.proto.**} matches all classes in
+ * "proto" subpackages of the direct subpackages of "com.example".
+ * </ul>
+ * Patterns are compiled into a character tree of their literal prefixes, so checking a class name requires a single
+ * pass over its characters; globs are evaluated only if the class name starts with their literal part. Filter is not
+ * meant to be modified during scanning.
+ *
+ * @author MJ */
+public class PatternClassNameFilter implements ClassNameFilter {
+    private static final char ANY_CHARACTER = '?';
+    private static final char WILDCARD = '*';
+    private static final String ANY_SUFFIX = "**";
+
+    private final Patterns includes = new Patterns();
+    private final Patterns excludes = new Patterns();
+
+    /** @param patterns only classes matching any of these patterns will be accepted.
+     * @return this for chaining. */
+    public PatternClassNameFilter include(final String... patterns) {
+        for (final String pattern : patterns) {
+            includes.add(pattern);
+        }
+        return this;
+    }
+
+    /** @param patterns classes matching any of these patterns will be rejected, even if they match include patterns.
+     * @return this for chaining. */
+    public PatternClassNameFilter exclude(final String... patterns) {
+        for (final String pattern : patterns) {
+            excludes.add(pattern);
+        }
+        return this;
+    }
+
+    @Override
+    public boolean accept(final String className) {
+        return (includes.isEmpty() || includes.matches(className)) && !excludes.matches(className);
+    }
+
+    @Override
+    public String toString() {
+        return "include" + includes + ",exclude" + excludes;
+    }
+
+    /** @param pattern glob pattern.
+     * @param patternIndex index of the first pattern character to match.
+     * @param className binary class name.
+     * @param classNameIndex index of the first class name character to match.
+     * @return true if the class name matches the selected part of the pattern. */
+    static boolean matches(final String pattern, int patternIndex, final String className, int classNameIndex) {
+        final int patternLength = pattern.length();
+        final int classNameLength = className.length();
+        while (patternIndex < patternLength) {
+            final char character = pattern.charAt(patternIndex);
+            if (character == WILDCARD) {
+                final boolean anyDepth = patternIndex + 1 < patternLength
+                        && pattern.charAt(patternIndex + 1) == WILDCARD;
+                final int nextPatternIndex = anyDepth ? patternIndex + 2 : patternIndex + 1;
+                if (nextPatternIndex == patternLength) {
+                    return anyDepth || className.indexOf('.', classNameIndex) < 0;
+                }
+                for (int index = classNameIndex; index <= classNameLength; index++) {
+                    if (matches(pattern, nextPatternIndex, className, index)) {
+                        return true;
+                    } else if (!anyDepth && index < classNameLength && className.charAt(index) == '.') {
+                        return false; // Single wildcard cannot match package separator.
+                    }
+                }
+                return false;
+            } else if (classNameIndex >= classNameLength) {
+                return false;
+            } else if (character == ANY_CHARACTER ? className.charAt(classNameIndex) == '.'
+                    : className.charAt(classNameIndex) != character) {
+                return false;
+            }
+            patternIndex++;
+            classNameIndex++;
+        }
+        return classNameIndex == classNameLength;
+    }
+
+    /** @param pattern glob pattern.
+     * @return index of the first wildcard in the pattern or -1 if the pattern has no wildcards. */
+    static int getFirstWildcardIndex(final String pattern) {
+        for (int index = 0, length = pattern.length(); index < length; index++) {
+            final char character = pattern.charAt(index);
+            if (character == WILDCARD || character == ANY_CHARACTER) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /** Compiled set of patterns. Literal prefixes of the patterns are stored in a character tree.
+     *
+     * @author MJ */
+    private static class Patterns {
+        private final Node root = new Node();
+        private final List<String> sources = new ArrayList<String>();
+
+        void add(final String pattern) {
+            if (pattern == null || pattern.length() == 0) {
+                throw new IllegalArgumentException("Class name pattern cannot be empty.");
+            }
+            sources.add(pattern);
+            final int wildcardIndex = getFirstWildcardIndex(pattern);
+            if (wildcardIndex < 0) {
+                root.getOrCreate(pattern, pattern.length()).exact = true;
+            } else if (wildcardIndex == pattern.length() - ANY_SUFFIX.length() && pattern.endsWith(ANY_SUFFIX)) {
+                root.getOrCreate(pattern, wildcardIndex).prefix = true;
+            } else {
+                root.getOrCreate(pattern, wildcardIndex).addGlob(pattern, wildcardIndex);
+            }
+        }
+
+        boolean isEmpty() {
+            return sources.isEmpty();
+        }
+
+        boolean matches(final String className) {
+            Node node = root;
+            for (int index = 0, length = className.length(); index < length; index++) {
+                if (node.prefix || node.globs != null && node.matchesGlob(className, index)) {
+                    return true;
+                }
+                node = node.getChild(className.charAt(index));
+                if (node == null) {
+                    return false;
+                }
+            }
+            return node.exact || node.prefix || node.globs != null && node.matchesGlob(className, className.length());
+        }
+
+        @Override
+        public String toString() {
+            return sources.toString();
+        }
+    }
+
+    /** Represents a single character of literal pattern prefixes.
+     *
+     * @author MJ */
+    private static class Node {
+        private char[] characters = new char[0];
+        private Node[] children = new Node[0];
+        /** True if a pattern without wildcards ends at this node. */
+        private boolean exact;
+        /** True if a package prefix pattern ends at this node. */
+        private boolean prefix;
+        /** Globs with literal prefix ending at this node. */
+        private List<String> globs;
+        /** Indexes of the first wildcards in {@link #globs}. */
+        private int[] globOffsets;
+
+        Node getChild(final char character) {
+            for (int index = 0; index < characters.length; index++) {
+                if (characters[index] == character) {
+                    return children[index];
+                }
+            }
+            return null;
+        }
+
+        Node getOrCreate(final String pattern, final int length) {
+            Node node = this;
+            for (int index = 0; index < length; index++) {
+                final char character = pattern.charAt(index);
+                Node child = node.getChild(character);
+                if (child == null) {
+                    child = new Node();
+                    node.addChild(character, child);
+                }
+                node = child;
+            }
+            return node;
+        }
+
+        private void addChild(final char character, final Node child) {
+            final int size = characters.length;
+            final char[] newCharacters = new char[size + 1];
+            final Node[] newChildren = new Node[size + 1];
+            System.arraycopy(characters, 0, newCharacters, 0, size);
+            System.arraycopy(children, 0, newChildren, 0, size);
+            newCharacters[size] = character;
+            newChildren[size] = child;
+            characters = newCharacters;
+            children = newChildren;
+        }
+
+        void addGlob(final String pattern, final int wildcardIndex) {
+            if (globs == null) {
+                globs = new ArrayList<String>(1);
+                globOffsets = new int[0];
+            }
+            globs.add(pattern);
+            final int[] newOffsets = new int[globOffsets.length + 1];
+            System.arraycopy(globOffsets, 0, newOffsets, 0, globOffsets.length);
+            newOffsets[globOffsets.length] = wildcardIndex;
+            globOffsets = newOffsets;
+        }
+
+        boolean matchesGlob(final String className, final int classNameIndex) {
+            for (int index = 0, size = globs.size(); index < size; index++) {
+                if (PatternClassNameFilter.matches(globs.get(index), globOffsets[index], className, classNameIndex)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
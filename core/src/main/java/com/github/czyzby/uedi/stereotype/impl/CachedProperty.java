@@ -0,0 +1,76 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+import com.github.czyzby.uedi.stereotype.Property;
+
+/** Default {@link Property} implementation. Caches the last converted value, so typed fields injected with the same
+ * property do not parse the value again. Cache is invalidated by {@link #setValue(String)}.
+ *
+ * @author MJ */
+public class CachedProperty implements Property {
+    private final String key;
+    private volatile String value;
+    private volatile ConvertedValue convertedValue;
+
+    /** @param key unique ID of the property.
+     * @param value initial value of the property. */
+    public CachedProperty(final String key, final String value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    @Override
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String setValue(final String value) {
+        final String oldValue = this.value;
+        this.value = value;
+        convertedValue = null;
+        return oldValue;
+    }
+
+    /** @param converter will be used to convert the current value if it was not converted with the same converter
+     *            before.
+     * @return converted value or null if the current value is null.
+     * @param <Type> type of converted value. */
+    @SuppressWarnings("unchecked")
+    public <Type> Type getValue(final PropertyConverter<Type> converter) {
+        final String currentValue = value;
+        final ConvertedValue converted = convertedValue;
+        if (converted != null && converted.converter == converter && converted.rawValue == currentValue) {
+            return (Type) converted.value;
+        } else if (currentValue == null) {
+            return null;
+        }
+        final Type result = converter.convert(currentValue);
+        convertedValue = new ConvertedValue(converter, currentValue, result);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return key + "=" + value;
+    }
+
+    /** Immutable result of a conversion. Valid only if the raw value was not replaced since the conversion.
+     *
+     * @author MJ */
+    private static class ConvertedValue {
+        private final PropertyConverter<?> converter;
+        private final String rawValue;
+        private final Object value;
+
+        ConvertedValue(final PropertyConverter<?> converter, final String rawValue, final Object value) {
+            this.converter = converter;
+            this.rawValue = rawValue;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.github.czyzby.uedi.stereotype.Default;
+import com.github.czyzby.uedi.stereotype.Property;
+
+/** Provides string properties using {@link Property} API. Values set with {@link #setValue(String, String)} or loaded
+ * with {@link #load(Reader)} are stored in flat key and value arrays (an open addressing hash table) instead of one
+ * {@link Property} object per entry, which keeps large configurations compact. {@link Property} views of the stored
+ * values are created on demand by {@link #getProperty(String)}. Registered {@link Property} instances are stored
+ * separately and take precedence over the stored values. A sorted index of keys used by prefix queries is built on the
+ * first query and maintained afterwards. Not thread-safe.
+ *
+ * @author MJ
+ * @see PropertiesReader */
+public class FlatPropertyProvider implements Default, StringProvider {
+    private static final int MIN_CAPACITY = 16;
+
+    private final Map<String, Property> properties;
+    private String[] keys;
+    private String[] values;
+    /** Created lazily. Stores property views requested by {@link #getProperty(String)}. */
+    private FlatProperty[] views;
+    /** Created lazily by {@link #getProperties(String)}. Stores sorted keys of all properties. */
+    private TreeSet<String> index;
+    private int size;
+    private int threshold;
+
+    /** @param properties will be used to store registered {@link Property} instances mapped by their keys. */
+    public FlatPropertyProvider(final Map<String, Property> properties) {
+        this(properties, MIN_CAPACITY);
+    }
+
+    /** @param properties will be used to store registered {@link Property} instances mapped by their keys.
+     * @param expectedSize expected amount of stored values. */
+    public FlatPropertyProvider(final Map<String, Property> properties, final int expectedSize) {
+        this.properties = properties;
+        allocate(getCapacity(expectedSize));
+    }
+
+    private static int getCapacity(final int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(final int capacity) {
+        keys = new String[capacity];
+        values = new String[capacity];
+        threshold = capacity * 3 / 4;
+    }
+
+    /** @return amount of values stored in the flat table. Does not include registered {@link Property} instances. */
+    public int getStoredValuesAmount() {
+        return size;
+    }
+
+    /** @param reader {@code .properties} file content. Will be fully read, but not closed. Parsed values replace the
+     *            values of existing properties.
+     * @return amount of loaded properties.
+     * @throws IOException if unable to read the input.
+     * @see PropertiesReader */
+    public int load(final Reader reader) throws IOException {
+        return new PropertiesReader().read(reader, new PropertiesReader.PropertyConsumer() {
+            @Override
+            public void consume(final String key, final String value) {
+                setValue(key, value);
+            }
+        });
+    }
+
+    /** @param key unique ID of the property.
+     * @param value will replace the current value of the property. If there is no property with the selected key, the
+     *            value is stored in the flat table without creating a {@link Property} instance. */
+    public void setValue(final String key, final String value) {
+        final Property property = properties.get(key);
+        if (property != null) {
+            property.setValue(value);
+            return;
+        }
+        int index = indexOf(key);
+        if (index >= 0) {
+            if (views != null && views[index] != null) {
+                views[index].setValue(value);
+            } else {
+                values[index] = value;
+            }
+            return;
+        }
+        if (size >= threshold) {
+            resize(keys.length << 1);
+        }
+        index = getSlot(key, keys.length);
+        while (keys[index] != null) {
+            index = index + 1 & keys.length - 1;
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        if (this.index != null) {
+            this.index.add(key);
+        }
+    }
+
+    /** @param key unique ID of the property.
+     * @return current value of the property or null if there is no property with the key. */
+    public String getValue(final String key) {
+        final Property property = properties.get(key);
+        if (property != null) {
+            return property.getValue();
+        }
+        final int index = indexOf(key);
+        return index < 0 ? null : getStoredValue(index);
+    }
+
+    private String getStoredValue(final int index) {
+        return views != null && views[index] != null ? views[index].getValue() : values[index];
+    }
+
+    private static int getSlot(final String key, final int capacity) {
+        final int hash = key.hashCode() * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & capacity - 1;
+    }
+
+    /** @return index of the key in the flat table or -1. */
+    private int indexOf(final String key) {
+        final String[] keys = this.keys;
+        final int mask = keys.length - 1;
+        for (int index = getSlot(key, keys.length);; index = index + 1 & mask) {
+            final String storedKey = keys[index];
+            if (storedKey == null) {
+                return -1;
+            } else if (storedKey.equals(key)) {
+                return index;
+            }
+        }
+    }
+
+    private void resize(final int capacity) {
+        final String[] oldKeys = keys;
+        final String[] oldValues = values;
+        final FlatProperty[] oldViews = views;
+        allocate(capacity);
+        views = oldViews == null ? null : new FlatProperty[capacity];
+        final int mask = capacity - 1;
+        for (int oldIndex = 0; oldIndex < oldKeys.length; oldIndex++) {
+            final String key = oldKeys[oldIndex];
+            if (key != null) {
+                int index = getSlot(key, capacity);
+                while (keys[index] != null) {
+                    index = index + 1 & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[oldIndex];
+                if (oldViews != null) {
+                    views[index] = oldViews[oldIndex];
+                }
+            }
+        }
+    }
+
+    /** Removes the stored value using backward shift deletion, so no tombstones are left in the table. */
+    private void removeStoredValue(int index) {
+        if (this.index != null) {
+            this.index.remove(keys[index]);
+        }
+        final int mask = keys.length - 1;
+        for (int next = index + 1 & mask; keys[next] != null; next = next + 1 & mask) {
+            final int slot = getSlot(keys[next], keys.length);
+            // Moving the entry if its slot is not between the removed index and its current position:
+            if ((next - slot & mask) >= (next - index & mask)) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                if (views != null) {
+                    views[index] = views[next];
+                }
+                index = next;
+            }
+        }
+        keys[index] = null;
+        values[index] = null;
+        if (views != null) {
+            views[index] = null;
+        }
+        size--;
+    }
+
+    @Override
+    public boolean hasProperty(final String key) {
+        return properties.containsKey(key) || indexOf(key) >= 0;
+    }
+
+    @Override
+    public Property getProperty(final String key) {
+        final Property property = properties.get(key);
+        if (property != null) {
+            return property;
+        }
+        final int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        if (views == null) {
+            views = new FlatProperty[keys.length];
+        }
+        FlatProperty view = views[index];
+        if (view == null) {
+            view = new FlatProperty(key, values[index]);
+            views[index] = view;
+            values[index] = null; // View stores the value from now on.
+        }
+        return view;
+    }
+
+    @Override
+    public void addProperty(final Property property) {
+        properties.put(property.getKey(), property);
+        final int index = indexOf(property.getKey());
+        if (index >= 0) {
+            removeStoredValue(index);
+        }
+        if (this.index != null) {
+            this.index.add(property.getKey());
+        }
+    }
+
+    @Override
+    public void removeProperty(final Property property) {
+        if (properties.get(property.getKey()) == property) {
+            properties.remove(property.getKey());
+            if (index != null) {
+                index.remove(property.getKey());
+            }
+        } else if (property instanceof FlatProperty) {
+            final int index = indexOf(property.getKey());
+            if (index >= 0 && views != null && views[index] == property) {
+                removeStoredValue(index);
+            }
+        }
+    }
+
+    @Override
+    public Iterable<Property> getProperties(final String prefix) {
+        if (index == null) {
+            index = new TreeSet<String>(properties.keySet());
+            for (final String key : keys) {
+                if (key != null) {
+                    index.add(key);
+                }
+            }
+        }
+        return new PrefixedProperties(this, index, prefix);
+    }
+
+    /** Removes all stored values and registered properties. */
+    public void clear() {
+        properties.clear();
+        allocate(MIN_CAPACITY);
+        views = null;
+        index = null;
+        size = 0;
+    }
+
+    @Override
+    public Class<? extends String> getType() {
+        return String.class;
+    }
+
+    @Override
+    public String provide(final Object target, final Member member) {
+        return getValue(Providers.getName(member));
+    }
+
+    /** {@link Property} view of a value stored in the flat table.
+     *
+     * @author MJ */
+    private static class FlatProperty extends CachedProperty {
+        FlatProperty(final String key, final String value) {
+            super(key, value);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+import java.lang.reflect.Member;
+
+import com.github.czyzby.uedi.Context;
+import com.github.czyzby.uedi.stereotype.Default;
+import com.github.czyzby.uedi.stereotype.Named;
+
+/** Base class for generated providers wrapping factory methods. Unlike {@link ReflectionProvider}, generated
+ * implementations invoke the methods directly.
+ *
+ * @author MJ
+ * @see com.github.czyzby.uedi.impl.GeneratedWiring */
+public abstract class GeneratedProvider implements DelegateProvider<Object>, Named {
+    private final Context context;
+    private final Object owner;
+    private final Class<?> type;
+    private final String name;
+    private final Member member;
+    private final boolean isDefault;
+
+    /** @param context parent context.
+     * @param owner instance of the factory with the method.
+     * @param type return type of the method.
+     * @param name name of the method. */
+    public GeneratedProvider(final Context context, final Object owner, final Class<?> type, final String name) {
+        this.context = context;
+        this.owner = owner;
+        this.type = type;
+        this.name = name;
+        member = new MockMember(name);
+        isDefault = owner instanceof Default;
+    }
+
+    @Override
+    public boolean isDefault() {
+        return isDefault;
+    }
+
+    @Override
+    public Object getWrappedObject() {
+        return owner;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Class<? extends Object> getType() {
+        return type;
+    }
+
+    /** @param parameterType type of the method parameter.
+     * @param target object requesting the provided value. Might be null.
+     * @return target if the parameter is an {@link Object} or matches target type; dependency provided by the context
+     *         otherwise. */
+    protected Object argument(final Class<?> parameterType, final Object target) {
+        final Class<?> targetType = target == null ? null : target.getClass();
+        return parameterType == Object.class || parameterType == targetType ? target
+                : context.get(parameterType, owner, member);
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+
+import com.github.czyzby.uedi.Context;
+import com.github.czyzby.uedi.impl.ComponentInjector;
+import com.github.czyzby.uedi.stereotype.Default;
+import com.github.czyzby.uedi.stereotype.Named;
+
+/** Wraps around a factory method invoked by a generated {@link ComponentInjector}, converting it into a provider.
+ * Works like {@link ReflectionProvider}, but does not use reflection to invoke the method.
+ *
+ * @author MJ */
+public class InjectorProvider implements DelegateProvider<Object>, Named {
+    private final Context context;
+    private final ComponentInjector injector;
+    private final int index;
+    private final Method method;
+    private final Class<?> type;
+    private final Object owner;
+    private final Class<?>[] parameterTypes;
+    private final Object[] parameters;
+    private final String name;
+    private final boolean isDefault;
+
+    /** @param context parent context.
+     * @param owner instance of the class with the method.
+     * @param method will be wrapped and converted into a provider.
+     * @param injector generated injector of the owner class.
+     * @param index index of the method in the injector.
+     * @see ComponentInjector#getMethodIndex(Method) */
+    public InjectorProvider(final Context context, final Object owner, final Method method,
+            final ComponentInjector injector, final int index) {
+        this.context = context;
+        this.owner = owner;
+        this.method = method;
+        this.injector = injector;
+        this.index = index;
+        type = method.getReturnType();
+        parameterTypes = method.getParameterTypes();
+        parameters = parameterTypes.length == 0 ? Providers.EMPTY_ARRAY : new Object[parameterTypes.length];
+        name = Providers.getName(method);
+        isDefault = owner instanceof Default;
+    }
+
+    @Override
+    public boolean isDefault() {
+        return isDefault;
+    }
+
+    @Override
+    public Object getWrappedObject() {
+        return owner;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Class<? extends Object> getType() {
+        return type;
+    }
+
+    @Override
+    public Object provide(final Object target, final Member member) {
+        try {
+            if (parameters.length == 0) {
+                return injector.invoke(index, owner, parameters);
+            }
+            final Class<?> targetType = target == null ? null : target.getClass();
+            for (int parameterIndex = 0, length = parameters.length; parameterIndex < length; parameterIndex++) {
+                final Class<?> parameterType = parameterTypes[parameterIndex];
+                parameters[parameterIndex] = parameterType == Object.class || parameterType == targetType ? target
+                        : context.get(parameterType, owner, method);
+            }
+            return injector.invoke(index, owner, parameters);
+        } catch (final RuntimeException exception) {
+            throw exception;
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to invoke method: '" + method.getName() + "' of component: " + owner,
+                    exception);
+        }
+    }
+}
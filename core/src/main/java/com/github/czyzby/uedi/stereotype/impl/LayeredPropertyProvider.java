@@ -0,0 +1,205 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.github.czyzby.uedi.stereotype.Default;
+import com.github.czyzby.uedi.stereotype.Property;
+
+/** Provides string properties resolved from ordered {@link PropertySource layers}. Registered {@link Property}
+ * instances are runtime overrides and take precedence over all sources; sources added later take precedence over
+ * sources added earlier (for example: defaults, files, environment variables, system properties). Sources are not
+ * copied.
+ *
+ * <p>
+ * Each key is resolved once: the resolved property (or the lack of one) is cached, so repeated lookups cost a single
+ * map lookup. Cache entries are invalidated per key by {@link #invalidate(String)} - which is called automatically by
+ * {@link MapPropertySource} - and fully when the sources change. Properties resolved from sources are snapshots of
+ * source values: get the property again after invalidation. Modifying their values registers them as overrides.
+ *
+ * @author MJ */
+public class LayeredPropertyProvider implements Default, StringProvider {
+    /** Cached when no layer defines the key. */
+    private static final Property MISSING = new CachedProperty("", null);
+
+    private final Map<String, Property> properties;
+    private final Map<String, Property> cache;
+    private volatile PropertySource[] sources = new PropertySource[0];
+    /** Incremented by each invalidation. Resolutions started before an invalidation are not cached. Modified only
+     * while holding the provider lock, which also guards cache writes. */
+    private volatile int version;
+
+    /** @param properties will be used to store registered {@link Property} instances mapped by their keys. */
+    public LayeredPropertyProvider(final Map<String, Property> properties) {
+        this(properties, new HashMap<String, Property>());
+    }
+
+    /** @param properties will be used to store registered {@link Property} instances mapped by their keys.
+     * @param cache will be used to store resolved properties mapped by their keys. Should be thread-safe if the
+     *            registered properties map is. */
+    public LayeredPropertyProvider(final Map<String, Property> properties, final Map<String, Property> cache) {
+        this.properties = properties;
+        this.cache = cache;
+    }
+
+    /** @param source will take precedence over all current sources, but not over registered properties. */
+    public synchronized void addSource(final PropertySource source) {
+        final PropertySource[] newSources = Arrays.copyOf(sources, sources.length + 1);
+        newSources[sources.length] = source;
+        sources = newSources;
+        if (source instanceof MapPropertySource) {
+            ((MapPropertySource) source).addOwner(this);
+        }
+        invalidate();
+    }
+
+    /** @param source will no longer be used to resolve properties.
+     * @return true if the source was removed. */
+    public synchronized boolean removeSource(final PropertySource source) {
+        final List<PropertySource> newSources = new ArrayList<PropertySource>(Arrays.asList(sources));
+        if (!newSources.remove(source)) {
+            return false;
+        }
+        sources = newSources.toArray(new PropertySource[newSources.size()]);
+        if (source instanceof MapPropertySource) {
+            ((MapPropertySource) source).removeOwner(this);
+        }
+        invalidate();
+        return true;
+    }
+
+    /** @return current sources, in the order of increasing precedence. Unmodifiable. */
+    public List<PropertySource> getSources() {
+        return Collections.unmodifiableList(Arrays.asList(sources));
+    }
+
+    /** @param key the next lookup of the key will resolve the property again. Should be called after changing the
+     *            value of the key in any source not managed by {@link MapPropertySource} methods. */
+    public synchronized void invalidate(final String key) {
+        version++;
+        cache.remove(key);
+    }
+
+    /** Clears all resolved properties. */
+    public synchronized void invalidate() {
+        version++;
+        cache.clear();
+    }
+
+    /** @param key unique ID of the property.
+     * @return current value of the property or null if no layer defines the key. */
+    public String getValue(final String key) {
+        final Property property = getProperty(key);
+        return property == null ? null : property.getValue();
+    }
+
+    @Override
+    public boolean hasProperty(final String key) {
+        return getProperty(key) != null;
+    }
+
+    @Override
+    public Property getProperty(final String key) {
+        Property property = cache.get(key);
+        if (property == null) {
+            property = resolve(key);
+        }
+        return property == MISSING ? null : property;
+    }
+
+    private Property resolve(final String key) {
+        final int initialVersion = version;
+        Property property = properties.get(key);
+        if (property == null) {
+            final PropertySource[] sources = this.sources;
+            String value = null;
+            for (int index = sources.length - 1; index >= 0 && value == null; index--) {
+                value = sources[index].getValue(key);
+            }
+            property = value == null ? MISSING : new LayeredProperty(key, value);
+        }
+        synchronized (this) { // Invalidations cannot happen between the version check and the update.
+            if (initialVersion == version) {
+                cache.put(key, property);
+            }
+        }
+        return property;
+    }
+
+    @Override
+    public void addProperty(final Property property) {
+        properties.put(property.getKey(), property);
+        synchronized (this) {
+            version++;
+            cache.put(property.getKey(), property);
+        }
+    }
+
+    @Override
+    public void removeProperty(final Property property) {
+        if (properties.get(property.getKey()) == property) {
+            properties.remove(property.getKey());
+            invalidate(property.getKey());
+        }
+    }
+
+    /** {@inheritDoc} Keys of all layers are sorted when the iteration starts. */
+    @Override
+    public Iterable<Property> getProperties(final String prefix) {
+        return new Iterable<Property>() {
+            @Override
+            public Iterator<Property> iterator() {
+                final TreeSet<String> keys = new TreeSet<String>(properties.keySet());
+                for (final PropertySource source : sources) {
+                    for (final String key : source.getKeys()) {
+                        if (key.startsWith(prefix)) {
+                            keys.add(key);
+                        }
+                    }
+                }
+                return new PrefixedProperties(LayeredPropertyProvider.this, keys, prefix).iterator();
+            }
+        };
+    }
+
+    /** Removes all registered properties and cached resolutions. Sources are not modified. */
+    public void clear() {
+        properties.clear();
+        invalidate();
+    }
+
+    @Override
+    public Class<? extends String> getType() {
+        return String.class;
+    }
+
+    @Override
+    public String provide(final Object target, final Member member) {
+        return getValue(Providers.getName(member));
+    }
+
+    /** Property resolved from a source. Registered as an override when modified.
+     *
+     * @author MJ */
+    private class LayeredProperty extends CachedProperty {
+        LayeredProperty(final String key, final String value) {
+            super(key, value);
+        }
+
+        @Override
+        public String setValue(final String value) {
+            final String oldValue = super.setValue(value);
+            if (!properties.containsKey(getKey())) {
+                addProperty(this);
+            }
+            return oldValue;
+        }
+    }
+}
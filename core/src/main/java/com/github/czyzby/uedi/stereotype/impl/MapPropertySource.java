@@ -0,0 +1,82 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/** {@link PropertySource} backed by a map. Modifications done with its methods invalidate cached resolutions of the
+ * changed keys in all {@link LayeredPropertyProvider} instances using this source. If the map is modified directly,
+ * the providers have to be {@link LayeredPropertyProvider#invalidate(String) invalidated} manually.
+ *
+ * @author MJ */
+public class MapPropertySource implements PropertySource {
+    private final Map<String, String> values;
+    private final List<LayeredPropertyProvider> owners = new CopyOnWriteArrayList<LayeredPropertyProvider>();
+
+    /** @param values will be used to store property values mapped by their keys. Null values are not supported. */
+    public MapPropertySource(final Map<String, String> values) {
+        this.values = values;
+    }
+
+    @Override
+    public String getValue(final String key) {
+        return values.get(key);
+    }
+
+    @Override
+    public Iterable<String> getKeys() {
+        return values.keySet();
+    }
+
+    /** @param key unique ID of the property.
+     * @param value new value of the property. If null, the property is removed from this source. */
+    public void setValue(final String key, final String value) {
+        if (value == null) {
+            values.remove(key);
+        } else {
+            values.put(key, value);
+        }
+        for (final LayeredPropertyProvider owner : owners) {
+            owner.invalidate(key);
+        }
+    }
+
+    /** @param key unique ID of the property. Will be removed from this source. */
+    public void removeValue(final String key) {
+        setValue(key, null);
+    }
+
+    /** @param reader {@code .properties} file content. Will be fully read, but not closed. Parsed values replace the
+     *            values of existing properties.
+     * @return amount of loaded properties.
+     * @throws IOException if unable to read the input.
+     * @see PropertiesReader */
+    public int load(final Reader reader) throws IOException {
+        return new PropertiesReader().read(reader, new PropertiesReader.PropertyConsumer() {
+            @Override
+            public void consume(final String key, final String value) {
+                setValue(key, value);
+            }
+        });
+    }
+
+    /** Removes all properties from this source. */
+    public void clear() {
+        values.clear();
+        for (final LayeredPropertyProvider owner : owners) {
+            owner.invalidate();
+        }
+    }
+
+    void addOwner(final LayeredPropertyProvider owner) {
+        if (!owners.contains(owner)) {
+            owners.add(owner);
+        }
+    }
+
+    void removeOwner(final LayeredPropertyProvider owner) {
+        owners.remove(owner);
+    }
+}
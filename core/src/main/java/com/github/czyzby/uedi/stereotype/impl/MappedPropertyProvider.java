@@ -0,0 +1,377 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Member;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.github.czyzby.uedi.stereotype.Default;
+import com.github.czyzby.uedi.stereotype.Property;
+
+/** Provides string properties stored in a read-only, memory-mapped property table file. Keys and values stay off-heap:
+ * values are decoded only when requested and the most recently used properties are kept in a small on-heap cache.
+ * Allows to inject from tables with millions of keys without keeping them in a {@link Map}. Registered
+ * {@link Property} instances and modified values are stored on-heap and take precedence over the table values; values
+ * stored in the table cannot be removed.
+ *
+ * <p>
+ * Table format (big-endian): {@link #MAGIC} and {@link #VERSION} ints, amount of entries, amount of slots (a power of
+ * two), followed by slots, sorted entry offsets and entries. Each slot consists of {@link String#hashCode() hash} of
+ * the key and offset of its entry (0 for empty slots); keys are placed with linear probing. Sorted entry offsets list
+ * all entries in the natural order of their keys and allow to query properties by key prefixes. Each entry consists
+ * of UTF-8 key length, UTF-8 value length, key bytes and value bytes. Tables can be compiled from {@code .properties}
+ * files with {@code PropertyTableCompiler} from {@code uedi-tools}.
+ *
+ * @author MJ */
+public class MappedPropertyProvider implements Default, StringProvider {
+    /** First int of property table files. */
+    public static final int MAGIC = 0x55505254; // "UPRT"
+    /** Current version of the property table format. */
+    public static final int VERSION = 2;
+    /** Size of the table header in bytes: magic, version, entries amount and slots amount. */
+    public static final int HEADER_SIZE = 16;
+    /** Size of a single slot in bytes: key hash and entry offset. */
+    public static final int SLOT_SIZE = 8;
+    /** Size of the entry header in bytes: key and value lengths. */
+    public static final int ENTRY_HEADER_SIZE = 8;
+    /** Default amount of properties cached on-heap. */
+    public static final int DEFAULT_CACHE_SIZE = 256;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer table;
+    private final int size;
+    private final int mask;
+    /** Position of the sorted entry offsets. */
+    private final int sortedOffsets;
+    private final Map<String, Property> properties;
+    private final Map<String, MappedProperty> cache;
+
+    /** @param file property table. Will be mapped into memory.
+     * @param properties will be used to store registered and modified {@link Property} instances mapped by their keys.
+     * @throws IOException if unable to map the file. */
+    public MappedPropertyProvider(final File file, final Map<String, Property> properties) throws IOException {
+        this(map(file), properties, DEFAULT_CACHE_SIZE);
+    }
+
+    /** @param table content of a property table file, starting at its current position. Usually a memory-mapped file.
+     * @param properties will be used to store registered and modified {@link Property} instances mapped by their keys.
+     * @param cacheSize maximum amount of table properties cached on-heap. 0 disables the cache.
+     * @throws IOException if the table is invalid. */
+    public MappedPropertyProvider(final ByteBuffer table, final Map<String, Property> properties,
+            final int cacheSize) throws IOException {
+        this.table = table.slice().order(ByteOrder.BIG_ENDIAN);
+        this.properties = properties;
+        if (this.table.limit() < HEADER_SIZE || this.table.getInt(0) != MAGIC) {
+            throw new IOException("Invalid property table.");
+        } else if (this.table.getInt(4) != VERSION) {
+            throw new IOException("Unsupported property table version: " + this.table.getInt(4));
+        }
+        size = this.table.getInt(8);
+        final int capacity = this.table.getInt(12);
+        if (Integer.bitCount(capacity) != 1 || size < 0 || size >= capacity
+                || (long) HEADER_SIZE + (long) capacity * SLOT_SIZE + (long) size * 4L > this.table.limit()) {
+            throw new IOException("Corrupted property table.");
+        }
+        mask = capacity - 1;
+        sortedOffsets = HEADER_SIZE + capacity * SLOT_SIZE;
+        cache = new LinkedHashMap<String, MappedProperty>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, MappedProperty> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    private static ByteBuffer map(final File file) throws IOException {
+        final RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = input.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+        } finally {
+            input.close(); // Mapping remains valid after the channel is closed.
+        }
+    }
+
+    /** @return amount of values stored in the table. Does not include registered {@link Property} instances. */
+    public int getStoredValuesAmount() {
+        return size;
+    }
+
+    /** @param key unique ID of the property.
+     * @return current value of the property or null if there is no property with the key. */
+    public String getValue(final String key) {
+        final Property property = getProperty(key);
+        return property == null ? null : property.getValue();
+    }
+
+    @Override
+    public boolean hasProperty(final String key) {
+        if (properties.containsKey(key)) {
+            return true;
+        }
+        synchronized (cache) {
+            if (cache.containsKey(key)) {
+                return true;
+            }
+        }
+        return indexOf(key) != 0;
+    }
+
+    @Override
+    public Property getProperty(final String key) {
+        final Property property = properties.get(key);
+        if (property != null) {
+            return property;
+        }
+        synchronized (cache) {
+            final MappedProperty cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final int offset = indexOf(key);
+        if (offset == 0) {
+            return null;
+        }
+        final int keyLength = table.getInt(offset);
+        final MappedProperty mapped = new MappedProperty(key,
+                decode(offset + ENTRY_HEADER_SIZE + keyLength, table.getInt(offset + 4)));
+        synchronized (cache) {
+            cache.put(key, mapped);
+        }
+        return mapped;
+    }
+
+    /** @return offset of the key entry or 0 if the key is not stored in the table. */
+    private int indexOf(final String key) {
+        final int hash = key.hashCode();
+        for (int slot = getSlot(hash) & mask, probes = 0; probes <= mask; slot = slot + 1 & mask, probes++) {
+            final int position = HEADER_SIZE + slot * SLOT_SIZE;
+            final int offset = table.getInt(position + 4);
+            if (offset == 0) {
+                return 0;
+            } else if (table.getInt(position) == hash && compareKey(offset, key, false) == 0) {
+                return offset;
+            }
+        }
+        return 0;
+    }
+
+    /** @param hash {@link String#hashCode()} of the key.
+     * @return mixed hash. Should be masked to get the first slot of the key. */
+    public static int getSlot(final int hash) {
+        final int mixed = hash * 0x9E3779B9;
+        return mixed ^ mixed >>> 16;
+    }
+
+    /** Compares UTF-8 key stored in the table with the string without decoding it. Keys are compared by UTF-16 code
+     * units, like strings.
+     *
+     * @return negative if the stored key is lower than the string, 0 if the key is equal to the string (or starts with
+     *         the string if prefix is true), positive otherwise. */
+    private int compareKey(final int offset, final String key, final boolean prefix) {
+        int position = offset + ENTRY_HEADER_SIZE;
+        final int end = position + table.getInt(offset);
+        final int length = key.length();
+        int index = 0;
+        char lowSurrogate = 0;
+        while (position < end || lowSurrogate != 0) {
+            final char character;
+            if (lowSurrogate != 0) {
+                character = lowSurrogate;
+                lowSurrogate = 0;
+            } else {
+                final int first = table.get(position++) & 0xFF;
+                final int codePoint;
+                if (first < 0x80) {
+                    codePoint = first;
+                } else if (first < 0xE0) {
+                    codePoint = (first & 0x1F) << 6 | table.get(position++) & 0x3F;
+                } else if (first < 0xF0) {
+                    codePoint = (first & 0x0F) << 12 | (table.get(position++) & 0x3F) << 6
+                            | table.get(position++) & 0x3F;
+                } else {
+                    codePoint = (first & 0x07) << 18 | (table.get(position++) & 0x3F) << 12
+                            | (table.get(position++) & 0x3F) << 6 | table.get(position++) & 0x3F;
+                }
+                if (codePoint < 0x10000) {
+                    character = (char) codePoint;
+                } else {
+                    final int supplementary = codePoint - 0x10000;
+                    character = (char) ((supplementary >>> 10) + 0xD800);
+                    lowSurrogate = (char) ((supplementary & 0x3FF) + 0xDC00);
+                }
+            }
+            if (index == length) {
+                return prefix ? 0 : 1;
+            }
+            final int difference = character - key.charAt(index++);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return index == length ? 0 : -1;
+    }
+
+    private String decode(final int offset, final int length) {
+        final byte[] bytes = new byte[length];
+        for (int index = 0; index < length; index++) {
+            bytes[index] = table.get(offset + index);
+        }
+        return new String(bytes, UTF_8);
+    }
+
+    /** @return offset of the entry with the selected index in the natural order of keys. */
+    private int getSortedOffset(final int index) {
+        return table.getInt(sortedOffsets + index * 4);
+    }
+
+    /** @return index of the first entry in the natural order of keys with key starting with the prefix or greater. */
+    private int getLowerBound(final String prefix) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = low + high >>> 1;
+            if (compareKey(getSortedOffset(middle), prefix, true) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** @return properties with keys starting with the prefix: table entries in the natural order of their keys,
+     *         followed by registered and modified properties that are not stored in the table. Values are decoded
+     *         lazily. */
+    @Override
+    public Iterable<Property> getProperties(final String prefix) {
+        return new Iterable<Property>() {
+            @Override
+            public Iterator<Property> iterator() {
+                return new PrefixIterator(prefix);
+            }
+        };
+    }
+
+    @Override
+    public void addProperty(final Property property) {
+        properties.put(property.getKey(), property);
+        synchronized (cache) {
+            cache.remove(property.getKey());
+        }
+    }
+
+    @Override
+    public void removeProperty(final Property property) {
+        if (properties.get(property.getKey()) == property) {
+            properties.remove(property.getKey());
+        }
+    }
+
+    /** Clears the on-heap cache of table properties. Does not affect registered or modified properties. */
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public Class<? extends String> getType() {
+        return String.class;
+    }
+
+    @Override
+    public String provide(final Object target, final Member member) {
+        return getValue(Providers.getName(member));
+    }
+
+    /** Iterates over table entries with matching keys using the sorted entry offsets, then over registered properties
+     * with matching keys that are not stored in the table.
+     *
+     * @author MJ */
+    private class PrefixIterator implements Iterator<Property> {
+        private final String prefix;
+        private int index;
+        private Iterator<Property> registered;
+        private Property next;
+
+        PrefixIterator(final String prefix) {
+            this.prefix = prefix;
+            index = getLowerBound(prefix);
+            next = findNext();
+        }
+
+        private Property findNext() {
+            while (registered == null) {
+                if (index < size) {
+                    final int offset = getSortedOffset(index++);
+                    if (compareKey(offset, prefix, true) == 0) {
+                        final Property property = getProperty(decode(offset + ENTRY_HEADER_SIZE, table.getInt(offset)));
+                        if (property != null) {
+                            return property;
+                        }
+                        continue;
+                    }
+                }
+                registered = properties.values().iterator();
+            }
+            while (registered.hasNext()) {
+                final Property property = registered.next();
+                if (property.getKey().startsWith(prefix) && indexOf(property.getKey()) == 0) {
+                    return property;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Property next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final Property current = next;
+            next = findNext();
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /** {@link Property} view of a value stored in the table. Once modified, it is registered on-heap, so the change is
+     * not lost when the property is evicted from the cache.
+     *
+     * @author MJ */
+    private class MappedProperty extends CachedProperty {
+        MappedProperty(final String key, final String value) {
+            super(key, value);
+        }
+
+        @Override
+        public String setValue(final String value) {
+            final String oldValue = super.setValue(value);
+            if (!properties.containsKey(getKey())) {
+                addProperty(this);
+            }
+            return oldValue;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+import com.github.czyzby.uedi.stereotype.Property;
+
+/** Live view of properties with keys starting with a prefix. Iterates over a sorted index of property keys, starting at
+ * the prefix and stopping at the first key that does not match it, so only the matching keys are visited.
+ *
+ * @author MJ */
+class PrefixedProperties implements Iterable<Property> {
+    private final StringProvider provider;
+    private final SortedSet<String> index;
+    private final String prefix;
+
+    /** @param provider will be used to get properties mapped to the matching keys.
+     * @param index sorted keys of the provider's properties.
+     * @param prefix keys of the properties start with this prefix. */
+    PrefixedProperties(final StringProvider provider, final SortedSet<String> index, final String prefix) {
+        this.provider = provider;
+        this.index = index;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public Iterator<Property> iterator() {
+        final Iterator<String> keys = index.tailSet(prefix).iterator();
+        return new Iterator<Property>() {
+            private Property next = findNext();
+
+            private Property findNext() {
+                while (keys.hasNext()) {
+                    final String key = keys.next();
+                    if (!key.startsWith(prefix)) {
+                        return null;
+                    }
+                    final Property property = provider.getProperty(key);
+                    if (property != null) {
+                        return property;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Property next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                final Property current = next;
+                next = findNext();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
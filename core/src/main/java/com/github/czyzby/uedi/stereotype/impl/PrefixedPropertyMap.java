@@ -0,0 +1,94 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import com.github.czyzby.uedi.stereotype.Property;
+
+/** Read-only map view of properties with keys starting with a prefix. Map keys are property keys without the prefix;
+ * values are converted property values. Properties are not copied: the map always reflects the current state of the
+ * provider. Single-key lookups are delegated to the provider; iteration uses
+ * {@link StringProvider#getProperties(String)} and {@link #size()} requires a full iteration.
+ *
+ * @author MJ
+ * @param <Value> type of converted property values. */
+public class PrefixedPropertyMap<Value> extends AbstractMap<String, Value> {
+    private final StringProvider provider;
+    private final String prefix;
+    private final PropertyConverter<Value> converter;
+    private final Set<Entry<String, Value>> entries = new AbstractSet<Entry<String, Value>>() {
+        @Override
+        public Iterator<Entry<String, Value>> iterator() {
+            final Iterator<Property> properties = provider.getProperties(prefix).iterator();
+            return new Iterator<Entry<String, Value>>() {
+                @Override
+                public boolean hasNext() {
+                    return properties.hasNext();
+                }
+
+                @Override
+                public Entry<String, Value> next() {
+                    final Property property = properties.next();
+                    return new SimpleImmutableEntry<String, Value>(property.getKey().substring(prefix.length()),
+                            PropertyConverters.convert(property, converter));
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (final Iterator<Property> iterator = provider.getProperties(prefix).iterator(); iterator
+                    .hasNext(); iterator.next()) {
+                size++;
+            }
+            return size;
+        }
+    };
+
+    /** @param provider stores the properties.
+     * @param prefix keys of the properties start with this prefix.
+     * @param converter will be used to convert property values. */
+    public PrefixedPropertyMap(final StringProvider provider, final String prefix,
+            final PropertyConverter<Value> converter) {
+        this.provider = provider;
+        this.prefix = prefix;
+        this.converter = converter;
+    }
+
+    /** @return prefix of the property keys. */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public Value get(final Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final Property property = provider.getProperty(prefix + key);
+        return property == null ? null : PropertyConverters.convert(property, converter);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return key instanceof String && provider.hasProperty(prefix + key);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !provider.getProperties(prefix).iterator().hasNext();
+    }
+
+    @Override
+    public Set<Entry<String, Value>> entrySet() {
+        return entries;
+    }
+}
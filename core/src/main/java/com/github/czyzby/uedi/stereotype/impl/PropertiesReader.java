@@ -0,0 +1,179 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/** Single-pass parser of {@code .properties} files. Supports the same syntax as {@link java.util.Properties}:
+ * comments starting with '#' or '!', '=', ':' and whitespace key separators, line continuations with '\' and escape
+ * sequences (including {@code \\uXXXX}). Reads the input in chunks and reuses its buffers, so the only objects created
+ * per entry are the key and value strings. Not thread-safe: each thread should use its own instance.
+ *
+ * @author MJ
+ * @see FlatPropertyProvider */
+public class PropertiesReader {
+    private static final int EOF = -1;
+
+    private final char[] buffer;
+    private char[] token = new char[128];
+    private int tokenLength;
+    private Reader reader;
+    private int position;
+    private int limit;
+
+    public PropertiesReader() {
+        this(8192);
+    }
+
+    /** @param bufferSize size of the input buffer. */
+    public PropertiesReader(final int bufferSize) {
+        buffer = new char[bufferSize];
+    }
+
+    /** @param reader will be fully read, but not closed.
+     * @param consumer will receive all parsed properties in the order of their appearance.
+     * @return amount of parsed properties.
+     * @throws IOException if unable to read the input.
+     * @throws IllegalArgumentException if the input contains a malformed unicode escape sequence. */
+    public int read(final Reader reader, final PropertyConsumer consumer) throws IOException {
+        this.reader = reader;
+        position = limit = 0;
+        int count = 0;
+        try {
+            int character = next();
+            while (character != EOF) {
+                character = skipWhitespace(character);
+                if (character == '\n' || character == '\r') {
+                    character = next();
+                    continue;
+                } else if (character == EOF) {
+                    break;
+                } else if (character == '#' || character == '!') {
+                    character = skipLine();
+                    continue;
+                }
+                tokenLength = 0;
+                character = readToken(character, true);
+                final String key = new String(token, 0, tokenLength);
+                character = skipWhitespace(character);
+                if (character == '=' || character == ':') {
+                    character = skipWhitespace(next());
+                }
+                tokenLength = 0;
+                character = readToken(character, false);
+                consumer.consume(key, new String(token, 0, tokenLength));
+                count++;
+            }
+        } finally {
+            this.reader = null;
+        }
+        return count;
+    }
+
+    /** @return next character or {@link #EOF}. */
+    private int next() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private int skipWhitespace(int character) throws IOException {
+        while (character == ' ' || character == '\t' || character == '\f') {
+            character = next();
+        }
+        return character;
+    }
+
+    /** @return first character after the current natural line. */
+    private int skipLine() throws IOException {
+        int character = next();
+        while (character != EOF && character != '\n' && character != '\r') {
+            character = next();
+        }
+        return character;
+    }
+
+    /** @param character first character of the token.
+     * @param key if true, token ends at the first unescaped separator. Otherwise, token ends with the logical line.
+     * @return first character after the token. */
+    private int readToken(int character, final boolean key) throws IOException {
+        while (character != EOF && character != '\n' && character != '\r') {
+            if (key && (character == '=' || character == ':' || character == ' ' || character == '\t'
+                    || character == '\f')) {
+                return character;
+            } else if (character == '\\') {
+                character = next();
+                switch (character) {
+                    case EOF:
+                        return EOF;
+                    case '\r':
+                        character = next();
+                        if (character == '\n') {
+                            character = next();
+                        }
+                        character = skipWhitespace(character);
+                        continue; // Line continuation.
+                    case '\n':
+                        character = skipWhitespace(next());
+                        continue; // Line continuation.
+                    case 't':
+                        append('\t');
+                        break;
+                    case 'n':
+                        append('\n');
+                        break;
+                    case 'r':
+                        append('\r');
+                        break;
+                    case 'f':
+                        append('\f');
+                        break;
+                    case 'u':
+                        append(readUnicode());
+                        break;
+                    default:
+                        append((char) character);
+                }
+            } else {
+                append((char) character);
+            }
+            character = next();
+        }
+        return character;
+    }
+
+    private char readUnicode() throws IOException {
+        int value = 0;
+        for (int index = 0; index < 4; index++) {
+            final int digit = Character.digit(next(), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+            }
+            value = value << 4 | digit;
+        }
+        return (char) value;
+    }
+
+    private void append(final char character) {
+        if (tokenLength == token.length) {
+            final char[] newToken = new char[token.length * 2];
+            System.arraycopy(token, 0, newToken, 0, tokenLength);
+            token = newToken;
+        }
+        token[tokenLength++] = character;
+    }
+
+    /** Receives parsed properties.
+     *
+     * @author MJ */
+    public static interface PropertyConsumer {
+        /** @param key key of the property.
+         * @param value value of the property. Might be empty, never null. */
+        void consume(String key, String value);
+    }
+}
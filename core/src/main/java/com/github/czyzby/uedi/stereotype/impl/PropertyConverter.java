@@ -0,0 +1,13 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+/** Converts raw {@link com.github.czyzby.uedi.stereotype.Property property} values into typed field values.
+ *
+ * @author MJ
+ * @param <Type> type of converted values.
+ * @see PropertyConverters */
+public interface PropertyConverter<Type> {
+    /** @param value raw property value. Never null.
+     * @return converted value. Primitives should be boxed.
+     * @throws RuntimeException if the value cannot be converted. */
+    Type convert(String value);
+}
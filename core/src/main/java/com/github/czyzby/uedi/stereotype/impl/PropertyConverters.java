@@ -0,0 +1,266 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.github.czyzby.uedi.stereotype.Property;
+
+/** Converts {@link com.github.czyzby.uedi.stereotype.Property property} values into primitives, boxed numbers,
+ * booleans, characters, enums and durations. Used to inject typed fields with properties matching their names. String
+ * fields are injected with the same mechanism, using the {@link #STRING} converter.
+ *
+ * <p>
+ * Durations can be injected into {@code long} fields (as milliseconds) and {@code java.time.Duration} fields (if
+ * available). Durations are numbers followed by a unit: "ms", "s", "m", "h" or "d" (for example, "30s" or "500ms").
+ * Plain numbers are treated as milliseconds. {@code java.time.Duration} fields also accept ISO-8601 values, like
+ * "PT30S".
+ *
+ * @author MJ */
+public class PropertyConverters {
+    /** Converters of supported types. Enum converters are created on demand. Not thread-safe: add custom converters
+     * before creating the contexts. */
+    public static final Map<Class<?>, PropertyConverter<?>> CONVERTERS = new HashMap<Class<?>, PropertyConverter<?>>();
+
+    /** Returns values unchanged. */
+    public static final PropertyConverter<String> STRING = new PropertyConverter<String>() {
+        @Override
+        public String convert(final String value) {
+            return value;
+        }
+    };
+    /** Converts values to {@link Boolean}. Accepts "true" and "false", ignoring case. */
+    public static final PropertyConverter<Boolean> BOOLEAN = new PropertyConverter<Boolean>() {
+        @Override
+        public Boolean convert(final String value) {
+            final String trimmed = value.trim();
+            if ("true".equalsIgnoreCase(trimmed)) {
+                return Boolean.TRUE;
+            } else if ("false".equalsIgnoreCase(trimmed)) {
+                return Boolean.FALSE;
+            }
+            throw new IllegalArgumentException("Invalid boolean value: " + value);
+        }
+    };
+    /** Converts values to {@link Byte}. */
+    public static final PropertyConverter<Byte> BYTE = new PropertyConverter<Byte>() {
+        @Override
+        public Byte convert(final String value) {
+            return Byte.valueOf(value.trim());
+        }
+    };
+    /** Converts values to {@link Short}. */
+    public static final PropertyConverter<Short> SHORT = new PropertyConverter<Short>() {
+        @Override
+        public Short convert(final String value) {
+            return Short.valueOf(value.trim());
+        }
+    };
+    /** Converts values to {@link Integer}. */
+    public static final PropertyConverter<Integer> INTEGER = new PropertyConverter<Integer>() {
+        @Override
+        public Integer convert(final String value) {
+            return Integer.valueOf(value.trim());
+        }
+    };
+    /** Converts values to {@link Long}. Accepts durations, which are converted to milliseconds.
+     *
+     * @see PropertyConverters#parseDuration(String) */
+    public static final PropertyConverter<Long> LONG = new PropertyConverter<Long>() {
+        @Override
+        public Long convert(final String value) {
+            final String trimmed = value.trim();
+            try {
+                return Long.valueOf(trimmed);
+            } catch (final NumberFormatException exception) {
+                return Long.valueOf(parseDuration(trimmed));
+            }
+        }
+    };
+    /** Converts values to {@link Float}. */
+    public static final PropertyConverter<Float> FLOAT = new PropertyConverter<Float>() {
+        @Override
+        public Float convert(final String value) {
+            return Float.valueOf(value.trim());
+        }
+    };
+    /** Converts values to {@link Double}. */
+    public static final PropertyConverter<Double> DOUBLE = new PropertyConverter<Double>() {
+        @Override
+        public Double convert(final String value) {
+            return Double.valueOf(value.trim());
+        }
+    };
+    /** Converts single-character values to {@link Character}. */
+    public static final PropertyConverter<Character> CHARACTER = new PropertyConverter<Character>() {
+        @Override
+        public Character convert(final String value) {
+            if (value.length() != 1) {
+                throw new IllegalArgumentException("Invalid character value: " + value);
+            }
+            return Character.valueOf(value.charAt(0));
+        }
+    };
+    /** Converts values to {@link BigInteger}. */
+    public static final PropertyConverter<BigInteger> BIG_INTEGER = new PropertyConverter<BigInteger>() {
+        @Override
+        public BigInteger convert(final String value) {
+            return new BigInteger(value.trim());
+        }
+    };
+    /** Converts values to {@link BigDecimal}. */
+    public static final PropertyConverter<BigDecimal> BIG_DECIMAL = new PropertyConverter<BigDecimal>() {
+        @Override
+        public BigDecimal convert(final String value) {
+            return new BigDecimal(value.trim());
+        }
+    };
+
+    static {
+        CONVERTERS.put(String.class, STRING);
+        CONVERTERS.put(boolean.class, BOOLEAN);
+        CONVERTERS.put(Boolean.class, BOOLEAN);
+        CONVERTERS.put(byte.class, BYTE);
+        CONVERTERS.put(Byte.class, BYTE);
+        CONVERTERS.put(short.class, SHORT);
+        CONVERTERS.put(Short.class, SHORT);
+        CONVERTERS.put(int.class, INTEGER);
+        CONVERTERS.put(Integer.class, INTEGER);
+        CONVERTERS.put(long.class, LONG);
+        CONVERTERS.put(Long.class, LONG);
+        CONVERTERS.put(float.class, FLOAT);
+        CONVERTERS.put(Float.class, FLOAT);
+        CONVERTERS.put(double.class, DOUBLE);
+        CONVERTERS.put(Double.class, DOUBLE);
+        CONVERTERS.put(char.class, CHARACTER);
+        CONVERTERS.put(Character.class, CHARACTER);
+        CONVERTERS.put(BigInteger.class, BIG_INTEGER);
+        CONVERTERS.put(BigDecimal.class, BIG_DECIMAL);
+        addDurationConverter();
+    }
+
+    /** Do not initiate. */
+    private PropertyConverters() {
+    }
+
+    /** Registers {@code java.time.Duration} converter if the class is available. */
+    private static void addDurationConverter() {
+        try {
+            final Class<?> durationClass = Class.forName("java.time.Duration");
+            final Method parse = durationClass.getMethod("parse", CharSequence.class);
+            final Method ofMillis = durationClass.getMethod("ofMillis", long.class);
+            CONVERTERS.put(durationClass, new PropertyConverter<Object>() {
+                @Override
+                public Object convert(final String value) {
+                    final String trimmed = value.trim();
+                    try {
+                        final String upperCase = trimmed.toUpperCase();
+                        if (upperCase.startsWith("P") || upperCase.startsWith("-P")) {
+                            return parse.invoke(null, trimmed);
+                        }
+                        return ofMillis.invoke(null, Long.valueOf(parseDuration(trimmed)));
+                    } catch (final RuntimeException exception) {
+                        throw exception;
+                    } catch (final Exception exception) {
+                        throw new IllegalArgumentException("Invalid duration value: " + value, exception);
+                    }
+                }
+            });
+        } catch (final Exception exception) {
+            // Duration is not available on this platform.
+        }
+    }
+
+    /** @param type type of an injected field.
+     * @return converter of the type or null if the type is not supported. */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public static PropertyConverter<?> getConverter(final Class<?> type) {
+        final PropertyConverter<?> converter = CONVERTERS.get(type);
+        if (converter == null && type.isEnum()) {
+            return new EnumConverter(type);
+        }
+        return converter;
+    }
+
+    /** @param type type of an injected field.
+     * @return true if the properties can be converted to the type. */
+    public static boolean isSupported(final Class<?> type) {
+        return CONVERTERS.containsKey(type) || type.isEnum();
+    }
+
+    /** @param property its current value will be converted. Values of {@link CachedProperty} instances are converted
+     *            once per value and converter.
+     * @param converter will be used to convert the value.
+     * @return converted value or null if the value is null.
+     * @param <Type> type of converted value. */
+    public static <Type> Type convert(final Property property, final PropertyConverter<Type> converter) {
+        if (property instanceof CachedProperty) {
+            return ((CachedProperty) property).getValue(converter);
+        }
+        final String value = property.getValue();
+        return value == null ? null : converter.convert(value);
+    }
+
+    /** @param duration number followed by an optional unit: "ms", "s", "m", "h" or "d". Numbers without a unit are
+     *            treated as milliseconds.
+     * @return duration in milliseconds.
+     * @throws IllegalArgumentException if the duration is invalid. */
+    public static long parseDuration(final String duration) {
+        final String trimmed = duration.trim();
+        int unitIndex = trimmed.length();
+        while (unitIndex > 0 && !Character.isDigit(trimmed.charAt(unitIndex - 1))) {
+            unitIndex--;
+        }
+        final String unit = trimmed.substring(unitIndex).trim().toLowerCase();
+        final long amount;
+        try {
+            amount = Long.parseLong(trimmed.substring(0, unitIndex).trim());
+        } catch (final NumberFormatException exception) {
+            throw new IllegalArgumentException("Invalid duration value: " + duration, exception);
+        }
+        if (unit.length() == 0 || "ms".equals(unit)) {
+            return amount;
+        } else if ("s".equals(unit)) {
+            return TimeUnit.SECONDS.toMillis(amount);
+        } else if ("m".equals(unit) || "min".equals(unit)) {
+            return TimeUnit.MINUTES.toMillis(amount);
+        } else if ("h".equals(unit)) {
+            return TimeUnit.HOURS.toMillis(amount);
+        } else if ("d".equals(unit)) {
+            return TimeUnit.DAYS.toMillis(amount);
+        }
+        throw new IllegalArgumentException("Invalid duration unit: " + duration);
+    }
+
+    /** Converts values to constants of an enum. Constant names are matched ignoring case if there is no exact match.
+     *
+     * @author MJ
+     * @param <Type> type of the enum. */
+    public static class EnumConverter<Type extends Enum<Type>> implements PropertyConverter<Type> {
+        private final Class<Type> enumType;
+
+        /** @param enumType class of the enum. */
+        public EnumConverter(final Class<Type> enumType) {
+            this.enumType = enumType;
+        }
+
+        @Override
+        public Type convert(final String value) {
+            final String trimmed = value.trim();
+            for (final Type constant : enumType.getEnumConstants()) {
+                if (constant.name().equals(trimmed)) {
+                    return constant;
+                }
+            }
+            for (final Type constant : enumType.getEnumConstants()) {
+                if (constant.name().equalsIgnoreCase(trimmed)) {
+                    return constant;
+                }
+            }
+            throw new IllegalArgumentException("Invalid " + enumType.getSimpleName() + " value: " + value);
+        }
+    }
+}
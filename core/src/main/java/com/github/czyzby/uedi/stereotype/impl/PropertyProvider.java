@@ -2,20 +2,34 @@ package com.github.czyzby.uedi.stereotype.impl;
 
 import java.lang.reflect.Member;
 import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import com.github.czyzby.uedi.stereotype.Default;
 import com.github.czyzby.uedi.stereotype.Property;
 
-/** Provides string properties using {@link Property} API.
+/** Provides string properties using {@link Property} API. Maintains a sorted index of property keys, which allows to
+ * query properties by key prefixes.
  *
  * @author MJ */
 public class PropertyProvider implements Default, StringProvider {
     private final Map<String, Property> properties;
+    private final SortedSet<String> index;
 
     /** @param properties will be used to store properties mapped by their keys. Should be thread-safe is used in
      *            multi-threaded environment. */
     public PropertyProvider(final Map<String, Property> properties) {
+        this(properties, new TreeSet<String>());
+    }
+
+    /** @param properties will be used to store properties mapped by their keys. Should be thread-safe is used in
+     *            multi-threaded environment.
+     * @param index will be used to store sorted property keys. Should be empty. Should be thread-safe is used in
+     *            multi-threaded environment. */
+    public PropertyProvider(final Map<String, Property> properties, final SortedSet<String> index) {
         this.properties = properties;
+        this.index = index;
+        index.addAll(properties.keySet());
     }
 
     @Override
@@ -31,6 +45,20 @@ public class PropertyProvider implements Default, StringProvider {
     @Override
     public void addProperty(final Property property) {
         properties.put(property.getKey(), property);
+        index.add(property.getKey());
+    }
+
+    @Override
+    public void removeProperty(final Property property) {
+        if (properties.get(property.getKey()) == property) {
+            properties.remove(property.getKey());
+            index.remove(property.getKey());
+        }
+    }
+
+    @Override
+    public Iterable<Property> getProperties(final String prefix) {
+        return new PrefixedProperties(this, index, prefix);
     }
 
     @Override
@@ -40,10 +68,7 @@ public class PropertyProvider implements Default, StringProvider {
 
     @Override
     public String provide(final Object target, final Member member) {
-        final String key = Providers.getName(member);
-        if (properties.containsKey(key)) {
-            return properties.get(key).getValue();
-        }
-        return null;
+        final Property property = properties.get(Providers.getName(member));
+        return property == null ? null : property.getValue();
     }
 }
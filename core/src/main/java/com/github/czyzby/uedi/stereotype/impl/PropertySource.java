@@ -0,0 +1,16 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+/** Read-only layer of properties resolved by {@link LayeredPropertyProvider}, such as default values, a configuration
+ * file, environment variables or system properties.
+ *
+ * @author MJ
+ * @see MapPropertySource
+ * @see PropertySources */
+public interface PropertySource {
+    /** @param key unique ID of the property.
+     * @return value of the property or null if it is not defined by this source. */
+    String getValue(String key);
+
+    /** @return keys of all properties defined by this source. Used by prefix queries. */
+    Iterable<String> getKeys();
+}
@@ -0,0 +1,43 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+import java.util.Map;
+
+/** Provides {@link PropertySource} instances backed by the JVM configuration.
+ *
+ * @author MJ */
+public class PropertySources {
+    private PropertySources() {
+    }
+
+    /** @return source reading system properties. Values are not cached by the source, but they might be cached by
+     *         {@link LayeredPropertyProvider}: invalidate the provider after changing system properties. */
+    public static PropertySource getSystemProperties() {
+        return new PropertySource() {
+            @Override
+            public String getValue(final String key) {
+                return System.getProperty(key);
+            }
+
+            @Override
+            public Iterable<String> getKeys() {
+                return System.getProperties().stringPropertyNames();
+            }
+        };
+    }
+
+    /** @return source reading environment variables. Keys must match variable names exactly. */
+    public static PropertySource getEnvironment() {
+        final Map<String, String> environment = System.getenv();
+        return new PropertySource() {
+            @Override
+            public String getValue(final String key) {
+                return environment.get(key);
+            }
+
+            @Override
+            public Iterable<String> getKeys() {
+                return environment.keySet();
+            }
+        };
+    }
+}
@@ -1,6 +1,8 @@
 package com.github.czyzby.uedi.stereotype.impl;
 
 import java.lang.reflect.Member;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 
 import com.github.czyzby.uedi.Context;
@@ -35,6 +37,27 @@ public class ProviderManager<Type> implements Provider<Type> {
         }
     }
 
+    /** @param provider will be removed from the providers collection.
+     * @return true if the provider was registered in the manager. */
+    public boolean removeProvider(final Provider<?> provider) {
+        boolean removed = false;
+        for (final Iterator<Provider<Type>> iterator = providers.values().iterator(); iterator.hasNext();) {
+            if (iterator.next() == provider) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+        if (defaultProvider == provider) {
+            defaultProvider = null;
+        }
+        return removed;
+    }
+
+    /** @return direct reference to all registered providers. */
+    public Collection<Provider<Type>> getProviders() {
+        return providers.values();
+    }
+
     @Override
     public Class<? extends Type> getType() {
         return type;
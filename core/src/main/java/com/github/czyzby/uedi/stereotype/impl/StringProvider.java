@@ -17,4 +17,12 @@ public interface StringProvider extends Provider<String> {
 
     /** @param property will be mapped to its {@link Property#getKey() key}. */
     void addProperty(Property property);
-}
\ No newline at end of file
+
+    /** @param property will be removed if it is currently mapped to its {@link Property#getKey() key}. */
+    void removeProperty(Property property);
+
+    /** @param prefix keys of the returned properties start with this prefix. Empty prefix matches all properties.
+     * @return live view of the properties with matching keys. Properties are not copied: each iteration reflects the
+     *         current state of the provider. Iteration order depends on the implementation. The view is read-only. */
+    Iterable<Property> getProperties(String prefix);
+}
@@ -0,0 +1,54 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.github.czyzby.uedi.impl.BytecodeContext;
+import com.github.czyzby.uedi.impl.ComponentInjector;
+import com.github.czyzby.uedi.test.TestProvider;
+import com.github.czyzby.uedi.test.inject.InjectFactory;
+import com.github.czyzby.uedi.test.inject.Injected;
+import com.github.czyzby.uedi.test.inject.Injector;
+import com.github.czyzby.uedi.test.inject.UsingAbstractWithFields;
+
+/** Runs all context tests with components constructed and injected by generated {@link ComponentInjector}
+ * implementations.
+ *
+ * @author MJ */
+public class BytecodeContextTest extends ContextTest {
+    @Override
+    protected Context getContext() {
+        return new BytecodeContext(MockScanner.getClassScanner());
+    }
+
+    @Test
+    public void shouldGenerateInjectors() {
+        final BytecodeContext bytecodeContext = (BytecodeContext) context;
+        final ComponentInjector injector = bytecodeContext.getInjector(Injector.class);
+        assertNotNull(injector);
+        assertNotNull(injector.getConstructor());
+        assertNotNull(bytecodeContext.getInjector(TestProvider.class));
+        assertNotNull(bytecodeContext.getInjector(UsingAbstractWithFields.class));
+        assertNull(bytecodeContext.getInjector(Runnable.class));
+    }
+
+    @Test
+    public void shouldInvokeFactoryMethodsWithGeneratedInjectors() throws Exception {
+        final ComponentInjector injector = ((BytecodeContext) context).getInjector(InjectFactory.class);
+        final int index = injector.getMethodIndex(InjectFactory.class.getMethod("square", Float.class));
+        assertTrue(index >= 0);
+        final InjectFactory factory = context.get(InjectFactory.class);
+        assertEquals(factory.square(Float.valueOf(3f)), injector.invoke(index, factory, new Object[] { Float.valueOf(3f) }));
+    }
+
+    @Test
+    public void shouldInjectPrivateAndInheritedFields() {
+        final UsingAbstractWithFields component = context.create(UsingAbstractWithFields.class);
+        assertTrue(component.getChildField() instanceof Injected);
+        assertTrue(component.getSuperField() instanceof Injected);
+    }
+}
@@ -0,0 +1,193 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.multiple.dependent.DependentSingleton;
+import com.github.czyzby.uedi.multiple.independent.IndependentSingleton;
+import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.scanner.impl.CachedClassScanner;
+import com.github.czyzby.uedi.scanner.impl.FixedClassScanner;
+import com.github.czyzby.uedi.stereotype.Provider;
+import com.github.czyzby.uedi.stereotype.Singleton;
+import com.github.czyzby.uedi.test.Root;
+import com.github.czyzby.uedi.test.TestSingleton;
+import com.github.czyzby.uedi.test.inject.Injector;
+
+/** Tests {@link CachedClassScanner}.
+ *
+ * @author MJ */
+public class CachedClassScannerTest {
+    private final CountingScanner countingScanner = new CountingScanner();
+
+    @Before
+    public void clearCache() {
+        CachedClassScanner.clearCache();
+    }
+
+    @Test
+    public void shouldScanOnlyOnceForMultipleScannerInstances() {
+        final Set<Class<?>> first = toSet(new CachedClassScanner(countingScanner).getClassesImplementing(Root.class,
+                Singleton.class, Provider.class));
+        // Interfaces order should not matter:
+        final Set<Class<?>> second = toSet(new CachedClassScanner(countingScanner).getClassesImplementing(Root.class,
+                Provider.class, Singleton.class));
+        assertEquals(1, countingScanner.scans.get());
+        assertEquals(first, second);
+        assertEquals(toSet(MockScanner.getClassScanner().getClassesImplementing(Root.class, Singleton.class,
+                Provider.class)), first);
+    }
+
+    @Test
+    public void shouldScanAgainForDifferentInterfaces() {
+        new CachedClassScanner(countingScanner).getClassesImplementing(Root.class, Singleton.class);
+        new CachedClassScanner(countingScanner).getClassesImplementing(Root.class, Provider.class);
+        assertEquals(2, countingScanner.scans.get());
+    }
+
+    @Test
+    public void shouldNotShareResultsOfDifferentScannerInstances() {
+        final CountingScanner otherScanner = new CountingScanner();
+        new CachedClassScanner(countingScanner).getClassesImplementing(Root.class, Singleton.class);
+        new CachedClassScanner(otherScanner).getClassesImplementing(Root.class, Singleton.class);
+        assertEquals(1, countingScanner.scans.get());
+        assertEquals(1, otherScanner.scans.get());
+
+        final Set<Class<?>> independent = toSet(new CachedClassScanner(new FixedClassScanner(
+                IndependentSingleton.class)).getClassesImplementing(CachedClassScannerTest.class, Singleton.class));
+        final Set<Class<?>> dependent = toSet(new CachedClassScanner(new FixedClassScanner(
+                DependentSingleton.class)).getClassesImplementing(CachedClassScannerTest.class, Singleton.class));
+        assertTrue(independent.contains(IndependentSingleton.class));
+        assertFalse(independent.contains(DependentSingleton.class));
+        assertTrue(dependent.contains(DependentSingleton.class));
+        assertFalse(dependent.contains(IndependentSingleton.class));
+    }
+
+    @Test
+    public void shouldScanAgainAfterInvalidation() {
+        final CachedClassScanner scanner = new CachedClassScanner(countingScanner);
+        scanner.getClassesImplementing(Root.class, Singleton.class);
+        scanner.invalidate();
+        scanner.getClassesImplementing(Root.class, Singleton.class);
+        assertEquals(2, countingScanner.scans.get());
+    }
+
+    @Test
+    public void shouldInvalidateOnlyResultsOfSelectedRoots() {
+        final CachedClassScanner scanner = new CachedClassScanner(countingScanner);
+        scanner.getClassesImplementing(Root.class, Singleton.class);
+        scanner.getClassesImplementing(IndependentSingleton.class, Singleton.class);
+        scanner.invalidate(DependentSingleton.class); // Unrelated package.
+        scanner.getClassesImplementing(Root.class, Singleton.class);
+        scanner.getClassesImplementing(IndependentSingleton.class, Singleton.class);
+        assertEquals(2, countingScanner.scans.get());
+
+        scanner.invalidate(Injector.class); // Subpackage of the Root package.
+        scanner.getClassesImplementing(Root.class, Singleton.class);
+        scanner.getClassesImplementing(IndependentSingleton.class, Singleton.class);
+        assertEquals(3, countingScanner.scans.get());
+    }
+
+    @Test
+    public void shouldLoadClassesWithClassLoadersOfRoots() throws Exception {
+        final String[] classPath = System.getProperty("java.class.path").split(File.pathSeparator);
+        final URL[] urls = new URL[classPath.length];
+        for (int index = 0; index < classPath.length; index++) {
+            urls[index] = new File(classPath[index]).toURI().toURL();
+        }
+        final ClassLoader classLoader = new URLClassLoader(urls, null);
+        final Class<?> isolatedRoot = Class.forName(Root.class.getName(), false, classLoader);
+
+        final Set<Class<?>> classes = toSet(new CachedClassScanner(countingScanner)
+                .getClassesImplementing(new Class<?>[] { Root.class, isolatedRoot }, Singleton.class));
+        assertEquals(2, countingScanner.scans.get());
+        assertTrue(classes.contains(TestSingleton.class));
+        assertTrue(classes.contains(Class.forName(TestSingleton.class.getName(), false, classLoader)));
+    }
+
+    @Test
+    public void shouldFindNewClassesOnRescan() {
+        final FixedClassScanner fixedScanner = new FixedClassScanner(IndependentSingleton.class);
+        final Context context = new DefaultContext(new CachedClassScanner(fixedScanner));
+        context.scan(CachedClassScannerTest.class);
+        assertTrue(context.isAvailable(IndependentSingleton.class));
+        assertFalse(context.isAvailable(DependentSingleton.class));
+
+        fixedScanner.add(DependentSingleton.class);
+        context.rescan(CachedClassScannerTest.class);
+        assertTrue(context.isAvailable(DependentSingleton.class));
+    }
+
+    @Test
+    public void shouldNotDuplicateConcurrentScans() throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<Thread>();
+        for (int index = 0; index < 8; index++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (final InterruptedException exception) {
+                        return;
+                    }
+                    new CachedClassScanner(countingScanner).getClassesImplementing(Injector.class, Singleton.class);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, countingScanner.scans.get());
+    }
+
+    private static Set<Class<?>> toSet(final Iterable<Class<?>> classes) {
+        final Set<Class<?>> set = new HashSet<Class<?>>();
+        for (final Class<?> type : classes) {
+            set.add(type);
+        }
+        return set;
+    }
+
+    /** Counts performed scans.
+     *
+     * @author MJ */
+    private static class CountingScanner implements ClassScanner {
+        private final ClassScanner classScanner = MockScanner.getClassScanner();
+        private final AtomicInteger scans = new AtomicInteger();
+
+        @Override
+        public Iterable<Class<?>> getClassesImplementing(final Class<?> root, final Class<?>... interfaces) {
+            return getClassesImplementing(new Class<?>[] { root }, interfaces);
+        }
+
+        @Override
+        public Iterable<Class<?>> getClassesImplementing(final Class<?>[] roots, final Class<?>... interfaces) {
+            scans.incrementAndGet();
+            try {
+                Thread.sleep(20L); // Simulating a slow classpath scan.
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return classScanner.getClassesImplementing(roots, interfaces);
+        }
+    }
+}
@@ -1,10 +1,69 @@
 package com.github.czyzby.uedi;
 
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
 import com.github.czyzby.uedi.impl.ConcurrentContext;
+import com.github.czyzby.uedi.impl.WiringPlan;
+import com.github.czyzby.uedi.test.inject.Injected;
+import com.github.czyzby.uedi.test.lifecycle.BatchInitiated;
 
 public class ConcurrentContextTest extends ContextTest {
     @Override
     protected Context getContext() {
         return new ConcurrentContext(MockScanner.getClassScanner());
     }
+
+    @Test
+    public void shouldInjectMultipleComponentsInParallel() {
+        final List<BatchInitiated> components = new ArrayList<BatchInitiated>();
+        for (int index = 0; index < 5000; index++) {
+            components.add(new BatchInitiated(index % 7));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ((ConcurrentContext) context).initiateAll(components, executor);
+        } finally {
+            executor.shutdown();
+        }
+        final Injected injected = context.get(Injected.class);
+        int previousOrder = Integer.MIN_VALUE;
+        for (final BatchInitiated component : components) {
+            assertSame(injected, component.injected);
+            assertTrue(component.wasInitiated());
+        }
+        for (int initiationOrder = 0; initiationOrder < 7; initiationOrder++) {
+            int maxOrder = Integer.MIN_VALUE;
+            for (final BatchInitiated component : components) {
+                if (component.getInitiationOrder() == initiationOrder) {
+                    assertTrue(component.getActualOrder() > previousOrder);
+                    maxOrder = Math.max(maxOrder, component.getActualOrder());
+                }
+            }
+            previousOrder = maxOrder;
+        }
+    }
+
+    @Test
+    public void shouldInjectSequentiallyWhileRecordingWiring() {
+        final ConcurrentContext concurrentContext = (ConcurrentContext) context;
+        concurrentContext.setWiringPlan(new WiringPlan());
+        final List<BatchInitiated> components = new ArrayList<BatchInitiated>();
+        for (int index = 0; index < 100; index++) {
+            components.add(new BatchInitiated(index));
+        }
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown(); // Rejects all tasks: components have to be injected on the current thread.
+        concurrentContext.initiateAll(components, executor);
+        for (final BatchInitiated component : components) {
+            assertSame(context.get(Injected.class), component.injected);
+        }
+    }
 }
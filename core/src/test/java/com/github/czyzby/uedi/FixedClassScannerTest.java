@@ -0,0 +1,86 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.github.czyzby.uedi.scanner.impl.FixedClassScanner;
+import com.github.czyzby.uedi.stereotype.Factory;
+import com.github.czyzby.uedi.stereotype.Provider;
+import com.github.czyzby.uedi.stereotype.Singleton;
+import com.github.czyzby.uedi.test.Root;
+import com.github.czyzby.uedi.test.TestFactory;
+import com.github.czyzby.uedi.test.TestSingleton;
+import com.github.czyzby.uedi.test.classpath.AbstractClassImplementingSingleton;
+import com.github.czyzby.uedi.test.classpath.AbstractClassUser;
+import com.github.czyzby.uedi.test.classpath.InterfaceUser;
+import com.github.czyzby.uedi.test.inject.Injected;
+import com.github.czyzby.uedi.test.inject.Injector;
+
+/** Tests {@link FixedClassScanner} package index.
+ *
+ * @author MJ */
+public class FixedClassScannerTest {
+    @Test
+    public void shouldScanOnlySelectedPackageTree() {
+        final Set<Class<?>> classes = toSet(MockScanner.getClassScanner().getClassesImplementing(Injector.class,
+                Singleton.class));
+        assertTrue(classes.contains(Injector.class));
+        assertTrue(classes.contains(Injected.class));
+        assertFalse(classes.contains(TestSingleton.class));
+        assertFalse(classes.contains(AbstractClassUser.class));
+    }
+
+    @Test
+    public void shouldIgnoreAbstractClasses() {
+        final Set<Class<?>> classes = toSet(MockScanner.getClassScanner().getClassesImplementing(
+                AbstractClassUser.class, Singleton.class));
+        assertTrue(classes.contains(AbstractClassUser.class));
+        assertTrue(classes.contains(InterfaceUser.class));
+        assertFalse(classes.contains(AbstractClassImplementingSingleton.class));
+    }
+
+    @Test
+    public void shouldIndexClassesAddedAfterScanning() {
+        final FixedClassScanner scanner = new FixedClassScanner(TestSingleton.class);
+        assertEquals(toSet(TestSingleton.class), toSet(scanner.getClassesImplementing(Root.class, Singleton.class,
+                Factory.class)));
+        scanner.add(TestFactory.class);
+        assertEquals(toSet(TestSingleton.class, TestFactory.class),
+                toSet(scanner.getClassesImplementing(Root.class, Singleton.class, Factory.class)));
+        assertEquals(toSet(TestFactory.class), toSet(scanner.getClassesImplementing(Root.class, Factory.class)));
+        assertTrue(toSet(scanner.getClassesImplementing(Root.class, Provider.class)).isEmpty());
+    }
+
+    @Test
+    public void shouldLoadClassList() throws Exception {
+        final FixedClassScanner scanner = new FixedClassScanner();
+        final String classList = "# Comment.\n" + TestSingleton.class.getName() + "\n\n  " + TestFactory.class.getName()
+                + "  \n";
+        scanner.addClassList(new ByteArrayInputStream(classList.getBytes("UTF-8")), getClass().getClassLoader());
+        assertEquals(toSet(TestSingleton.class, TestFactory.class),
+                toSet(scanner.getClassesImplementing(Root.class, Singleton.class, Factory.class)));
+    }
+
+    private static Set<Class<?>> toSet(final Class<?>... classes) {
+        final Set<Class<?>> set = new HashSet<Class<?>>();
+        for (final Class<?> type : classes) {
+            set.add(type);
+        }
+        return set;
+    }
+
+    private static Set<Class<?>> toSet(final Iterable<Class<?>> classes) {
+        final Set<Class<?>> set = new HashSet<Class<?>>();
+        for (final Class<?> type : classes) {
+            set.add(type);
+        }
+        return set;
+    }
+}
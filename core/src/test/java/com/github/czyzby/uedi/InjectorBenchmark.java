@@ -0,0 +1,77 @@
+package com.github.czyzby.uedi;
+
+import com.github.czyzby.uedi.impl.BytecodeContext;
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.test.Root;
+import com.github.czyzby.uedi.test.inject.Built;
+import com.github.czyzby.uedi.test.inject.Injector;
+import com.github.czyzby.uedi.test.inject.UsingAbstractWithFields;
+
+/** Compares reflection-based {@link DefaultContext} with {@link BytecodeContext} using generated injectors. Not a
+ * unit test: run manually with the main method. Pass the amount of iterations as the first argument.
+ *
+ * @author MJ */
+public class InjectorBenchmark {
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int ROUNDS = 5;
+    private static int sink;
+
+    public static void main(final String... args) {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        final Context reflectionContext = new DefaultContext(MockScanner.getClassScanner());
+        final Context bytecodeContext = new BytecodeContext(MockScanner.getClassScanner());
+        reflectionContext.scan(Root.class);
+        bytecodeContext.scan(Root.class);
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            run(reflectionContext, iterations);
+            run(bytecodeContext, iterations);
+        }
+        final long[] reflectionTimes = new long[3];
+        final long[] bytecodeTimes = new long[3];
+        for (int round = 0; round < ROUNDS; round++) {
+            add(reflectionTimes, run(reflectionContext, iterations));
+            add(bytecodeTimes, run(bytecodeContext, iterations));
+        }
+        System.out.println("Iterations: " + iterations + ", average of " + ROUNDS + " rounds, nanoseconds per call.");
+        print("Reflection", reflectionTimes, iterations);
+        print("Bytecode", bytecodeTimes, iterations);
+    }
+
+    /** @return total times of: component creation with public fields, component creation with private fields and
+     *         factory method invocation. */
+    private static long[] run(final Context context, final int iterations) {
+        final long[] times = new long[3];
+        long start = System.nanoTime();
+        for (int index = 0; index < iterations; index++) {
+            consume(context.create(Injector.class));
+        }
+        times[0] = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int index = 0; index < iterations; index++) {
+            consume(context.create(UsingAbstractWithFields.class));
+        }
+        times[1] = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int index = 0; index < iterations; index++) {
+            consume(context.get(Built.class));
+        }
+        times[2] = System.nanoTime() - start;
+        return times;
+    }
+
+    private static void consume(final Object object) {
+        sink ^= System.identityHashCode(object);
+    }
+
+    private static void add(final long[] total, final long[] times) {
+        for (int index = 0; index < total.length; index++) {
+            total[index] += times[index];
+        }
+    }
+
+    private static void print(final String name, final long[] times, final int iterations) {
+        final double divisor = (double) ROUNDS * iterations;
+        System.out.println(String.format("%-12s create (public fields): %8.1f | create (private fields): %8.1f | "
+                + "factory method: %8.1f", name, times[0] / divisor, times[1] / divisor, times[2] / divisor));
+    }
+}
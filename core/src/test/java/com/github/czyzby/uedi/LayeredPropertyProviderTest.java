@@ -0,0 +1,213 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+import com.github.czyzby.uedi.impl.ConcurrentContext;
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.stereotype.Property;
+import com.github.czyzby.uedi.stereotype.impl.CachedProperty;
+import com.github.czyzby.uedi.stereotype.impl.LayeredPropertyProvider;
+import com.github.czyzby.uedi.stereotype.impl.MapPropertySource;
+import com.github.czyzby.uedi.stereotype.impl.PropertySource;
+import com.github.czyzby.uedi.stereotype.impl.PropertySources;
+import com.github.czyzby.uedi.test.inject.TypedProperties;
+
+/** Tests {@link LayeredPropertyProvider}.
+ *
+ * @author MJ */
+public class LayeredPropertyProviderTest {
+    @Test
+    public void shouldResolvePropertiesByPrecedence() throws Exception {
+        final LayeredPropertyProvider provider = new LayeredPropertyProvider(new HashMap<String, Property>());
+        final MapPropertySource defaults = new MapPropertySource(new HashMap<String, String>());
+        defaults.load(new StringReader("name=default\ncount=1\nratio=0.5"));
+        final MapPropertySource file = new MapPropertySource(new HashMap<String, String>());
+        file.load(new StringReader("count=2"));
+        provider.addSource(defaults);
+        provider.addSource(file);
+        assertEquals("default", provider.getValue("name"));
+        assertEquals("2", provider.getValue("count"));
+        assertNull(provider.getValue("missing"));
+        assertFalse(provider.hasProperty("missing"));
+
+        provider.addProperty(new CachedProperty("count", "3"));
+        assertEquals("3", provider.getValue("count"));
+        assertEquals(Arrays.<PropertySource> asList(defaults, file), provider.getSources());
+        assertTrue(provider.removeSource(file));
+        assertFalse(provider.removeSource(file));
+        assertEquals("3", provider.getValue("count"));
+    }
+
+    @Test
+    public void shouldCacheResolvedProperties() {
+        final Map<String, String> values = new HashMap<String, String>();
+        final CountingSource source = new CountingSource(values);
+        final LayeredPropertyProvider provider = new LayeredPropertyProvider(new HashMap<String, Property>());
+        provider.addSource(source);
+        values.put("key", "value");
+        final Property property = provider.getProperty("key");
+        assertSame(property, provider.getProperty("key"));
+        assertNull(provider.getProperty("missing"));
+        assertNull(provider.getProperty("missing"));
+        assertEquals(2, source.lookups);
+
+        values.put("key", "changed");
+        values.put("missing", "added");
+        assertEquals("value", provider.getValue("key")); // Not invalidated yet.
+        provider.invalidate("key");
+        assertEquals("changed", provider.getValue("key"));
+        assertNull(provider.getValue("missing"));
+        provider.invalidate();
+        assertEquals("added", provider.getValue("missing"));
+        assertEquals(4, source.lookups);
+    }
+
+    @Test
+    public void shouldNotCacheResolutionsInvalidatedConcurrently() throws Exception {
+        final Map<String, String> values = new HashMap<String, String>();
+        values.put("key", "value");
+        final LayeredPropertyProvider[] provider = new LayeredPropertyProvider[1];
+        final Thread invalidation = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                provider[0].invalidate("key");
+            }
+        });
+        provider[0] = new LayeredPropertyProvider(new HashMap<String, Property>(), new HashMap<String, Property>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Property put(final String key, final Property value) {
+                if (invalidation.getState() == Thread.State.NEW) {
+                    // Source changes right before the resolved value is cached:
+                    values.put("key", "changed");
+                    invalidation.start();
+                    try {
+                        invalidation.join(100L);
+                    } catch (final InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.put(key, value);
+            }
+        });
+        provider[0].addSource(new MapPropertySource(values));
+        assertEquals("value", provider[0].getValue("key"));
+        invalidation.join();
+        assertEquals("changed", provider[0].getValue("key"));
+    }
+
+    @Test
+    public void shouldInvalidateKeysChangedInMapSources() {
+        final LayeredPropertyProvider provider = new LayeredPropertyProvider(new HashMap<String, Property>());
+        final MapPropertySource defaults = new MapPropertySource(new HashMap<String, String>());
+        final MapPropertySource overrides = new MapPropertySource(new HashMap<String, String>());
+        provider.addSource(defaults);
+        provider.addSource(overrides);
+        defaults.setValue("key", "default");
+        assertEquals("default", provider.getValue("key"));
+        overrides.setValue("key", "override");
+        assertEquals("override", provider.getValue("key"));
+        overrides.removeValue("key");
+        assertEquals("default", provider.getValue("key"));
+        defaults.clear();
+        assertNull(provider.getValue("key"));
+    }
+
+    @Test
+    public void shouldRegisterModifiedPropertiesAsOverrides() {
+        final LayeredPropertyProvider provider = new LayeredPropertyProvider(new HashMap<String, Property>());
+        final MapPropertySource source = new MapPropertySource(new HashMap<String, String>());
+        provider.addSource(source);
+        source.setValue("key", "source");
+        provider.getProperty("key").setValue("modified");
+        source.setValue("key", "changed");
+        assertEquals("modified", provider.getValue("key"));
+        provider.removeProperty(provider.getProperty("key"));
+        assertEquals("changed", provider.getValue("key"));
+    }
+
+    @Test
+    public void shouldQueryAllLayersByPrefix() {
+        final LayeredPropertyProvider provider = new LayeredPropertyProvider(new HashMap<String, Property>());
+        final MapPropertySource defaults = new MapPropertySource(new HashMap<String, String>());
+        final MapPropertySource file = new MapPropertySource(new HashMap<String, String>());
+        provider.addSource(defaults);
+        provider.addSource(file);
+        defaults.setValue("db.url", "default");
+        defaults.setValue("db.user", "default");
+        file.setValue("db.url", "file");
+        file.setValue("other", "file");
+        provider.addProperty(new CachedProperty("db.pool", "override"));
+        final Iterable<Property> properties = provider.getProperties("db.");
+        final List<String> values = new ArrayList<String>();
+        for (final Property property : properties) {
+            values.add(property.getKey() + "=" + property.getValue());
+        }
+        assertEquals(Arrays.asList("db.pool=override", "db.url=file", "db.user=default"), values);
+        file.setValue("db.name", "added");
+        assertEquals("db.name", properties.iterator().next().getKey()); // Live view.
+    }
+
+    @Test
+    public void shouldReadSystemProperties() {
+        final LayeredPropertyProvider provider = new LayeredPropertyProvider(new HashMap<String, Property>());
+        provider.addSource(PropertySources.getEnvironment());
+        provider.addSource(PropertySources.getSystemProperties());
+        assertEquals(System.getProperty("java.version"), provider.getValue("java.version"));
+    }
+
+    @Test
+    public void shouldInjectLayeredProperties() {
+        for (final DefaultContext context : Arrays.asList(new DefaultContext(null), new ConcurrentContext(null))) {
+            final LayeredPropertyProvider provider = new LayeredPropertyProvider(
+                    new ConcurrentHashMap<String, Property>(), new ConcurrentHashMap<String, Property>());
+            final MapPropertySource source = new MapPropertySource(new HashMap<String, String>());
+            source.setValue("count", "42");
+            source.setValue("name", "layered");
+            provider.addSource(source);
+            context.setPropertyProvider(provider);
+            final TypedProperties properties = context.create(TypedProperties.class);
+            assertEquals(42, properties.count);
+            assertEquals("layered", properties.name);
+            context.setProperty("name", "set");
+            assertEquals("set", context.getProperty("name"));
+            assertEquals("layered", source.getValue("name"));
+        }
+    }
+
+    /** Counts lookups of property values. */
+    private static class CountingSource implements PropertySource {
+        private final Map<String, String> values;
+        private int lookups;
+
+        CountingSource(final Map<String, String> values) {
+            this.values = values;
+        }
+
+        @Override
+        public String getValue(final String key) {
+            lookups++;
+            return values.get(key);
+        }
+
+        @Override
+        public Iterable<String> getKeys() {
+            return values.keySet();
+        }
+    }
+}
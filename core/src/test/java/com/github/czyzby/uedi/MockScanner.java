@@ -2,6 +2,14 @@ package com.github.czyzby.uedi;
 
 import com.github.czyzby.uedi.error.circular.CircularErrorA;
 import com.github.czyzby.uedi.error.circular.CircularErrorB;
+import com.github.czyzby.uedi.multiple.dependent.DependentRoot;
+import com.github.czyzby.uedi.multiple.dependent.DependentSingleton;
+import com.github.czyzby.uedi.multiple.independent.IndependentRoot;
+import com.github.czyzby.uedi.multiple.independent.IndependentSingleton;
+import com.github.czyzby.uedi.multiple.shared.SharedRoot;
+import com.github.czyzby.uedi.multiple.shared.SharedSingleton;
+import com.github.czyzby.uedi.multiple.sharedprefix.SharedPrefixRoot;
+import com.github.czyzby.uedi.multiple.sharedprefix.SharedPrefixSingleton;
 import com.github.czyzby.uedi.scanner.ClassScanner;
 import com.github.czyzby.uedi.scanner.impl.FixedClassScanner;
 import com.github.czyzby.uedi.test.Root;
@@ -62,6 +70,8 @@ public class MockScanner {
                 ConstructorDependency.class, Ignored.class, Injected.class, InjectFactory.class, Injector.class,
                 InjectProperty.class, InjectProvider.class, Provided.class, UsingAbstractWithFields.class,
                 Counter.class, DestroyedA.class, DestroyedB.class, DestroyedC.class, InitiatedA.class, InitiatedB.class,
-                InitiatedC.class);
+                InitiatedC.class, DependentRoot.class, DependentSingleton.class, IndependentRoot.class,
+                IndependentSingleton.class, SharedRoot.class, SharedSingleton.class, SharedPrefixRoot.class,
+                SharedPrefixSingleton.class);
     }
 }
@@ -0,0 +1,97 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Member;
+import java.util.Arrays;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.github.czyzby.uedi.impl.ConcurrentContext;
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.stereotype.Named;
+
+/** Makes sure that named lookups of ambiguous components and properties do not allocate memory. Requires a JVM
+ * supporting thread allocation measurements.
+ *
+ * @author MJ */
+public class NamedLookupAllocationTest {
+    private static final int ITERATIONS = 100000;
+
+    @Test
+    public void shouldReuseNamedMembers() {
+        final DefaultContext context = new DefaultContext(null);
+        final Member member = context.getNamedMember(new String("name"));
+        assertSame(member, context.getNamedMember("name"));
+        assertEquals("name", member.getName());
+    }
+
+    @Test
+    public void shouldLimitCachedNamedMembers() {
+        final DefaultContext context = new DefaultContext(null);
+        for (int index = 0; index < DefaultContext.NAMED_MEMBERS_LIMIT; index++) {
+            context.getNamedMember("name" + index);
+        }
+        final Member uncached = context.getNamedMember("uncached");
+        assertEquals("uncached", uncached.getName());
+        assertNotSame(uncached, context.getNamedMember("uncached"));
+        assertSame(context.getNamedMember("name0"), context.getNamedMember("name0"));
+    }
+
+    @Test
+    public void shouldNotAllocateDuringNamedLookups() {
+        final com.sun.management.ThreadMXBean threads = getThreadBean();
+        for (final DefaultContext context : Arrays.asList(new DefaultContext(null), new ConcurrentContext(null))) {
+            final Source first = new Source("first");
+            final Source second = new Source("second");
+            context.add(first);
+            context.add(second);
+            context.setProperty("key", "value");
+
+            lookUp(context, first, second); // Warm-up.
+            final long threadId = Thread.currentThread().getId();
+            final long initialBytes = threads.getThreadAllocatedBytes(threadId);
+            lookUp(context, first, second);
+            final long allocatedBytes = threads.getThreadAllocatedBytes(threadId) - initialBytes;
+            assertTrue("Allocated " + allocatedBytes + " bytes in " + context.getClass().getSimpleName(),
+                    allocatedBytes < ITERATIONS);
+        }
+    }
+
+    private static void lookUp(final DefaultContext context, final Source first, final Source second) {
+        final Member member = context.getNamedMember("first");
+        for (int index = 0; index < ITERATIONS; index++) {
+            assertSame(first, context.get("first", Source.class));
+            assertSame(second, context.get("second", Source.class));
+            assertSame("value", context.get("key", String.class));
+            assertSame(first, context.get(Source.class, null, member));
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        return threads;
+    }
+
+    /** Named component with multiple instances in the context. */
+    private static class Source implements Named {
+        private final String name;
+
+        Source(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
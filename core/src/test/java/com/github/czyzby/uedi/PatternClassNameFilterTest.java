@@ -0,0 +1,104 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.github.czyzby.uedi.scanner.ClassNameFilter;
+import com.github.czyzby.uedi.scanner.impl.FixedClassScanner;
+import com.github.czyzby.uedi.scanner.impl.PatternClassNameFilter;
+import com.github.czyzby.uedi.stereotype.Singleton;
+import com.github.czyzby.uedi.test.Root;
+import com.github.czyzby.uedi.test.TestSingleton;
+import com.github.czyzby.uedi.test.inject.Injected;
+import com.github.czyzby.uedi.test.inject.Injector;
+
+/** Tests {@link PatternClassNameFilter} and its usage in class scanners.
+ *
+ * @author MJ */
+public class PatternClassNameFilterTest {
+    @Test
+    public void shouldAcceptAllClassesWithoutPatterns() {
+        final PatternClassNameFilter filter = new PatternClassNameFilter();
+        assertTrue(filter.accept("com.example.Component"));
+        assertTrue(filter.accept("Component"));
+    }
+
+    @Test
+    public void shouldMatchExactClassNames() {
+        final PatternClassNameFilter filter = new PatternClassNameFilter().exclude("com.example.Outer$Inner");
+        assertFalse(filter.accept("com.example.Outer$Inner"));
+        assertTrue(filter.accept("com.example.Outer"));
+        assertTrue(filter.accept("com.example.Outer$Inner2"));
+    }
+
+    @Test
+    public void shouldMatchPackagePrefixes() {
+        final PatternClassNameFilter filter = new PatternClassNameFilter().exclude("com.example.generated.**");
+        assertFalse(filter.accept("com.example.generated.Component"));
+        assertFalse(filter.accept("com.example.generated.nested.Component"));
+        assertTrue(filter.accept("com.example.generatedx.Component"));
+        assertTrue(filter.accept("com.example.Component"));
+    }
+
+    @Test
+    public void shouldMatchSingleSegmentWildcards() {
+        final PatternClassNameFilter filter = new PatternClassNameFilter().exclude("com.example.*.proto.*",
+                "com.example.Test?");
+        assertFalse(filter.accept("com.example.module.proto.Message"));
+        assertFalse(filter.accept("com.example.TestA"));
+        assertTrue(filter.accept("com.example.module.proto.nested.Message"));
+        assertTrue(filter.accept("com.example.module.nested.proto.Message"));
+        assertTrue(filter.accept("com.example.TestAB"));
+        assertTrue(filter.accept("com.example.Test"));
+    }
+
+    @Test
+    public void shouldMatchAnyDepthWildcards() {
+        final PatternClassNameFilter filter = new PatternClassNameFilter().exclude("com.example.**Test",
+                "**.proto.**");
+        assertFalse(filter.accept("com.example.ComponentTest"));
+        assertFalse(filter.accept("com.example.nested.ComponentTest"));
+        assertFalse(filter.accept("org.other.proto.Message"));
+        assertTrue(filter.accept("com.example.ComponentTests"));
+        assertTrue(filter.accept("org.other.Test"));
+    }
+
+    @Test
+    public void shouldPrioritizeExcludes() {
+        final PatternClassNameFilter filter = new PatternClassNameFilter().include("com.example.**", "org.Other")
+                .exclude("com.example.generated.**");
+        assertTrue(filter.accept("com.example.Component"));
+        assertTrue(filter.accept("org.Other"));
+        assertFalse(filter.accept("org.Another"));
+        assertFalse(filter.accept("com.example.generated.Component"));
+    }
+
+    @Test
+    public void shouldFilterScannedClasses() {
+        final FixedClassScanner scanner = (FixedClassScanner) MockScanner.getClassScanner();
+        scanner.exclude(Injector.class.getPackage().getName() + ".**");
+
+        final Iterable<Class<?>> classes = scanner.getClassesImplementing(Root.class, Singleton.class);
+
+        boolean containsSingleton = false;
+        for (final Class<?> type : classes) {
+            assertFalse(type == Injector.class || type == Injected.class);
+            containsSingleton |= type == TestSingleton.class;
+        }
+        assertTrue(containsSingleton);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotMixCustomFilterWithPatterns() {
+        final FixedClassScanner scanner = new FixedClassScanner();
+        scanner.setClassNameFilter(new ClassNameFilter() {
+            @Override
+            public boolean accept(final String className) {
+                return true;
+            }
+        });
+        scanner.include("com.example.**");
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+
+import org.junit.Test;
+
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.plugin.PluginService;
+import com.github.czyzby.uedi.plugin.impl.PluginComponent;
+import com.github.czyzby.uedi.scanner.impl.FixedClassScanner;
+
+/** Tests plugins loaded by {@link Context#loadPlugin(ClassLoader, Class...)}.
+ *
+ * @author MJ */
+public class PluginContextTest {
+    private static final String PLUGIN_PACKAGE = PluginComponent.class.getPackage().getName() + '.';
+
+    @Test
+    public void shouldLoadAndUnloadPlugin() throws Exception {
+        final Context context = new DefaultContext(null);
+        final PluginService hostService = new HostService();
+        context.add(hostService);
+        final ClassLoader classLoader = new PluginClassLoader();
+        final Class<?> pluginClass = classLoader.loadClass(PluginComponent.class.getName());
+        assertNotSame(PluginComponent.class, pluginClass);
+        context.setClassScanner(new FixedClassScanner(pluginClass));
+
+        context.loadPlugin(classLoader, pluginClass);
+
+        assertTrue(context.isAvailable(pluginClass));
+        assertEquals("plugin", ((PluginService) context.get(pluginClass)).getServiceName());
+
+        context.unloadPlugin(classLoader);
+
+        assertFalse(context.isAvailable(pluginClass));
+        assertEquals("destroyed", context.getProperty(PluginService.STATE_PROPERTY));
+        // Host service should no longer be ambiguous:
+        assertSame(hostService, context.get(PluginService.class));
+    }
+
+    @Test
+    public void shouldAllowToCollectUnloadedPluginClassLoader() throws Exception {
+        final Context context = new DefaultContext(null);
+        final WeakReference<ClassLoader> classLoader = loadAndUnloadPlugin(context);
+
+        for (int attempt = 0; attempt < 20 && classLoader.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(50L);
+        }
+
+        assertNull(classLoader.get());
+        assertFalse(context.isAvailable(PluginService.class));
+    }
+
+    private static WeakReference<ClassLoader> loadAndUnloadPlugin(final Context context) throws Exception {
+        final ClassLoader classLoader = new PluginClassLoader();
+        final Class<?> pluginClass = classLoader.loadClass(PluginComponent.class.getName());
+        context.setClassScanner(new FixedClassScanner(pluginClass));
+        context.loadPlugin(classLoader, pluginClass);
+        assertTrue(context.isAvailable(PluginService.class));
+
+        context.unloadPlugin(classLoader);
+        context.setClassScanner(null);
+        return new WeakReference<ClassLoader>(classLoader);
+    }
+
+    /** Loads plugin classes on its own rather than delegating to the parent.
+     *
+     * @author MJ */
+    private static class PluginClassLoader extends ClassLoader {
+        public PluginClassLoader() {
+            super(PluginContextTest.class.getClassLoader());
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(final String name, final boolean resolve)
+                throws ClassNotFoundException {
+            if (!name.startsWith(PLUGIN_PACKAGE)) {
+                return super.loadClass(name, resolve);
+            }
+            Class<?> pluginClass = findLoadedClass(name);
+            if (pluginClass == null) {
+                final byte[] bytes = readClassFile(name);
+                pluginClass = defineClass(name, bytes, 0, bytes.length);
+            }
+            if (resolve) {
+                resolveClass(pluginClass);
+            }
+            return pluginClass;
+        }
+
+        private byte[] readClassFile(final String name) throws ClassNotFoundException {
+            final InputStream input = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+            if (input == null) {
+                throw new ClassNotFoundException(name);
+            }
+            try {
+                final ByteArrayOutputStream output = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[1024];
+                int read;
+                while ((read = input.read(buffer)) >= 0) {
+                    output.write(buffer, 0, read);
+                }
+                input.close();
+                return output.toByteArray();
+            } catch (final Exception exception) {
+                throw new ClassNotFoundException(name, exception);
+            }
+        }
+    }
+
+    /** Host implementation of the plugin interface.
+     *
+     * @author MJ */
+    private static class HostService implements PluginService {
+        @Override
+        public String getServiceName() {
+            return "host";
+        }
+    }
+}
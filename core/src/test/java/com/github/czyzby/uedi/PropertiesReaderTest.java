@@ -0,0 +1,156 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.stereotype.Property;
+import com.github.czyzby.uedi.stereotype.impl.CachedProperty;
+import com.github.czyzby.uedi.stereotype.impl.FlatPropertyProvider;
+import com.github.czyzby.uedi.stereotype.impl.PropertiesReader;
+import com.github.czyzby.uedi.test.inject.TypedProperties;
+
+/** Tests {@link PropertiesReader} and {@link FlatPropertyProvider}.
+ *
+ * @author MJ */
+public class PropertiesReaderTest {
+    private static final String CONTENT = "# Comment\n" + "! Another comment \\\n" + "plain=value\n"
+            + "  indented : with spaces  \n" + "whitespace separated\n" + "empty=\n" + "keyOnly\n"
+            + "escaped\\ key\\:part=escaped\\=value\\t\\u0041\\\\\n" + "multi=first, \\\n" + "      second, \\\r\n"
+            + "\tthird\r" + "windows=line\r\n" + "\n" + "unicode=za\u017C\u00F3\u0142\u0107\n"
+            + "colon:separated\n" + "duplicate=first\n" + "duplicate=second\n" + "last=no newline";
+
+    @Test
+    public void shouldParseLikeJavaProperties() throws Exception {
+        final Map<String, String> parsed = read(CONTENT);
+        final Properties expected = new Properties();
+        expected.load(new StringReader(CONTENT));
+        assertEquals(expected.size(), parsed.size());
+        for (final String key : expected.stringPropertyNames()) {
+            assertEquals(key, expected.getProperty(key), parsed.get(key));
+        }
+        assertEquals("first, second, third", parsed.get("multi"));
+        assertEquals("escaped=value\tA\\", parsed.get("escaped key:part"));
+        assertEquals("", parsed.get("keyOnly"));
+        assertEquals("no newline", parsed.get("last"));
+    }
+
+    @Test
+    public void shouldParseWithSmallBuffer() throws Exception {
+        final Map<String, String> parsed = new HashMap<String, String>();
+        final int count = new PropertiesReader(3).read(new StringReader(CONTENT), new MapConsumer(parsed));
+        assertEquals(read(CONTENT), parsed);
+        assertEquals(13, count); // Duplicates are counted.
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMalformedUnicodeEscapes() throws Exception {
+        read("key=\\u00G1");
+    }
+
+    @Test
+    public void shouldStoreManyValues() throws Exception {
+        final FlatPropertyProvider provider = new FlatPropertyProvider(new HashMap<String, Property>());
+        final StringBuilder content = new StringBuilder();
+        for (int index = 0; index < 20000; index++) {
+            content.append("key.").append(index).append('=').append(index).append('\n');
+        }
+        assertEquals(20000, provider.load(new StringReader(content.toString())));
+        assertEquals(20000, provider.getStoredValuesAmount());
+        for (int index = 0; index < 20000; index++) {
+            assertEquals(String.valueOf(index), provider.getValue("key." + index));
+        }
+        assertNull(provider.getValue("key.20000"));
+    }
+
+    @Test
+    public void shouldRemoveValues() {
+        final FlatPropertyProvider provider = new FlatPropertyProvider(new HashMap<String, Property>());
+        for (int index = 0; index < 1000; index++) {
+            provider.setValue("key" + index, "value" + index);
+        }
+        for (int index = 0; index < 1000; index += 2) {
+            provider.removeProperty(provider.getProperty("key" + index));
+        }
+        assertEquals(500, provider.getStoredValuesAmount());
+        for (int index = 0; index < 1000; index++) {
+            assertEquals(index % 2 == 1, provider.hasProperty("key" + index));
+            assertEquals(index % 2 == 1 ? "value" + index : null, provider.getValue("key" + index));
+        }
+    }
+
+    @Test
+    public void shouldCreatePropertyViews() {
+        final FlatPropertyProvider provider = new FlatPropertyProvider(new HashMap<String, Property>());
+        provider.setValue("key", "value");
+        final Property property = provider.getProperty("key");
+        assertSame(property, provider.getProperty("key"));
+        assertEquals("value", property.getValue());
+        property.setValue("modified");
+        assertEquals("modified", provider.getValue("key"));
+        provider.setValue("key", "replaced");
+        assertEquals("replaced", property.getValue());
+        for (int index = 0; index < 100; index++) { // Forcing resize.
+            provider.setValue("other" + index, "value");
+        }
+        assertSame(property, provider.getProperty("key"));
+    }
+
+    @Test
+    public void shouldPreferRegisteredProperties() {
+        final FlatPropertyProvider provider = new FlatPropertyProvider(new HashMap<String, Property>());
+        provider.setValue("key", "stored");
+        final Property property = new CachedProperty("key", "registered");
+        provider.addProperty(property);
+        assertEquals(0, provider.getStoredValuesAmount());
+        assertSame(property, provider.getProperty("key"));
+        provider.setValue("key", "modified");
+        assertEquals("modified", property.getValue());
+        provider.removeProperty(property);
+        assertFalse(provider.hasProperty("key"));
+    }
+
+    @Test
+    public void shouldLoadPropertiesIntoContext() throws Exception {
+        final DefaultContext context = new DefaultContext(null);
+        context.setProperty("count", "1");
+        final byte[] content = "count=42\nratio=0.25\nname=za\u017C\u00F3\u0142\u0107\n".getBytes("UTF-8");
+        assertEquals(3, context.loadProperties(new ByteArrayInputStream(content)));
+        assertEquals("42", context.getProperty("count"));
+        final TypedProperties properties = context.create(TypedProperties.class);
+        assertEquals(42, properties.count);
+        assertEquals(0.25, properties.ratio, 0.0001);
+        assertEquals("za\u017C\u00F3\u0142\u0107", properties.name);
+    }
+
+    private static Map<String, String> read(final String content) throws Exception {
+        final Map<String, String> result = new LinkedHashMap<String, String>();
+        new PropertiesReader().read(new StringReader(content), new MapConsumer(result));
+        return result;
+    }
+
+    private static class MapConsumer implements PropertiesReader.PropertyConsumer {
+        private final Map<String, String> map;
+
+        MapConsumer(final Map<String, String> map) {
+            this.map = map;
+        }
+
+        @Override
+        public void consume(final String key, final String value) {
+            map.put(key, value);
+        }
+    }
+}
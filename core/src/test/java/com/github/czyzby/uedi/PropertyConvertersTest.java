@@ -0,0 +1,86 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.github.czyzby.uedi.stereotype.impl.CachedProperty;
+import com.github.czyzby.uedi.stereotype.impl.PropertyConverter;
+import com.github.czyzby.uedi.stereotype.impl.PropertyConverters;
+
+/** Tests {@link PropertyConverters} and {@link CachedProperty}.
+ *
+ * @author MJ */
+public class PropertyConvertersTest {
+    @Test
+    public void shouldParseDurations() {
+        assertEquals(250L, PropertyConverters.parseDuration("250"));
+        assertEquals(250L, PropertyConverters.parseDuration("250ms"));
+        assertEquals(30000L, PropertyConverters.parseDuration("30s"));
+        assertEquals(120000L, PropertyConverters.parseDuration("2 m"));
+        assertEquals(3600000L, PropertyConverters.parseDuration("1h"));
+        assertEquals(86400000L, PropertyConverters.parseDuration("1D"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownDurationUnits() {
+        PropertyConverters.parseDuration("5 weeks");
+    }
+
+    @Test
+    public void shouldConvertJavaTimeDurations() throws Exception {
+        final Class<?> durationClass = Class.forName("java.time.Duration");
+        final PropertyConverter<?> converter = PropertyConverters.getConverter(durationClass);
+        assertEquals(durationClass.getMethod("ofSeconds", long.class).invoke(null, 90L), converter.convert("PT90S"));
+        assertEquals(durationClass.getMethod("ofMinutes", long.class).invoke(null, 5L), converter.convert("5m"));
+    }
+
+    @Test
+    public void shouldConvertEnumsIgnoringCase() {
+        final PropertyConverter<?> converter = PropertyConverters.getConverter(TimeUnit.class);
+        assertSame(TimeUnit.HOURS, converter.convert("HOURS"));
+        assertSame(TimeUnit.HOURS, converter.convert(" hours"));
+        assertSame(RetentionPolicy.RUNTIME, PropertyConverters.getConverter(RetentionPolicy.class).convert("runtime"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidBooleans() {
+        PropertyConverters.BOOLEAN.convert("yes");
+    }
+
+    @Test
+    public void shouldSupportStringsAndNotOtherObjects() {
+        assertSame(PropertyConverters.STRING, PropertyConverters.getConverter(String.class));
+        assertNull(PropertyConverters.getConverter(Object.class));
+    }
+
+    @Test
+    public void shouldCacheConvertedValuesUntilModified() {
+        final AtomicInteger conversions = new AtomicInteger();
+        final PropertyConverter<Integer> converter = new PropertyConverter<Integer>() {
+            @Override
+            public Integer convert(final String value) {
+                conversions.incrementAndGet();
+                return Integer.valueOf(value);
+            }
+        };
+        final CachedProperty property = new CachedProperty("key", "1");
+        assertEquals(Integer.valueOf(1), property.getValue(converter));
+        assertEquals(Integer.valueOf(1), property.getValue(converter));
+        assertEquals(1, conversions.get());
+
+        assertEquals("1", property.setValue("2"));
+        assertEquals(Integer.valueOf(2), property.getValue(converter));
+        assertEquals(2, conversions.get());
+        assertEquals(Long.valueOf(2L), property.getValue(PropertyConverters.LONG));
+
+        property.setValue(null);
+        assertNull(property.getValue(converter));
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.czyzby.uedi.impl.ConcurrentContext;
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.stereotype.Property;
+import com.github.czyzby.uedi.stereotype.impl.CachedProperty;
+import com.github.czyzby.uedi.stereotype.impl.FlatPropertyProvider;
+import com.github.czyzby.uedi.stereotype.impl.PrefixedPropertyMap;
+import com.github.czyzby.uedi.stereotype.impl.PropertyConverters;
+import com.github.czyzby.uedi.stereotype.impl.PropertyProvider;
+import com.github.czyzby.uedi.stereotype.impl.StringProvider;
+import com.github.czyzby.uedi.test.inject.PropertyMaps;
+
+/** Tests prefix queries of property providers and injection of prefixed property maps.
+ *
+ * @author MJ */
+public class PropertyPrefixTest {
+    @Test
+    public void shouldQueryPropertyProviderByPrefix() {
+        final PropertyProvider provider = new PropertyProvider(new HashMap<String, Property>());
+        fill(provider);
+        assertEquals(Arrays.asList("db.pool.max", "db.pool.min", "db.pool.timeout"), getKeys(provider, "db.pool."));
+        assertEquals(Arrays.asList("db", "db.pool.max", "db.pool.min", "db.pool.timeout", "db.url"),
+                getKeys(provider, "db"));
+        assertEquals(Collections.emptyList(), getKeys(provider, "missing"));
+        assertEquals(7, getKeys(provider, "").size());
+
+        provider.removeProperty(provider.getProperty("db.pool.min"));
+        assertEquals(Arrays.asList("db.pool.max", "db.pool.timeout"), getKeys(provider, "db.pool."));
+    }
+
+    @Test
+    public void shouldQueryFlatPropertyProviderByPrefix() {
+        final FlatPropertyProvider provider = new FlatPropertyProvider(new HashMap<String, Property>());
+        fill(provider);
+        provider.setValue("db.pool.idle", "1");
+        assertEquals(Arrays.asList("db.pool.idle", "db.pool.max", "db.pool.min", "db.pool.timeout"),
+                getKeys(provider, "db.pool."));
+
+        // Index is maintained after the first query:
+        provider.setValue("db.pool.size", "4");
+        provider.removeProperty(provider.getProperty("db.pool.idle"));
+        assertEquals(Arrays.asList("db.pool.max", "db.pool.min", "db.pool.size", "db.pool.timeout"),
+                getKeys(provider, "db.pool."));
+        final Property registered = new CachedProperty("db.pool.max", "registered");
+        provider.addProperty(registered);
+        assertEquals("registered", provider.getProperties("db.pool.m").iterator().next().getValue());
+        provider.removeProperty(registered);
+        assertEquals(Arrays.asList("db.pool.min", "db.pool.size", "db.pool.timeout"), getKeys(provider, "db.pool."));
+        provider.clear();
+        assertEquals(Collections.emptyList(), getKeys(provider, ""));
+    }
+
+    @Test
+    public void shouldViewPropertiesAsMap() {
+        final FlatPropertyProvider provider = new FlatPropertyProvider(new HashMap<String, Property>());
+        fill(provider);
+        final Map<String, Integer> map = new PrefixedPropertyMap<Integer>(provider, "db.pool.",
+                PropertyConverters.INTEGER);
+        assertEquals(3, map.size());
+        assertEquals(Integer.valueOf(10), map.get("max"));
+        assertNull(map.get("url"));
+        assertTrue(map.containsKey("min"));
+        assertFalse(map.containsKey("db.pool.min"));
+        assertEquals(Arrays.asList("max", "min", "timeout"), new ArrayList<String>(map.keySet()));
+
+        provider.setValue("db.pool.max", "20"); // Map is a live view.
+        assertEquals(Integer.valueOf(20), map.get("max"));
+    }
+
+    @Test
+    public void shouldInjectPrefixedMaps() {
+        for (final DefaultContext context : Arrays.asList(new DefaultContext(null), new ConcurrentContext(null))) {
+            context.setProperty("pool.size", "4");
+            context.setProperty("pool.name", "main");
+            context.setProperty("pools", "ignored");
+            context.setProperty("limits.requests", "100");
+            context.setProperty("assigned.key", "ignored");
+            final PropertyMaps component = context.create(PropertyMaps.class);
+            assertEquals(2, component.pool.size());
+            assertEquals("4", component.pool.get("size"));
+            assertEquals("main", component.pool.get("name"));
+            assertEquals(Integer.valueOf(100), component.limits.get("requests"));
+            assertTrue(component.assigned.isEmpty());
+
+            context.setProperty("limits.connections", "8");
+            assertEquals(Integer.valueOf(8), component.limits.get("connections"));
+            assertEquals(6, countProperties(context));
+        }
+    }
+
+    @Test
+    public void shouldNotInjectMapsIfStringsAreIgnored() {
+        final DefaultContext context = new DefaultContext(null);
+        context.setIgnoreStrings(true);
+        context.setProperty("pool.size", "4");
+        final Map<String, String> map = new HashMap<String, String>();
+        context.add(map);
+        final PropertyMaps component = context.create(PropertyMaps.class);
+        assertSame(map, component.pool);
+    }
+
+    private static int countProperties(final DefaultContext context) {
+        int count = 0;
+        for (@SuppressWarnings("unused")
+        final Property property : context.getProperties("")) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void fill(final StringProvider provider) {
+        provider.addProperty(new CachedProperty("db.pool.min", "2"));
+        provider.addProperty(new CachedProperty("db.pool.max", "10"));
+        provider.addProperty(new CachedProperty("db.pool.timeout", "30"));
+        provider.addProperty(new CachedProperty("db.url", "jdbc:test"));
+        provider.addProperty(new CachedProperty("db", "root"));
+        provider.addProperty(new CachedProperty("dc", "after"));
+        provider.addProperty(new CachedProperty("da", "before"));
+    }
+
+    private static List<String> getKeys(final StringProvider provider, final String prefix) {
+        final List<String> keys = new ArrayList<String>();
+        for (final Property property : provider.getProperties(prefix)) {
+            keys.add(property.getKey());
+        }
+        return keys;
+    }
+}
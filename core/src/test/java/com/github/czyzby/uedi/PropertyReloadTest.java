@@ -0,0 +1,124 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.czyzby.uedi.impl.ConcurrentContext;
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.test.inject.ReloadableProperties;
+
+/** Tests property reloading and re-injection of tracked fields.
+ *
+ * @author MJ */
+public class PropertyReloadTest {
+    @Test
+    public void shouldReinjectChangedProperties() {
+        final DefaultContext context = newContext();
+        context.setProperty("name", "initial");
+        context.setProperty("count", "1");
+        final ReloadableProperties component = context.create(ReloadableProperties.class);
+        assertEquals("initial", component.name);
+        assertEquals(1, component.count);
+
+        final Map<String, String> properties = new LinkedHashMap<String, String>();
+        properties.put("name", "reloaded");
+        properties.put("count", "1");
+        assertEquals(Arrays.asList("name"), context.reloadProperties(properties));
+        assertEquals("reloaded", component.name);
+        assertEquals("reloaded", context.getProperty("name"));
+        assertEquals(Arrays.asList("name"), component.reloadedKeys);
+        assertEquals(1, component.reloads);
+    }
+
+    @Test
+    public void shouldNotifyComponentsOncePerReload() {
+        final DefaultContext context = newContext();
+        context.reloadProperties(new StringReader("count=1\nlimit=2\nname=initial"));
+        final ReloadableProperties first = context.create(ReloadableProperties.class);
+        final ReloadableProperties second = context.create(ReloadableProperties.class);
+        assertEquals(Arrays.asList("count", "limit", "name", "unused"),
+                context.reloadProperties(new StringReader("count=5\nlimit=10\nname=added\nunused=value")));
+        for (final ReloadableProperties component : Arrays.asList(first, second)) {
+            assertEquals(5, component.count);
+            assertEquals(Integer.valueOf(10), component.limit);
+            assertEquals("added", component.name);
+            assertEquals(Arrays.asList("count", "limit", "name"), component.reloadedKeys);
+            assertEquals(1, component.reloads);
+        }
+    }
+
+    @Test
+    public void shouldClearReloadedNullProperties() {
+        final DefaultContext context = newContext();
+        context.setProperty("name", "initial");
+        context.setProperty("count", "3");
+        final ReloadableProperties component = context.create(ReloadableProperties.class);
+        final Map<String, String> properties = new HashMap<String, String>();
+        properties.put("name", null);
+        properties.put("count", null);
+        context.reloadProperties(properties);
+        assertNull(component.name);
+        assertEquals(3, component.count); // Primitives keep their values.
+    }
+
+    @Test
+    public void shouldNotReinjectAssignedFields() {
+        final DefaultContext context = newContext();
+        context.setProperty("assigned", "property");
+        final ReloadableProperties component = context.create(ReloadableProperties.class);
+        assertEquals("assigned", component.assigned);
+        context.reloadProperties(Collections.singletonMap("assigned", "reloaded"));
+        assertEquals("assigned", component.assigned);
+        assertEquals(0, component.reloads);
+    }
+
+    @Test
+    public void shouldNotTrackMissingProperties() {
+        final DefaultContext context = newContext();
+        final ReloadableProperties component = context.create(ReloadableProperties.class);
+        assertEquals(Arrays.asList("name"), context.reloadProperties(Collections.singletonMap("name", "added")));
+        assertNull(component.name);
+        assertEquals(0, component.reloads);
+    }
+
+    @Test
+    public void shouldNotReinjectUntrackedFields() {
+        final DefaultContext context = new DefaultContext(null);
+        assertFalse(context.isTrackPropertyInjections());
+        context.setProperty("name", "initial");
+        final ReloadableProperties component = context.create(ReloadableProperties.class);
+        assertEquals(Arrays.asList("name"), context.reloadProperties(Collections.singletonMap("name", "reloaded")));
+        assertEquals("initial", component.name);
+        assertEquals("reloaded", context.getProperty("name"));
+        assertEquals(0, component.reloads);
+    }
+
+    @Test
+    public void shouldReloadConcurrentContextProperties() {
+        final DefaultContext context = new ConcurrentContext(null);
+        context.setTrackPropertyInjections(true);
+        assertTrue(context.isTrackPropertyInjections());
+        context.setProperty("limit", "1");
+        final ReloadableProperties component = context.create(ReloadableProperties.class);
+        context.reloadProperties(Collections.singletonMap("limit", "2"));
+        assertEquals(Integer.valueOf(2), component.limit);
+        assertEquals(Arrays.asList("limit"), component.reloadedKeys);
+    }
+
+    private static DefaultContext newContext() {
+        final DefaultContext context = new DefaultContext(null);
+        context.setTrackPropertyInjections(true);
+        return context;
+    }
+}
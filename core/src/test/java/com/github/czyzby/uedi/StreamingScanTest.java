@@ -0,0 +1,171 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.multiple.dependent.DependentSingleton;
+import com.github.czyzby.uedi.multiple.independent.IndependentSingleton;
+import com.github.czyzby.uedi.scanner.ClassConsumer;
+import com.github.czyzby.uedi.scanner.StreamingClassScanner;
+import com.github.czyzby.uedi.stereotype.Singleton;
+
+/** Tests scanning with {@link StreamingClassScanner} implementations.
+ *
+ * @author MJ */
+public class StreamingScanTest {
+    @Test
+    public void shouldCreateStreamedComponents() {
+        final DefaultContext context = new DefaultContext(new MockStreamingScanner(null, IndependentSingleton.class,
+                DependentSingleton.class));
+        context.setStreamScans(true);
+        context.scan(StreamingScanTest.class);
+        assertNotNull(context.get(DependentSingleton.class));
+        assertEquals(context.get(IndependentSingleton.class), context.get(DependentSingleton.class).getIndependent());
+    }
+
+    @Test
+    public void shouldNotStartScanningThreadsUnlessStreamingIsEnabled() {
+        final AtomicInteger executedScans = new AtomicInteger();
+        final DefaultContext context = new DefaultContext(new MockStreamingScanner(null, IndependentSingleton.class)) {
+            @Override
+            protected void executeScan(final Runnable scan) {
+                executedScans.incrementAndGet();
+                super.executeScan(scan);
+            }
+        };
+        assertFalse(context.isStreamScans());
+        context.scan(StreamingScanTest.class);
+        assertTrue(context.isAvailable(IndependentSingleton.class));
+        assertEquals(0, executedScans.get());
+    }
+
+    @Test
+    public void shouldLeaveContextUnchangedIfStreamedScanningFails() {
+        final DefaultContext context = new DefaultContext(new MockStreamingScanner(
+                new IllegalStateException("Expected."), IndependentSingleton.class, DependentSingleton.class));
+        context.setStreamScans(true);
+        try {
+            context.scan(StreamingScanTest.class);
+            fail("Scanning error should be rethrown.");
+        } catch (final RuntimeException exception) {
+            // Expected.
+        }
+        assertFalse(context.isAvailable(IndependentSingleton.class));
+        assertFalse(context.isAvailable(DependentSingleton.class));
+    }
+
+    @Test
+    public void shouldLeaveContextUnchangedIfScanningFails() {
+        final DefaultContext context = new DefaultContext(new MockStreamingScanner(
+                new IllegalStateException("Expected."), IndependentSingleton.class, DependentSingleton.class));
+        try {
+            context.scan(StreamingScanTest.class);
+            fail("Scanning error should be rethrown.");
+        } catch (final RuntimeException exception) {
+            // Expected.
+        }
+        assertFalse(context.isAvailable(IndependentSingleton.class));
+        assertFalse(context.isAvailable(DependentSingleton.class));
+    }
+
+    @Test
+    public void shouldCancelScanningIfComponentCannotBeCreated() throws Exception {
+        final CountDownLatch created = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        final AtomicInteger consumedAfterFailure = new AtomicInteger();
+        final DefaultContext context = new DefaultContext(new StreamingClassScanner() {
+            @Override
+            public Iterable<Class<?>> getClassesImplementing(final Class<?> root, final Class<?>... interfaces) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Iterable<Class<?>> getClassesImplementing(final Class<?>[] roots, final Class<?>... interfaces) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void scanClassesImplementing(final Class<?>[] roots, final ClassConsumer consumer,
+                    final Class<?>... interfaces) {
+                try {
+                    consumer.consume(FailingSingleton.class);
+                    created.await(5L, TimeUnit.SECONDS);
+                    for (int index = 0; index < 100; index++) {
+                        consumer.consume(IndependentSingleton.class);
+                        consumedAfterFailure.incrementAndGet();
+                        Thread.sleep(10L);
+                    }
+                } catch (final InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finished.countDown();
+                }
+            }
+        });
+        context.setStreamScans(true);
+        try {
+            context.scan(StreamingScanTest.class);
+            fail("Construction error should be rethrown.");
+        } catch (final RuntimeException exception) {
+            // Expected.
+        } finally {
+            created.countDown();
+        }
+        assertTrue(finished.await(5L, TimeUnit.SECONDS));
+        assertEquals(0, consumedAfterFailure.get());
+        assertFalse(context.isAvailable(IndependentSingleton.class));
+    }
+
+    /** Cannot be constructed.
+     *
+     * @author MJ */
+    public static class FailingSingleton implements Singleton {
+        public FailingSingleton() {
+            throw new IllegalStateException("Expected.");
+        }
+    }
+
+    /** Streams the selected classes and then optionally fails.
+     *
+     * @author MJ */
+    private static class MockStreamingScanner implements StreamingClassScanner {
+        private final RuntimeException error;
+        private final Class<?>[] classes;
+
+        public MockStreamingScanner(final RuntimeException error, final Class<?>... classes) {
+            this.error = error;
+            this.classes = classes;
+        }
+
+        @Override
+        public Iterable<Class<?>> getClassesImplementing(final Class<?> root, final Class<?>... interfaces) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Iterable<Class<?>> getClassesImplementing(final Class<?>[] roots, final Class<?>... interfaces) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void scanClassesImplementing(final Class<?>[] roots, final ClassConsumer consumer,
+                final Class<?>... interfaces) {
+            for (final Class<?> type : classes) {
+                consumer.consume(type);
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+}
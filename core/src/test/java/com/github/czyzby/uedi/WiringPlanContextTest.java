@@ -0,0 +1,94 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.impl.WiringPlan;
+import com.github.czyzby.uedi.test.Root;
+import com.github.czyzby.uedi.test.inject.Injector;
+
+/** Runs all context tests with components loaded from a saved {@link WiringPlan} rather than scanned.
+ *
+ * @author MJ */
+public class WiringPlanContextTest extends ContextTest {
+    @Override
+    protected Context getContext() {
+        return new DefaultContext(MockScanner.getClassScanner());
+    }
+
+    @Override
+    @Before
+    public void scan() {
+        try {
+            ((DefaultContext) context).load(WiringPlan.read(new ByteArrayInputStream(recordWiringPlan()),
+                    getClass().getClassLoader()));
+        } catch (final Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private static byte[] recordWiringPlan() throws Exception {
+        final DefaultContext scannedContext = new DefaultContext(MockScanner.getClassScanner());
+        scannedContext.setWiringPlan(new WiringPlan());
+        scannedContext.scan(Root.class);
+        assertFalse(scannedContext.getWiringPlan().isEmpty());
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        scannedContext.getWiringPlan().write(output);
+        return output.toByteArray();
+    }
+
+    @Test
+    public void shouldRejectOutdatedWiringPlan() throws Exception {
+        final byte[] plan = recordWiringPlan();
+        // Magic number, version, components amount, first class name length and name - then its fingerprint:
+        final int fingerprintIndex = 14 + ((plan[12] & 0xFF) << 8 | plan[13] & 0xFF);
+        plan[fingerprintIndex]++;
+        try {
+            WiringPlan.read(new ByteArrayInputStream(plan), getClass().getClassLoader());
+            fail("Plan with invalid fingerprint should be rejected.");
+        } catch (final RuntimeException exception) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void shouldComputeFingerprintsIndependentOfMemberOrder() {
+        final List<String> signatures = FingerprintAccess.signatures(Injector.class);
+        final int fingerprint = FingerprintAccess.fingerprint(Injector.class);
+        final Random random = new Random(42L);
+        for (int index = 0; index < 10; index++) {
+            final List<String> shuffled = new ArrayList<String>(signatures);
+            Collections.shuffle(shuffled, random);
+            assertEquals(fingerprint, FingerprintAccess.fingerprint(Injector.class.getName(), shuffled));
+        }
+    }
+
+    /** Exposes fingerprint utilities of {@link WiringPlan}.
+     *
+     * @author MJ */
+    private static class FingerprintAccess extends WiringPlan {
+        static List<String> signatures(final Class<?> componentClass) {
+            return getMemberSignatures(componentClass);
+        }
+
+        static int fingerprint(final Class<?> componentClass) {
+            return getFingerprint(componentClass);
+        }
+
+        static int fingerprint(final String className, final List<String> memberSignatures) {
+            return getFingerprint(className, memberSignatures);
+        }
+    }
+}
@@ -1,20 +1,29 @@
 package com.github.czyzby.uedi.scanner.impl;
 
-import java.lang.reflect.Modifier;
+import java.io.File;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Set;
 
-import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.scanner.ClassNameFilter;
 
 import android.content.pm.ApplicationInfo;
 import dalvik.system.DexFile;
 
-/** Uses reflection and "native" Android API to analyze current classpath.
+/** Analyzes current classpath by parsing the dex files of the application APK with {@link DexClassIndex}. Class
+ * hierarchies are resolved from the dex class definitions, so only the matching components are loaded. All
+ * {@code classes*.dex} files are parsed (multidex). The index is built on the first scan and reused by the following
+ * scans. Class names are checked with the {@link ClassNameFilter} (if any) before the classes are loaded.
+ *
+ * <p>
+ * If the APK cannot be parsed, the scanner falls back to the deprecated {@link DexFile} API, which loads every class
+ * in the scanned packages and supports only the primary dex file.
  *
  * @author MJ */
-public class AndroidClassScanner implements ClassScanner {
+public class AndroidClassScanner extends AbstractClassScanner {
     private final ApplicationInfo applicationInfo;
+    private DexClassIndex dexClassIndex;
+    private boolean useDexFile;
 
     /** @param applicationInfo will be used to extract data about available classes. */
     public AndroidClassScanner(final ApplicationInfo applicationInfo) {
@@ -23,16 +32,72 @@ public class AndroidClassScanner implements ClassScanner {
 
     @Override
     public Iterable<Class<?>> getClassesImplementing(final Class<?> root, final Class<?>... interfaces) {
+        return getClassesImplementing(new Class<?>[] { root }, interfaces);
+    }
+
+    @Override
+    public Iterable<Class<?>> getClassesImplementing(final Class<?>[] roots, final Class<?>... interfaces) {
+        final DexClassIndex index = getDexClassIndex();
+        if (index == null) {
+            return getClassesImplementingWithDexFile(roots, interfaces);
+        }
+        final Set<Class<?>> result = new HashSet<Class<?>>();
+        final Set<String> interfaceNames = new HashSet<String>();
+        for (final Class<?> possibleMatch : interfaces) {
+            interfaceNames.add(possibleMatch.getName());
+        }
+        for (final String className : index.getClassesImplementing(getPackageNames(roots), interfaceNames)) {
+            if (isAccepted(className)) {
+                try {
+                    final Class<?> testedClass = Class.forName(className);
+                    if (isNotAbstract(testedClass) && isInstanceOfAny(testedClass, interfaces)) {
+                        result.add(testedClass);
+                    }
+                } catch (final Exception exception) {
+                    exception.printStackTrace(); // Unexpected. Reported file should be present.
+                }
+            }
+        }
+        return result;
+    }
+
+    /** @return index of classes defined in the application APK or null if the APK cannot be parsed. Created on the
+     *         first call. */
+    protected DexClassIndex getDexClassIndex() {
+        if (dexClassIndex == null && !useDexFile) {
+            try {
+                dexClassIndex = DexClassIndex.of(new File(applicationInfo.sourceDir));
+            } catch (final Exception exception) {
+                handleIndexError(exception);
+                useDexFile = true;
+            }
+        }
+        return dexClassIndex;
+    }
+
+    /** @param exception thrown while parsing the dex files of the application APK. The scanner falls back to the
+     *            {@link DexFile} API afterwards. Ignored by default - override to report unexpected APK formats. */
+    protected void handleIndexError(final Exception exception) {
+        ignore(exception);
+    }
+
+    /** Scans the primary dex file with {@link DexFile} API, loading all classes from the selected packages.
+     *
+     * @param roots scanning roots.
+     * @param interfaces set of interfaces to be checked against.
+     * @return classes implementing any of the interfaces. */
+    protected Iterable<Class<?>> getClassesImplementingWithDexFile(final Class<?>[] roots,
+            final Class<?>... interfaces) {
         final Set<Class<?>> result = new HashSet<Class<?>>();
         final String classPath = applicationInfo.sourceDir;
-        final String packageName = getPackageName(root);
+        final String[] packageNames = getPackageNames(roots);
         DexFile dexFile = null;
         try {
             dexFile = new DexFile(classPath);
             final Enumeration<String> classNames = dexFile.entries();
             while (classNames.hasMoreElements()) {
                 final String className = classNames.nextElement();
-                if (className.startsWith(packageName)) {
+                if (isFromAnyPackage(className, packageNames) && isAccepted(className)) {
                     try {
                         final Class<?> testedClass = Class.forName(className);
                         if (isNotAbstract(testedClass) && isInstanceOfAny(testedClass, interfaces)) {
@@ -63,31 +128,4 @@ public class AndroidClassScanner implements ClassScanner {
 
     private static void ignore(final Exception exception) {
     }
-
-    /** Package name extraction method that does not involve package query.
-     *
-     * @param root scanning root.
-     * @return name of the package of scanning root. */
-    protected String getPackageName(final Class<?> root) {
-        return root.getName().substring(0, root.getName().length() - root.getSimpleName().length() - 1);
-    }
-
-    /** @param testedClass will be validated
-     * @return true if the class is not abstract or anonymous and not an interface. */
-    protected boolean isNotAbstract(final Class<?> testedClass) {
-        return !Modifier.isAbstract(testedClass.getModifiers()) && !testedClass.isAnonymousClass()
-                && !testedClass.isInterface();
-    }
-
-    /** @param testedClass will be validated.
-     * @param interfaces set of interfaces to be checked against.
-     * @return true if the class implements any of the passed interfaces. */
-    protected boolean isInstanceOfAny(final Class<?> testedClass, final Class<?>[] interfaces) {
-        for (final Class<?> possibleMatch : interfaces) {
-            if (possibleMatch.isAssignableFrom(testedClass)) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
@@ -0,0 +1,501 @@
+package com.github.czyzby.uedi.scanner.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/** Reads class definitions straight from Dalvik executable files without loading any classes. Parses only the string,
+ * type and class definition sections of the dex format: class names, access flags, super classes and directly
+ * implemented interfaces. Works on a plain JVM, so it does not depend on any Android API.
+ *
+ * <p>
+ * APK files are memory-mapped and their zip central directory is read directly. Each {@code classes.dex},
+ * {@code classes2.dex}, ... entry in the archive root is parsed (multidex): stored entries are read from the mapped
+ * file without copying, while compressed entries are inflated into memory. If a class is defined in multiple dex files,
+ * the first definition is used, like the Android class loader does. Not thread-safe.
+ *
+ * @author MJ */
+public class DexClassIndex {
+    private static final int NO_INDEX = -1;
+    private static final int ENDIAN_TAG = 0x12345678;
+    private static final int HEADER_SIZE = 0x70;
+    private static final int CLASS_DEF_SIZE = 32;
+    private static final int ACC_INTERFACE = 0x200;
+    private static final int ACC_ABSTRACT = 0x400;
+
+    private static final int LOCAL_FILE_HEADER = 0x04034b50;
+    private static final int CENTRAL_DIRECTORY_HEADER = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAX_ZIP_COMMENT_LENGTH = 0xFFFF;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private final Map<String, ClassDefinition> classes = new LinkedHashMap<String, ClassDefinition>();
+    private int dexFilesAmount;
+
+    /** @param file dex file or an archive (APK, JAR) containing {@code classes*.dex} entries.
+     * @return a new index with all classes defined in the file.
+     * @throws IOException if unable to read the file or if its format is invalid. */
+    public static DexClassIndex of(final File file) throws IOException {
+        final DexClassIndex index = new DexClassIndex();
+        index.addFile(file);
+        return index;
+    }
+
+    /** @param file dex file or an archive (APK, JAR) containing {@code classes*.dex} entries. Will be memory-mapped;
+     *            no references to its content are kept after parsing.
+     * @throws IOException if unable to read the file or if its format is invalid. */
+    public void addFile(final File file) throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = randomAccessFile.getChannel();
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (isDexFile(buffer)) {
+                addDexFile(buffer);
+            } else {
+                addArchive(buffer);
+            }
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /** @param buffer content of a dex file. Its position and limit are ignored: the whole buffer is parsed.
+     * @throws IOException if the dex file is invalid. */
+    public void addDexFile(final ByteBuffer buffer) throws IOException {
+        new DexParser(buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN)).parse();
+        dexFilesAmount++;
+    }
+
+    /** @param buffer content of a zip archive. {@code classes*.dex} entries in its root will be parsed in the same
+     *            order as the Android class loader reads them.
+     * @throws IOException if the archive is invalid. */
+    public void addArchive(final ByteBuffer buffer) throws IOException {
+        final ByteBuffer archive = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        final List<DexEntry> entries = getDexEntries(archive);
+        if (entries.isEmpty()) {
+            throw new IOException("Archive does not contain any dex files.");
+        }
+        for (final DexEntry entry : entries) {
+            addDexFile(entry.read(archive));
+        }
+    }
+
+    private static boolean isDexFile(final ByteBuffer buffer) {
+        return buffer.limit() >= HEADER_SIZE && buffer.get(0) == 'd' && buffer.get(1) == 'e' && buffer.get(2) == 'x'
+                && buffer.get(3) == '\n';
+    }
+
+    /** @return amount of parsed dex files. */
+    public int getDexFilesAmount() {
+        return dexFilesAmount;
+    }
+
+    /** @return amount of indexed classes. */
+    public int size() {
+        return classes.size();
+    }
+
+    /** @return binary names of all indexed classes (as returned by {@link Class#getName()}) in definition order. */
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(classes.keySet());
+    }
+
+    /** @param className binary name of a class.
+     * @return true if the class is defined in one of the dex files. */
+    public boolean contains(final String className) {
+        return classes.containsKey(className);
+    }
+
+    /** @param className binary name of an indexed class.
+     * @return access flags of the class, as stored in the dex file.
+     * @throws IllegalArgumentException if the class is not indexed. */
+    public int getAccessFlags(final String className) {
+        return getDefinition(className).accessFlags;
+    }
+
+    /** @param className binary name of an indexed class.
+     * @return binary name of the super class or null if the class has no super class ({@link Object}).
+     * @throws IllegalArgumentException if the class is not indexed. */
+    public String getSuperClassName(final String className) {
+        return getDefinition(className).superClassName;
+    }
+
+    /** @param className binary name of an indexed class.
+     * @return binary names of interfaces directly implemented by the class (or extended by the interface).
+     * @throws IllegalArgumentException if the class is not indexed. */
+    public String[] getInterfaceNames(final String className) {
+        return getDefinition(className).interfaceNames.clone();
+    }
+
+    private ClassDefinition getDefinition(final String className) {
+        final ClassDefinition definition = classes.get(className);
+        if (definition == null) {
+            throw new IllegalArgumentException("Class not indexed: " + className);
+        }
+        return definition;
+    }
+
+    /** @param className binary name of an indexed class.
+     * @return true if the class is not abstract and is not an interface. */
+    public boolean isConcrete(final String className) {
+        return (getAccessFlags(className) & (ACC_INTERFACE | ACC_ABSTRACT)) == 0;
+    }
+
+    /** @param className binary name of a class.
+     * @param typeNames binary names of interfaces or classes.
+     * @return true if the class extends or implements any of the types. Type hierarchy is resolved within the index;
+     *         classes not defined in the indexed dex files (for example, Android framework classes) are assumed not
+     *         to implement any of the types. */
+    public boolean isAssignableToAny(final String className, final Set<String> typeNames) {
+        return isAssignableToAny(className, typeNames, new HashMap<String, Boolean>());
+    }
+
+    /** @param packageNames names of root packages. Classes from the packages and their subpackages are matched: note
+     *            that "com.foobar.Example" is not in the "com.foo" package.
+     * @param typeNames binary names of interfaces or classes.
+     * @return binary names of concrete classes from the selected packages that extend or implement any of the types.
+     *         Classes are not loaded. */
+    public List<String> getClassesImplementing(final String[] packageNames, final Set<String> typeNames) {
+        final List<String> result = new ArrayList<String>();
+        final Map<String, Boolean> cache = new HashMap<String, Boolean>();
+        for (final ClassDefinition definition : classes.values()) {
+            if (isFromAnyPackage(definition.name, packageNames) && isConcrete(definition.name)
+                    && isAssignableToAny(definition.name, typeNames, cache)) {
+                result.add(definition.name);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isFromAnyPackage(final String className, final String[] packageNames) {
+        for (final String packageName : packageNames) {
+            if (AbstractClassScanner.isInPackage(className, packageName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAssignableToAny(final String className, final Set<String> typeNames,
+            final Map<String, Boolean> cache) {
+        if (typeNames.contains(className)) {
+            return true;
+        }
+        final Boolean cached = cache.get(className);
+        if (cached != null) {
+            return cached.booleanValue();
+        }
+        final ClassDefinition definition = classes.get(className);
+        if (definition == null) {
+            return false;
+        }
+        cache.put(className, Boolean.FALSE); // Guards against cyclic hierarchies in malformed files.
+        boolean assignable = definition.superClassName != null
+                && isAssignableToAny(definition.superClassName, typeNames, cache);
+        for (int index = 0; !assignable && index < definition.interfaceNames.length; index++) {
+            assignable = isAssignableToAny(definition.interfaceNames[index], typeNames, cache);
+        }
+        cache.put(className, Boolean.valueOf(assignable));
+        return assignable;
+    }
+
+    /** Clears the index. */
+    public void clear() {
+        classes.clear();
+        dexFilesAmount = 0;
+    }
+
+    /** @param archive memory-mapped zip archive.
+     * @return {@code classes*.dex} entries from the archive root, sorted by their dex numbers.
+     * @throws IOException if the archive is invalid. */
+    private static List<DexEntry> getDexEntries(final ByteBuffer archive) throws IOException {
+        final int endOfCentralDirectory = findEndOfCentralDirectory(archive);
+        final int entriesAmount = archive.getShort(endOfCentralDirectory + 10) & 0xFFFF;
+        int offset = archive.getInt(endOfCentralDirectory + 16);
+        final List<DexEntry> entries = new ArrayList<DexEntry>();
+        for (int entryIndex = 0; entryIndex < entriesAmount; entryIndex++) {
+            if (offset < 0 || offset + 46 > archive.limit() || archive.getInt(offset) != CENTRAL_DIRECTORY_HEADER) {
+                throw new IOException("Invalid zip central directory.");
+            }
+            final int nameLength = archive.getShort(offset + 28) & 0xFFFF;
+            final int extraLength = archive.getShort(offset + 30) & 0xFFFF;
+            final int commentLength = archive.getShort(offset + 32) & 0xFFFF;
+            final int dexNumber = getDexNumber(readAscii(archive, offset + 46, nameLength));
+            if (dexNumber > 0) {
+                final int compressedSize = archive.getInt(offset + 20);
+                final int size = archive.getInt(offset + 24);
+                final int localHeaderOffset = archive.getInt(offset + 42);
+                if (compressedSize < 0 || size < 0 || localHeaderOffset < 0) {
+                    throw new IOException("Zip64 archives are not supported.");
+                }
+                entries.add(new DexEntry(dexNumber, archive.getShort(offset + 10) & 0xFFFF, compressedSize, size,
+                        localHeaderOffset));
+            }
+            offset += 46 + nameLength + extraLength + commentLength;
+        }
+        Collections.sort(entries, new Comparator<DexEntry>() {
+            @Override
+            public int compare(final DexEntry entry, final DexEntry otherEntry) {
+                return entry.dexNumber - otherEntry.dexNumber;
+            }
+        });
+        return entries;
+    }
+
+    private static int findEndOfCentralDirectory(final ByteBuffer archive) throws IOException {
+        final int lastOffset = archive.limit() - END_OF_CENTRAL_DIRECTORY_SIZE;
+        final int firstOffset = Math.max(0, lastOffset - MAX_ZIP_COMMENT_LENGTH);
+        for (int offset = lastOffset; offset >= firstOffset; offset--) {
+            if (archive.getInt(offset) == END_OF_CENTRAL_DIRECTORY) {
+                return offset;
+            }
+        }
+        throw new IOException("Not a dex file or a zip archive.");
+    }
+
+    /** @param entryName name of a zip entry.
+     * @return 1 for "classes.dex", N for "classesN.dex" (N > 1) or -1 if the entry is not a dex file in the archive
+     *         root. */
+    private static int getDexNumber(final String entryName) {
+        if (!entryName.startsWith("classes") || !entryName.endsWith(".dex")) {
+            return -1;
+        }
+        final String number = entryName.substring("classes".length(), entryName.length() - ".dex".length());
+        if (number.length() == 0) {
+            return 1;
+        }
+        for (int index = 0; index < number.length(); index++) {
+            if (!Character.isDigit(number.charAt(index))) {
+                return -1;
+            }
+        }
+        try {
+            final int dexNumber = Integer.parseInt(number);
+            return dexNumber > 1 ? dexNumber : -1;
+        } catch (final NumberFormatException exception) {
+            return -1;
+        }
+    }
+
+    private static String readAscii(final ByteBuffer buffer, final int offset, final int length) {
+        final char[] characters = new char[length];
+        for (int index = 0; index < length; index++) {
+            characters[index] = (char) (buffer.get(offset + index) & 0xFF);
+        }
+        return new String(characters);
+    }
+
+    /** Stores data of a single {@code classes*.dex} zip entry.
+     *
+     * @author MJ */
+    private static class DexEntry {
+        private final int dexNumber;
+        private final int method;
+        private final int compressedSize;
+        private final int size;
+        private final int localHeaderOffset;
+
+        DexEntry(final int dexNumber, final int method, final int compressedSize, final int size,
+                final int localHeaderOffset) {
+            this.dexNumber = dexNumber;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        /** @param archive memory-mapped zip archive.
+         * @return content of the entry. A slice of the archive if the entry is not compressed.
+         * @throws IOException if unable to read the entry. */
+        ByteBuffer read(final ByteBuffer archive) throws IOException {
+            if (localHeaderOffset + 30 > archive.limit() || archive.getInt(localHeaderOffset) != LOCAL_FILE_HEADER) {
+                throw new IOException("Invalid zip local file header of classes" + dexNumber + ".dex.");
+            }
+            final int dataOffset = localHeaderOffset + 30 + (archive.getShort(localHeaderOffset + 26) & 0xFFFF)
+                    + (archive.getShort(localHeaderOffset + 28) & 0xFFFF);
+            if (dataOffset + compressedSize > archive.limit()) {
+                throw new IOException("Truncated zip entry: classes" + dexNumber + ".dex.");
+            }
+            final ByteBuffer data = archive.duplicate();
+            data.position(dataOffset);
+            data.limit(dataOffset + compressedSize);
+            if (method == STORED) {
+                return data.slice().order(ByteOrder.LITTLE_ENDIAN);
+            } else if (method != DEFLATED) {
+                throw new IOException("Unsupported compression method: " + method);
+            }
+            final byte[] input = new byte[compressedSize];
+            data.get(input);
+            final byte[] output = new byte[size];
+            final Inflater inflater = new Inflater(true);
+            try {
+                inflater.setInput(input);
+                int inflated = 0;
+                while (inflated < size) {
+                    final int length = inflater.inflate(output, inflated, size - inflated);
+                    if (length == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IOException("Truncated zip entry: classes" + dexNumber + ".dex.");
+                    }
+                    inflated += length;
+                }
+            } catch (final DataFormatException exception) {
+                throw new IOException("Unable to inflate classes" + dexNumber + ".dex.", exception);
+            } finally {
+                inflater.end();
+            }
+            return ByteBuffer.wrap(output).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /** Stores data of a single class definition.
+     *
+     * @author MJ */
+    private static class ClassDefinition {
+        private final String name;
+        private final int accessFlags;
+        private final String superClassName;
+        private final String[] interfaceNames;
+
+        ClassDefinition(final String name, final int accessFlags, final String superClassName,
+                final String[] interfaceNames) {
+            this.name = name;
+            this.accessFlags = accessFlags;
+            this.superClassName = superClassName;
+            this.interfaceNames = interfaceNames;
+        }
+    }
+
+    /** Reads class definitions from a single dex file. Type names are decoded lazily, only for types referenced by the
+     * class definitions.
+     *
+     * @author MJ */
+    private class DexParser {
+        private final ByteBuffer dex;
+        private int stringIdsSize;
+        private int stringIdsOffset;
+        private int typeIdsSize;
+        private int typeIdsOffset;
+        private String[] typeNames;
+
+        DexParser(final ByteBuffer dex) {
+            this.dex = dex;
+        }
+
+        void parse() throws IOException {
+            if (!isDexFile(dex)) {
+                throw new IOException("Invalid dex file magic.");
+            } else if (dex.getInt(0x28) != ENDIAN_TAG) {
+                throw new IOException("Unsupported dex file endianness.");
+            }
+            stringIdsSize = dex.getInt(0x38);
+            stringIdsOffset = dex.getInt(0x3C);
+            typeIdsSize = dex.getInt(0x40);
+            typeIdsOffset = dex.getInt(0x44);
+            final int classDefsSize = dex.getInt(0x60);
+            final int classDefsOffset = dex.getInt(0x64);
+            validateSection(stringIdsOffset, stringIdsSize, 4);
+            validateSection(typeIdsOffset, typeIdsSize, 4);
+            validateSection(classDefsOffset, classDefsSize, CLASS_DEF_SIZE);
+            typeNames = new String[typeIdsSize];
+            for (int index = 0; index < classDefsSize; index++) {
+                final int offset = classDefsOffset + index * CLASS_DEF_SIZE;
+                final String name = getTypeName(dex.getInt(offset));
+                if (classes.containsKey(name)) {
+                    continue; // First definition wins.
+                }
+                final int superClassIndex = dex.getInt(offset + 8);
+                final String superClassName = superClassIndex == NO_INDEX ? null : getTypeName(superClassIndex);
+                classes.put(name, new ClassDefinition(name, dex.getInt(offset + 4),
+                        "java.lang.Object".equals(superClassName) ? null : superClassName,
+                        getTypeList(dex.getInt(offset + 12))));
+            }
+        }
+
+        private void validateSection(final int offset, final int size, final int elementSize) throws IOException {
+            if (size < 0 || offset < 0 || (long) offset + (long) size * elementSize > dex.limit()) {
+                throw new IOException("Invalid dex file section at: " + offset);
+            }
+        }
+
+        private String[] getTypeList(final int offset) throws IOException {
+            if (offset == 0) {
+                return new String[0];
+            }
+            validateSection(offset, 1, 4);
+            final int size = dex.getInt(offset);
+            validateSection(offset + 4, size, 2);
+            final String[] types = new String[size];
+            for (int index = 0; index < size; index++) {
+                types[index] = getTypeName(dex.getShort(offset + 4 + index * 2) & 0xFFFF);
+            }
+            return types;
+        }
+
+        /** @return binary name of the type with the selected index. */
+        private String getTypeName(final int typeIndex) throws IOException {
+            if (typeIndex < 0 || typeIndex >= typeIdsSize) {
+                throw new IOException("Invalid type index: " + typeIndex);
+            }
+            String typeName = typeNames[typeIndex];
+            if (typeName == null) {
+                final String descriptor = getString(dex.getInt(typeIdsOffset + typeIndex * 4));
+                if (descriptor.length() < 3 || descriptor.charAt(0) != 'L'
+                        || descriptor.charAt(descriptor.length() - 1) != ';') {
+                    throw new IOException("Invalid class descriptor: " + descriptor);
+                }
+                typeName = descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+                typeNames[typeIndex] = typeName;
+            }
+            return typeName;
+        }
+
+        /** @return decoded MUTF-8 string with the selected index. */
+        private String getString(final int stringIndex) throws IOException {
+            if (stringIndex < 0 || stringIndex >= stringIdsSize) {
+                throw new IOException("Invalid string index: " + stringIndex);
+            }
+            int offset = dex.getInt(stringIdsOffset + stringIndex * 4);
+            int length = 0;
+            for (int shift = 0;; shift += 7) { // ULEB128: length in UTF-16 code units.
+                final int value = dex.get(offset++);
+                length |= (value & 0x7F) << shift;
+                if ((value & 0x80) == 0) {
+                    break;
+                } else if (shift > 21) {
+                    throw new IOException("Invalid string length at: " + offset);
+                }
+            }
+            final char[] characters = new char[length];
+            for (int index = 0; index < length; index++) {
+                final int first = dex.get(offset++) & 0xFF;
+                if (first < 0x80) {
+                    characters[index] = (char) first;
+                } else if ((first & 0xE0) == 0xC0) {
+                    characters[index] = (char) ((first & 0x1F) << 6 | dex.get(offset++) & 0x3F);
+                } else if ((first & 0xF0) == 0xE0) {
+                    characters[index] = (char) ((first & 0x0F) << 12 | (dex.get(offset++) & 0x3F) << 6
+                            | dex.get(offset++) & 0x3F);
+                } else {
+                    throw new IOException("Invalid MUTF-8 string at: " + offset);
+                }
+            }
+            return new String(characters);
+        }
+    }
+}
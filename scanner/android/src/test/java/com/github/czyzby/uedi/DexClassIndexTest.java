@@ -0,0 +1,143 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.github.czyzby.uedi.scanner.impl.DexClassIndex;
+
+/** Tests {@link DexClassIndex}. Fixtures: "classes.dex" defines UEDI stereotypes and components in "com.example.app"
+ * package (and its siblings); "multidex.apk" contains the same dex file stored without compression and a deflated
+ * "classes2.dex" with classes extending the primary dex classes, followed by an invalid "assets/classes3.dex" entry.
+ *
+ * @author MJ */
+public class DexClassIndexTest {
+    private static final String SINGLETON = "com.github.czyzby.uedi.stereotype.Singleton";
+    private static final String FACTORY = "com.github.czyzby.uedi.stereotype.Factory";
+
+    @Test
+    public void shouldReadClassDefinitions() throws Exception {
+        final DexClassIndex index = DexClassIndex.of(getFixture("classes.dex"));
+        assertEquals(1, index.getDexFilesAmount());
+        assertEquals(10, index.size());
+        assertTrue(index.contains("com.example.app.Root"));
+        assertFalse(index.contains("java.lang.Object"));
+        assertNull(index.getSuperClassName("com.example.app.Root"));
+        assertEquals("com.example.app.AbstractBase", index.getSuperClassName("com.example.app.Extended"));
+        assertArrayEquals(new String[] { "java.io.Serializable", SINGLETON },
+                index.getInterfaceNames("com.example.app.Service"));
+        assertArrayEquals(new String[] { FACTORY }, index.getInterfaceNames("com.example.app.BuilderFactory"));
+    }
+
+    @Test
+    public void shouldDecodeModifiedUtf8Names() throws Exception {
+        final DexClassIndex index = DexClassIndex.of(getFixture("classes.dex"));
+        assertTrue(index.contains("com.example.app.\u00DCnicode$Inner"));
+    }
+
+    @Test
+    public void shouldReadAccessFlags() throws Exception {
+        final DexClassIndex index = DexClassIndex.of(getFixture("classes.dex"));
+        assertTrue(index.isConcrete("com.example.app.Service"));
+        assertFalse(index.isConcrete("com.example.app.AbstractBase"));
+        assertFalse(index.isConcrete(SINGLETON));
+        assertEquals(0x1 | 0x10, index.getAccessFlags("com.example.app.Extended"));
+    }
+
+    @Test
+    public void shouldResolveStereotypesWithoutLoadingClasses() throws Exception {
+        final DexClassIndex index = DexClassIndex.of(getFixture("classes.dex"));
+        final Set<String> singleton = Collections.singleton(SINGLETON);
+        assertTrue(index.isAssignableToAny("com.example.app.Service", singleton));
+        assertTrue(index.isAssignableToAny("com.example.app.Extended", singleton));
+        assertFalse(index.isAssignableToAny("com.example.app.Root", singleton));
+        assertFalse(index.isAssignableToAny("com.example.missing.Missing", singleton));
+
+        assertEquals(Arrays.asList("com.example.app.Service", "com.example.app.Extended",
+                "com.example.app.\u00DCnicode$Inner"),
+                index.getClassesImplementing(new String[] { "com.example.app" }, singleton));
+        assertEquals(Arrays.asList("com.example.app.Service", "com.example.app.Extended",
+                "com.example.app.\u00DCnicode$Inner", "com.example.other.Outside"),
+                index.getClassesImplementing(new String[] { "com.example.app", "com.example.other" }, singleton));
+    }
+
+    @Test
+    public void shouldNotMatchPackagesSharingRootPrefix() throws Exception {
+        final DexClassIndex index = DexClassIndex.of(getFixture("classes.dex"));
+        final Set<String> singleton = Collections.singleton(SINGLETON);
+        // "com.example.application" starts with "com.example.app", but it is not its subpackage.
+        assertFalse(index.getClassesImplementing(new String[] { "com.example.app" }, singleton)
+                .contains("com.example.application.Sibling"));
+        assertEquals(Arrays.asList("com.example.application.Sibling"),
+                index.getClassesImplementing(new String[] { "com.example.application" }, singleton));
+    }
+
+    @Test
+    public void shouldReadAllDexFilesFromArchive() throws Exception {
+        final DexClassIndex index = DexClassIndex.of(getFixture("multidex.apk"));
+        assertEquals(2, index.getDexFilesAmount());
+        assertEquals(13, index.size());
+        assertTrue(index.contains("com.example.app.Service"));
+        assertTrue(index.contains("com.example.app.split.Builder"));
+    }
+
+    @Test
+    public void shouldResolveHierarchiesAcrossDexFiles() throws Exception {
+        final DexClassIndex index = DexClassIndex.of(getFixture("multidex.apk"));
+        final Set<String> stereotypes = new HashSet<String>(Arrays.asList(SINGLETON, FACTORY));
+        assertEquals(Arrays.asList("com.example.app.split.Builder"),
+                index.getClassesImplementing(new String[] { "com.example.app.split" }, stereotypes));
+        assertEquals("android.app.Activity", index.getSuperClassName("com.example.app.split.Unknown"));
+        assertFalse(index.isAssignableToAny("com.example.app.split.Unknown", stereotypes));
+    }
+
+    @Test
+    public void shouldPreferFirstDexFileDefinitions() throws Exception {
+        final DexClassIndex index = DexClassIndex.of(getFixture("multidex.apk"));
+        // "classes2.dex" redefines Root as a singleton. It is stored first in the archive, but loaded second.
+        assertEquals(0, index.getInterfaceNames("com.example.app.Root").length);
+        assertFalse(index.isAssignableToAny("com.example.app.split.Plain", Collections.singleton(SINGLETON)));
+    }
+
+    @Test
+    public void shouldMergeMultipleFiles() throws Exception {
+        final DexClassIndex index = new DexClassIndex();
+        index.addFile(getFixture("classes.dex"));
+        index.addFile(getFixture("multidex.apk"));
+        assertEquals(3, index.getDexFilesAmount());
+        assertEquals(13, index.size());
+        index.clear();
+        assertEquals(0, index.size());
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectInvalidDexFile() throws Exception {
+        new DexClassIndex().addDexFile(ByteBuffer.wrap("dex\n035\0".getBytes("UTF-8")));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectArchiveWithoutDexFiles() throws Exception {
+        final byte[] emptyZip = new byte[22];
+        emptyZip[0] = 0x50;
+        emptyZip[1] = 0x4b;
+        emptyZip[2] = 0x05;
+        emptyZip[3] = 0x06;
+        new DexClassIndex().addArchive(ByteBuffer.wrap(emptyZip));
+    }
+
+    private File getFixture(final String name) throws Exception {
+        return new File(getClass().getResource("/dex/" + name).toURI());
+    }
+}
@@ -2,7 +2,6 @@ package com.github.czyzby.uedi.scanner.impl;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Modifier;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -15,82 +14,132 @@ import java.util.Set;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
-import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.scanner.ClassConsumer;
+import com.github.czyzby.uedi.scanner.ClassNameFilter;
+import com.github.czyzby.uedi.scanner.StreamingClassScanner;
 
-/** Uses reflection to analyze current classpath.
+/** Uses reflection to analyze current classpath. Since classes are loaded one by one, they are passed to the context as
+ * soon as they are found, allowing it to create components during scanning. Class names are checked with the
+ * {@link ClassNameFilter} (if any) before the classes are loaded.
  *
  * @author MJ */
-public class FallbackClassScanner implements ClassScanner {
+public class FallbackClassScanner extends AbstractClassScanner implements StreamingClassScanner {
     private static final String CLASS_FILE_EXTENSION = ".class";
     private static final String JAR_FILE_EXTENSION = ".jar";
 
     @Override
     public Iterable<Class<?>> getClassesImplementing(final Class<?> root, final Class<?>... interfaces) {
-        final String mainPackageName = root.getPackage().getName();
-        final String classPathRoot = getClassPathRoot(mainPackageName);
-        final ClassLoader classLoader = root.getClassLoader() == null ? ClassLoader.getSystemClassLoader()
-                : root.getClassLoader();
+        return getClassesImplementing(new Class<?>[] { root }, interfaces);
+    }
+
+    @Override
+    public Iterable<Class<?>> getClassesImplementing(final Class<?>[] roots, final Class<?>... interfaces) {
+        return scan(roots, null, interfaces);
+    }
+
+    @Override
+    public void scanClassesImplementing(final Class<?>[] roots, final ClassConsumer consumer,
+            final Class<?>... interfaces) {
+        scan(roots, consumer, interfaces);
+    }
+
+    /** @param roots scanning roots.
+     * @param consumer optional. If not null, will receive classes as soon as they are found.
+     * @param interfaces requested interfaces.
+     * @return all found classes. */
+    private Set<Class<?>> scan(final Class<?>[] roots, final ClassConsumer consumer, final Class<?>... interfaces) {
+        final Set<Class<?>> result = new HashSet<Class<?>>();
+        final List<String> classPathRootsInJars = new ArrayList<String>();
+        final Queue<DepthFile> filesWithDepthsToProcess = new LinkedList<DepthFile>();
+        ClassLoader jarClassLoader = null;
         try {
-            final Enumeration<URL> resources = classLoader.getResources(classPathRoot);
-            final Queue<DepthFile> filesWithDepthsToProcess = new LinkedList<DepthFile>();
-            while (resources.hasMoreElements()) {
-                try {
-                    filesWithDepthsToProcess.add(new DepthFile(0, toFile(resources.nextElement())));
-                } catch (final Exception uriSyntaxException) {
-                    ignore(uriSyntaxException); // Will throw an exception for non-hierarchical files.
+            for (final String mainPackageName : getPackageNames(roots)) {
+                final String classPathRoot = getClassPathRoot(mainPackageName);
+                final ClassLoader classLoader = getClassLoader(roots, mainPackageName);
+                final Enumeration<URL> resources = classLoader.getResources(classPathRoot);
+                boolean found = false;
+                while (resources.hasMoreElements()) {
+                    try {
+                        filesWithDepthsToProcess.add(
+                                new DepthFile(mainPackageName, classLoader, 0, toFile(resources.nextElement())));
+                        found = true;
+                    } catch (final Exception uriSyntaxException) {
+                        ignore(uriSyntaxException); // Will throw an exception for non-hierarchical files.
+                    }
+                }
+                if (!found) {
+                    classPathRootsInJars.add(classPathRoot);
+                    jarClassLoader = classLoader;
                 }
             }
-            if (filesWithDepthsToProcess.isEmpty()) {
-                return extractFromJar(classPathRoot, classLoader, interfaces);
+            extractFromBinaries(result, consumer, filesWithDepthsToProcess, interfaces);
+            if (!classPathRootsInJars.isEmpty()) {
+                extractFromJar(result, consumer, classPathRootsInJars, jarClassLoader, interfaces);
             }
-            return extractFromBinaries(mainPackageName, filesWithDepthsToProcess, interfaces);
+            return result;
         } catch (final Exception exception) {
             throw new RuntimeException("Unable to scan classpath.", exception);
         }
     }
 
+    private ClassLoader getClassLoader(final Class<?>[] roots, final String mainPackageName) {
+        for (final Class<?> root : roots) {
+            if (getPackageName(root).equals(mainPackageName) && root.getClassLoader() != null) {
+                return root.getClassLoader();
+            }
+        }
+        return ClassLoader.getSystemClassLoader();
+    }
+
     /** Override to inspect ignored exceptions.
      *
      * @param expectedException was thrown. */
     protected void ignore(final Exception expectedException) {
     }
 
-    private Set<Class<?>> extractFromBinaries(final String mainPackageName,
+    private void extractFromBinaries(final Set<Class<?>> result, final ClassConsumer consumer,
             final Queue<DepthFile> filesWithDepthsToProcess, final Class<?>... interfaces) throws Exception {
-        final Set<Class<?>> result = new HashSet<Class<?>>();
         while (!filesWithDepthsToProcess.isEmpty()) {
             final DepthFile classPathFileWithDepth = filesWithDepthsToProcess.poll();
             final File classPathFile = classPathFileWithDepth.file;
             final int depth = classPathFileWithDepth.depth;
+            final String mainPackageName = classPathFileWithDepth.packageName;
             if (classPathFile.isDirectory()) {
-                addAllChildren(filesWithDepthsToProcess, classPathFile, depth);
+                addAllChildren(filesWithDepthsToProcess, classPathFile, classPathFileWithDepth, depth);
             } else {
                 final String className = getBinaryClassName(mainPackageName, classPathFile, depth);
-                if (!isFromPackage(mainPackageName, className)) {
+                if (!isFromPackage(mainPackageName, className, '.') || !isAccepted(className)) {
                     continue;
                 }
-                final Class<?> classToProcess = Class.forName(className);
-                if (isNotAbstract(classToProcess) && isInstanceOfAny(classToProcess, interfaces)) {
-                    result.add(classToProcess);
-                }
+                process(Class.forName(className, true, classPathFileWithDepth.classLoader), result, consumer,
+                        interfaces);
             }
         }
-        return result;
     }
 
-    private static boolean isFromPackage(final String mainPackageName, final String className) {
-        return className.indexOf('-') < 0 && className.startsWith(mainPackageName); // True if not package-info.
+    private void process(final Class<?> classToProcess, final Set<Class<?>> result, final ClassConsumer consumer,
+            final Class<?>... interfaces) {
+        if (isNotAbstract(classToProcess) && isInstanceOfAny(classToProcess, interfaces) && result.add(classToProcess)
+                && consumer != null) {
+            consumer.consume(classToProcess);
+        }
+    }
+
+    private static boolean isFromPackage(final String mainPackageName, final String className, final char separator) {
+        // True if not package-info and not from a package that merely shares a prefix with the main package.
+        return className.indexOf('-') < 0 && isInPackage(className, mainPackageName, separator);
     }
 
     private static File toFile(final URL url) throws URISyntaxException {
         return new File(url.toURI()).getAbsoluteFile();
     }
 
-    private static void addAllChildren(final Queue<DepthFile> rootFiles, final File classPathFile, int depth) {
+    private static void addAllChildren(final Queue<DepthFile> rootFiles, final File classPathFile,
+            final DepthFile parent, int depth) {
         depth++;
         for (final File file : classPathFile.listFiles()) {
             if (file.isDirectory() || file.getName().endsWith(CLASS_FILE_EXTENSION)) {
-                rootFiles.add(new DepthFile(depth, file));
+                rootFiles.add(new DepthFile(parent.packageName, parent.classLoader, depth, file));
             }
         }
     }
@@ -110,18 +159,21 @@ public class FallbackClassScanner implements ClassScanner {
         return mainPackageName.replace('.', File.separatorChar);
     }
 
-    private Set<Class<?>> extractFromJar(final String classPathRoot, final ClassLoader classLoader,
-            final Class<?>... interfaces) throws Exception {
+    private void extractFromJar(final Set<Class<?>> result, final ClassConsumer consumer,
+            final List<String> classPathRoots, final ClassLoader classLoader, final Class<?>... interfaces)
+            throws Exception {
         final List<JarFile> filesToProcess = getJarFilesToProcess();
-        final Set<Class<?>> result = new HashSet<Class<?>>();
         for (final JarFile jarFile : filesToProcess) {
             final Enumeration<JarEntry> entries = jarFile.entries();
             while (entries.hasMoreElements()) {
                 final JarEntry entry = entries.nextElement();
-                processEntry(classPathRoot, result, entry, interfaces);
+                for (final String classPathRoot : classPathRoots) {
+                    if (processEntry(classPathRoot, classLoader, result, consumer, entry, interfaces)) {
+                        break;
+                    }
+                }
             }
         }
-        return result;
     }
 
     private static List<JarFile> getJarFilesToProcess() throws URISyntaxException, IOException {
@@ -135,18 +187,22 @@ public class FallbackClassScanner implements ClassScanner {
         return filesToProcess;
     }
 
-    private void processEntry(final String classPathRoot, final Set<Class<?>> result, final JarEntry entry,
+    /** @return true if the entry was from the selected package and was processed. */
+    private boolean processEntry(final String classPathRoot, final ClassLoader classLoader,
+            final Set<Class<?>> result, final ClassConsumer consumer, final JarEntry entry,
             final Class<?>... interfaces) throws Exception {
         if (!entry.isDirectory()) {
             final String entryName = entry.getName().replace('/', File.separatorChar);
-            if (isFromPackage(classPathRoot, entryName) && entryName.endsWith(CLASS_FILE_EXTENSION)) {
+            if (isFromPackage(classPathRoot, entryName, File.separatorChar)
+                    && entryName.endsWith(CLASS_FILE_EXTENSION)) {
                 final String className = jarEntryToClassName(entryName);
-                final Class<?> classToProcess = Class.forName(className);
-                if (isNotAbstract(classToProcess) && isInstanceOfAny(classToProcess, interfaces)) {
-                    result.add(classToProcess);
+                if (isAccepted(className)) {
+                    process(Class.forName(className, true, classLoader), result, consumer, interfaces);
                 }
+                return true;
             }
         }
+        return false;
     }
 
     private static String jarEntryToClassName(final String entryName) {
@@ -154,33 +210,18 @@ public class FallbackClassScanner implements ClassScanner {
                 '.');
     }
 
-    /** @param testedClass will be validated
-     * @return true if the class is not abstract or anonymous and not an interface. */
-    protected boolean isNotAbstract(final Class<?> testedClass) {
-        return !Modifier.isAbstract(testedClass.getModifiers()) && !testedClass.isAnonymousClass()
-                && !testedClass.isInterface();
-    }
-
-    /** @param testedClass will be validated.
-     * @param interfaces set of interfaces to be checked against.
-     * @return true if the class implements any of the passed interfaces. */
-    protected boolean isInstanceOfAny(final Class<?> testedClass, final Class<?>[] interfaces) {
-        for (final Class<?> possibleMatch : interfaces) {
-            if (possibleMatch.isAssignableFrom(testedClass)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /** Utility container.
      *
      * @author MJ */
     private static class DepthFile {
+        private final String packageName;
+        private final ClassLoader classLoader;
         private final int depth;
         private final File file;
 
-        public DepthFile(final int depth, final File file) {
+        public DepthFile(final String packageName, final ClassLoader classLoader, final int depth, final File file) {
+            this.packageName = packageName;
+            this.classLoader = classLoader;
             this.depth = depth;
             this.file = file;
         }
@@ -0,0 +1,12 @@
+package com.github.czyzby.uedi;
+
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.scanner.impl.CachedClassScanner;
+import com.github.czyzby.uedi.scanner.impl.FallbackClassScanner;
+
+public class CachedContextTest extends ContextTest {
+    @Override
+    protected Context getContext() {
+        return new DefaultContext(new CachedClassScanner(new FallbackClassScanner()));
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.czyzby.uedi;
+
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.scanner.impl.FallbackClassScanner;
+
+public class StreamingContextTest extends ContextTest {
+    @Override
+    protected Context getContext() {
+        final DefaultContext context = new DefaultContext(new FallbackClassScanner());
+        context.setStreamScans(true);
+        return context;
+    }
+}
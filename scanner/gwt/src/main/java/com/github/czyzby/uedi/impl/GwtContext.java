@@ -0,0 +1,644 @@
+package com.github.czyzby.uedi.impl;
+
+import java.io.Serializable;
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import com.github.czyzby.uedi.Context;
+import com.github.czyzby.uedi.reflection.ReflectedComponent;
+import com.github.czyzby.uedi.reflection.ReflectedField;
+import com.github.czyzby.uedi.reflection.ReflectedMethod;
+import com.github.czyzby.uedi.reflection.ReflectionPool;
+import com.github.czyzby.uedi.reflection.ReflectionRoot;
+import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.scanner.impl.GwtClassScanner;
+import com.github.czyzby.uedi.stereotype.Destructible;
+import com.github.czyzby.uedi.stereotype.Factory;
+import com.github.czyzby.uedi.stereotype.Initiated;
+import com.github.czyzby.uedi.stereotype.Named;
+import com.github.czyzby.uedi.stereotype.Property;
+import com.github.czyzby.uedi.stereotype.Provider;
+import com.github.czyzby.uedi.stereotype.Singleton;
+import com.github.czyzby.uedi.stereotype.impl.PropertyProvider;
+import com.github.czyzby.uedi.stereotype.impl.ProviderManager;
+import com.github.czyzby.uedi.stereotype.impl.Providers;
+import com.github.czyzby.uedi.stereotype.impl.ReflectedMethodProvider;
+import com.github.czyzby.uedi.stereotype.impl.SingletonProvider;
+import com.github.czyzby.uedi.stereotype.impl.StringProvider;
+
+/** {@link Context} implementation for GWT applications. Works like {@link DefaultContext}, but instead of reflection it
+ * uses {@link ReflectedComponent} instances generated at compile time by the reflection pool generator: components
+ * are constructed, injected and wrapped with plain Java code. Not thread-safe.
+ *
+ * <p>
+ * Only classes available in the {@link ReflectionPool} can be created by the context. Components have to be public
+ * and have a public constructor. Static and final fields are never injected. Since GWT has no class loaders, plugins
+ * are scanned as regular components and cannot be unloaded.
+ *
+ * @author MJ
+ * @see GwtClassScanner */
+public class GwtContext extends AbstractContext {
+    /** These interfaces are ignored while assigning components to their class tree. Components cannot be injected by
+     * these types. Do NOT clear this set. Add new classes if necessary. */
+    public static final Set<Class<?>> META_INTERFACES = new HashSet<Class<?>>();
+    /** These methods will be ignored when processing factories. */
+    public static final Set<String> FORBIDDEN_METHOD_NAMES = new HashSet<String>();
+
+    private final Map<Class<?>, Provider<?>> context = new HashMap<Class<?>, Provider<?>>();
+    private final Map<Class<?>, ReflectedComponent> components = new HashMap<Class<?>, ReflectedComponent>();
+    /** Class trees of components and factory methods return types. */
+    private final Map<Class<?>, Class<?>[]> classTrees = new HashMap<Class<?>, Class<?>[]>();
+    private final Set<Destructible> destructibles = new HashSet<Destructible>();
+    private final Set<Class<?>> scannedClasses = new HashSet<Class<?>>();
+    private final StringProvider propertyProvider = getPropertyProvider();
+
+    static {
+        // Meta interfaces used by the SDI framework:
+        META_INTERFACES.add(Destructible.class);
+        META_INTERFACES.add(Factory.class);
+        META_INTERFACES.add(Initiated.class);
+        META_INTERFACES.add(Named.class);
+        META_INTERFACES.add(Property.class);
+        META_INTERFACES.add(Provider.class);
+        META_INTERFACES.add(Singleton.class);
+
+        // Common Java utility interfaces:
+        META_INTERFACES.add(Comparable.class);
+        META_INTERFACES.add(Serializable.class);
+        META_INTERFACES.add(Cloneable.class);
+        META_INTERFACES.add(Iterable.class);
+        META_INTERFACES.add(Map.Entry.class);
+
+        // Forbidden method names:
+        FORBIDDEN_METHOD_NAMES.add("toString");
+        FORBIDDEN_METHOD_NAMES.add("wait");
+        FORBIDDEN_METHOD_NAMES.add("clone");
+        FORBIDDEN_METHOD_NAMES.add("equals");
+        FORBIDDEN_METHOD_NAMES.add("finalize");
+        FORBIDDEN_METHOD_NAMES.add("notify");
+        FORBIDDEN_METHOD_NAMES.add("notifyAll");
+        FORBIDDEN_METHOD_NAMES.add("hashCode");
+        FORBIDDEN_METHOD_NAMES.add("getClass");
+    }
+
+    /** @param classScanner can be null, but {@link #scan(Class)} method will not work correctly. Components are
+     *            created with the data from the generated reflection pool used by {@link GwtClassScanner}. */
+    public GwtContext(final ClassScanner classScanner) {
+        this(classScanner, GwtClassScanner.getReflectionPool());
+    }
+
+    /** @param classScanner can be null, but {@link #scan(Class)} method will not work correctly.
+     * @param reflectionPool contains generated data of all components that can be created by the context. */
+    public GwtContext(final ClassScanner classScanner, final ReflectionPool reflectionPool) {
+        super(classScanner);
+        for (final ReflectedComponent component : reflectionPool.getReflectedComponents()) {
+            addReflectedComponent(component);
+        }
+        addCoreProviders();
+    }
+
+    /** @param reflectionPool generated pool of components, usually annotated with {@link ReflectionRoot} and created
+     *            inside a {@code GWT.runAsync} callback. Its components can be created by the context. If the context
+     *            uses {@link GwtClassScanner}, the pool is also added to the scanner, so its packages can be scanned.
+     * @see GwtClassScanner#addReflectionPool(ReflectionPool) */
+    public void addReflectionPool(final ReflectionPool reflectionPool) {
+        for (final ReflectedComponent component : reflectionPool.getReflectedComponents()) {
+            addReflectedComponent(component);
+        }
+        if (getClassScanner() instanceof GwtClassScanner) {
+            ((GwtClassScanner) getClassScanner()).addReflectionPool(reflectionPool);
+        }
+    }
+
+    /** @return default provider of {@link String} instances. */
+    protected StringProvider getPropertyProvider() {
+        return new PropertyProvider(new HashMap<String, Property>());
+    }
+
+    /** Registers {@link Context} (so it can be injected) and binds {@link PropertyProvider} to {@link String}
+     * injections. */
+    protected void addCoreProviders() {
+        context.put(String.class, propertyProvider);
+        context.put(Context.class, new SingletonProvider<Context>(this));
+    }
+
+    /** @param component generated data of a class. Will allow the context to create, inject and map the instances of
+     *            the class. Replaces current data of the class, if any. */
+    public void addReflectedComponent(final ReflectedComponent component) {
+        components.put(component.getType(), component);
+        classTrees.put(component.getType(), component.getMappedTypes());
+        for (final ReflectedMethod method : component.getMethods()) {
+            classTrees.put(method.getReturnType(), method.getMappedTypes());
+        }
+    }
+
+    /** @param componentClass class of a component.
+     * @return generated data of the class or null if the class is not available in the reflection pool. */
+    public ReflectedComponent getReflectedComponent(final Class<?> componentClass) {
+        return components.get(componentClass);
+    }
+
+    @Override
+    public void add(final Object component) {
+        processProvider(new SingletonProvider<Object>(component));
+    }
+
+    @Override
+    public boolean isAvailable(final Class<?> type) {
+        return context.containsKey(type);
+    }
+
+    @Override
+    public String getProperty(final String name) {
+        return propertyProvider.hasProperty(name) ? propertyProvider.getProperty(name).getValue() : null;
+    }
+
+    @Override
+    public void setProperty(final String key, final String value) {
+        if (propertyProvider.hasProperty(key)) {
+            propertyProvider.getProperty(key).setValue(value);
+        } else {
+            addProperty(new Property() {
+                private String property = value;
+
+                @Override
+                public String setValue(final String value) {
+                    return property = value;
+                }
+
+                @Override
+                public String getValue() {
+                    return property;
+                }
+
+                @Override
+                public String getKey() {
+                    return key;
+                }
+            });
+        }
+    }
+
+    @Override
+    public void addProperty(final Property property) {
+        propertyProvider.addProperty(property);
+    }
+
+    @Override
+    public void addDestructible(final Destructible destructible) {
+        destructibles.add(destructible);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <Component> Component get(final Class<Component> type, final Object forObject, final Member member) {
+        final Provider<?> provider = context.get(type);
+        if (provider == null) {
+            if (isFailIfUnknownType()) {
+                throw new RuntimeException("Unknown component type: " + type.getName());
+            }
+            return create(type);
+        }
+        return (Component) provider.provide(forObject, member);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <Component> Component create(final Class<Component> type) {
+        final Object component = createObject(getReflectedComponentOrFail(type));
+        initiate(component);
+        return (Component) component;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <Component> List<Component> create(final Class<Component> type, final int count) {
+        final ReflectedComponent reflectedComponent = getReflectedComponentOrFail(type);
+        final List<Component> components = new ArrayList<Component>(count);
+        for (int index = 0; index < count; index++) {
+            components.add((Component) createObject(reflectedComponent));
+        }
+        initiateAll(components);
+        return components;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <Component> Component[] create(final Class<Component> type, final Component[] components) {
+        final ReflectedComponent reflectedComponent = getReflectedComponentOrFail(type);
+        for (int index = 0; index < components.length; index++) {
+            components[index] = (Component) createObject(reflectedComponent);
+        }
+        initiateAll(Arrays.asList(components));
+        return components;
+    }
+
+    /** @param componentClass class of a component.
+     * @return generated data of the class.
+     * @throws RuntimeException if the class is not available in the reflection pool. */
+    protected ReflectedComponent getReflectedComponentOrFail(final Class<?> componentClass) {
+        final ReflectedComponent component = components.get(componentClass);
+        if (component == null) {
+            throw new RuntimeException("Unable to create an instance of: " + componentClass.getName()
+                    + ". Class is not available in the reflection pool or has no public constructor.");
+        }
+        return component;
+    }
+
+    @Override
+    public void destroy() {
+        final PriorityQueue<Destructible> sortedDestructibles = getPrioritySortedDestructionQueue();
+        sortedDestructibles.addAll(destructibles);
+        destructibles.clear();
+        try {
+            while (!sortedDestructibles.isEmpty()) {
+                sortedDestructibles.poll().destroy();
+            }
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to destroy context.", exception);
+        }
+    }
+
+    @Override
+    public void destroy(final Destructible component) {
+        if (component != null) {
+            destructibles.remove(component);
+            try {
+                component.destroy();
+            } catch (final Exception exception) {
+                throw new RuntimeException("Unable to destroy: " + component, exception);
+            }
+        }
+    }
+
+    @Override
+    protected void processClasses(final Iterable<Class<?>> classes) {
+        try {
+            final List<ReflectedComponent> reflectedComponents = new LinkedList<ReflectedComponent>();
+            for (final Class<?> componentClass : classes) {
+                reflectedComponents.add(getReflectedComponentOrFail(componentClass));
+            }
+            final PriorityQueue<Initiated> componentsToInitiate = getPrioritySortedInitiationQueue();
+            for (final Object component : createComponents(reflectedComponents, componentsToInitiate)) {
+                injectFields(component);
+            }
+            while (!componentsToInitiate.isEmpty()) {
+                componentsToInitiate.poll().initiate();
+            }
+        } catch (final RuntimeException exception) {
+            throw exception;
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to create components.", exception);
+        }
+    }
+
+    /** @param reflectedComponents generated data of classes to initiate.
+     * @param componentsToInitiate a reference to sorting collection of components to initiate. Should be filled.
+     * @return list of constructed components. */
+    protected List<Object> createComponents(final List<ReflectedComponent> reflectedComponents,
+            final PriorityQueue<Initiated> componentsToInitiate) {
+        final List<Object> createdComponents = new ArrayList<Object>();
+        for (int index = 0, iterations = getIterationsAmount(); !reflectedComponents.isEmpty()
+                && index < iterations; index++) {
+            for (final Iterator<ReflectedComponent> iterator = reflectedComponents.iterator(); iterator.hasNext();) {
+                final ReflectedComponent reflectedComponent = iterator.next();
+                if (isAnyProviderMissing(reflectedComponent.getParameterTypes())) {
+                    continue;
+                }
+                final Object component = createObject(reflectedComponent);
+                processScannedComponent(component, reflectedComponent, componentsToInitiate);
+                createdComponents.add(component);
+                iterator.remove();
+            }
+        }
+        if (!reflectedComponents.isEmpty()) {
+            if (isFailIfUnknownType()) {
+                final List<String> classNames = new ArrayList<String>();
+                for (final ReflectedComponent reflectedComponent : reflectedComponents) {
+                    classNames.add(reflectedComponent.getName());
+                }
+                throw new RuntimeException(
+                        "Unknown or circular dependencies detected. Unable to create instances of: " + classNames);
+            }
+            for (final ReflectedComponent reflectedComponent : reflectedComponents) {
+                final Object component = createObject(reflectedComponent);
+                processScannedComponent(component, reflectedComponent, componentsToInitiate);
+                createdComponents.add(component);
+            }
+        }
+        return createdComponents;
+    }
+
+    /** @param component generated data of the component class.
+     * @return a new instance of the class. Constructor parameters are extracted from the context. */
+    protected Object createObject(final ReflectedComponent component) {
+        try {
+            final Class<?>[] parameterTypes = component.getParameterTypes();
+            if (parameterTypes.length == 0) {
+                return component.newInstance(Providers.EMPTY_ARRAY);
+            }
+            final Object[] dependencies = new Object[parameterTypes.length];
+            for (int index = 0, length = dependencies.length; index < length; index++) {
+                dependencies[index] = get(parameterTypes[index], null, component);
+            }
+            return component.newInstance(dependencies);
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to create an instance of: " + component.getType(), exception);
+        }
+    }
+
+    /** @param types array of requested types.
+     * @return true if context currently has no provider that could supply an instance of any of the passed classes. */
+    protected boolean isAnyProviderMissing(final Class<?>... types) {
+        for (final Class<?> type : types) {
+            if (!context.containsKey(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @param component its interfaces will be inspected. Depending on its type, it might be initiated, scheduled for
+     *            destruction or registered as a factory, provider or property.
+     * @param reflectedComponent generated data of the component class.
+     * @param componentsToInitiate will be used to schedule initiations. */
+    protected void processScannedComponent(final Object component, final ReflectedComponent reflectedComponent,
+            final PriorityQueue<Initiated> componentsToInitiate) {
+        scannedClasses.add(reflectedComponent.getType());
+        final Provider<?> singletonProvider = new SingletonProvider<Object>(component);
+        for (final Class<?> type : getMappedTypes(reflectedComponent.getType())) {
+            putProvider(type, singletonProvider);
+        }
+        if (component instanceof Destructible) {
+            destructibles.add((Destructible) component);
+        }
+        if (component instanceof Factory) {
+            processFactory(component, reflectedComponent);
+        }
+        if (component instanceof Initiated) {
+            componentsToInitiate.add((Initiated) component);
+        }
+        if (component instanceof Property) {
+            addProperty((Property) component);
+        }
+        if (component instanceof Provider<?>) {
+            processProvider((Provider<?>) component);
+        }
+    }
+
+    @Override
+    protected boolean isScanned(final Class<?> componentClass) {
+        return scannedClasses.contains(componentClass);
+    }
+
+    /** @return priority queue sorting initiated components in ascending order. */
+    protected PriorityQueue<Initiated> getPrioritySortedInitiationQueue() {
+        return new PriorityQueue<Initiated>(16, new Comparator<Initiated>() {
+            @Override
+            public int compare(final Initiated o1, final Initiated o2) {
+                return o1.getInitiationOrder() - o2.getInitiationOrder();
+            }
+        });
+    }
+
+    /** @return priority queue sorting destructibles in ascending order. */
+    protected PriorityQueue<Destructible> getPrioritySortedDestructionQueue() {
+        return new PriorityQueue<Destructible>(16, new Comparator<Destructible>() {
+            @Override
+            public int compare(final Destructible o1, final Destructible o2) {
+                return o1.getDestructionOrder() - o2.getDestructionOrder();
+            }
+        });
+    }
+
+    /** Note: this method should be invoked only with externally registered components.
+     *
+     * @param component will be initiated. */
+    @Override
+    protected void processComponent(final Object component) {
+        injectFields(component);
+        if (component instanceof Initiated) {
+            try {
+                ((Initiated) component).initiate();
+            } catch (final Exception exception) {
+                throw new RuntimeException("Unable to initiate component: " + component, exception);
+            }
+        }
+        if (component instanceof Destructible) {
+            destructibles.add((Destructible) component);
+        }
+    }
+
+    @Override
+    public Context initiateAll(final Collection<?> components) {
+        for (final Object component : components) {
+            injectFields(component);
+        }
+        final PriorityQueue<Initiated> componentsToInitiate = getPrioritySortedInitiationQueue();
+        for (final Object component : components) {
+            if (component instanceof Initiated) {
+                componentsToInitiate.add((Initiated) component);
+            }
+        }
+        Initiated initiated = null;
+        try {
+            while (!componentsToInitiate.isEmpty()) {
+                initiated = componentsToInitiate.poll();
+                initiated.initiate();
+            }
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to initiate component: " + initiated, exception);
+        }
+        for (final Object component : components) {
+            if (component instanceof Destructible) {
+                destructibles.add((Destructible) component);
+            }
+        }
+        return this;
+    }
+
+    /** @return direct reference to component providers. */
+    protected Map<Class<?>, Provider<?>> getComponentProviders() {
+        return context;
+    }
+
+    /** @param component its injectable fields will be filled with values provided by the context. If its class is not
+     *            available in the reflection pool, fields of its closest available super class are injected.
+     * @see #isInjectable(ReflectedField) */
+    protected void injectFields(final Object component) {
+        Class<?> componentClass = component.getClass();
+        ReflectedComponent reflectedComponent = components.get(componentClass);
+        while (reflectedComponent == null && componentClass != null && isProcessSuperFields()) {
+            componentClass = componentClass.getSuperclass();
+            reflectedComponent = components.get(componentClass);
+        }
+        if (reflectedComponent == null) {
+            return;
+        }
+        final ReflectedField[] fields = reflectedComponent.getFields();
+        try {
+            for (int index = 0, length = fields.length; index < length; index++) {
+                final ReflectedField field = fields[index];
+                if (field.getDeclaringClass() != componentClass && !isProcessSuperFields()) {
+                    break; // Fields of the component class are always first.
+                }
+                if (isInjectable(field) && reflectedComponent.get(component, index) == null) {
+                    reflectedComponent.set(component, index, get(field.getType(), component, field));
+                }
+            }
+        } catch (final RuntimeException exception) {
+            throw new RuntimeException("Unable to inject fields of component: " + component, exception);
+        }
+    }
+
+    /** @param field generated field data.
+     * @return true if the field is accepted by the modifier filter, does not match modifier signature and - if
+     *         strings are ignored - is not a string. Does not check the current value of the field. */
+    protected boolean isInjectable(final ReflectedField field) {
+        if (isIgnoreStrings() && field.getType() == String.class) {
+            return false;
+        }
+        final int modifier = field.getModifiers();
+        return (modifier & getFieldsIgnoreFilter()) == 0 && modifier != getFieldsIgnoreSignature();
+    }
+
+    @Override
+    protected void processProvider(final Provider<?> provider) {
+        for (final Class<?> type : getMappedTypes(provider.getType())) {
+            putProvider(type, provider);
+        }
+    }
+
+    /** @param providedType type of provided instances.
+     * @return class tree keys that the provider of the type should be mapped to. If super types are mapped, contains
+     *         the type, its super classes and all its interfaces excluding {@link #META_INTERFACES}. Interfaces are
+     *         known only for the types available in the reflection pool and return types of their factory methods;
+     *         only super classes are mapped for other types. */
+    protected List<Class<?>> getMappedTypes(final Class<?> providedType) {
+        final List<Class<?>> types = new ArrayList<Class<?>>();
+        if (!isMapSuperTypes()) {
+            types.add(providedType);
+            return types;
+        }
+        final Class<?>[] classTree = classTrees.get(providedType);
+        if (classTree == null) {
+            for (Class<?> type = providedType; type != null && type != Object.class; type = type.getSuperclass()) {
+                types.add(type);
+            }
+            return types;
+        }
+        for (final Class<?> type : classTree) {
+            if (!META_INTERFACES.contains(type)) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    /** @param key provided class type.
+     * @param provider will be assigned as a provider of the chosen class instances. */
+    protected void putProvider(final Class<?> key, final Provider<?> provider) {
+        final Provider<?> currentProvider = context.get(key);
+        if (currentProvider == null) { // Unique - setting as the default provider:
+            context.put(key, provider);
+        } else if (currentProvider instanceof ProviderManager<?>) { // Already ambiguous - adding another provider:
+            ((ProviderManager<?>) currentProvider).addProvider(provider);
+        } else {
+            @SuppressWarnings({ "rawtypes", "unchecked" }) // Ambiguous - switching to manager:
+            final ProviderManager<?> manager = new ProviderManager(new HashMap(), key, this);
+            // Registering existing providers:
+            manager.addProvider(currentProvider);
+            manager.addProvider(provider);
+            // Replacing current provider with the manager:
+            context.put(key, manager);
+        }
+    }
+
+    /** GWT has no class loaders: plugin classes are already a part of the reflection pool. Rescans the roots.
+     *
+     * @param classLoader ignored.
+     * @param roots will be rescanned. */
+    @Override
+    public void loadPlugin(final ClassLoader classLoader, final Class<?>... roots) {
+        rescan(roots);
+    }
+
+    /** GWT has no class loaders and components cannot be unloaded. Does nothing.
+     *
+     * @param classLoader ignored. */
+    @Override
+    public void unloadPlugin(final ClassLoader classLoader) {
+    }
+
+    @Override
+    public void remove(final Class<?> type) {
+        context.remove(type);
+    }
+
+    @Override
+    public <Type> void replace(final Class<Type> type, final Provider<? extends Type> provider) {
+        remove(type);
+        putProvider(type, provider);
+    }
+
+    @Override
+    protected void processFactory(final Object factory) {
+        final ReflectedComponent reflectedComponent = components.get(factory.getClass());
+        if (reflectedComponent == null) {
+            throw new RuntimeException("Unable to process factory: " + factory
+                    + ". Its class is not available in the reflection pool.");
+        }
+        processFactory(factory, reflectedComponent);
+    }
+
+    /** @param factory its public methods will be registered as providers.
+     * @param reflectedComponent generated data of the factory class.
+     * @see #isValidFactoryMethod(ReflectedMethod) */
+    protected void processFactory(final Object factory, final ReflectedComponent reflectedComponent) {
+        final ReflectedMethod[] methods = reflectedComponent.getMethods();
+        for (int index = 0, length = methods.length; index < length; index++) {
+            if (isValidFactoryMethod(methods[index])) {
+                processProvider(new ReflectedMethodProvider(this, factory, reflectedComponent, index));
+            }
+        }
+    }
+
+    /** @param method cannot return void, have a forbidden name or have any filtered modifiers.
+     * @return true if the method is valid and should be converted to a provider. */
+    protected boolean isValidFactoryMethod(final ReflectedMethod method) {
+        final int modifiers = method.getModifiers();
+        return (modifiers & getMethodsIgnoreFilter()) == 0 && modifiers != getMethodsIgnoreSignature()
+                && method.getReturnType() != void.class && method.getReturnType() != Void.class
+                && !FORBIDDEN_METHOD_NAMES.contains(method.getName());
+    }
+
+    @Override
+    public boolean isParameterAware() {
+        return false;
+    }
+
+    @Override
+    public void clear(final Class<?> classTree) {
+        for (final Class<?> type : getMappedTypes(classTree)) {
+            remove(type);
+        }
+    }
+
+    @Override
+    public void clear() {
+        context.clear();
+        scannedClasses.clear();
+        addCoreProviders();
+    }
+}
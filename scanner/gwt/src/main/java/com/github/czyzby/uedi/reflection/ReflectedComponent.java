@@ -0,0 +1,117 @@
+package com.github.czyzby.uedi.reflection;
+
+import java.lang.reflect.Member;
+import java.lang.reflect.Modifier;
+
+/** Compile-time data of a UEDI component class. Implementations are generated by the reflection pool generator and
+ * construct components, access their fields and invoke their factory methods with plain Java (or JSNI) code, as GWT
+ * does not support reflection. As a {@link Member}, represents the constructor of the component.
+ *
+ * @author MJ
+ * @see ReflectionPool#getReflectedComponents() */
+public abstract class ReflectedComponent implements Member {
+    /** Shared empty fields array. */
+    public static final ReflectedField[] NO_FIELDS = new ReflectedField[0];
+    /** Shared empty methods array. */
+    public static final ReflectedMethod[] NO_METHODS = new ReflectedMethod[0];
+
+    private final Class<?> type;
+    private final Class<?>[] mappedTypes;
+    private final Class<?>[] parameterTypes;
+    private final ReflectedField[] fields;
+    private final ReflectedMethod[] methods;
+
+    /** @param type class of the component.
+     * @param mappedTypes class tree of the component: the type itself, its super classes and all its interfaces.
+     * @param parameterTypes erased types of the constructor parameters.
+     * @param fields non-static, non-final, non-primitive fields of the component class and its super classes.
+     *            Fields of the component class come first.
+     * @param methods public non-static methods that might be converted to providers. Empty if the component is not
+     *            a factory. */
+    public ReflectedComponent(final Class<?> type, final Class<?>[] mappedTypes, final Class<?>[] parameterTypes,
+            final ReflectedField[] fields, final ReflectedMethod[] methods) {
+        this.type = type;
+        this.mappedTypes = mappedTypes;
+        this.parameterTypes = parameterTypes;
+        this.fields = fields;
+        this.methods = methods;
+    }
+
+    /** @return class of the component. */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /** @return class tree of the component: the type itself, its super classes and all its interfaces. Direct
+     *         reference. */
+    public Class<?>[] getMappedTypes() {
+        return mappedTypes;
+    }
+
+    /** @return erased types of the constructor parameters. Direct reference. */
+    public Class<?>[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    /** @return fields that might be injected. Indexes match {@link #get(Object, int)} and
+     *         {@link #set(Object, int, Object)}. Direct reference. */
+    public ReflectedField[] getFields() {
+        return fields;
+    }
+
+    /** @return factory methods. Indexes match {@link #invoke(Object, int, Object[])}. Direct reference. */
+    public ReflectedMethod[] getMethods() {
+        return methods;
+    }
+
+    /** @param arguments constructor parameters matching {@link #getParameterTypes()}.
+     * @return a new instance of the component.
+     * @throws Exception if thrown by the constructor. */
+    public abstract Object newInstance(Object[] arguments) throws Exception;
+
+    /** @param component instance of the component.
+     * @param index index of the field.
+     * @return current value of the field. */
+    public Object get(final Object component, final int index) {
+        throw new IndexOutOfBoundsException("Unknown field index: " + index);
+    }
+
+    /** @param component instance of the component.
+     * @param index index of the field.
+     * @param value will be assigned to the field. */
+    public void set(final Object component, final int index, final Object value) {
+        throw new IndexOutOfBoundsException("Unknown field index: " + index);
+    }
+
+    /** @param factory instance of the component.
+     * @param index index of the method.
+     * @param arguments method parameters.
+     * @return value returned by the method. Primitives are boxed.
+     * @throws Exception if thrown by the method. */
+    public Object invoke(final Object factory, final int index, final Object[] arguments) throws Exception {
+        throw new IndexOutOfBoundsException("Unknown method index: " + index);
+    }
+
+    /** @return component class. */
+    @Override
+    public Class<?> getDeclaringClass() {
+        return type;
+    }
+
+    /** @return name of the component class, as in constructor reflection data. */
+    @Override
+    public String getName() {
+        return type.getName();
+    }
+
+    /** @return always {@link Modifier#PUBLIC}: only public constructors are generated. */
+    @Override
+    public int getModifiers() {
+        return Modifier.PUBLIC;
+    }
+
+    @Override
+    public boolean isSynthetic() {
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.czyzby.uedi.reflection;
+
+import java.lang.reflect.Member;
+
+/** Compile-time data of a component field that might be injected. Generated by the reflection pool generator, as GWT
+ * does not support {@link java.lang.reflect.Field}. Can be passed to the context as the requesting member, so named
+ * dependencies are resolved the same way as with reflection.
+ *
+ * @author MJ
+ * @see ReflectedComponent */
+public class ReflectedField implements Member {
+    private final Class<?> declaringClass;
+    private final String name;
+    private final Class<?> type;
+    private final int modifiers;
+
+    /** @param declaringClass class that declares the field.
+     * @param name name of the field.
+     * @param type erased type of the field.
+     * @param modifiers Java language modifiers of the field. */
+    public ReflectedField(final Class<?> declaringClass, final String name, final Class<?> type,
+            final int modifiers) {
+        this.declaringClass = declaringClass;
+        this.name = name;
+        this.type = type;
+        this.modifiers = modifiers;
+    }
+
+    @Override
+    public Class<?> getDeclaringClass() {
+        return declaringClass;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /** @return erased type of the field. */
+    public Class<?> getType() {
+        return type;
+    }
+
+    @Override
+    public int getModifiers() {
+        return modifiers;
+    }
+
+    /** @return always {@code false}: synthetic fields are not generated. */
+    @Override
+    public boolean isSynthetic() {
+        return false;
+    }
+}
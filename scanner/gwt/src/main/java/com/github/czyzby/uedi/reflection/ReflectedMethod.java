@@ -0,0 +1,70 @@
+package com.github.czyzby.uedi.reflection;
+
+import java.lang.reflect.Member;
+
+/** Compile-time data of a public factory method. Generated by the reflection pool generator, as GWT does not support
+ * {@link java.lang.reflect.Method}.
+ *
+ * @author MJ
+ * @see ReflectedComponent */
+public class ReflectedMethod implements Member {
+    private final Class<?> declaringClass;
+    private final String name;
+    private final Class<?> returnType;
+    private final Class<?>[] mappedTypes;
+    private final Class<?>[] parameterTypes;
+    private final int modifiers;
+
+    /** @param declaringClass class that declares the method.
+     * @param name name of the method.
+     * @param returnType erased return type of the method.
+     * @param mappedTypes class tree of the return type: the type itself, its super classes and all its interfaces.
+     * @param parameterTypes erased types of the method parameters.
+     * @param modifiers Java language modifiers of the method. */
+    public ReflectedMethod(final Class<?> declaringClass, final String name, final Class<?> returnType,
+            final Class<?>[] mappedTypes, final Class<?>[] parameterTypes, final int modifiers) {
+        this.declaringClass = declaringClass;
+        this.name = name;
+        this.returnType = returnType;
+        this.mappedTypes = mappedTypes;
+        this.parameterTypes = parameterTypes;
+        this.modifiers = modifiers;
+    }
+
+    @Override
+    public Class<?> getDeclaringClass() {
+        return declaringClass;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /** @return erased return type of the method. */
+    public Class<?> getReturnType() {
+        return returnType;
+    }
+
+    /** @return class tree of the return type: the type itself, its super classes and all its interfaces. Direct
+     *         reference. */
+    public Class<?>[] getMappedTypes() {
+        return mappedTypes;
+    }
+
+    /** @return erased types of the method parameters. Direct reference. */
+    public Class<?>[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    @Override
+    public int getModifiers() {
+        return modifiers;
+    }
+
+    /** @return always {@code false}: synthetic methods are not generated. */
+    @Override
+    public boolean isSynthetic() {
+        return false;
+    }
+}
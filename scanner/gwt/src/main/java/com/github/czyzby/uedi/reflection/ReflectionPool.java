@@ -7,4 +7,8 @@ package com.github.czyzby.uedi.reflection;
 public interface ReflectionPool {
     /** @return all classes available in GWT reflection pool implementing one of UEDI scanned interfaces. */
     Class<?>[] getReflectedClasses();
+
+    /** @return generated data of all classes returned by {@link #getReflectedClasses()} that have a public
+     *         constructor. Allow to create and inject components without reflection. */
+    ReflectedComponent[] getReflectedComponents();
 }
\ No newline at end of file
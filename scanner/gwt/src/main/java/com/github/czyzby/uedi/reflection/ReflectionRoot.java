@@ -0,0 +1,23 @@
+package com.github.czyzby.uedi.reflection;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Marks an interface extending {@link ReflectionPool} as a separate pool limited to the chosen root packages. Classes
+ * in these packages are excluded from the default pool (and any other pool with a less specific root), so they are
+ * not loaded until the annotated pool is created. Create the pool with {@code GWT.create} inside a
+ * {@code GWT.runAsync} callback to place its components behind a code split point.
+ *
+ * @author MJ
+ * @see com.github.czyzby.uedi.impl.GwtContext#addReflectionPool(ReflectionPool) */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReflectionRoot {
+    /** @return names of root packages. All components in these packages (and their children) will be included in the
+     *         annotated pool. */
+    String[] value();
+}
@@ -0,0 +1,96 @@
+package com.github.czyzby.uedi.reflection.impl;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.TreeLogger.Type;
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.JMethod;
+import com.google.gwt.core.ext.typeinfo.JRealClassType;
+import com.google.gwt.core.ext.typeinfo.JType;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+
+/** Stored along with the generated reflection pool between compilations. Remembers modification times of all types
+ * that affect the generated code, allowing {@link ReflectionPoolGenerator} to reuse the cached pool if none of them
+ * changed.
+ *
+ * @author MJ */
+class CachedComponentInformation implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String configuration;
+    /** Modification times of all concrete classes in the root packages. Detects new and removed classes. */
+    private final Map<String, Long> candidates = new HashMap<String, Long>();
+    /** Modification times of component super types and factory methods return types. */
+    private final Map<String, Long> dependencies = new HashMap<String, Long>();
+
+    /** @param configuration describes root and excluded packages of the pool.
+     * @param candidates all concrete classes in the root packages.
+     * @param components classes implementing UEDI interfaces. */
+    CachedComponentInformation(final String configuration, final Collection<JClassType> candidates,
+            final Collection<JType> components) {
+        this.configuration = configuration;
+        for (final JClassType candidate : candidates) {
+            this.candidates.put(candidate.getQualifiedSourceName(), getLastModifiedTime(candidate));
+        }
+        for (final JType component : components) {
+            for (final JClassType superType : component.isClass().getFlattenedSupertypeHierarchy()) {
+                addDependency(superType);
+                for (final JMethod method : superType.getMethods()) {
+                    final JClassType returnType = method.getReturnType().getErasedType().isClassOrInterface();
+                    if (method.isPublic() && returnType != null) {
+                        for (final JClassType returnSuperType : returnType.getFlattenedSupertypeHierarchy()) {
+                            addDependency(returnSuperType);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void addDependency(final JClassType type) {
+        final JClassType erasedType = type.getErasedType();
+        dependencies.put(erasedType.getQualifiedSourceName(), getLastModifiedTime(erasedType));
+    }
+
+    /** @param type GWT type.
+     * @return last modification time of the type's compilation unit or 0 if unknown. */
+    static long getLastModifiedTime(final JType type) {
+        return type instanceof JRealClassType ? ((JRealClassType) type).getLastModifiedTime() : 0L;
+    }
+
+    /** @param currentConfiguration current root and excluded packages of the pool.
+     * @param currentCandidates all concrete classes currently available in the root packages.
+     * @param typeOracle current type oracle.
+     * @param logger used to report detected changes.
+     * @return true if no relevant types changed since the cached pool was generated. */
+    boolean isValid(final String currentConfiguration, final Collection<JClassType> currentCandidates,
+            final TypeOracle typeOracle, final TreeLogger logger) {
+        if (!configuration.equals(currentConfiguration)) {
+            logger.log(Type.TRACE, "UEDI: Root packages changed.");
+            return false;
+        } else if (candidates.size() != currentCandidates.size()) {
+            logger.log(Type.TRACE, "UEDI: Classes were added to or removed from the root package.");
+            return false;
+        }
+        for (final JClassType candidate : currentCandidates) {
+            final Long lastModifiedTime = candidates.get(candidate.getQualifiedSourceName());
+            if (lastModifiedTime == null || lastModifiedTime.longValue() != getLastModifiedTime(candidate)) {
+                logger.log(Type.TRACE, "UEDI: A change was detected in type " + candidate.getQualifiedSourceName());
+                return false;
+            }
+        }
+        for (final Entry<String, Long> dependency : dependencies.entrySet()) {
+            final JClassType type = typeOracle.findType(dependency.getKey());
+            if (type == null || dependency.getValue().longValue() != getLastModifiedTime(type)) {
+                logger.log(Type.TRACE, "UEDI: A change was detected in type " + dependency.getKey());
+                return false;
+            }
+        }
+        return true;
+    }
+}
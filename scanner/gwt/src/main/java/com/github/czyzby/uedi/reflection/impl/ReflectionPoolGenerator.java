@@ -1,38 +1,79 @@
 package com.github.czyzby.uedi.reflection.impl;
 
 import java.io.PrintWriter;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
+import com.github.czyzby.uedi.reflection.ReflectedComponent;
+import com.github.czyzby.uedi.reflection.ReflectedField;
+import com.github.czyzby.uedi.reflection.ReflectedMethod;
 import com.github.czyzby.uedi.reflection.ReflectionPool;
+import com.github.czyzby.uedi.reflection.ReflectionRoot;
 import com.github.czyzby.uedi.stereotype.Factory;
 import com.github.czyzby.uedi.stereotype.Property;
 import com.github.czyzby.uedi.stereotype.Provider;
 import com.github.czyzby.uedi.stereotype.Singleton;
-import com.google.gwt.core.ext.Generator;
+import com.google.gwt.core.ext.CachedGeneratorResult;
 import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.IncrementalGenerator;
+import com.google.gwt.core.ext.RebindMode;
+import com.google.gwt.core.ext.RebindResult;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.TreeLogger.Type;
 import com.google.gwt.core.ext.UnableToCompleteException;
 import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.JConstructor;
+import com.google.gwt.core.ext.typeinfo.JField;
+import com.google.gwt.core.ext.typeinfo.JMethod;
 import com.google.gwt.core.ext.typeinfo.JPackage;
+import com.google.gwt.core.ext.typeinfo.JPrimitiveType;
 import com.google.gwt.core.ext.typeinfo.JType;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
 import com.google.gwt.user.rebind.ClassSourceFileComposerFactory;
 import com.google.gwt.user.rebind.SourceWriter;
 
 /** Generates {@link com.github.czyzby.uedi.reflection.ReflectionPool} instance, aware of all GWT classes implementing
- * UEDI interfaces.
+ * UEDI interfaces. Also generates a {@link ReflectedComponent} for each component class with a public constructor,
+ * allowing {@link com.github.czyzby.uedi.impl.GwtContext} to create and inject components without reflection.
+ *
+ * <p>
+ * The generator is incremental: types outside of the 'uedi.root' package are never inspected and the generated pool
+ * is reused between compilations (for example, on GWT dev mode refresh) if no relevant types were added, removed or
+ * modified.
+ *
+ * <p>
+ * Interfaces extending {@link ReflectionPool} annotated with {@link ReflectionRoot} are generated as separate pools
+ * containing only the components from the chosen roots. These components are excluded from pools with less specific
+ * roots, so they can be placed behind code split points.
  *
  * @author MJ */
-public class ReflectionPoolGenerator extends Generator {
+public class ReflectionPoolGenerator extends IncrementalGenerator {
     private static final String UEDI_ROOT_PROPERTY = "uedi.root";
     private static final String GENERATED_CLASS_PREFIX = "Generated";
+    private static final String CACHED_COMPONENTS_KEY = "uedi.components";
+    /** Should be increased each time the generated code changes. */
+    private static final long VERSION_ID = 3L;
+
+    @Override
+    public long getVersionId() {
+        return VERSION_ID;
+    }
 
     @Override
     @SuppressWarnings("resource")
-    public String generate(final TreeLogger logger, final GeneratorContext context, final String typeName)
-            throws UnableToCompleteException {
+    public RebindResult generateIncrementally(final TreeLogger logger, final GeneratorContext context,
+            final String typeName) throws UnableToCompleteException {
         final TypeOracle oracle = context.getTypeOracle();
         assert oracle != null;
         final JClassType type = oracle.findType(typeName);
@@ -42,22 +83,53 @@ public class ReflectionPoolGenerator extends Generator {
         }
 
         final String packageName = type.getPackage().getName();
-        final String generatedClassName = GENERATED_CLASS_PREFIX + type.getSimpleSourceName();
+        final String generatedClassName = GENERATED_CLASS_PREFIX + type.getName().replace('.', '_');
+        final String qualifiedName = getQualifiedGeneratedClassName(packageName, generatedClassName);
+        final List<String> rootPackages = getRootPackages(type, context, logger);
+        final List<String> excludedPackages = getExcludedPackages(type, rootPackages, oracle);
+        final List<JClassType> candidates = findCandidateTypes(oracle, rootPackages, excludedPackages);
+        final String configuration = rootPackages + " excluding " + excludedPackages;
+        if (isCachedResultValid(context, configuration, candidates, logger)) {
+            logger.log(Type.TRACE, "UEDI: No relevant changes detected. Reusing cached reflection pool.");
+            return new RebindResult(RebindMode.USE_ALL_CACHED, qualifiedName);
+        }
+
         final ClassSourceFileComposerFactory composer = new ClassSourceFileComposerFactory(packageName,
                 generatedClassName);
-        composer.addImplementedInterface(ReflectionPool.class.getCanonicalName());
+        composer.addImplementedInterface(type.getQualifiedSourceName());
+        composer.addImport(ReflectedComponent.class.getCanonicalName());
+        composer.addImport(ReflectedField.class.getCanonicalName());
+        composer.addImport(ReflectedMethod.class.getCanonicalName());
 
         final PrintWriter printWriter = context.tryCreate(logger, packageName, generatedClassName);
         if (printWriter == null) {
-            return getQualifiedGeneratedClassName(packageName, generatedClassName);
+            return new RebindResult(RebindMode.USE_EXISTING, qualifiedName);
         }
 
         final SourceWriter sourceWriter = composer.createSourceWriter(context, printWriter);
-        final Set<JType> reflectedClasses = findReflectedClasses(context, oracle, logger);
+        final Set<JType> reflectedClasses = filter(candidates, getUediInterfaces(oracle, logger));
         appendClassBody(sourceWriter, reflectedClasses, logger);
 
         sourceWriter.commit(logger);
-        return getQualifiedGeneratedClassName(packageName, generatedClassName);
+        if (!context.isGeneratorResultCachingEnabled()) {
+            return new RebindResult(RebindMode.USE_ALL_NEW_WITH_NO_CACHING, qualifiedName);
+        }
+        final RebindResult result = new RebindResult(RebindMode.USE_ALL_NEW, qualifiedName);
+        result.putClientData(CACHED_COMPONENTS_KEY,
+                new CachedComponentInformation(configuration, candidates, reflectedClasses));
+        return result;
+    }
+
+    /** @return true if the cached reflection pool is available and none of the relevant types changed. */
+    private static boolean isCachedResultValid(final GeneratorContext context, final String configuration,
+            final List<JClassType> candidates, final TreeLogger logger) {
+        final CachedGeneratorResult cachedResult = context.getCachedGeneratorResult();
+        if (cachedResult == null || !context.isGeneratorResultCachingEnabled()) {
+            return false;
+        }
+        final Object cachedComponents = cachedResult.getClientData(CACHED_COMPONENTS_KEY);
+        return cachedComponents instanceof CachedComponentInformation && ((CachedComponentInformation) cachedComponents)
+                .isValid(configuration, candidates, context.getTypeOracle(), logger);
     }
 
     private static String getQualifiedGeneratedClassName(final String packageName, final String generatedClassName) {
@@ -73,31 +145,461 @@ public class ReflectionPoolGenerator extends Generator {
             sourceWriter.print(reflectedClass.getQualifiedSourceName() + ".class, ");
         }
         sourceWriter.println(" };");
+        sourceWriter.println("private static ReflectedComponent[] components;");
         sourceWriter.println("@Override public Class<?>[] getReflectedClasses() { return POOL; } ");
+        appendComponents(sourceWriter, reflectedClasses, logger);
+    }
+
+    /** Generates a {@link ReflectedComponent} implementation for each component class with a public constructor.
+     * Components are constructed and have their public fields assigned with plain Java code. Non-public fields are
+     * accessed with JSNI methods. Factory methods are invoked directly. */
+    private static void appendComponents(final SourceWriter sourceWriter, final Set<JType> reflectedClasses,
+            final TreeLogger logger) {
+        final List<String> componentMethods = new ArrayList<String>();
+        final StringBuilder nativeMethods = new StringBuilder();
+        for (final JType reflectedClass : reflectedClasses) {
+            final JClassType classType = reflectedClass.isClass();
+            final JConstructor constructor = getConstructor(classType, logger);
+            if (constructor == null) {
+                continue;
+            }
+            final String methodName = "component" + componentMethods.size();
+            componentMethods.add(methodName);
+            appendComponent(sourceWriter, nativeMethods, methodName, classType, constructor, logger);
+        }
+        sourceWriter.println("@Override public ReflectedComponent[] getReflectedComponents() {");
+        sourceWriter.indent();
+        sourceWriter.println("if (components == null) {");
+        sourceWriter.indentln("components = new ReflectedComponent[] { " + join(componentMethods, "(), ")
+                + (componentMethods.isEmpty() ? "" : "()") + " };");
+        sourceWriter.println("}");
+        sourceWriter.println("return components;");
+        sourceWriter.outdent();
+        sourceWriter.println("}");
+        sourceWriter.print(nativeMethods.toString());
+    }
+
+    /** @return first public constructor of the class or null if the class cannot be constructed by generated code. */
+    private static JConstructor getConstructor(final JClassType classType, final TreeLogger logger) {
+        if (!isVisible(classType)) {
+            logger.log(Type.WARN, "UEDI: " + classType.getQualifiedSourceName()
+                    + " is not a public top-level or static nested class. It will not be available in GwtContext.");
+            return null;
+        }
+        for (final JConstructor constructor : classType.getConstructors()) {
+            if (constructor.isPublic()) {
+                for (final JType parameterType : constructor.getParameterTypes()) {
+                    if (!isVisible(parameterType)) {
+                        logger.log(Type.WARN, "UEDI: Constructor of " + classType.getQualifiedSourceName()
+                                + " uses non-public types. It will not be available in GwtContext.");
+                        return null;
+                    }
+                }
+                return constructor;
+            }
+        }
+        logger.log(Type.WARN, "UEDI: " + classType.getQualifiedSourceName()
+                + " has no public constructor. It will not be available in GwtContext.");
+        return null;
+    }
+
+    private static void appendComponent(final SourceWriter sourceWriter, final StringBuilder nativeMethods,
+            final String methodName, final JClassType classType, final JConstructor constructor,
+            final TreeLogger logger) {
+        final String typeName = classType.getQualifiedSourceName();
+        final List<JField> fields = getInjectableFields(classType, logger);
+        final List<JMethod> methods = isFactory(classType) ? getFactoryMethods(classType, logger)
+                : new ArrayList<JMethod>();
+
+        sourceWriter.println("private static ReflectedComponent " + methodName + "() {");
+        sourceWriter.indent();
+        sourceWriter.println("return new ReflectedComponent(" + typeName + ".class, " + getClassTree(classType) + ", "
+                + getClassArray(constructor.getParameterTypes()) + ",");
+        sourceWriter.indent();
+        if (fields.isEmpty()) {
+            sourceWriter.println("ReflectedComponent.NO_FIELDS,");
+        } else {
+            sourceWriter.println("new ReflectedField[] {");
+            for (final JField field : fields) {
+                sourceWriter.indentln("new ReflectedField(" + getDeclaringClass(field.getEnclosingType(), classType)
+                        + ".class, \"" + field.getName() + "\", " + getErasedName(field.getType()) + ".class, "
+                        + getModifiers(field) + "),");
+            }
+            sourceWriter.println("},");
+        }
+        if (methods.isEmpty()) {
+            sourceWriter.println("ReflectedComponent.NO_METHODS) {");
+        } else {
+            sourceWriter.println("new ReflectedMethod[] {");
+            for (final JMethod method : methods) {
+                final JType returnType = method.getReturnType();
+                final JClassType returnClass = returnType.getErasedType().isClassOrInterface();
+                sourceWriter.indentln("new ReflectedMethod(" + getDeclaringClass(method.getEnclosingType(), classType)
+                        + ".class, \"" + method.getName() + "\", " + getErasedName(returnType) + ".class, "
+                        + (returnClass == null ? getClassArray(returnType) : getClassTree(returnClass)) + ", "
+                        + getClassArray(method.getParameterTypes()) + ", " + getModifiers(method) + "),");
+            }
+            sourceWriter.println("}) {");
+        }
+
+        sourceWriter.println("@Override public Object newInstance(final Object[] arguments) throws Exception {");
+        sourceWriter.indentln("return new " + typeName + "(" + getArguments(constructor.getParameterTypes()) + ");");
+        sourceWriter.println("}");
+        if (!fields.isEmpty()) {
+            appendFieldAccess(sourceWriter, nativeMethods, methodName, typeName, fields);
+        }
+        if (!methods.isEmpty()) {
+            sourceWriter.println("@Override public Object invoke(final Object factory, final int index, "
+                    + "final Object[] arguments) throws Exception {");
+            final List<String> invocations = new ArrayList<String>();
+            for (int index = 0; index < methods.size(); index++) {
+                final JMethod method = methods.get(index);
+                invocations.add("case " + index + ": return ((" + typeName + ") factory)." + method.getName() + "("
+                        + getArguments(method.getParameterTypes()) + ");");
+            }
+            invocations.add("default: return super.invoke(factory, index, arguments);");
+            appendSwitch(sourceWriter, invocations);
+        }
+        sourceWriter.outdent();
+        sourceWriter.println("};");
+        sourceWriter.outdent();
+        sourceWriter.println("}");
+    }
+
+    private static void appendFieldAccess(final SourceWriter sourceWriter, final StringBuilder nativeMethods,
+            final String methodName, final String typeName, final List<JField> fields) {
+        final List<String> getters = new ArrayList<String>();
+        final List<String> setters = new ArrayList<String>();
+        for (int index = 0; index < fields.size(); index++) {
+            final JField field = fields.get(index);
+            if (field.isPublic() && isVisible(field.getEnclosingType())) {
+                final String reference = "((" + field.getEnclosingType().getQualifiedSourceName() + ") component)."
+                        + field.getName();
+                getters.add("case " + index + ": return " + reference + ";");
+                setters.add("case " + index + ": " + reference + " = (" + getErasedName(field.getType())
+                        + ") value; return;");
+            } else { // Field is not accessible to Java code - using JSNI:
+                final String accessor = Character.toUpperCase(methodName.charAt(0)) + methodName.substring(1)
+                        + "Field" + index;
+                final String reference = "component.@" + field.getEnclosingType().getQualifiedSourceName() + "::"
+                        + field.getName();
+                getters.add("case " + index + ": return get" + accessor + "(component);");
+                setters.add("case " + index + ": set" + accessor + "(component, value); return;");
+                nativeMethods.append("private static native Object get").append(accessor)
+                        .append("(Object component) /*-{ return ").append(reference).append("; }-*/;\n");
+                nativeMethods.append("private static native void set").append(accessor)
+                        .append("(Object component, Object value) /*-{ ").append(reference)
+                        .append(" = value; }-*/;\n");
+            }
+        }
+        getters.add("default: return super.get(component, index);");
+        setters.add("default: super.set(component, index, value);");
+        sourceWriter.println("@Override public Object get(final Object component, final int index) {");
+        appendSwitch(sourceWriter, getters);
+        sourceWriter.println(
+                "@Override public void set(final Object component, final int index, final Object value) {");
+        appendSwitch(sourceWriter, setters);
+    }
+
+    /** Appends a switch statement with the passed cases and closes the method. */
+    private static void appendSwitch(final SourceWriter sourceWriter, final List<String> cases) {
+        sourceWriter.indent();
+        sourceWriter.println("switch (index) {");
+        for (final String switchCase : cases) {
+            sourceWriter.indentln(switchCase);
+        }
+        sourceWriter.println("}");
+        sourceWriter.outdent();
+        sourceWriter.println("}");
+    }
+
+    /** @return non-static, non-final, non-primitive fields of the class and its super classes. Fields of the class
+     *         come first. */
+    private static List<JField> getInjectableFields(final JClassType classType, final TreeLogger logger) {
+        final List<JField> fields = new ArrayList<JField>();
+        for (JClassType processed = classType; processed != null
+                && !Object.class.getName().equals(processed.getQualifiedSourceName()); processed = processed
+                        .getSuperclass()) {
+            for (final JField field : processed.getFields()) {
+                if (field.isStatic() || field.isFinal() || field.getType().isPrimitive() != null) {
+                    continue;
+                }
+                if (isVisible(field.getType())) {
+                    fields.add(field);
+                } else {
+                    logger.log(Type.WARN, "UEDI: Field '" + field.getName() + "' of "
+                            + processed.getQualifiedSourceName() + " has a non-public type. It will not be injected.");
+                }
+            }
+        }
+        return fields;
+    }
+
+    /** @return public, non-static, non-abstract methods of the class and its super classes returning a value. */
+    private static List<JMethod> getFactoryMethods(final JClassType classType, final TreeLogger logger) {
+        final List<JMethod> methods = new ArrayList<JMethod>();
+        final Set<String> signatures = new HashSet<String>();
+        for (JClassType processed = classType; processed != null
+                && !Object.class.getName().equals(processed.getQualifiedSourceName()); processed = processed
+                        .getSuperclass()) {
+            for (final JMethod method : processed.getMethods()) {
+                if (!method.isPublic() || method.isStatic() || method.isAbstract()
+                        || method.getReturnType() == JPrimitiveType.VOID
+                        || !signatures.add(method.getName() + getClassArray(method.getParameterTypes()))) {
+                    continue;
+                }
+                if (isVisible(method.getReturnType()) && areVisible(method.getParameterTypes())) {
+                    methods.add(method);
+                } else {
+                    logger.log(Type.WARN, "UEDI: Method '" + method.getName() + "' of "
+                            + processed.getQualifiedSourceName() + " uses non-public types. It will be ignored.");
+                }
+            }
+        }
+        return methods;
+    }
+
+    private static boolean isFactory(final JClassType classType) {
+        for (final JClassType superType : classType.getFlattenedSupertypeHierarchy()) {
+            if (Factory.class.getName().equals(superType.getQualifiedSourceName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return true if the type can be referenced by the generated code. */
+    private static boolean isVisible(final JType type) {
+        if (type.isPrimitive() != null) {
+            return true;
+        } else if (type.isArray() != null) {
+            return isVisible(type.isArray().getComponentType());
+        }
+        final JClassType classType = type.getErasedType().isClassOrInterface();
+        if (classType == null || !classType.isPublic()) {
+            return false;
+        }
+        return !classType.isMemberType() || classType.isStatic() && isVisible(classType.getEnclosingType());
+    }
+
+    private static boolean areVisible(final JType[] types) {
+        for (final JType type : types) {
+            if (!isVisible(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return class of the member or the component class if the declaring class cannot be referenced. */
+    private static String getDeclaringClass(final JClassType declaringClass, final JClassType componentClass) {
+        return (isVisible(declaringClass) ? declaringClass : componentClass).getQualifiedSourceName();
+    }
+
+    private static String getErasedName(final JType type) {
+        return type.getErasedType().getQualifiedSourceName();
+    }
+
+    /** @return class array literal containing the class, its super classes and all its interfaces. */
+    private static String getClassTree(final JClassType classType) {
+        final Set<String> types = new LinkedHashSet<String>();
+        types.add(getErasedName(classType));
+        for (final JClassType superType : classType.getFlattenedSupertypeHierarchy()) {
+            final String typeName = getErasedName(superType);
+            if (isVisible(superType) && !Object.class.getName().equals(typeName)) {
+                types.add(typeName);
+            }
+        }
+        final StringBuilder builder = new StringBuilder("new Class<?>[] { ");
+        for (final String type : types) {
+            builder.append(type).append(".class, ");
+        }
+        return builder.append('}').toString();
+    }
+
+    /** @return class array literal containing the erased types. */
+    private static String getClassArray(final JType... types) {
+        final StringBuilder builder = new StringBuilder("new Class<?>[] { ");
+        for (final JType type : types) {
+            builder.append(getErasedName(type)).append(".class, ");
+        }
+        return builder.append('}').toString();
+    }
+
+    /** @return arguments array elements cast to the parameter types, separated with commas. */
+    private static String getArguments(final JType[] parameterTypes) {
+        final List<String> arguments = new ArrayList<String>();
+        for (int index = 0; index < parameterTypes.length; index++) {
+            final JPrimitiveType primitive = parameterTypes[index].isPrimitive();
+            final String typeName = primitive == null ? getErasedName(parameterTypes[index])
+                    : primitive.getQualifiedBoxedSourceName();
+            arguments.add("(" + typeName + ") arguments[" + index + "]");
+        }
+        return join(arguments, ", ");
+    }
+
+    private static int getModifiers(final JField field) {
+        int modifiers = getAccessModifier(field.isPublic(), field.isProtected(), field.isPrivate());
+        if (field.isTransient()) {
+            modifiers |= Modifier.TRANSIENT;
+        }
+        if (field.isVolatile()) {
+            modifiers |= Modifier.VOLATILE;
+        }
+        return modifiers;
     }
 
+    private static int getModifiers(final JMethod method) {
+        int modifiers = getAccessModifier(method.isPublic(), method.isProtected(), method.isPrivate());
+        if (method.isFinal()) {
+            modifiers |= Modifier.FINAL;
+        }
+        if (method.isNative()) {
+            modifiers |= Modifier.NATIVE;
+        }
+        return modifiers;
+    }
+
+    private static int getAccessModifier(final boolean isPublic, final boolean isProtected,
+            final boolean isPrivate) {
+        return isPublic ? Modifier.PUBLIC : isProtected ? Modifier.PROTECTED : isPrivate ? Modifier.PRIVATE : 0;
+    }
+
+    private static String join(final List<String> values, final String separator) {
+        final StringBuilder builder = new StringBuilder();
+        for (final String value : values) {
+            if (builder.length() > 0) {
+                builder.append(separator);
+            }
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+
+    /** @param context generator context.
+     * @param typeOracle contains all available types.
+     * @param logger used to report errors.
+     * @return all concrete classes in the root package implementing UEDI interfaces.
+     * @throws UnableToCompleteException if UEDI interfaces are not available. */
     protected Set<JType> findReflectedClasses(final GeneratorContext context, final TypeOracle typeOracle,
             final TreeLogger logger) throws UnableToCompleteException {
-        final Set<JType> types = new HashSet<JType>();
-        final Set<String> uediInterfaceNames = getUediInterfaceNames();
-        final Set<JClassType> uediInterfaces = new HashSet<JClassType>();
-        final String rootPackage = getRootPackage(context, logger);
+        return filter(findCandidateTypes(typeOracle, getRootPackage(context, logger)),
+                getUediInterfaces(typeOracle, logger));
+    }
+
+    /** @param poolType requested {@link ReflectionPool} type.
+     * @param context generator context.
+     * @param logger used to report warnings.
+     * @return packages declared by {@link ReflectionRoot} annotation of the pool type or the value of 'uedi.root'
+     *         property if the pool is not annotated. */
+    protected List<String> getRootPackages(final JClassType poolType, final GeneratorContext context,
+            final TreeLogger logger) {
+        final ReflectionRoot reflectionRoot = poolType.getAnnotation(ReflectionRoot.class);
+        if (reflectionRoot == null || reflectionRoot.value().length == 0) {
+            return Collections.singletonList(getRootPackage(context, logger));
+        }
+        return Arrays.asList(reflectionRoot.value());
+    }
+
+    /** @param poolType requested {@link ReflectionPool} type.
+     * @param rootPackages root packages of the pool.
+     * @param typeOracle contains all available types.
+     * @return root packages of other {@link ReflectionRoot}-annotated pools that are nested in the pool's roots. Their
+     *         components are not included in the pool, so they can be loaded separately. Sorted. */
+    protected List<String> getExcludedPackages(final JClassType poolType, final List<String> rootPackages,
+            final TypeOracle typeOracle) {
+        final Set<String> excludedPackages = new TreeSet<String>();
+        final JClassType reflectionPool = typeOracle.findType(ReflectionPool.class.getName());
+        for (final JClassType pool : reflectionPool.getSubtypes()) {
+            final ReflectionRoot reflectionRoot = pool.getAnnotation(ReflectionRoot.class);
+            if (reflectionRoot == null || pool.getQualifiedSourceName().equals(poolType.getQualifiedSourceName())) {
+                continue;
+            }
+            for (final String splitRoot : reflectionRoot.value()) {
+                for (final String rootPackage : rootPackages) {
+                    if (splitRoot.startsWith(rootPackage) && splitRoot.length() > rootPackage.length()) {
+                        excludedPackages.add(splitRoot);
+                    }
+                }
+            }
+        }
+        return new ArrayList<String>(excludedPackages);
+    }
 
+    /** @param typeOracle contains all available types.
+     * @param rootPackage only types in this package (and its children) are included. Packages outside of the root are
+     *            skipped without inspecting their types.
+     * @return concrete classes in the root package, sorted by their names. */
+    protected List<JClassType> findCandidateTypes(final TypeOracle typeOracle, final String rootPackage) {
+        return findCandidateTypes(typeOracle, Collections.singletonList(rootPackage),
+                Collections.<String> emptyList());
+    }
+
+    /** @param typeOracle contains all available types.
+     * @param rootPackages only types in these packages (and their children) are included. Packages outside of the
+     *            roots are skipped without inspecting their types.
+     * @param excludedPackages types in these packages are not included, even if they are in one of the roots.
+     * @return concrete classes in the root packages, sorted by their names. */
+    protected List<JClassType> findCandidateTypes(final TypeOracle typeOracle, final List<String> rootPackages,
+            final List<String> excludedPackages) {
+        final List<JClassType> types = new ArrayList<JClassType>();
         for (final JPackage jPackage : typeOracle.getPackages()) {
+            final String packageName = jPackage.getName();
+            if (!isInAnyRoot(packageName, rootPackages)) {
+                continue;
+            }
             for (final JClassType jType : jPackage.getTypes()) {
-                if (uediInterfaceNames.contains(jType.getQualifiedSourceName())) {
-                    uediInterfaces.add(jType);
-                } else if (jType.isClass() != null && jType.isInterface() == null && !jType.isClass().isAbstract()
-                        && jType.getQualifiedSourceName().startsWith(rootPackage)) {
+                final String typeName = jType.getQualifiedSourceName();
+                if (jType.isClass() != null && jType.isInterface() == null && !jType.isClass().isAbstract()
+                        && startsWithAny(typeName, rootPackages) && !startsWithAny(typeName, excludedPackages)) {
                     types.add(jType);
                 }
             }
         }
-        if (uediInterfaces.size() < uediInterfaceNames.size()) {
-            logger.log(Type.ERROR, "UEDIT: Unable to find UEDI interfaces in classpath. Aborting.");
-            throw new UnableToCompleteException();
+        Collections.sort(types, new Comparator<JClassType>() {
+            @Override
+            public int compare(final JClassType type, final JClassType otherType) {
+                return type.getQualifiedSourceName().compareTo(otherType.getQualifiedSourceName());
+            }
+        });
+        return types;
+    }
+
+    /** @return true if the package might contain types from any of the roots. */
+    private static boolean isInAnyRoot(final String packageName, final List<String> rootPackages) {
+        for (final String rootPackage : rootPackages) {
+            if (packageName.startsWith(rootPackage) || rootPackage.startsWith(packageName + ".")) {
+                return true;
+            }
         }
-        return filter(types, uediInterfaces);
+        return false;
+    }
+
+    private static boolean startsWithAny(final String typeName, final List<String> prefixes) {
+        for (final String prefix : prefixes) {
+            if (typeName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @param typeOracle contains all available types.
+     * @param logger used to report errors.
+     * @return UEDI interfaces that mark components.
+     * @throws UnableToCompleteException if the interfaces are not available. */
+    protected Set<JClassType> getUediInterfaces(final TypeOracle typeOracle, final TreeLogger logger)
+            throws UnableToCompleteException {
+        final Set<JClassType> uediInterfaces = new HashSet<JClassType>();
+        for (final String interfaceName : getUediInterfaceNames()) {
+            final JClassType uediInterface = typeOracle.findType(interfaceName);
+            if (uediInterface == null) {
+                logger.log(Type.ERROR, "UEDI: Unable to find UEDI interfaces in classpath. Aborting.");
+                throw new UnableToCompleteException();
+            }
+            uediInterfaces.add(uediInterface);
+        }
+        return uediInterfaces;
     }
 
     protected Set<String> getUediInterfaceNames() {
@@ -124,21 +626,46 @@ public class ReflectionPoolGenerator extends Generator {
         }
     }
 
-    protected boolean isAssignableFromAny(final Set<JClassType> uediInterfaces, final JClassType classType) {
-        for (final JClassType uediInterface : uediInterfaces) {
-            if (classType.isAssignableTo(uediInterface)) {
-                return true;
+    /** @param classType will be checked.
+     * @param uediInterfaceNames names of UEDI interfaces that mark components.
+     * @param results caches results of already checked types (mapped by their names), so each type of a shared
+     *            hierarchy is inspected once.
+     * @return true if the type implements any of the UEDI interfaces. */
+    protected boolean isComponent(final JClassType classType, final Set<String> uediInterfaceNames,
+            final Map<String, Boolean> results) {
+        final String typeName = classType.getQualifiedSourceName();
+        final Boolean cachedResult = results.get(typeName);
+        if (cachedResult != null) {
+            return cachedResult.booleanValue();
+        }
+        boolean isComponent = uediInterfaceNames.contains(typeName);
+        final JClassType superclass = classType.getSuperclass();
+        if (!isComponent && superclass != null) {
+            isComponent = isComponent(superclass, uediInterfaceNames, results);
+        }
+        for (final JClassType implemented : classType.getImplementedInterfaces()) {
+            if (isComponent) {
+                break;
             }
+            isComponent = isComponent(implemented, uediInterfaceNames, results);
         }
-        return false;
+        results.put(typeName, Boolean.valueOf(isComponent));
+        return isComponent;
     }
 
-    protected Set<JType> filter(final Set<JType> types, final Set<JClassType> uediInterfaces) {
-        final Set<JType> filteredTypes = new HashSet<JType>();
-        for (JType jType : types) {
-            jType = jType.getErasedType();
-            final JClassType classType = jType.isClass();
-            if (isAssignableFromAny(uediInterfaces, classType)) {
+    /** @param types concrete classes.
+     * @param uediInterfaces UEDI interfaces that mark components.
+     * @return erased classes implementing any of the UEDI interfaces, in the original order. */
+    protected Set<JType> filter(final Collection<JClassType> types, final Set<JClassType> uediInterfaces) {
+        final Set<String> uediInterfaceNames = new HashSet<String>();
+        for (final JClassType uediInterface : uediInterfaces) {
+            uediInterfaceNames.add(uediInterface.getQualifiedSourceName());
+        }
+        final Set<JType> filteredTypes = new LinkedHashSet<JType>();
+        final Map<String, Boolean> results = new HashMap<String, Boolean>();
+        for (final JClassType type : types) {
+            final JClassType classType = type.getErasedType();
+            if (isComponent(classType, uediInterfaceNames, results)) {
                 filteredTypes.add(classType);
             }
         }
@@ -4,25 +4,75 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.github.czyzby.uedi.reflection.ReflectionPool;
+import com.github.czyzby.uedi.reflection.ReflectionRoot;
 import com.github.czyzby.uedi.scanner.ClassScanner;
 import com.google.gwt.core.client.GWT;
 
-/** Scans classes implementing UEDI interfaces that were registered for GWT reflection.
+/** Scans classes implementing UEDI interfaces that were registered for GWT reflection. By default, only the main
+ * {@link ReflectionPool} is used; pools of code-split packages annotated with {@link ReflectionRoot} can be added with
+ * {@link #addReflectionPool(ReflectionPool)} once they are loaded.
  *
  * @author MJ */
 public class GwtClassScanner implements ClassScanner {
     private static final ReflectionPool REFLECTION_POOL = GWT.create(ReflectionPool.class);
+    private final List<ReflectionPool> reflectionPools = new ArrayList<ReflectionPool>();
+
+    public GwtClassScanner() {
+        reflectionPools.add(REFLECTION_POOL);
+    }
+
+    /** @return generated pool of all UEDI components available in the application, excluding components in packages
+     *         of pools annotated with {@link ReflectionRoot}. */
+    public static ReflectionPool getReflectionPool() {
+        return REFLECTION_POOL;
+    }
+
+    /** @param reflectionPool generated pool of components. Usually created with {@code GWT.create} inside a
+     *            {@code GWT.runAsync} callback. Its classes will be included in the following scans. Adding the same
+     *            pool multiple times has no effect. */
+    public void addReflectionPool(final ReflectionPool reflectionPool) {
+        if (!reflectionPools.contains(reflectionPool)) {
+            reflectionPools.add(reflectionPool);
+        }
+    }
 
     @Override
     public Iterable<Class<?>> getClassesImplementing(final Class<?> root, final Class<?>... interfaces) {
-        // Classes in the reflection pool are already filtered. Just need to check the package.
+        // Classes in the reflection pools are already filtered. Just need to check the package.
         final List<Class<?>> result = new ArrayList<Class<?>>();
         final String packageName = root.getName().substring(0,
                 root.getName().length() - root.getSimpleName().length() - 1);
-        for (final Class<?> type : REFLECTION_POOL.getReflectedClasses()) {
-            final String className = type.getName();
-            if (className != null && className.startsWith(packageName)) {
-                result.add(type);
+        for (final ReflectionPool reflectionPool : reflectionPools) {
+            for (final Class<?> type : reflectionPool.getReflectedClasses()) {
+                final String className = type.getName();
+                if (className != null && className.startsWith(packageName)) {
+                    result.add(type);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterable<Class<?>> getClassesImplementing(final Class<?>[] roots, final Class<?>... interfaces) {
+        final List<Class<?>> result = new ArrayList<Class<?>>();
+        final String[] packageNames = new String[roots.length];
+        for (int index = 0; index < roots.length; index++) {
+            final Class<?> root = roots[index];
+            packageNames[index] = root.getName().substring(0,
+                    root.getName().length() - root.getSimpleName().length() - 1);
+        }
+        for (final ReflectionPool reflectionPool : reflectionPools) {
+            for (final Class<?> type : reflectionPool.getReflectedClasses()) {
+                final String className = type.getName();
+                if (className != null) {
+                    for (final String packageName : packageNames) {
+                        if (className.startsWith(packageName)) {
+                            result.add(type);
+                            break;
+                        }
+                    }
+                }
             }
         }
         return result;
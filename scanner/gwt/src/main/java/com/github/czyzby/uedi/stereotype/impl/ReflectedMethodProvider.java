@@ -0,0 +1,89 @@
+package com.github.czyzby.uedi.stereotype.impl;
+
+import java.lang.reflect.Member;
+
+import com.github.czyzby.uedi.Context;
+import com.github.czyzby.uedi.reflection.ReflectedComponent;
+import com.github.czyzby.uedi.reflection.ReflectedMethod;
+import com.github.czyzby.uedi.stereotype.Default;
+import com.github.czyzby.uedi.stereotype.Named;
+
+/** Wraps around a factory method invoked by a generated {@link ReflectedComponent}, converting it into a provider.
+ * Works like {@link ReflectionProvider}, but does not require reflection API, so it can be used on GWT.
+ *
+ * @author MJ */
+public class ReflectedMethodProvider implements DelegateProvider<Object>, Named {
+    private final Context context;
+    private final ReflectedComponent component;
+    private final int index;
+    private final ReflectedMethod method;
+    private final Object owner;
+    private final Class<?>[] parameterTypes;
+    private final Object[] parameters;
+    private final String name;
+    private final boolean isDefault;
+
+    /** @param context parent context.
+     * @param owner instance of the class with the method.
+     * @param component generated data of the owner class.
+     * @param index index of the method in the component data.
+     * @see ReflectedComponent#getMethods() */
+    public ReflectedMethodProvider(final Context context, final Object owner, final ReflectedComponent component,
+            final int index) {
+        this.context = context;
+        this.owner = owner;
+        this.component = component;
+        this.index = index;
+        method = component.getMethods()[index];
+        parameterTypes = method.getParameterTypes();
+        parameters = parameterTypes.length == 0 ? Providers.EMPTY_ARRAY : new Object[parameterTypes.length];
+        name = Providers.getName(method);
+        isDefault = owner instanceof Default;
+    }
+
+    /** @return wrapped factory method data. */
+    public ReflectedMethod getMethod() {
+        return method;
+    }
+
+    @Override
+    public boolean isDefault() {
+        return isDefault;
+    }
+
+    @Override
+    public Object getWrappedObject() {
+        return owner;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Class<? extends Object> getType() {
+        return method.getReturnType();
+    }
+
+    @Override
+    public Object provide(final Object target, final Member member) {
+        try {
+            if (parameters.length == 0) {
+                return component.invoke(owner, index, parameters);
+            }
+            final Class<?> targetType = target == null ? null : target.getClass();
+            for (int parameterIndex = 0, length = parameters.length; parameterIndex < length; parameterIndex++) {
+                final Class<?> parameterType = parameterTypes[parameterIndex];
+                parameters[parameterIndex] = parameterType == Object.class || parameterType == targetType ? target
+                        : context.get(parameterType, owner, method);
+            }
+            return component.invoke(owner, index, parameters);
+        } catch (final RuntimeException exception) {
+            throw exception;
+        } catch (final Exception exception) {
+            throw new RuntimeException("Unable to invoke method: '" + method.getName() + "' of component: " + owner,
+                    exception);
+        }
+    }
+}
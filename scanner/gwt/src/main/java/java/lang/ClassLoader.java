@@ -0,0 +1,11 @@
+package java.lang;
+
+// Included for GWT compatibility.
+/** Class loaders are not supported by GWT. This class exists only to allow compiling the context API that refers to
+ * class loaders. It is never instantiated.
+ *
+ * @author MJ */
+public abstract class ClassLoader {
+    protected ClassLoader() {
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 1996, 2006, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.lang.reflect;
+
+// Included for GWT compatibility. Contains only the modifier constants and checks used by UEDI.
+/** The Modifier class provides static methods and constants to decode class and member access modifiers.
+ *
+ * @see Member#getModifiers()
+ *
+ * @author Nakul Saraiya
+ * @author Kenneth Russell */
+public class Modifier {
+    /** The {@code int} value representing the {@code public} modifier. */
+    public static final int PUBLIC = 0x00000001;
+    /** The {@code int} value representing the {@code private} modifier. */
+    public static final int PRIVATE = 0x00000002;
+    /** The {@code int} value representing the {@code protected} modifier. */
+    public static final int PROTECTED = 0x00000004;
+    /** The {@code int} value representing the {@code static} modifier. */
+    public static final int STATIC = 0x00000008;
+    /** The {@code int} value representing the {@code final} modifier. */
+    public static final int FINAL = 0x00000010;
+    /** The {@code int} value representing the {@code synchronized} modifier. */
+    public static final int SYNCHRONIZED = 0x00000020;
+    /** The {@code int} value representing the {@code volatile} modifier. */
+    public static final int VOLATILE = 0x00000040;
+    /** The {@code int} value representing the {@code transient} modifier. */
+    public static final int TRANSIENT = 0x00000080;
+    /** The {@code int} value representing the {@code native} modifier. */
+    public static final int NATIVE = 0x00000100;
+    /** The {@code int} value representing the {@code interface} modifier. */
+    public static final int INTERFACE = 0x00000200;
+    /** The {@code int} value representing the {@code abstract} modifier. */
+    public static final int ABSTRACT = 0x00000400;
+    /** The {@code int} value representing the {@code strictfp} modifier. */
+    public static final int STRICT = 0x00000800;
+
+    /** @param mod a set of modifiers.
+     * @return {@code true} if {@code mod} includes the {@code public} modifier. */
+    public static boolean isPublic(final int mod) {
+        return (mod & PUBLIC) != 0;
+    }
+
+    /** @param mod a set of modifiers.
+     * @return {@code true} if {@code mod} includes the {@code private} modifier. */
+    public static boolean isPrivate(final int mod) {
+        return (mod & PRIVATE) != 0;
+    }
+
+    /** @param mod a set of modifiers.
+     * @return {@code true} if {@code mod} includes the {@code protected} modifier. */
+    public static boolean isProtected(final int mod) {
+        return (mod & PROTECTED) != 0;
+    }
+
+    /** @param mod a set of modifiers.
+     * @return {@code true} if {@code mod} includes the {@code static} modifier. */
+    public static boolean isStatic(final int mod) {
+        return (mod & STATIC) != 0;
+    }
+
+    /** @param mod a set of modifiers.
+     * @return {@code true} if {@code mod} includes the {@code final} modifier. */
+    public static boolean isFinal(final int mod) {
+        return (mod & FINAL) != 0;
+    }
+
+    /** @param mod a set of modifiers.
+     * @return {@code true} if {@code mod} includes the {@code transient} modifier. */
+    public static boolean isTransient(final int mod) {
+        return (mod & TRANSIENT) != 0;
+    }
+
+    /** @param mod a set of modifiers.
+     * @return {@code true} if {@code mod} includes the {@code abstract} modifier. */
+    public static boolean isAbstract(final int mod) {
+        return (mod & ABSTRACT) != 0;
+    }
+}
@@ -2,11 +2,14 @@ package com.github.czyzby.uedi.impl;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 import org.cliffc.high_scale_lib.NonBlockingHashMap;
 import org.cliffc.high_scale_lib.NonBlockingHashSet;
 
 import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.stereotype.impl.PropertyProvider;
+import com.github.czyzby.uedi.stereotype.impl.StringProvider;
 
 /** Uses high-scale-lib non-blocking concurrent collections to ensure thread-safety in multithreaded environment.
  *
@@ -18,6 +21,17 @@ public class ParameterAwareConcurrentContext extends ParameterAwareContext {
         super(classScanner);
     }
 
+    /** @return thread-safe {@link PropertyProvider} storing one property per entry. */
+    @Override
+    protected StringProvider getPropertyProvider() {
+        return new PropertyProvider(createMap(), new ConcurrentSkipListSet<>());
+    }
+
+    @Override
+    protected boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     protected <K, V> Map<K, V> createMap() {
         return new NonBlockingHashMap<>();
@@ -1,8 +1,10 @@
 package com.github.czyzby.uedi.impl;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.Map;
 
 import com.github.czyzby.uedi.scanner.ClassScanner;
 import com.github.czyzby.uedi.stereotype.Provider;
@@ -15,6 +17,9 @@ import com.github.czyzby.uedi.stereotype.impl.Providers;
  *
  * @author MJ */
 public class ParameterAwareContext extends DefaultContext {
+    /** Shared named members of constructor parameters, mapped by constructors. */
+    private final Map<Constructor<?>, Member[]> parameterMembers = createMap();
+
     public ParameterAwareContext(final ClassScanner classScanner) {
         super(classScanner);
     }
@@ -36,9 +41,9 @@ public class ParameterAwareContext extends DefaultContext {
                 return constructor.newInstance(Providers.EMPTY_ARRAY);
             }
             final Object[] dependencies = new Object[parameterTypes.length];
-            final Parameter[] parameters = constructor.getParameters();
+            final Member[] members = getParameterMembers(constructor);
             for (int index = 0, length = dependencies.length; index < length; index++) {
-                dependencies[index] = get(parameterTypes[index], null, new MockMember(parameters[index].getName()));
+                dependencies[index] = get(parameterTypes[index], null, members[index]);
             }
             return constructor.newInstance(dependencies);
         } catch (final Exception exception) {
@@ -46,4 +51,32 @@ public class ParameterAwareContext extends DefaultContext {
                     exception);
         }
     }
+
+    @Override
+    public void unloadPlugin(final ClassLoader classLoader) {
+        super.unloadPlugin(classLoader);
+        parameterMembers.keySet().removeIf(constructor -> constructor.getDeclaringClass()
+                .getClassLoader() == classLoader);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        parameterMembers.clear();
+    }
+
+    /** @param constructor its parameters will be converted to named members.
+     * @return shared members with names of the parameters. Created once per constructor. */
+    private Member[] getParameterMembers(final Constructor<?> constructor) {
+        Member[] members = parameterMembers.get(constructor);
+        if (members == null) {
+            final Parameter[] parameters = constructor.getParameters();
+            members = new Member[parameters.length];
+            for (int index = 0; index < parameters.length; index++) {
+                members[index] = new MockMember(parameters[index].getName());
+            }
+            parameterMembers.put(constructor, members);
+        }
+        return members;
+    }
 }
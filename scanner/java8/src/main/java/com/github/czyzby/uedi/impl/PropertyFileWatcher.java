@@ -0,0 +1,136 @@
+package com.github.czyzby.uedi.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.czyzby.uedi.stereotype.Reloadable;
+
+/** Watches a {@code .properties} file with NIO {@link WatchService} and reloads context properties each time the file
+ * is modified. Only the changed properties are updated: if the context tracks property injections, fields injected
+ * with the changed properties are re-injected and the affected {@link Reloadable} components are notified. Properties
+ * removed from the file are not cleared.
+ *
+ * <p>
+ * Changes can be processed on a background thread with {@link #start()} - in which case the context should be
+ * thread-safe - or polled on the application thread with {@link #update()}. Files should be replaced atomically (for
+ * example, moved into place after writing a temporary file) to avoid reading partial content.
+ *
+ * @author MJ
+ * @see DefaultContext#setTrackPropertyInjections(boolean)
+ * @see DefaultContext#reloadProperties(Reader) */
+public class PropertyFileWatcher implements Closeable {
+    private final DefaultContext context;
+    private final Path file;
+    private final WatchService watchService;
+    private volatile Thread thread;
+
+    /** @param context its properties will be reloaded.
+     * @param file {@code .properties} file encoded with UTF-8. Its parent directory will be watched.
+     * @throws IOException if unable to watch the directory. */
+    public PropertyFileWatcher(final DefaultContext context, final Path file) throws IOException {
+        this.context = context;
+        this.file = file.toAbsolutePath();
+        watchService = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    /** @return watched file. */
+    public Path getFile() {
+        return file;
+    }
+
+    /** Reads the file and reloads the properties, regardless of file events.
+     *
+     * @return keys of changed properties. Empty if the file does not exist.
+     * @throws IOException if unable to read the file. */
+    public List<String> reload() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Collections.emptyList();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return context.reloadProperties(reader);
+        }
+    }
+
+    /** Processes pending file events without blocking. Should be called periodically on the application thread if the
+     * watcher is not {@link #start() started}.
+     *
+     * @return keys of changed properties. Empty if the file was not modified.
+     * @throws IOException if unable to read the file. */
+    public List<String> update() throws IOException {
+        List<String> changedKeys = Collections.emptyList();
+        for (WatchKey key = watchService.poll(); key != null; key = watchService.poll()) {
+            if (process(key)) {
+                changedKeys = reload();
+            }
+        }
+        return changedKeys;
+    }
+
+    /** @return true if the key contains events of the watched file. */
+    private boolean process(final WatchKey key) {
+        boolean modified = false;
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                modified = true;
+            }
+        }
+        key.reset();
+        return modified;
+    }
+
+    /** Starts a daemon thread processing file events as they occur. */
+    public void start() {
+        if (thread != null) {
+            return;
+        }
+        final Thread watcher = new Thread(this::watch, "UEDI property watcher");
+        watcher.setDaemon(true);
+        thread = watcher;
+        watcher.start();
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (process(watchService.take())) {
+                    try {
+                        reload();
+                    } catch (final Exception exception) {
+                        handleError(exception);
+                    }
+                }
+            }
+        } catch (final InterruptedException | ClosedWatchServiceException exception) {
+            // Watcher was closed.
+        }
+    }
+
+    /** @param exception thrown while reloading the properties on the watcher thread. Prints stack trace by default. */
+    protected void handleError(final Exception exception) {
+        exception.printStackTrace();
+    }
+
+    /** Stops watching the file. */
+    @Override
+    public void close() throws IOException {
+        final Thread watcher = thread;
+        thread = null;
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+        watchService.close();
+    }
+}
@@ -1,33 +1,45 @@
 package com.github.czyzby.uedi.scanner.impl;
 
 import java.lang.reflect.Modifier;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.scanner.ClassNameFilter;
 
 import io.github.lukehutch.fastclasspathscanner.FastClasspathScanner;
 
 /** Default class scanner using {@link FastClasspathScanner} to find classes implementing chosen interfaces. Does not
- * rely on on reflection: analyzes class files (processes JVM bytecode).
+ * rely on on reflection: analyzes class files (processes JVM bytecode). Only the matching classes accepted by the
+ * {@link ClassNameFilter} (if any) are loaded.
  *
  * @author MJ
  * @see FastClasspathScanner */
-public class StandardClassScanner implements ClassScanner {
+public class StandardClassScanner extends AbstractClassScanner {
     @Override
     public Iterable<Class<?>> getClassesImplementing(final Class<?> root, final Class<?>... interfaces) {
-        final Set<Class<?>> classes = new HashSet<>();
-        final FastClasspathScanner scanner = new FastClasspathScanner(root.getPackage().getName());
-        Stream.of(interfaces).forEach(implemented -> scanner.matchClassesImplementing(implemented,
-                implementingClass -> process(implementingClass, classes)));
-        scanner.scan();
-        return classes;
+        return getClassesImplementing(new Class<?>[] { root }, interfaces);
     }
 
-    private static void process(final Class<?> implementingClass, final Set<Class<?>> classes) {
-        if (!Modifier.isAbstract(implementingClass.getModifiers()) && !implementingClass.isInterface()) {
-            classes.add(implementingClass);
+    @Override
+    public Iterable<Class<?>> getClassesImplementing(final Class<?>[] roots, final Class<?>... interfaces) {
+        // Scanner accepts multiple packages - classpath is processed only once:
+        final FastClasspathScanner scanner = new FastClasspathScanner(
+                Stream.of(roots).map(root -> root.getPackage().getName()).toArray(String[]::new)).scan();
+        // Class names are filtered before loading the classes:
+        return Stream.of(interfaces).flatMap(implemented -> scanner.getNamesOfClassesImplementing(implemented).stream())
+                .distinct().filter(this::isAccepted).map(StandardClassScanner::loadClass)
+                .filter(StandardClassScanner::isStandardClass).collect(Collectors.toList());
+    }
+
+    private static Class<?> loadClass(final String className) {
+        try {
+            return Class.forName(className);
+        } catch (final ClassNotFoundException exception) {
+            throw new RuntimeException("Unable to load scanned class: " + className, exception);
         }
     }
+
+    private static boolean isStandardClass(final Class<?> implementingClass) {
+        return !Modifier.isAbstract(implementingClass.getModifiers()) && !implementingClass.isInterface();
+    }
 }
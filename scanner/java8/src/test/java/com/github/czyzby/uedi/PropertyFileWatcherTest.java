@@ -0,0 +1,80 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.github.czyzby.uedi.impl.ConcurrentContext;
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.impl.PropertyFileWatcher;
+import com.github.czyzby.uedi.test.inject.ReloadableProperties;
+
+/** Tests {@link PropertyFileWatcher}.
+ *
+ * @author MJ */
+public class PropertyFileWatcherTest {
+    private static final long TIMEOUT = 10000L;
+
+    @Test
+    public void shouldReloadModifiedFile() throws Exception {
+        final Path directory = Files.createTempDirectory("uedi");
+        final Path file = directory.resolve("application.properties");
+        write(file, "name=initial\ncount=1");
+        final DefaultContext context = new DefaultContext(null);
+        context.setTrackPropertyInjections(true);
+        try (PropertyFileWatcher watcher = new PropertyFileWatcher(context, file)) {
+            assertEquals(Arrays.asList("name", "count"), watcher.reload());
+            final ReloadableProperties component = context.create(ReloadableProperties.class);
+            assertEquals(Collections.emptyList(), watcher.update());
+
+            write(file, "name=modified\ncount=1");
+            List<String> changedKeys = Collections.emptyList();
+            final long start = System.currentTimeMillis();
+            while (changedKeys.isEmpty() && System.currentTimeMillis() - start < TIMEOUT) {
+                Thread.sleep(10L);
+                changedKeys = watcher.update();
+            }
+            assertEquals(Arrays.asList("name"), changedKeys);
+            assertEquals("modified", component.name);
+            assertEquals(1, component.count);
+            assertEquals(1, component.reloads);
+        }
+    }
+
+    @Test
+    public void shouldReloadReplacedFileInBackground() throws Exception {
+        final Path directory = Files.createTempDirectory("uedi");
+        final Path file = directory.resolve("application.properties");
+        write(file, "limit=1");
+        final DefaultContext context = new ConcurrentContext(null);
+        context.setTrackPropertyInjections(true);
+        try (PropertyFileWatcher watcher = new PropertyFileWatcher(context, file)) {
+            watcher.reload();
+            final ReloadableProperties component = context.create(ReloadableProperties.class);
+            watcher.start();
+
+            final Path temporary = directory.resolve("application.tmp");
+            write(temporary, "limit=2");
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            final long start = System.currentTimeMillis();
+            while (!Integer.valueOf(2).equals(component.limit) && System.currentTimeMillis() - start < TIMEOUT) {
+                Thread.sleep(10L);
+            }
+            assertEquals(Integer.valueOf(2), component.limit);
+            assertTrue(component.reloadedKeys.contains("limit"));
+        }
+    }
+
+    private static void write(final Path file, final String content) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,22 +1,28 @@
 package com.github.czyzby.uedi.scanner.impl;
 
-import java.lang.reflect.Modifier;
 import java.util.HashSet;
 import java.util.Set;
 
-import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.scanner.ClassNameFilter;
 import com.jtransc.reflection.JTranscReflection;
 
-/** Uses reflection and internal JTransc API to analyze current classpath.
+/** Uses reflection and internal JTransc API to analyze current classpath. Class names are checked with the
+ * {@link ClassNameFilter} (if any) before the classes are loaded.
  *
  * @author MJ */
-public class JTranscClassScanner implements ClassScanner {
+public class JTranscClassScanner extends AbstractClassScanner {
+
     @Override
     public Iterable<Class<?>> getClassesImplementing(final Class<?> root, final Class<?>... interfaces) {
+        return getClassesImplementing(new Class<?>[] { root }, interfaces);
+    }
+
+    @Override
+    public Iterable<Class<?>> getClassesImplementing(final Class<?>[] roots, final Class<?>... interfaces) {
         final Set<Class<?>> result = new HashSet<>();
-        final String packageName = getPackageName(root);
+        final String[] packageNames = getPackageNames(roots);
         for (final String className : JTranscReflection.getAllClasses()) {
-            if (className != null && className.startsWith(packageName)) {
+            if (className != null && isFromAnyPackage(className, packageNames) && isAccepted(className)) {
                 try {
                     final Class<?> testedClass = Class.forName(className);
                     if (isNotAbstract(testedClass) && isInstanceOfAny(testedClass, interfaces)) {
@@ -29,31 +35,4 @@ public class JTranscClassScanner implements ClassScanner {
         }
         return result;
     }
-
-    /** Package name extraction method that does not involve package query.
-     *
-     * @param root scanning root.
-     * @return name of the package of scanning root. */
-    protected String getPackageName(final Class<?> root) {
-        return root.getName().substring(0, root.getName().length() - root.getSimpleName().length() - 1);
-    }
-
-    /** @param testedClass will be validated
-     * @return true if the class is not abstract or anonymous and not an interface. */
-    protected boolean isNotAbstract(final Class<?> testedClass) {
-        return !Modifier.isAbstract(testedClass.getModifiers()) && !testedClass.isAnonymousClass()
-                && !testedClass.isInterface();
-    }
-
-    /** @param testedClass will be validated.
-     * @param interfaces set of interfaces to be checked against.
-     * @return true if the class implements any of the passed interfaces. */
-    protected boolean isInstanceOfAny(final Class<?> testedClass, final Class<?>[] interfaces) {
-        for (final Class<?> possibleMatch : interfaces) {
-            if (possibleMatch.isAssignableFrom(testedClass)) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
\ No newline at end of file
@@ -4,33 +4,55 @@ import java.lang.reflect.Modifier;
 import java.util.HashSet;
 import java.util.Set;
 
-import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.scanner.ClassNameFilter;
 
 import io.github.lukehutch.fastclasspathscanner.FastClasspathScanner;
-import io.github.lukehutch.fastclasspathscanner.matchprocessor.InterfaceMatchProcessor;
 
 /** Default class scanner using {@link FastClasspathScanner} to find classes implementing chosen interfaces. Does not
- * rely on on reflection: analyzes class files (processes JVM bytecode).
+ * rely on on reflection: analyzes class files (processes JVM bytecode). Only the matching classes accepted by the
+ * {@link ClassNameFilter} (if any) are loaded.
  *
  * @author MJ
  * @see FastClasspathScanner */
-public class DefaultClassScanner implements ClassScanner {
+public class DefaultClassScanner extends AbstractClassScanner {
+
     @Override
-    @SuppressWarnings({ "unchecked", "rawtypes" }) // Raw types usage due to awkward generics API.
     public Iterable<Class<?>> getClassesImplementing(final Class<?> root, final Class<?>... interfaces) {
+        return getClassesImplementing(new Class<?>[] { root }, interfaces);
+    }
+
+    @Override
+    public Iterable<Class<?>> getClassesImplementing(final Class<?>[] roots, final Class<?>... interfaces) {
         final Set<Class<?>> classes = new HashSet<>();
-        final FastClasspathScanner scanner = new FastClasspathScanner(root.getPackage().getName());
+        final String[] packageNames = new String[roots.length];
+        for (int index = 0; index < roots.length; index++) {
+            packageNames[index] = roots[index].getPackage().getName();
+        }
+        // Scanner accepts multiple packages - classpath is processed only once:
+        final FastClasspathScanner scanner = new FastClasspathScanner(packageNames).scan();
+        // Class names are filtered before loading the classes:
+        final Set<String> classNames = new HashSet<>();
         for (final Class<?> implemented : interfaces) {
-            scanner.matchClassesImplementing(implemented, new InterfaceMatchProcessor() {
-                @Override
-                public void processMatch(final Class implementingClass) {
-                    if (!Modifier.isAbstract(implementingClass.getModifiers()) && !implementingClass.isInterface()) {
-                        classes.add(implementingClass);
-                    }
+            for (final String className : scanner.getNamesOfClassesImplementing(implemented)) {
+                if (classNames.add(className) && isAccepted(className)) {
+                    process(loadClass(className), classes);
                 }
-            });
+            }
         }
-        scanner.scan();
         return classes;
     }
+
+    private static Class<?> loadClass(final String className) {
+        try {
+            return Class.forName(className);
+        } catch (final ClassNotFoundException exception) {
+            throw new RuntimeException("Unable to load scanned class: " + className, exception);
+        }
+    }
+
+    private static void process(final Class<?> implementingClass, final Set<Class<?>> classes) {
+        if (!Modifier.isAbstract(implementingClass.getModifiers()) && !implementingClass.isInterface()) {
+            classes.add(implementingClass);
+        }
+    }
 }
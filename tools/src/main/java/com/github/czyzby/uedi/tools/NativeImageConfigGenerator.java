@@ -0,0 +1,268 @@
+package com.github.czyzby.uedi.tools;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.czyzby.uedi.impl.WiringPlan;
+import com.github.czyzby.uedi.impl.WiringPlan.ComponentPlan;
+import com.github.czyzby.uedi.scanner.impl.FallbackClassScanner;
+import com.github.czyzby.uedi.scanner.impl.FixedClassScanner;
+
+/** Generates GraalVM native-image configuration from {@link WiringPlan wiring plans} recorded during scanning. Since
+ * native images do not support classpath scanning and allow reflection only on registered members, the generator
+ * writes:
+ * <ul>
+ * <li>{@code reflect-config.json}: registers component constructors, factory methods and fields of the component
+ * class trees, which are queried and injected by the context.
+ * <li>A class list with binary names of all components, which can be loaded with
+ * {@link FixedClassScanner#addClassList(java.io.InputStream, ClassLoader)} in place of classpath scanning.
+ * <li>{@code resource-config.json}: includes the class list in the image.
+ * </ul>
+ * Configuration files are written to {@code META-INF/native-image/<name>/}, so they are detected by native-image
+ * automatically when the resources folder is on the classpath.
+ *
+ * @author MJ */
+public class NativeImageConfigGenerator {
+    private static final String ENCODING = "UTF-8";
+    private static final String CONFIGURATION_DIRECTORY = "META-INF/native-image/";
+    private static final String CLASS_LIST_DIRECTORY = "META-INF/uedi/";
+    private static final String CLASS_LIST_FILE = "classes.list";
+    private static final String REFLECTION_CONFIG_FILE = "reflect-config.json";
+    private static final String RESOURCE_CONFIG_FILE = "resource-config.json";
+    private static final String CONSTRUCTOR_NAME = "<init>";
+
+    private final String name;
+
+    /** @param name unique name of the configuration, like "com.example/service". Used as the name of the folder with
+     *            the generated files. */
+    public NativeImageConfigGenerator(final String name) {
+        this.name = name;
+    }
+
+    /** Generates native-image configuration of the selected roots.
+     *
+     * @param args configuration name, output resources directory and names of the scanning root classes. */
+    public static void main(final String... args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: NativeImageConfigGenerator <name> <resources directory> <root class>...");
+            System.exit(1);
+        }
+        final Class<?>[] roots = new Class<?>[args.length - 2];
+        for (int index = 0; index < roots.length; index++) {
+            roots[index] = Class.forName(args[index + 2]);
+        }
+        final NativeImageConfigGenerator generator = new NativeImageConfigGenerator(args[0]);
+        for (final File file : generator.write(WiringSourceGenerator.record(new FallbackClassScanner(), roots),
+                new File(args[1]))) {
+            System.out.println("Generated configuration: " + file.getPath());
+        }
+    }
+
+    /** @return path of the class list resource. Can be passed to {@link ClassLoader#getResourceAsStream(String)}. */
+    public String getClassListPath() {
+        return CLASS_LIST_DIRECTORY + name + '/' + CLASS_LIST_FILE;
+    }
+
+    /** @param plan wiring of the components.
+     * @param resourcesDirectory root of the resources folder.
+     * @return generated files: reflection configuration, resource configuration and class list.
+     * @throws Exception if unable to write the files. */
+    public List<File> write(final WiringPlan plan, final File resourcesDirectory) throws Exception {
+        final List<File> files = new ArrayList<File>(3);
+        final String configurationPath = CONFIGURATION_DIRECTORY + name + '/';
+        files.add(write(resourcesDirectory, configurationPath + REFLECTION_CONFIG_FILE,
+                generateReflectionConfig(plan)));
+        files.add(write(resourcesDirectory, configurationPath + RESOURCE_CONFIG_FILE, generateResourceConfig()));
+        files.add(write(resourcesDirectory, getClassListPath(), generateClassList(plan)));
+        return files;
+    }
+
+    private static File write(final File resourcesDirectory, final String path, final String content)
+            throws Exception {
+        final File file = new File(resourcesDirectory, path.replace('/', File.separatorChar));
+        final File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new RuntimeException("Unable to create resources directory: " + directory);
+        }
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), ENCODING);
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    /** @param plan wiring of the components.
+     * @return binary names of component classes in construction order, one per line. */
+    public String generateClassList(final WiringPlan plan) {
+        final StringBuilder classList = new StringBuilder();
+        classList.append("# Generated by ").append(NativeImageConfigGenerator.class.getSimpleName())
+                .append(". Do not modify.\n");
+        for (final ComponentPlan component : plan.getComponents()) {
+            classList.append(component.getComponentClass().getName()).append('\n');
+        }
+        return classList.toString();
+    }
+
+    /** @return resource configuration including the class list. */
+    public String generateResourceConfig() {
+        final StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"resources\": {\n");
+        json.append("    \"includes\": [\n");
+        json.append("      {\n");
+        json.append("        \"pattern\": ").append(quote("\\Q" + getClassListPath() + "\\E")).append('\n');
+        json.append("      }\n");
+        json.append("    ]\n");
+        json.append("  }\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    /** @param plan wiring of the components.
+     * @return reflection configuration of the components. Public constructors and methods of components can be
+     *         queried, chosen constructors and factory methods can be invoked and all declared fields of component
+     *         class trees can be queried and written. */
+    public String generateReflectionConfig(final WiringPlan plan) {
+        final Map<Class<?>, ReflectedClass> classes = new LinkedHashMap<Class<?>, ReflectedClass>();
+        for (final ComponentPlan component : plan.getComponents()) {
+            final Class<?> componentClass = component.getComponentClass();
+            final ReflectedClass reflectedComponent = getReflectedClass(classes, componentClass);
+            reflectedComponent.component = true;
+            reflectedComponent.addConstructor(component.getConstructor());
+            for (final Method method : component.getFactoryMethods()) {
+                reflectedComponent.addMethod(method);
+            }
+            for (Class<?> type = componentClass; type != null && type != Object.class; type = type.getSuperclass()) {
+                getReflectedClass(classes, type); // Fields of the whole class tree are analyzed.
+            }
+            for (final Field field : component.getFields()) {
+                getReflectedClass(classes, field.getDeclaringClass()).addField(field);
+            }
+        }
+        final StringBuilder json = new StringBuilder();
+        json.append("[\n");
+        int index = 0;
+        for (final ReflectedClass reflectedClass : classes.values()) {
+            if (index++ > 0) {
+                json.append(",\n");
+            }
+            reflectedClass.append(json);
+        }
+        json.append("\n]\n");
+        return json.toString();
+    }
+
+    private static ReflectedClass getReflectedClass(final Map<Class<?>, ReflectedClass> classes,
+            final Class<?> type) {
+        ReflectedClass reflectedClass = classes.get(type);
+        if (reflectedClass == null) {
+            reflectedClass = new ReflectedClass(type);
+            classes.put(type, reflectedClass);
+        }
+        return reflectedClass;
+    }
+
+    /** @param type method parameter type.
+     * @return name of the type in the format expected by native-image: binary class names, with "[]" suffixes for
+     *         arrays. */
+    static String getTypeName(final Class<?> type) {
+        if (type.isArray()) {
+            return getTypeName(type.getComponentType()) + "[]";
+        }
+        return type.getName();
+    }
+
+    /** @param value will be converted.
+     * @return JSON string literal. */
+    static String quote(final String value) {
+        final StringBuilder builder = new StringBuilder(value.length() + 2);
+        builder.append('"');
+        for (int index = 0, length = value.length(); index < length; index++) {
+            final char character = value.charAt(index);
+            if (character == '"' || character == '\\') {
+                builder.append('\\').append(character);
+            } else if (character < ' ') {
+                builder.append(String.format("\\u%04x", Integer.valueOf(character)));
+            } else {
+                builder.append(character);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /** Reflection configuration of a single class.
+     *
+     * @author MJ */
+    private static class ReflectedClass {
+        private final Class<?> type;
+        private final List<String> methods = new ArrayList<String>();
+        private final List<String> fields = new ArrayList<String>();
+        private boolean component;
+
+        ReflectedClass(final Class<?> type) {
+            this.type = type;
+        }
+
+        void addConstructor(final Constructor<?> constructor) {
+            addMethod(CONSTRUCTOR_NAME, constructor.getParameterTypes());
+        }
+
+        void addMethod(final Method method) {
+            addMethod(method.getName(), method.getParameterTypes());
+        }
+
+        private void addMethod(final String methodName, final Class<?>[] parameterTypes) {
+            final StringBuilder method = new StringBuilder();
+            method.append("{ \"name\": ").append(quote(methodName)).append(", \"parameterTypes\": [");
+            for (int index = 0; index < parameterTypes.length; index++) {
+                method.append(index == 0 ? " " : ", ").append(quote(getTypeName(parameterTypes[index])));
+            }
+            method.append(parameterTypes.length == 0 ? "] }" : " ] }");
+            if (!methods.contains(method.toString())) {
+                methods.add(method.toString());
+            }
+        }
+
+        void addField(final Field field) {
+            final String entry = "{ \"name\": " + quote(field.getName()) + ", \"allowWrite\": true }";
+            if (!fields.contains(entry)) {
+                fields.add(entry);
+            }
+        }
+
+        void append(final StringBuilder json) {
+            json.append("  {\n");
+            json.append("    \"name\": ").append(quote(type.getName())).append(",\n");
+            if (component) {
+                json.append("    \"queryAllPublicConstructors\": true,\n");
+                json.append("    \"queryAllPublicMethods\": true,\n");
+            }
+            json.append("    \"allDeclaredFields\": true");
+            appendMembers(json, "methods", methods);
+            appendMembers(json, "fields", fields);
+            json.append("\n  }");
+        }
+
+        private static void appendMembers(final StringBuilder json, final String key, final List<String> members) {
+            if (members.isEmpty()) {
+                return;
+            }
+            json.append(",\n    ").append(quote(key)).append(": [\n");
+            for (int index = 0, size = members.size(); index < size; index++) {
+                json.append("      ").append(members.get(index)).append(index == size - 1 ? "\n" : ",\n");
+            }
+            json.append("    ]");
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.czyzby.uedi.tools;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import com.github.czyzby.uedi.stereotype.impl.MappedPropertyProvider;
+import com.github.czyzby.uedi.stereotype.impl.PropertiesReader;
+
+/** Compiles {@code .properties} files into property tables, which can be memory-mapped by
+ * {@link MappedPropertyProvider}. Keys are written in natural order, so the same properties always produce the same
+ * table. Properties added later replace the values of properties with the same keys.
+ *
+ * @author MJ */
+public class PropertyTableCompiler {
+    private static final String ENCODING = "UTF-8";
+
+    private final Map<String, String> properties = new TreeMap<String, String>();
+
+    /** Compiles a property table.
+     *
+     * @param args output file and {@code .properties} files encoded with UTF-8. */
+    public static void main(final String... args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: PropertyTableCompiler <output file> <properties file>...");
+            System.exit(1);
+        }
+        final PropertyTableCompiler compiler = new PropertyTableCompiler();
+        for (int index = 1; index < args.length; index++) {
+            compiler.add(new File(args[index]));
+        }
+        compiler.write(new File(args[0]));
+        System.out.println("Compiled " + compiler.size() + " properties: " + args[0]);
+    }
+
+    /** @return amount of added properties. */
+    public int size() {
+        return properties.size();
+    }
+
+    /** @param key unique ID of the property.
+     * @param value value of the property. */
+    public void put(final String key, final String value) {
+        properties.put(key, value);
+    }
+
+    /** @param file {@code .properties} file encoded with UTF-8.
+     * @return amount of parsed properties.
+     * @throws IOException if unable to read the file. */
+    public int add(final File file) throws IOException {
+        final InputStream input = new FileInputStream(file);
+        try {
+            return add(new InputStreamReader(input, ENCODING));
+        } finally {
+            input.close();
+        }
+    }
+
+    /** @param reader {@code .properties} file content. Will be fully read, but not closed.
+     * @return amount of parsed properties.
+     * @throws IOException if unable to read the input. */
+    public int add(final Reader reader) throws IOException {
+        return new PropertiesReader().read(reader, new PropertiesReader.PropertyConsumer() {
+            @Override
+            public void consume(final String key, final String value) {
+                put(key, value);
+            }
+        });
+    }
+
+    /** @param file will contain the property table. Replaced if exists.
+     * @throws IOException if unable to write the file. */
+    public void write(final File file) throws IOException {
+        final File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create directory: " + directory);
+        }
+        final OutputStream output = new FileOutputStream(file);
+        try {
+            write(output);
+        } finally {
+            output.close();
+        }
+    }
+
+    /** @param output will receive the property table. Will not be closed.
+     * @throws IOException if unable to write the table or if the table exceeds 2GB. */
+    public void write(final OutputStream output) throws IOException {
+        final int size = properties.size();
+        int capacity = 16;
+        while (capacity * 3 / 4 < size + 1) {
+            capacity <<= 1;
+        }
+        final byte[][] keys = new byte[size][];
+        final byte[][] values = new byte[size][];
+        final int[] slotHashes = new int[capacity];
+        final int[] slotOffsets = new int[capacity];
+        final int[] sortedOffsets = new int[size];
+        final int mask = capacity - 1;
+        long offset = MappedPropertyProvider.HEADER_SIZE + (long) capacity * MappedPropertyProvider.SLOT_SIZE
+                + (long) size * 4L;
+        int index = 0;
+        for (final Entry<String, String> entry : properties.entrySet()) {
+            keys[index] = entry.getKey().getBytes(ENCODING);
+            values[index] = entry.getValue().getBytes(ENCODING);
+            final int hash = entry.getKey().hashCode();
+            int slot = MappedPropertyProvider.getSlot(hash) & mask;
+            while (slotOffsets[slot] != 0) {
+                slot = slot + 1 & mask;
+            }
+            slotHashes[slot] = hash;
+            slotOffsets[slot] = (int) offset;
+            sortedOffsets[index] = (int) offset; // Entries are written in the natural order of keys.
+            offset += MappedPropertyProvider.ENTRY_HEADER_SIZE + keys[index].length + values[index].length;
+            if (offset > Integer.MAX_VALUE) {
+                throw new IOException("Property table exceeds 2GB.");
+            }
+            index++;
+        }
+        final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output, 65536));
+        data.writeInt(MappedPropertyProvider.MAGIC);
+        data.writeInt(MappedPropertyProvider.VERSION);
+        data.writeInt(size);
+        data.writeInt(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            data.writeInt(slotHashes[slot]);
+            data.writeInt(slotOffsets[slot]);
+        }
+        for (final int sortedOffset : sortedOffsets) {
+            data.writeInt(sortedOffset);
+        }
+        for (index = 0; index < size; index++) {
+            data.writeInt(keys[index].length);
+            data.writeInt(values[index].length);
+            data.write(keys[index]);
+            data.write(values[index]);
+        }
+        data.flush();
+    }
+}
@@ -0,0 +1,321 @@
+package com.github.czyzby.uedi.tools;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.impl.GeneratedWiring;
+import com.github.czyzby.uedi.impl.WiringPlan;
+import com.github.czyzby.uedi.impl.WiringPlan.ComponentPlan;
+import com.github.czyzby.uedi.scanner.ClassScanner;
+import com.github.czyzby.uedi.scanner.impl.FallbackClassScanner;
+import com.github.czyzby.uedi.stereotype.impl.GeneratedProvider;
+import com.github.czyzby.uedi.stereotype.impl.MockMember;
+
+/** Generates Java sources of {@link GeneratedWiring} implementations from {@link WiringPlan wiring plans} recorded
+ * during scanning. Generated code constructs components with direct constructor calls, assigns public injectable
+ * fields directly and wraps factory methods with {@link GeneratedProvider} implementations invoking the methods
+ * directly. Private fields and types that are not visible to the generated class are accessed with reflection.
+ * Members passed to the providers of constructor parameters and fields are created once as static constants.
+ *
+ * <p>
+ * Component classes must be public top-level or public static nested classes, and types of their constructor and
+ * factory method parameters must be public.
+ *
+ * @author MJ */
+public class WiringSourceGenerator {
+    private static final String INDENT = "    ";
+    private static final String ENCODING = "UTF-8";
+
+    private final String packageName;
+    private final String simpleName;
+
+    /** @param className fully qualified name of the generated class. */
+    public WiringSourceGenerator(final String className) {
+        final int separatorIndex = className.lastIndexOf('.');
+        packageName = separatorIndex < 0 ? "" : className.substring(0, separatorIndex);
+        simpleName = className.substring(separatorIndex + 1);
+    }
+
+    /** Generates wiring code of the selected roots.
+     *
+     * @param args generated class name, output source directory and names of the scanning root classes. */
+    public static void main(final String... args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: WiringSourceGenerator <generated class> <source directory> <root class>...");
+            System.exit(1);
+        }
+        final Class<?>[] roots = new Class<?>[args.length - 2];
+        for (int index = 0; index < roots.length; index++) {
+            roots[index] = Class.forName(args[index + 2]);
+        }
+        final File file = new WiringSourceGenerator(args[0]).write(record(new FallbackClassScanner(), roots),
+                new File(args[1]));
+        System.out.println("Generated wiring: " + file.getPath());
+    }
+
+    /** @param classScanner will be used to scan for components.
+     * @param roots scanning roots.
+     * @return wiring plan of components found in the roots. Note that the components are created during scanning. */
+    public static WiringPlan record(final ClassScanner classScanner, final Class<?>... roots) {
+        final DefaultContext context = new DefaultContext(classScanner);
+        final WiringPlan plan = new WiringPlan();
+        context.setWiringPlan(plan);
+        context.scan(roots);
+        return plan;
+    }
+
+    /** @param plan wiring of the components.
+     * @param sourceDirectory root of the source folder.
+     * @return generated file.
+     * @throws Exception if unable to write the file. */
+    public File write(final WiringPlan plan, final File sourceDirectory) throws Exception {
+        final File directory = packageName.length() == 0 ? sourceDirectory
+                : new File(sourceDirectory, packageName.replace('.', File.separatorChar));
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new RuntimeException("Unable to create source directory: " + directory);
+        }
+        final File file = new File(directory, simpleName + ".java");
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), ENCODING);
+        try {
+            writer.write(generate(plan));
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    /** @param plan wiring of the components.
+     * @return source code of the {@link GeneratedWiring} implementation. */
+    public String generate(final WiringPlan plan) {
+        final StringBuilder source = new StringBuilder();
+        if (packageName.length() > 0) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/** Generated by ").append(WiringSourceGenerator.class.getSimpleName())
+                .append(". Do not modify. */\n");
+        source.append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+        source.append("public class ").append(simpleName).append(" extends ")
+                .append(GeneratedWiring.class.getName()).append(" {\n");
+        final Map<String, String> members = new LinkedHashMap<String, String>();
+        final StringBuilder body = new StringBuilder();
+        appendCreateComponents(body, plan.getComponents(), members);
+        body.append('\n');
+        appendInjectFields(body, plan.getComponents(), members);
+        for (final Map.Entry<String, String> member : members.entrySet()) {
+            indent(source, 1).append("private static final java.lang.reflect.Member ").append(member.getValue())
+                    .append(" = new ").append(MockMember.class.getName()).append("(\"").append(member.getKey())
+                    .append("\");\n");
+        }
+        if (!members.isEmpty()) {
+            source.append('\n');
+        }
+        source.append(body).append("}\n");
+        return source.toString();
+    }
+
+    /** @param members constants of already referenced members mapped by member names. Will be filled.
+     * @param name name of the member.
+     * @return name of the constant storing the member. */
+    private static String getMemberConstant(final Map<String, String> members, final String name) {
+        String constant = members.get(name);
+        if (constant == null) {
+            constant = "MEMBER_" + members.size();
+            members.put(name, constant);
+        }
+        return constant;
+    }
+
+    private void appendCreateComponents(final StringBuilder source, final List<ComponentPlan> components,
+            final Map<String, String> members) {
+        indent(source, 1).append("@Override\n");
+        indent(source, 1).append("protected Object[] createComponents() throws Exception {\n");
+        indent(source, 2).append("final Object[] components = new Object[").append(components.size()).append("];\n");
+        indent(source, 2).append("final ").append(DefaultContext.class.getName()).append(" context = getContext();\n");
+        for (int index = 0, size = components.size(); index < size; index++) {
+            final ComponentPlan component = components.get(index);
+            final Class<?> componentClass = component.getComponentClass();
+            validateComponentClass(componentClass);
+            final String variable = getVariable(index);
+            indent(source, 2).append("final ").append(getTypeName(componentClass)).append(' ').append(variable)
+                    .append(" = new ").append(getTypeName(componentClass)).append('(');
+            appendConstructorArguments(source, component.getConstructor(), members);
+            source.append(");\n");
+            indent(source, 2).append("register(").append(variable).append(", new Class<?>[] {");
+            final List<Class<?>> types = component.getTypes();
+            for (int typeIndex = 0, typesAmount = types.size(); typeIndex < typesAmount; typeIndex++) {
+                source.append(typeIndex == 0 ? " " : ", ").append(getTypeLiteral(types.get(typeIndex)));
+            }
+            source.append(types.isEmpty() ? "}" : " }");
+            for (final Method method : component.getFactoryMethods()) {
+                source.append(",\n");
+                appendFactoryProvider(source, variable, method);
+            }
+            source.append(");\n");
+            indent(source, 2).append("components[").append(index).append("] = ").append(variable).append(";\n");
+        }
+        indent(source, 2).append("return components;\n");
+        indent(source, 1).append("}\n");
+    }
+
+    private void appendConstructorArguments(final StringBuilder source, final Constructor<?> constructor,
+            final Map<String, String> members) {
+        final Class<?>[] parameterTypes = constructor.getParameterTypes();
+        for (int index = 0; index < parameterTypes.length; index++) {
+            final Class<?> parameterType = parameterTypes[index];
+            validateVisibility(parameterType, constructor);
+            if (index > 0) {
+                source.append(", ");
+            }
+            source.append('(').append(getCastTypeName(parameterType)).append(") get(")
+                    .append(getTypeLiteral(parameterType)).append(", null, ")
+                    .append(getMemberConstant(members, constructor.getName())).append(')');
+        }
+    }
+
+    private void appendFactoryProvider(final StringBuilder source, final String variable, final Method method) {
+        indent(source, 3).append("new ").append(GeneratedProvider.class.getName()).append("(context, ")
+                .append(variable).append(", ").append(getTypeLiteral(method.getReturnType())).append(", \"")
+                .append(method.getName()).append("\") {\n");
+        indent(source, 4).append("@Override\n");
+        indent(source, 4).append("public Object provide(final Object target, final java.lang.reflect.Member member) {\n");
+        indent(source, 5).append("try {\n");
+        indent(source, 6).append("return ").append(variable).append('.').append(method.getName()).append('(');
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int index = 0; index < parameterTypes.length; index++) {
+            final Class<?> parameterType = parameterTypes[index];
+            validateVisibility(parameterType, method);
+            if (index > 0) {
+                source.append(", ");
+            }
+            source.append('(').append(getCastTypeName(parameterType)).append(") argument(")
+                    .append(getTypeLiteral(parameterType)).append(", target)");
+        }
+        source.append(");\n");
+        indent(source, 5).append("} catch (final RuntimeException exception) {\n");
+        indent(source, 6).append("throw exception;\n");
+        indent(source, 5).append("} catch (final Exception exception) {\n");
+        indent(source, 6).append("throw new RuntimeException(\"Unable to invoke method: '").append(method.getName())
+                .append("' of component: \" + ").append(variable).append(", exception);\n");
+        indent(source, 5).append("}\n");
+        indent(source, 4).append("}\n");
+        indent(source, 3).append('}');
+    }
+
+    private void appendInjectFields(final StringBuilder source, final List<ComponentPlan> components,
+            final Map<String, String> members) {
+        indent(source, 1).append("@Override\n");
+        indent(source, 1).append("protected void injectFields(final Object[] components) throws Exception {\n");
+        for (int index = 0, size = components.size(); index < size; index++) {
+            final ComponentPlan component = components.get(index);
+            if (component.getFields().isEmpty()) {
+                continue;
+            }
+            final String typeName = getTypeName(component.getComponentClass());
+            final String variable = getVariable(index);
+            indent(source, 2).append("final ").append(typeName).append(' ').append(variable).append(" = (")
+                    .append(typeName).append(") components[").append(index).append("];\n");
+            for (final Field field : component.getFields()) {
+                if (isDirectlyAccessible(field)) {
+                    final String access = variable + '.' + field.getName();
+                    indent(source, 2).append("if (").append(access).append(" == null) {\n");
+                    indent(source, 3).append(access).append(" = (").append(getTypeName(field.getType()))
+                            .append(") get(").append(getTypeLiteral(field.getType())).append(", ").append(variable)
+                            .append(", ").append(getMemberConstant(members, field.getName())).append(");\n");
+                    indent(source, 2).append("}\n");
+                } else {
+                    indent(source, 2).append("inject(").append(variable).append(", \"")
+                            .append(field.getDeclaringClass().getName()).append("\", \"").append(field.getName())
+                            .append("\");\n");
+                }
+            }
+        }
+        indent(source, 1).append("}\n");
+    }
+
+    private static StringBuilder indent(final StringBuilder source, final int depth) {
+        for (int index = 0; index < depth; index++) {
+            source.append(INDENT);
+        }
+        return source;
+    }
+
+    private static String getVariable(final int index) {
+        return "component" + index;
+    }
+
+    /** @param type will be referenced in the generated code.
+     * @return true if the type can be referenced by its name in any package. */
+    protected boolean isVisible(final Class<?> type) {
+        if (type.isPrimitive()) {
+            return true;
+        } else if (type.isArray()) {
+            return isVisible(type.getComponentType());
+        } else if (type.isAnonymousClass() || type.isLocalClass()) {
+            return false;
+        }
+        for (Class<?> visibleType = type; visibleType != null; visibleType = visibleType.getEnclosingClass()) {
+            if (!Modifier.isPublic(visibleType.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @param field injectable field.
+     * @return true if the field can be assigned directly in the generated code. */
+    protected boolean isDirectlyAccessible(final Field field) {
+        final int modifiers = field.getModifiers();
+        return Modifier.isPublic(modifiers) && !Modifier.isFinal(modifiers) && isVisible(field.getDeclaringClass())
+                && isVisible(field.getType());
+    }
+
+    private void validateComponentClass(final Class<?> componentClass) {
+        if (!isVisible(componentClass) || componentClass.isMemberClass()
+                && !Modifier.isStatic(componentClass.getModifiers())) {
+            throw new RuntimeException("Unable to generate wiring code: component class " + componentClass.getName()
+                    + " is not a public top-level or public static nested class.");
+        }
+    }
+
+    private void validateVisibility(final Class<?> parameterType, final Object member) {
+        if (!isVisible(parameterType)) {
+            throw new RuntimeException("Unable to generate wiring code: parameter type " + parameterType.getName()
+                    + " of " + member + " is not public.");
+        }
+    }
+
+    private static String getTypeName(final Class<?> type) {
+        return type.getCanonicalName();
+    }
+
+    /** @param type type of a value returned by a method.
+     * @return name of the type that the value can be cast to. Primitives are replaced with their wrappers. */
+    private static String getCastTypeName(final Class<?> type) {
+        if (!type.isPrimitive()) {
+            return getTypeName(type);
+        } else if (type == int.class) {
+            return Integer.class.getName();
+        } else if (type == char.class) {
+            return Character.class.getName();
+        }
+        final String name = type.getName();
+        return "java.lang." + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private String getTypeLiteral(final Class<?> type) {
+        if (isVisible(type)) {
+            return getTypeName(type) + ".class";
+        }
+        return "type(\"" + type.getName() + "\")";
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.impl.GeneratedWiring;
+import com.github.czyzby.uedi.scanner.impl.FallbackClassScanner;
+import com.github.czyzby.uedi.test.Root;
+import com.github.czyzby.uedi.tools.WiringSourceGenerator;
+
+/** Runs all context tests with components created by code generated with {@link WiringSourceGenerator}.
+ *
+ * @author MJ */
+public class GeneratedWiringContextTest extends ContextTest {
+    private static final String GENERATED_CLASS = "com.github.czyzby.uedi.generated.TestWiring";
+    /** Stores the generated sources and classes. Removed after all tests. */
+    @ClassRule
+    public static final TemporaryFolder TEMPORARY_FOLDER = new TemporaryFolder();
+    private static Class<?> generatedWiringClass;
+
+    @Override
+    protected Context getContext() {
+        return new DefaultContext(new FallbackClassScanner());
+    }
+
+    @Override
+    @Before
+    public void scan() {
+        try {
+            ((DefaultContext) context).load((GeneratedWiring) getGeneratedWiringClass().newInstance());
+        } catch (final Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private static synchronized Class<?> getGeneratedWiringClass() throws Exception {
+        if (generatedWiringClass == null) {
+            final File directory = TEMPORARY_FOLDER.newFolder("wiring");
+            final File source = new WiringSourceGenerator(GENERATED_CLASS)
+                    .write(WiringSourceGenerator.record(new FallbackClassScanner(), Root.class), directory);
+            final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            assertEquals(0, compiler.run(null, null, null, "-nowarn", "-cp", System.getProperty("java.class.path"),
+                    "-d", directory.getPath(), source.getPath()));
+            final ClassLoader classLoader = new URLClassLoader(new URL[] { directory.toURI().toURL() },
+                    GeneratedWiringContextTest.class.getClassLoader());
+            generatedWiringClass = Class.forName(GENERATED_CLASS, true, classLoader);
+        }
+        return generatedWiringClass;
+    }
+
+    @Test
+    public void shouldGenerateDirectConstructorCalls() {
+        final String source = new WiringSourceGenerator(GENERATED_CLASS)
+                .generate(WiringSourceGenerator.record(new FallbackClassScanner(), Root.class));
+        assertTrue(source.contains("package com.github.czyzby.uedi.generated;"));
+        assertTrue(source.contains("new com.github.czyzby.uedi.test.TestSingleton()"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.impl.WiringPlan;
+import com.github.czyzby.uedi.scanner.impl.FallbackClassScanner;
+import com.github.czyzby.uedi.scanner.impl.FixedClassScanner;
+import com.github.czyzby.uedi.test.Root;
+import com.github.czyzby.uedi.test.TestSingleton;
+import com.github.czyzby.uedi.test.inject.Injector;
+import com.github.czyzby.uedi.tools.NativeImageConfigGenerator;
+import com.github.czyzby.uedi.tools.WiringSourceGenerator;
+
+/** Tests {@link NativeImageConfigGenerator}.
+ *
+ * @author MJ */
+public class NativeImageConfigGeneratorTest {
+    private static final String NAME = "com.github.czyzby/uedi-test";
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldRegisterComponentMembers() {
+        final String config = new NativeImageConfigGenerator(NAME).generateReflectionConfig(recordWiringPlan());
+        assertTrue(config.startsWith("[\n") && config.endsWith("\n]\n"));
+        assertTrue(config.contains("\"name\": \"com.github.czyzby.uedi.test.TestSingleton\""));
+        assertTrue(config.contains("{ \"name\": \"<init>\", \"parameterTypes\": [] }"));
+        assertTrue(config.contains("{ \"name\": \"getBuilt\", \"parameterTypes\": [] }"));
+        assertTrue(config.contains("{ \"name\": \"square\", \"parameterTypes\": [ \"java.lang.Float\" ] }"));
+        assertTrue(config.contains("{ \"name\": \"injected\", \"allowWrite\": true }"));
+        assertFalse(config.contains("\"transientValue\""));
+    }
+
+    @Test
+    public void shouldIncludeClassListResource() {
+        final String config = new NativeImageConfigGenerator(NAME).generateResourceConfig();
+        assertTrue(config.contains("\"pattern\": \"\\\\QMETA-INF/uedi/com.github.czyzby/uedi-test/classes.list\\\\E\""));
+    }
+
+    @Test
+    public void shouldScanGeneratedClassListWithFixedClassScanner() throws Exception {
+        final File directory = temporaryFolder.newFolder("native");
+        final WiringPlan plan = recordWiringPlan();
+        final NativeImageConfigGenerator generator = new NativeImageConfigGenerator(NAME);
+        final List<File> files = generator.write(plan, directory);
+        assertEquals(3, files.size());
+        for (final File file : files) {
+            assertTrue(file.isFile());
+        }
+        assertTrue(new File(directory, "META-INF/native-image/" + NAME + "/reflect-config.json").isFile());
+
+        final ClassLoader classLoader = new URLClassLoader(new URL[] { directory.toURI().toURL() },
+                getClass().getClassLoader());
+        final FixedClassScanner scanner = new FixedClassScanner();
+        scanner.addClassList(classLoader.getResourceAsStream(generator.getClassListPath()), classLoader);
+        final DefaultContext context = new DefaultContext(scanner);
+        context.scan(Root.class);
+        assertNotNull(context.get(TestSingleton.class));
+        assertNotNull(context.get(Injector.class).injected);
+        assertEquals(plan.getComponents().size(), generator.generateClassList(plan).split("\n").length - 1);
+    }
+
+    private static WiringPlan recordWiringPlan() {
+        return WiringSourceGenerator.record(new FallbackClassScanner(), Root.class);
+    }
+}
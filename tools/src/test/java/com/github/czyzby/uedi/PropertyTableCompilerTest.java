@@ -0,0 +1,160 @@
+package com.github.czyzby.uedi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.github.czyzby.uedi.impl.DefaultContext;
+import com.github.czyzby.uedi.stereotype.Property;
+import com.github.czyzby.uedi.stereotype.impl.CachedProperty;
+import com.github.czyzby.uedi.stereotype.impl.MappedPropertyProvider;
+import com.github.czyzby.uedi.test.inject.TypedProperties;
+import com.github.czyzby.uedi.tools.PropertyTableCompiler;
+
+/** Tests {@link PropertyTableCompiler} and {@link MappedPropertyProvider}.
+ *
+ * @author MJ */
+public class PropertyTableCompilerTest {
+    @Test
+    public void shouldCompilePropertiesIntoTable() throws Exception {
+        final PropertyTableCompiler compiler = new PropertyTableCompiler();
+        assertEquals(3, compiler.add(new StringReader("first=1\nsecond=2\nfirst=replaced\n")));
+        compiler.put("unicode.\u017C\u00F3\u0142\u0107.\uD83D\uDE00", "value \u20AC");
+        compiler.put("empty", "");
+        final MappedPropertyProvider provider = toProvider(compiler, 2);
+
+        assertEquals(4, provider.getStoredValuesAmount());
+        assertEquals("replaced", provider.getValue("first"));
+        assertEquals("2", provider.getValue("second"));
+        assertEquals("", provider.getValue("empty"));
+        assertEquals("value \u20AC", provider.getValue("unicode.\u017C\u00F3\u0142\u0107.\uD83D\uDE00"));
+        assertNull(provider.getValue("unicode.\u017C\u00F3\u0142\u0107"));
+        assertNull(provider.getValue("missing"));
+        assertTrue(provider.hasProperty("second"));
+        assertFalse(provider.hasProperty("sec"));
+    }
+
+    @Test
+    public void shouldStoreManyValues() throws Exception {
+        final PropertyTableCompiler compiler = new PropertyTableCompiler();
+        for (int index = 0; index < 50000; index++) {
+            compiler.put("key." + index, String.valueOf(index));
+        }
+        final MappedPropertyProvider provider = toProvider(compiler, 16);
+        for (int index = 0; index < 50000; index++) {
+            assertEquals(String.valueOf(index), provider.getValue("key." + index));
+        }
+        assertNull(provider.getValue("key.50000"));
+    }
+
+    @Test
+    public void shouldKeepModifiedValuesOnHeap() throws Exception {
+        final PropertyTableCompiler compiler = new PropertyTableCompiler();
+        compiler.put("first", "1");
+        compiler.put("second", "2");
+        compiler.put("third", "3");
+        final MappedPropertyProvider provider = toProvider(compiler, 1);
+        final Property first = provider.getProperty("first");
+        assertSame(first, provider.getProperty("first")); // Cached.
+        first.setValue("modified");
+        provider.getProperty("second");
+        provider.getProperty("third"); // Evicts other properties from the cache.
+        assertSame(first, provider.getProperty("first"));
+        assertEquals("modified", provider.getValue("first"));
+
+        final Property registered = new CachedProperty("second", "registered");
+        provider.addProperty(registered);
+        assertEquals("registered", provider.getValue("second"));
+        provider.removeProperty(registered);
+        assertEquals("2", provider.getValue("second"));
+    }
+
+    @Test
+    public void shouldInjectFromMappedFile() throws Exception {
+        final PropertyTableCompiler compiler = new PropertyTableCompiler();
+        compiler.add(new StringReader("count=42\nratio=0.5\nname=mapped"));
+        final File file = File.createTempFile("uedi", ".table");
+        file.deleteOnExit();
+        compiler.write(file);
+
+        final DefaultContext context = new DefaultContext(null);
+        context.setPropertyProvider(new MappedPropertyProvider(file, new HashMap<String, Property>()));
+        final TypedProperties properties = context.create(TypedProperties.class);
+        assertEquals(42, properties.count);
+        assertEquals(0.5, properties.ratio, 0.0001);
+        assertEquals("mapped", properties.name);
+        assertEquals("mapped", context.getProperty("name"));
+        context.setProperty("name", "modified");
+        context.setProperty("added", "value");
+        assertEquals("modified", context.getProperty("name"));
+        assertEquals("value", context.getProperty("added"));
+    }
+
+    @Test
+    public void shouldQueryTableByPrefix() throws Exception {
+        final PropertyTableCompiler compiler = new PropertyTableCompiler();
+        compiler.put("db.pool.min", "2");
+        compiler.put("db.pool.max", "10");
+        compiler.put("db.url", "jdbc:test");
+        compiler.put("dc", "after");
+        compiler.put("unicode.\u017C\u00F3\u0142\u0107", "1");
+        compiler.put("unicode.\uD83D\uDE00", "2");
+        compiler.put("unicode.\uFF21", "3");
+        final MappedPropertyProvider provider = toProvider(compiler, 4);
+        assertEquals(Arrays.asList("db.pool.max", "db.pool.min"), getKeys(provider, "db.pool."));
+        assertEquals(Arrays.asList("db.pool.max", "db.pool.min", "db.url"), getKeys(provider, "db"));
+        assertEquals(Collections.emptyList(), getKeys(provider, "db.pool.x"));
+        assertEquals(Collections.emptyList(), getKeys(provider, "z"));
+        // Keys are sorted by UTF-16 code units, as Strings:
+        assertEquals(Arrays.asList("unicode.\u017C\u00F3\u0142\u0107", "unicode.\uD83D\uDE00", "unicode.\uFF21"),
+                getKeys(provider, "unicode."));
+        assertEquals(Arrays.asList("unicode.\uD83D\uDE00"), getKeys(provider, "unicode.\uD83D"));
+        assertEquals(7, getKeys(provider, "").size());
+
+        provider.getProperty("db.pool.min").setValue("modified");
+        provider.addProperty(new CachedProperty("db.pool.idle", "1"));
+        provider.addProperty(new CachedProperty("db.pool.max", "registered"));
+        final List<String> values = new ArrayList<String>();
+        for (final Property property : provider.getProperties("db.pool.")) {
+            values.add(property.getKey() + "=" + property.getValue());
+        }
+        Collections.sort(values);
+        assertEquals(Arrays.asList("db.pool.idle=1", "db.pool.max=registered", "db.pool.min=modified"), values);
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectInvalidTable() throws Exception {
+        new MappedPropertyProvider(ByteBuffer.wrap(new byte[32]), new HashMap<String, Property>(), 0);
+    }
+
+    private static List<String> getKeys(final MappedPropertyProvider provider, final String prefix) {
+        final List<String> keys = new ArrayList<String>();
+        for (final Property property : provider.getProperties(prefix)) {
+            keys.add(property.getKey());
+        }
+        return keys;
+    }
+
+    private static MappedPropertyProvider toProvider(final PropertyTableCompiler compiler, final int cacheSize)
+            throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        compiler.write(output);
+        return new MappedPropertyProvider(ByteBuffer.wrap(output.toByteArray()), new HashMap<String, Property>(),
+                cacheSize);
+    }
+}